@@ -19,6 +19,8 @@
 
 package me.taylorkelly.mywarp.bukkit;
 
+import com.google.common.collect.MapMaker;
+
 import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.LocalWorld;
 
@@ -26,13 +28,21 @@ import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Adapts between equivalent local and Bukkit objects.
  */
 public final class BukkitAdapter {
 
-  private final MyWarpPlugin plugin;
+  /**
+   * The canonical LocalWorld of each World's unique ID. Values are weakly referenced, so a LocalWorld is dropped once
+   * nothing else references it.
+   */
+  private final ConcurrentMap<UUID, LocalWorld> worlds = new MapMaker().weakValues().makeMap();
 
+  private final MyWarpPlugin plugin;
 
   /**
    * Creates an instance.
@@ -61,13 +71,23 @@ public final class BukkitAdapter {
   }
 
   /**
-   * Adapts between a World and a LocalWorld.
+   * Adapts between a World and a LocalWorld. As long as the returned LocalWorld is referenced, all calls with the same
+   * World return the very same instance.
    *
    * @param world the World
    * @return the LocalWorld representing the given World
    */
   public LocalWorld adapt(World world) {
-    return new BukkitWorld(world);
+    UUID uniqueId = world.getUID();
+    LocalWorld localWorld = worlds.get(uniqueId);
+    if (localWorld == null) {
+      LocalWorld created = new BukkitWorld(world, plugin.getChunkPreloader());
+      localWorld = worlds.putIfAbsent(created.getUniqueId(), created);
+      if (localWorld == null) {
+        localWorld = created;
+      }
+    }
+    return localWorld;
   }
 
   /**
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.Executor;
+
+/**
+ * An asynchronous Executor for the Bukkit platform. Given Runnables will be called by a worker thread of the Bukkit
+ * scheduler at the next tick.
+ */
+public class BukkitAsyncExecutor implements Executor {
+
+  private final MyWarpPlugin plugin;
+
+  /**
+   * Creates an instance.
+   *
+   * @param plugin the running plugin instance
+   */
+  public BukkitAsyncExecutor(MyWarpPlugin plugin) {
+    this.plugin = plugin;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Bukkit.getScheduler().runTaskAsynchronously(plugin, command);
+  }
+
+}
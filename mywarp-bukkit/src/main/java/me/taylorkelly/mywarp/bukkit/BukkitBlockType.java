@@ -19,33 +19,125 @@
 
 package me.taylorkelly.mywarp.bukkit;
 
+import me.taylorkelly.mywarp.BlockFlags;
 import me.taylorkelly.mywarp.BlockType;
-import me.taylorkelly.mywarp.util.Vector3;
 
 import org.bukkit.Material;
 
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
- * A reference to a block in Bukkit.
+ * A block in Bukkit, represented by its Material.
+ * <p>As the properties of a Material never change, they are computed once for all Materials. There is a single
+ * instance per Material and the {@link BlockFlags} of each Material are held in a table indexed by the Material's id,
+ * so that blocks can be checked without creating objects.</p>
  */
 public class BukkitBlockType implements BlockType {
 
-  private final BukkitWorld world;
-  private final Vector3 position;
+  private static final Map<Material, BukkitBlockType> TYPES = new EnumMap<Material, BukkitBlockType>(Material.class);
+  private static final int[] FLAGS_BY_ID;
+
+  static {
+    int maxId = 0;
+    for (Material material : Material.values()) {
+      maxId = Math.max(maxId, id(material));
+    }
+    FLAGS_BY_ID = new int[maxId + 1];
+    // unknown ids are handled like air
+    Arrays.fill(FLAGS_BY_ID, computeFlags(Material.AIR));
+    for (Material material : Material.values()) {
+      int flags = computeFlags(material);
+      TYPES.put(material, new BukkitBlockType(flags));
+      FLAGS_BY_ID[id(material)] = flags;
+    }
+  }
+
+  private final int flags;
 
   /**
    * Constructs an instance.
    *
-   * @param world    the world of the block
-   * @param position the position of the block
+   * @param flags the BlockFlags of the block
    */
-  public BukkitBlockType(BukkitWorld world, Vector3 position) {
-    this.world = world;
-    this.position = position;
+  private BukkitBlockType(int flags) {
+    this.flags = flags;
+  }
+
+  /**
+   * Gets the BukkitBlockType of the given Material.
+   *
+   * @param material the Material
+   * @return the BukkitBlockType
+   */
+  public static BukkitBlockType of(Material material) {
+    return TYPES.get(material);
+  }
+
+  /**
+   * Gets the {@link BlockFlags} of the Material with the given id. Unknown ids are handled like air.
+   *
+   * @param typeId the id of the Material
+   * @return the flags
+   */
+  public static int getFlags(int typeId) {
+    return typeId >= 0 && typeId < FLAGS_BY_ID.length ? FLAGS_BY_ID[typeId] : FLAGS_BY_ID[id(Material.AIR)];
   }
 
   @Override
   public boolean isSafeToStandIn() {
-    Material material = getBlockMaterial();
+    return (flags & BlockFlags.SAFE_TO_STAND_IN) != 0;
+  }
+
+  @Override
+  public boolean isSafeToStandOn() {
+    return (flags & BlockFlags.SAFE_TO_STAND_ON) != 0;
+  }
+
+  @Override
+  public boolean isNotFullHeight() {
+    return (flags & BlockFlags.NOT_FULL_HEIGHT) != 0;
+  }
+
+  /**
+   * Computes the {@link BlockFlags} of the given Material.
+   *
+   * @param material the Material
+   * @return the flags
+   */
+  private static int computeFlags(Material material) {
+    int flags = 0;
+    if (isSafeToStandIn(material)) {
+      flags |= BlockFlags.SAFE_TO_STAND_IN;
+    }
+    if (isSafeToStandOn(material)) {
+      flags |= BlockFlags.SAFE_TO_STAND_ON;
+    }
+    if (isNotFullHeight(material)) {
+      flags |= BlockFlags.NOT_FULL_HEIGHT;
+    }
+    return flags;
+  }
+
+  /**
+   * Gets the id of the given Material.
+   *
+   * @param material the Material
+   * @return the id
+   */
+  @SuppressWarnings("deprecation")
+  private static int id(Material material) {
+    return material.getId();
+  }
+
+  /**
+   * Returns whether blocks of the given Material are safe to stand in.
+   *
+   * @param material the Material
+   * @return true if the blocks are safe to stand in
+   */
+  private static boolean isSafeToStandIn(Material material) {
     switch (material) {
       case LAVA:
       case STATIONARY_LAVA:
@@ -58,9 +150,13 @@ public class BukkitBlockType implements BlockType {
     }
   }
 
-  @Override
-  public boolean isSafeToStandOn() {
-    Material material = getBlockMaterial();
+  /**
+   * Returns whether blocks of the given Material are safe to stand on.
+   *
+   * @param material the Material
+   * @return true if the blocks are safe to stand on
+   */
+  private static boolean isSafeToStandOn(Material material) {
     switch (material) {
       case CACTUS:
         return false;
@@ -71,9 +167,13 @@ public class BukkitBlockType implements BlockType {
     }
   }
 
-  @Override
-  public boolean isNotFullHeight() {
-    Material material = getBlockMaterial();
+  /**
+   * Returns whether blocks of the given Material are smaller than a normal block.
+   *
+   * @param material the Material
+   * @return true if the blocks are smaller than a normal block
+   */
+  private static boolean isNotFullHeight(Material material) {
     switch (material) {
       case BED_BLOCK:
       case STEP:
@@ -106,14 +206,4 @@ public class BukkitBlockType implements BlockType {
     }
   }
 
-  /**
-   * Gets the block's Material.
-   *
-   * @return the Material of this block
-   */
-  private Material getBlockMaterial() {
-    return world.getLoadedWorld()
-        .getBlockAt((int) position.getFloorX(), (int) position.getFloorY(), (int) position.getFloorZ()).getType();
-  }
-
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.taylorkelly.mywarp.BlockType;
+import me.taylorkelly.mywarp.BlockVolume;
+import me.taylorkelly.mywarp.util.Vector3;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+
+/**
+ * An immutable volume of blocks captured from {@link ChunkSnapshot}s of a World. Captured chunks cover their full
+ * height, so positions above or below the World are treated as air. Snapshots are held in an array indexed by their
+ * position relative to the first captured chunk, so that reading flags does not create any objects.
+ */
+class BukkitBlockVolume implements BlockVolume {
+
+  private final ChunkSnapshot[] chunks;
+  private final int minChunkX;
+  private final int minChunkZ;
+  private final int chunksX;
+  private final int chunksZ;
+  private final int maxHeight;
+
+  /**
+   * Captures all chunks of the given World that intersect the cube with the given radius around the given position.
+   * Must be called from the server's main thread.
+   *
+   * @param world  the World
+   * @param center the center of the cube
+   * @param radius the radius of the cube
+   */
+  BukkitBlockVolume(World world, Vector3 center, int radius) {
+    checkArgument(radius >= 0, "The radius must not be negative.");
+    this.maxHeight = world.getMaxHeight();
+    this.minChunkX = ((int) center.getFloorX() - radius) >> 4;
+    this.minChunkZ = ((int) center.getFloorZ() - radius) >> 4;
+    this.chunksX = (((int) center.getFloorX() + radius) >> 4) - minChunkX + 1;
+    this.chunksZ = (((int) center.getFloorZ() + radius) >> 4) - minChunkZ + 1;
+    this.chunks = new ChunkSnapshot[chunksX * chunksZ];
+
+    for (int i = 0; i < chunksX; i++) {
+      for (int j = 0; j < chunksZ; j++) {
+        // neither height maps nor biomes are needed to read block types
+        chunks[i * chunksZ + j] = world.getChunkAt(minChunkX + i, minChunkZ + j).getChunkSnapshot(false, false, false);
+      }
+    }
+  }
+
+  @Override
+  public BlockType getBlock(Vector3 position) {
+    int typeId = getTypeId((int) position.getFloorX(), (int) position.getFloorY(), (int) position.getFloorZ());
+    @SuppressWarnings("deprecation") Material material = Material.getMaterial(typeId);
+    return BukkitBlockType.of(material != null ? material : Material.AIR);
+  }
+
+  @Override
+  public int getFlags(int x, int y, int z) {
+    return BukkitBlockType.getFlags(getTypeId(x, y, z));
+  }
+
+  /**
+   * Gets the id of the type of the block at the given coordinates.
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param z the z coordinate
+   * @return the id of the block's Material
+   * @throws IllegalArgumentException if the coordinates are not covered by this volume
+   */
+  @SuppressWarnings("deprecation")
+  private int getTypeId(int x, int y, int z) {
+    int i = (x >> 4) - minChunkX;
+    int j = (z >> 4) - minChunkZ;
+    if (i < 0 || i >= chunksX || j < 0 || j >= chunksZ) {
+      throw new IllegalArgumentException(
+          String.format("The position (%s, %s, %s) is not covered by this volume.", x, y, z));
+    }
+    if (y < 0 || y >= maxHeight) {
+      return 0;
+    }
+    return chunks[i * chunksZ + j].getBlockTypeId(x & 15, y, z & 15);
+  }
+
+}
@@ -27,9 +27,11 @@ import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.LocalWorld;
 
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.Date;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 
@@ -39,16 +41,19 @@ import java.util.concurrent.Executor;
 public class BukkitGame implements Game {
 
   private final BukkitExecutor executor;
+  private final BukkitAsyncExecutor asyncExecutor;
   private final BukkitAdapter adapter;
 
   /**
    * Creates the instance.
    *
-   * @param executor the executor for Bukkit
-   * @param adapter  the adapter for Bukkit
+   * @param executor      the executor for Bukkit
+   * @param asyncExecutor the asynchronous executor for Bukkit
+   * @param adapter       the adapter for Bukkit
    */
-  public BukkitGame(BukkitExecutor executor, BukkitAdapter adapter) {
+  public BukkitGame(BukkitExecutor executor, BukkitAsyncExecutor asyncExecutor, BukkitAdapter adapter) {
     this.executor = executor;
+    this.asyncExecutor = asyncExecutor;
     this.adapter = adapter;
   }
 
@@ -57,6 +62,11 @@ public class BukkitGame implements Game {
     return executor;
   }
 
+  @Override
+  public Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
   @Override
   public Optional<LocalWorld> getWorld(String worldName) {
     World world = Bukkit.getWorld(worldName);
@@ -93,6 +103,18 @@ public class BukkitGame implements Game {
     return Optional.absent();
   }
 
+  @Override
+  public Optional<Date> getLastPlayed(UUID identifier) {
+    OfflinePlayer player = Bukkit.getOfflinePlayer(identifier);
+    if (player.isOnline()) {
+      return Optional.of(new Date());
+    }
+    if (player.hasPlayedBefore()) {
+      return Optional.of(new Date(player.getLastPlayed()));
+    }
+    return Optional.absent();
+  }
+
   @Override
   public ImmutableSet<LocalWorld> getWorlds() {
     ImmutableSet.Builder<LocalWorld> builder = ImmutableSet.builder();
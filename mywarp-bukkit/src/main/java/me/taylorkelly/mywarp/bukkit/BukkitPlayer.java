@@ -189,11 +189,11 @@ public class BukkitPlayer extends AbstractPlayer {
     }
     teleportee.leaveVehicle();
 
-    // load the chunk if needed
-    int blockX = bukkitLoc.getBlockX();
-    int blockZ = bukkitLoc.getBlockZ();
-    if (!bukkitLoc.getWorld().isChunkLoaded(blockX, blockZ)) {
-      bukkitLoc.getWorld().refreshChunk(blockX, blockZ);
+    // load the chunk if needed, usually it has already been preloaded
+    int chunkX = bukkitLoc.getBlockX() >> 4;
+    int chunkZ = bukkitLoc.getBlockZ() >> 4;
+    if (!bukkitLoc.getWorld().isChunkLoaded(chunkX, chunkZ)) {
+      bukkitLoc.getWorld().loadChunk(chunkX, chunkZ);
     }
 
     // play the smoke effect
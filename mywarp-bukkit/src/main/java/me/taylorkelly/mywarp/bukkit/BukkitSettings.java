@@ -121,6 +121,16 @@ public class BukkitSettings implements Settings {
     return config.getBoolean("settings.preloadChunks");
   }
 
+  @Override
+  public boolean isCompactMemory() {
+    return config.getBoolean("settings.compactMemory");
+  }
+
+  @Override
+  public boolean isShardByWorld() {
+    return config.getBoolean("settings.shardByWorld");
+  }
+
   @Override
   public boolean isShowTeleportEffect() {
     return config.getBoolean("settings.showTeleportEffect");
@@ -151,6 +161,26 @@ public class BukkitSettings implements Settings {
     return config.getInt("teleportSafety.searchRadius");
   }
 
+  @Override
+  public boolean isSafetyColumnSearch() {
+    return config.getBoolean("teleportSafety.columnSearch");
+  }
+
+  @Override
+  public boolean isTeleportQueueEnabled() {
+    return config.getBoolean("teleportQueue.enabled");
+  }
+
+  @Override
+  public int getTeleportQueueMaxTeleportsPerTick() {
+    return config.getInt("teleportQueue.maxTeleportsPerTick");
+  }
+
+  @Override
+  public long getTeleportQueueMaxNanosPerTick() {
+    return config.getLong("teleportQueue.maxNanosPerTick");
+  }
+
   @Override
   public boolean isWarpSignsEnabled() {
     return config.getBoolean("warpSigns.enabled");
@@ -297,6 +327,31 @@ public class BukkitSettings implements Settings {
     return config.getBoolean("economy.informAfterTransaction");
   }
 
+  @Override
+  public boolean isPruningEnabled() {
+    return config.getBoolean("pruning.enabled");
+  }
+
+  @Override
+  public Duration getPruningMinimumAge() {
+    return new Duration(config.getLong("pruning.minimumAge"), TimeUnit.DAYS);
+  }
+
+  @Override
+  public double getPruningMaximumVisitsPerDay() {
+    return config.getDouble("pruning.maximumVisitsPerDay");
+  }
+
+  @Override
+  public Duration getPruningCreatorInactivity() {
+    return new Duration(config.getLong("pruning.creatorInactivity"), TimeUnit.DAYS);
+  }
+
+  @Override
+  public boolean isPruningMissingWorld() {
+    return config.getBoolean("pruning.missingWorld");
+  }
+
   /**
    * Gets the default FeeBundle.
    *
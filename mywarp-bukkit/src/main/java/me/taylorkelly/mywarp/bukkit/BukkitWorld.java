@@ -20,6 +20,8 @@
 package me.taylorkelly.mywarp.bukkit;
 
 import me.taylorkelly.mywarp.BlockType;
+import me.taylorkelly.mywarp.BlockVolume;
+import me.taylorkelly.mywarp.ChunkTicket;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.util.NoSuchWorldException;
 import me.taylorkelly.mywarp.util.Vector3;
@@ -35,14 +37,17 @@ import java.util.UUID;
 public class BukkitWorld implements LocalWorld {
 
   private final UUID worldIdentifier;
+  private final ChunkPreloader preloader;
 
   /**
    * Creates an instance that references the given World.
    *
-   * @param world the World.
+   * @param world     the World.
+   * @param preloader the ChunkPreloader that preloads chunks of the World
    */
-  public BukkitWorld(World world) {
+  public BukkitWorld(World world, ChunkPreloader preloader) {
     this.worldIdentifier = world.getUID();
+    this.preloader = preloader;
   }
 
   @Override
@@ -71,7 +76,24 @@ public class BukkitWorld implements LocalWorld {
 
   @Override
   public BlockType getBlock(Vector3 position) {
-    return new BukkitBlockType(this, position);
+    return BukkitBlockType.of(getLoadedWorld()
+        .getBlockAt((int) position.getFloorX(), (int) position.getFloorY(), (int) position.getFloorZ()).getType());
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public int getFlags(int x, int y, int z) {
+    return BukkitBlockType.getFlags(getLoadedWorld().getBlockTypeIdAt(x, y, z));
+  }
+
+  @Override
+  public BlockVolume snapshot(Vector3 center, int radius) {
+    return new BukkitBlockVolume(getLoadedWorld(), center, radius);
+  }
+
+  @Override
+  public ChunkTicket preload(Vector3 center, int radius) {
+    return preloader.preload(getLoadedWorld(), center, radius);
   }
 
   @Override
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import me.taylorkelly.mywarp.bukkit.util.permissions.BundleCache;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listens for events that end or change a player's session and invalidates the values cached for the player in a
+ * {@link BundleCache}.
+ */
+public class BundleCacheListener extends AbstractListener {
+
+  private final BundleCache bundleCache;
+
+  /**
+   * Initializes this listener.
+   *
+   * @param bundleCache the BundleCache to invalidate
+   */
+  public BundleCacheListener(BundleCache bundleCache) {
+    this.bundleCache = bundleCache;
+  }
+
+  /**
+   * Called whenever a player joins the server. Permission plugins attach permissions while a player joins, so values
+   * resolved until then are discarded.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerJoin(PlayerJoinEvent event) {
+    bundleCache.invalidate(event.getPlayer().getUniqueId());
+  }
+
+  /**
+   * Called whenever a player leaves the server.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    bundleCache.invalidate(event.getPlayer().getUniqueId());
+  }
+
+  /**
+   * Called whenever a player changes worlds. Permission plugins may grant different permissions per world.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+    bundleCache.invalidate(event.getPlayer().getUniqueId());
+  }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.taylorkelly.mywarp.ChunkTicket;
+import me.taylorkelly.mywarp.util.Vector3;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * Loads chunks ahead of teleports and keeps them loaded while they are needed.
+ * <p>Bukkit does not offer a way to load chunks outside of the server's main thread. Chunks requested by a
+ * {@link ChunkTicket} are therefore loaded on the main thread, but spread over the following ticks with at most
+ * {@link #LOADS_PER_TICK} chunks per tick, instead of all at once when the teleport happens. As long as a ticket is not
+ * released, unloading its chunks is cancelled.</p>
+ * <p>All methods must be called from the server's main thread.</p>
+ */
+public class ChunkPreloader extends AbstractListener {
+
+  /**
+   * The maximum number of chunks that are loaded within a single tick.
+   */
+  private static final int LOADS_PER_TICK = 2;
+
+  /**
+   * The number of tickets that hold each chunk, by the unique ID of the chunk's world and the chunk's key.
+   */
+  private final Map<UUID, Map<Long, Integer>> holds = new HashMap<UUID, Map<Long, Integer>>();
+  private final Queue<PendingChunk> pending = new ArrayDeque<PendingChunk>();
+  private final Plugin plugin;
+
+  @Nullable
+  private BukkitRunnable loader;
+
+  /**
+   * Creates an instance.
+   *
+   * @param plugin the plugin whose tasks load the chunks
+   */
+  public ChunkPreloader(Plugin plugin) {
+    this.plugin = plugin;
+  }
+
+  /**
+   * Requests the chunks of the given World that intersect the cube with the given radius around the given position to
+   * be loaded and keeps them loaded until the returned ticket is released.
+   *
+   * @param world  the World
+   * @param center the center of the cube
+   * @param radius the radius of the cube
+   * @return the ticket that keeps the chunks loaded
+   */
+  public ChunkTicket preload(World world, Vector3 center, int radius) {
+    checkArgument(radius >= 0, "The radius must not be negative.");
+    int minChunkX = ((int) center.getFloorX() - radius) >> 4;
+    int minChunkZ = ((int) center.getFloorZ() - radius) >> 4;
+    int maxChunkX = ((int) center.getFloorX() + radius) >> 4;
+    int maxChunkZ = ((int) center.getFloorZ() + radius) >> 4;
+
+    Ticket ticket = new Ticket(world.getUID());
+    for (int x = minChunkX; x <= maxChunkX; x++) {
+      for (int z = minChunkZ; z <= maxChunkZ; z++) {
+        hold(ticket.worldId, x, z);
+        ticket.chunks.add(new PendingChunk(ticket.worldId, x, z, !world.isChunkLoaded(x, z)));
+      }
+    }
+    for (PendingChunk chunk : ticket.chunks) {
+      if (chunk.loadedByTicket) {
+        pending.add(chunk);
+      }
+    }
+    if (!pending.isEmpty() && loader == null) {
+      loader = new Loader();
+      loader.runTaskTimer(plugin, 1, 1);
+    }
+    return ticket;
+  }
+
+  /**
+   * Called whenever a chunk is about to be unloaded.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+  public void onChunkUnload(ChunkUnloadEvent event) {
+    Chunk chunk = event.getChunk();
+    if (isHeld(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ())) {
+      event.setCancelled(true);
+    }
+  }
+
+  /**
+   * Called whenever a world is unloaded.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnload(WorldUnloadEvent event) {
+    holds.remove(event.getWorld().getUID());
+  }
+
+  /**
+   * Adds a hold on the chunk at the given coordinates.
+   *
+   * @param worldId the unique ID of the chunk's world
+   * @param x       the chunk's x coordinate
+   * @param z       the chunk's z coordinate
+   */
+  private void hold(UUID worldId, int x, int z) {
+    Map<Long, Integer> worldHolds = holds.get(worldId);
+    if (worldHolds == null) {
+      worldHolds = new HashMap<Long, Integer>();
+      holds.put(worldId, worldHolds);
+    }
+    Long key = key(x, z);
+    Integer count = worldHolds.get(key);
+    worldHolds.put(key, count == null ? 1 : count + 1);
+  }
+
+  /**
+   * Removes a hold from the chunk at the given coordinates.
+   *
+   * @param worldId the unique ID of the chunk's world
+   * @param x       the chunk's x coordinate
+   * @param z       the chunk's z coordinate
+   * @return true if the chunk is no longer held by any ticket
+   */
+  private boolean unhold(UUID worldId, int x, int z) {
+    Map<Long, Integer> worldHolds = holds.get(worldId);
+    if (worldHolds == null) {
+      // the world has been unloaded meanwhile
+      return false;
+    }
+    Long key = key(x, z);
+    Integer count = worldHolds.get(key);
+    if (count == null) {
+      return false;
+    }
+    if (count > 1) {
+      worldHolds.put(key, count - 1);
+      return false;
+    }
+    worldHolds.remove(key);
+    if (worldHolds.isEmpty()) {
+      holds.remove(worldId);
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the chunk at the given coordinates is held by at least one ticket.
+   *
+   * @param worldId the unique ID of the chunk's world
+   * @param x       the chunk's x coordinate
+   * @param z       the chunk's z coordinate
+   * @return true if the chunk is held
+   */
+  private boolean isHeld(UUID worldId, int x, int z) {
+    Map<Long, Integer> worldHolds = holds.get(worldId);
+    return worldHolds != null && worldHolds.containsKey(key(x, z));
+  }
+
+  /**
+   * Gets the key of the chunk at the given coordinates.
+   *
+   * @param x the chunk's x coordinate
+   * @param z the chunk's z coordinate
+   * @return the key
+   */
+  private static long key(int x, int z) {
+    return ((long) x << 32) | (z & 0xFFFFFFFFL);
+  }
+
+  /**
+   * A chunk requested by a ticket.
+   */
+  private static class PendingChunk {
+
+    private final UUID worldId;
+    private final int x;
+    private final int z;
+    private final boolean loadedByTicket;
+
+    /**
+     * Creates an instance.
+     *
+     * @param worldId        the unique ID of the chunk's world
+     * @param x              the chunk's x coordinate
+     * @param z              the chunk's z coordinate
+     * @param loadedByTicket whether the chunk was not loaded when it was requested
+     */
+    PendingChunk(UUID worldId, int x, int z, boolean loadedByTicket) {
+      this.worldId = worldId;
+      this.x = x;
+      this.z = z;
+      this.loadedByTicket = loadedByTicket;
+    }
+  }
+
+  /**
+   * Loads pending chunks, a few per tick, and stops once none are left.
+   */
+  private class Loader extends BukkitRunnable {
+
+    @Override
+    public void run() {
+      int loaded = 0;
+      while (loaded < LOADS_PER_TICK && !pending.isEmpty()) {
+        PendingChunk chunk = pending.poll();
+        if (!isHeld(chunk.worldId, chunk.x, chunk.z)) {
+          // the ticket has been released meanwhile
+          continue;
+        }
+        World world = Bukkit.getWorld(chunk.worldId);
+        if (world == null || world.isChunkLoaded(chunk.x, chunk.z)) {
+          continue;
+        }
+        world.loadChunk(chunk.x, chunk.z);
+        loaded++;
+      }
+      if (pending.isEmpty()) {
+        cancel();
+        loader = null;
+      }
+    }
+  }
+
+  /**
+   * A ticket that holds the chunks it requested.
+   */
+  private class Ticket implements ChunkTicket {
+
+    private final UUID worldId;
+    private final List<PendingChunk> chunks = new ArrayList<PendingChunk>();
+    private boolean released;
+
+    /**
+     * Creates an instance.
+     *
+     * @param worldId the unique ID of the world that contains the requested chunks
+     */
+    Ticket(UUID worldId) {
+      this.worldId = worldId;
+    }
+
+    @Override
+    public void release() {
+      if (released) {
+        return;
+      }
+      released = true;
+      World world = Bukkit.getWorld(worldId);
+      for (PendingChunk chunk : chunks) {
+        // chunks this ticket loaded may be unloaded again, unless a player is nearby
+        if (unhold(worldId, chunk.x, chunk.z) && chunk.loadedByTicket && world != null) {
+          world.unloadChunkRequest(chunk.x, chunk.z, true);
+        }
+      }
+    }
+  }
+
+}
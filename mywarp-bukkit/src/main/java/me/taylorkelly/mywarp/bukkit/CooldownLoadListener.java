@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import me.taylorkelly.mywarp.timer.PersistentCooldowns;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * Listens for players who join the server and loads their stored cooldowns from {@link PersistentCooldowns}.
+ */
+public class CooldownLoadListener extends AbstractListener {
+
+  private final PersistentCooldowns persistentCooldowns;
+
+  /**
+   * Initializes this listener.
+   *
+   * @param persistentCooldowns the PersistentCooldowns the cooldowns are loaded from
+   */
+  public CooldownLoadListener(PersistentCooldowns persistentCooldowns) {
+    this.persistentCooldowns = persistentCooldowns;
+  }
+
+  /**
+   * Loads the stored cooldowns of all given players.
+   *
+   * @param players the players
+   */
+  public void loadAll(Player... players) {
+    for (Player player : players) {
+      persistentCooldowns.load(player.getUniqueId());
+    }
+  }
+
+  /**
+   * Called whenever a player joins the server.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerJoin(PlayerJoinEvent event) {
+    persistentCooldowns.load(event.getPlayer().getUniqueId());
+  }
+
+}
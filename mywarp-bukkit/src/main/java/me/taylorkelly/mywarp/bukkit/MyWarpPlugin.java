@@ -38,6 +38,7 @@ import me.taylorkelly.mywarp.Game;
 import me.taylorkelly.mywarp.InitializationException;
 import me.taylorkelly.mywarp.MyWarp;
 import me.taylorkelly.mywarp.Platform;
+import me.taylorkelly.mywarp.bukkit.commands.BulkCommands;
 import me.taylorkelly.mywarp.bukkit.commands.ImportCommands;
 import me.taylorkelly.mywarp.bukkit.commands.InformativeCommands;
 import me.taylorkelly.mywarp.bukkit.commands.ManagementCommands;
@@ -59,6 +60,7 @@ import me.taylorkelly.mywarp.bukkit.util.parametric.CommandResourceProvider;
 import me.taylorkelly.mywarp.bukkit.util.parametric.ExceptionConverter;
 import me.taylorkelly.mywarp.bukkit.util.parametric.FallbackDispatcher;
 import me.taylorkelly.mywarp.bukkit.util.parametric.IntakeResourceProvider;
+import me.taylorkelly.mywarp.bukkit.util.parametric.WarpNameCompleter;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.ActorBindung;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.ConnectionConfigurationBinding;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.FileBinding;
@@ -67,6 +69,7 @@ import me.taylorkelly.mywarp.bukkit.util.parametric.binding.ProfileBinding;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.WarpBinding;
 import me.taylorkelly.mywarp.bukkit.util.parametric.economy.EconomyInvokeHandler;
 import me.taylorkelly.mywarp.bukkit.util.permissions.BukkitPermissionsRegistration;
+import me.taylorkelly.mywarp.bukkit.util.permissions.BundleCache;
 import me.taylorkelly.mywarp.bukkit.util.permissions.group.GroupResolver;
 import me.taylorkelly.mywarp.bukkit.util.permissions.group.GroupResolverManager;
 import me.taylorkelly.mywarp.bukkit.util.profile.SquirrelIdProfileService;
@@ -77,6 +80,8 @@ import me.taylorkelly.mywarp.util.MyWarpLogger;
 import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
 import me.taylorkelly.mywarp.util.i18n.FolderSourcedControl;
 import me.taylorkelly.mywarp.util.i18n.LocaleManager;
+import me.taylorkelly.mywarp.warp.ShardedWarpManager;
+import me.taylorkelly.mywarp.warp.event.DispatchMode;
 
 import net.milkbowl.vault.economy.Economy;
 
@@ -97,6 +102,7 @@ import org.slf4j.Logger;
 
 import java.io.File;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.ResourceBundle;
 import java.util.concurrent.Executors;
 
@@ -112,17 +118,20 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
 
   private final File bundleFolder = new File(getDataFolder(), "lang");
   private final ResourceBundle.Control control = new FolderSourcedControl(bundleFolder);
+  private final BundleCache bundleCache = new BundleCache();
 
   private SingleConnectionDataService dataService;
   private GroupResolverManager groupResolverManager;
   private SquirrelIdProfileService profileService;
   private BukkitSettings settings;
   private BukkitAdapter adapter;
+  private ChunkPreloader chunkPreloader;
   private BukkitGame game;
 
   private MyWarp myWarp;
 
   private Dispatcher dispatcher;
+  private WarpNameCompleter completer;
 
   @Nullable
   private VaultService economyService;
@@ -145,6 +154,7 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
 
     profileService = new SquirrelIdProfileService(new File(getDataFolder(), "profiles.db"));
     groupResolverManager = new GroupResolverManager();
+    chunkPreloader = new ChunkPreloader(this);
     adapter = new BukkitAdapter(this);
 
     // setup the configurations
@@ -170,7 +180,7 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
     dataService = new SingleConnectionDataService(dataSource, config, executorService);
 
     // setup the Game
-    game = new BukkitGame(new BukkitExecutor(this), adapter);
+    game = new BukkitGame(new BukkitExecutor(this), new BukkitAsyncExecutor(this), adapter);
 
     // try to setup the core
     try {
@@ -202,6 +212,15 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
     builder.addInvokeListener(new EconomyInvokeHandler(myWarp.getEconomyManager()));
 
     UsageCommands usageCommands = new UsageCommands(myWarp);
+    InformativeCommands informativeCommands =
+        new InformativeCommands(myWarp.getLimitManager(), settings, myWarp.getWarpManager(),
+                                myWarp.getWarpLeaderboard());
+    ManagementCommands managementCommands =
+        new ManagementCommands(myWarp, this, new WelcomeEditorFactory(this, adapter));
+    SocialCommands socialCommands =
+        new SocialCommands(game, myWarp.getLimitManager(), profileService,
+                           new WarpAcceptancePromptFactory(this, adapter));
+    UtilityCommands utilityCommands = new UtilityCommands(myWarp, this);
 
     //XXX this should be covered by unit tests
     CommandCallable fallback = Iterables.getOnlyElement(builder.build(usageCommands).values());
@@ -212,11 +231,14 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
               .registerMethods(usageCommands)
               .group(new FallbackDispatcher(resourceProvider, fallback), "warp", "myWarp", "mw")
                 .describeAs("warp-to.description")
-                .registerMethods(new InformativeCommands(myWarp.getLimitManager(), settings, myWarp.getWarpManager()))
-                .registerMethods(new ManagementCommands(myWarp, this, new WelcomeEditorFactory(this, adapter)))
-                .registerMethods(new SocialCommands(game, myWarp.getLimitManager(), profileService,
-                                                    new WarpAcceptancePromptFactory(this, adapter)))
-                .registerMethods(new UtilityCommands(myWarp, this))
+                .registerMethods(informativeCommands)
+                .registerMethods(managementCommands)
+                .registerMethods(socialCommands)
+                .registerMethods(utilityCommands)
+                .group("bulk")
+                  .describeAs("bulk.description")
+                  .registerMethods(new BulkCommands(myWarp))
+                .parent()
                 .group("import", "migrate")
                   .describeAs("import.description")
                   .registerMethods(new ImportCommands(myWarp))
@@ -224,6 +246,15 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
             .getDispatcher();
     // @formatter:on
 
+    // tab completion, registered under the names of the Bukkit commands
+    completer = new WarpNameCompleter(myWarp.getWarpManager());
+    completer.registerMethods(usageCommands);
+    completer.registerFallback(usageCommands, "warp");
+    completer.registerMethods(informativeCommands, "warp");
+    completer.registerMethods(managementCommands, "warp");
+    completer.registerMethods(socialCommands, "warp");
+    completer.registerMethods(utilityCommands, "warp");
+
     setupPlugin();
   }
 
@@ -233,15 +264,40 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
    */
   private void setupPlugin() {
     profileService.registerEvents(this);
+    chunkPreloader.registerEvents(this);
+    new BundleCacheListener(bundleCache).registerEvents(this);
 
     if (settings.isWarpSignsEnabled()) {
       new WarpSignListener(adapter, myWarp.getWarpSignManager()).registerEvents(this);
     }
 
+    if (settings.isSafetyEnabled()) {
+      new SafePositionCacheListener(myWarp.getSafePositionCache()).registerEvents(this);
+    }
+
+    if (settings.isTimersEnabled()) {
+      CooldownLoadListener cooldownLoadListener = new CooldownLoadListener(myWarp.getPersistentCooldowns());
+      cooldownLoadListener.registerEvents(this);
+      // players who are already online (e.g. after a reload) did not trigger a join event
+      cooldownLoadListener.loadAll(getServer().getOnlinePlayers());
+    }
+
+    if (settings.isTimersEnabled() && (settings.isTimersWarmupAbortOnMove() || settings
+        .isTimersWarmupAbortOnDamage())) {
+      new WarmupAbortListener(myWarp.getWarmupTracker(), settings.isTimersWarmupAbortOnMove(),
+                              settings.isTimersWarmupAbortOnDamage()).registerEvents(this);
+    }
+
+    if (myWarp.getWarpManager() instanceof ShardedWarpManager) {
+      new WorldShardListener((ShardedWarpManager) myWarp.getWarpManager(), myWarp.getWarpLeaderboard())
+          .registerEvents(this);
+    }
+
     if (settings.isDynmapEnabled()) {
       Plugin dynmap = getServer().getPluginManager().getPlugin("dynmap");
       if (dynmap != null && dynmap.isEnabled()) {
-        new DynmapMarkers(this, (DynmapCommonAPI) dynmap, myWarp.getWarpManager(), myWarp.getEventBus());
+        new DynmapMarkers(this, (DynmapCommonAPI) dynmap, myWarp.getWarpManager(),
+                           myWarp.getEventBus(DispatchMode.COALESCED));
       } else {
         log.error("Failed to hook into Dynmap. Disabling Dynmap support.");
       }
@@ -319,6 +375,14 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
     return true;
   }
 
+  @Override
+  public List<String> onTabComplete(CommandSender sender, Command cmd, String alias, String[] args) {
+    if (completer == null) {
+      return null;
+    }
+    return completer.complete(wrap(sender), cmd.getName(), args);
+  }
+
   // -- custom methods
 
   /**
@@ -343,6 +407,15 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
     return adapter;
   }
 
+  /**
+   * Gets the ChunkPreloader.
+   *
+   * @return the ChunkPreloader
+   */
+  public ChunkPreloader getChunkPreloader() {
+    return chunkPreloader;
+  }
+
   /**
    * Gets the GroupResolver.
    *
@@ -352,6 +425,16 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
     return groupResolverManager;
   }
 
+  /**
+   * Gets the BundleCache that caches the fee, duration and limit bundles resolved for players. Plugins that change
+   * permissions at runtime can invalidate it to have the bundles re-evaluated.
+   *
+   * @return the BundleCache
+   */
+  public BundleCache getBundleCache() {
+    return bundleCache;
+  }
+
   /**
    * gets the Dispatcher.
    *
@@ -370,6 +453,7 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
 
     // load new stuff
     settings.reload();
+    bundleCache.invalidateAll();
     setupPlugin();
   }
 
@@ -431,7 +515,8 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
   public BukkitFeeProvider getFeeProvider() {
     if (feeProvider == null) {
       feeProvider =
-          new BukkitFeeProvider(settings.getEconomyConfiguredFeeBundles(), settings.getEconomyDefaultFeeBundle());
+          new BukkitFeeProvider(settings.getEconomyConfiguredFeeBundles(), settings.getEconomyDefaultFeeBundle(),
+                                bundleCache);
     }
     return feeProvider;
   }
@@ -440,7 +525,8 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
   public BukkitLimitProvider getLimitProvider() {
     if (limitProvider == null) {
       limitProvider =
-          new BukkitLimitProvider(settings.getLimitsConfiguredLimitBundles(), settings.getLimitsDefaultLimitBundle());
+          new BukkitLimitProvider(settings.getLimitsConfiguredLimitBundles(), settings.getLimitsDefaultLimitBundle(),
+                                  bundleCache);
     }
     return limitProvider;
   }
@@ -450,7 +536,7 @@ public class MyWarpPlugin extends JavaPlugin implements Platform {
     if (durationProvider == null) {
       durationProvider =
           new BukkitDurationProvider(settings.getTimersConfiguredDurationBundles(),
-                                     settings.getTimersDefaultDurationBundle());
+                                     settings.getTimersDefaultDurationBundle(), bundleCache);
     }
     return durationProvider;
   }
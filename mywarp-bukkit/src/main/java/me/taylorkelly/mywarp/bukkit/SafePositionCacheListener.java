@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import me.taylorkelly.mywarp.teleport.SafePositionCache;
+
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Listens for changed blocks and invalidates the cached safe positions whose search volume contains them.
+ */
+public class SafePositionCacheListener extends AbstractListener {
+
+  private final SafePositionCache cache;
+
+  /**
+   * Initializes this listener.
+   *
+   * @param cache the SafePositionCache to invalidate
+   */
+  public SafePositionCacheListener(SafePositionCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Called whenever a block is placed.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  /**
+   * Called whenever a block is broken.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  /**
+   * Called whenever a block is updated by physics, e.g. falling sand or a neighbour change.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPhysics(BlockPhysicsEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  /**
+   * Called whenever a liquid flows into a block.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFromTo(BlockFromToEvent event) {
+    invalidate(event.getToBlock());
+  }
+
+  /**
+   * Called whenever an entity explodes.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event) {
+    for (Block block : event.blockList()) {
+      invalidate(block);
+    }
+  }
+
+  /**
+   * Called whenever a world is unloaded.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnload(WorldUnloadEvent event) {
+    cache.invalidate(event.getWorld().getUID());
+  }
+
+  /**
+   * Invalidates the cached safe positions whose search volume contains the given block.
+   *
+   * @param block the block
+   */
+  private void invalidate(Block block) {
+    cache.invalidate(block.getWorld().getUID(), block.getX(), block.getY(), block.getZ());
+  }
+
+}
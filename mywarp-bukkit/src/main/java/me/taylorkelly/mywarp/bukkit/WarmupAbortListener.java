@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import me.taylorkelly.mywarp.timer.WarmupTracker;
+import me.taylorkelly.mywarp.util.Vector3;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Listens for players who move or take damage and reports them to the {@link WarmupTracker}, so their warmups can be
+ * aborted.
+ */
+public class WarmupAbortListener extends AbstractListener {
+
+  private final WarmupTracker tracker;
+  private final boolean abortOnMove;
+  private final boolean abortOnDamage;
+
+  /**
+   * Initializes this listener.
+   *
+   * @param tracker       the WarmupTracker to report to
+   * @param abortOnMove   whether moves should be reported
+   * @param abortOnDamage whether damage should be reported
+   */
+  public WarmupAbortListener(WarmupTracker tracker, boolean abortOnMove, boolean abortOnDamage) {
+    this.tracker = tracker;
+    this.abortOnMove = abortOnMove;
+    this.abortOnDamage = abortOnDamage;
+  }
+
+  /**
+   * Called whenever a player moves.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPlayerMove(PlayerMoveEvent event) {
+    move(event.getPlayer(), event.getTo());
+  }
+
+  /**
+   * Called whenever a player is teleported.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPlayerTeleport(PlayerTeleportEvent event) {
+    move(event.getPlayer(), event.getTo());
+  }
+
+  /**
+   * Called whenever an entity takes damage.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityDamage(EntityDamageEvent event) {
+    if (!abortOnDamage || !(event.getEntity() instanceof Player)) {
+      return;
+    }
+    Player player = (Player) event.getEntity();
+    if (tracker.isTracked(player.getUniqueId())) {
+      tracker.onDamage(player.getUniqueId());
+    }
+  }
+
+  /**
+   * Reports that the given player moved to the given location, if a warmup is tracked for the player.
+   *
+   * @param player the player
+   * @param to     the location the player moved to
+   */
+  private void move(Player player, Location to) {
+    if (!abortOnMove || to == null || !tracker.isTracked(player.getUniqueId())) {
+      return;
+    }
+    tracker.onMove(player.getUniqueId(), to.getWorld().getUID(), new Vector3(to.getX(), to.getY(), to.getZ()));
+  }
+
+}
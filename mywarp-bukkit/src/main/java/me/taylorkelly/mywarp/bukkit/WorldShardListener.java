@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+
+import me.taylorkelly.mywarp.util.MyWarpLogger;
+import me.taylorkelly.mywarp.warp.ShardedWarpManager;
+import me.taylorkelly.mywarp.warp.WarpLeaderboard;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.slf4j.Logger;
+
+/**
+ * Listens for worlds that are loaded or unloaded and loads or unloads the warps located in them from a {@link
+ * ShardedWarpManager}.
+ */
+public class WorldShardListener extends AbstractListener {
+
+  private static final Logger log = MyWarpLogger.getLogger(WorldShardListener.class);
+
+  private final ShardedWarpManager warpManager;
+  private final WarpLeaderboard warpLeaderboard;
+
+  /**
+   * Initializes this listener.
+   *
+   * @param warpManager     the ShardedWarpManager that holds the warps
+   * @param warpLeaderboard the WarpLeaderboard that is rebuild whenever warps are loaded or unloaded
+   */
+  public WorldShardListener(ShardedWarpManager warpManager, WarpLeaderboard warpLeaderboard) {
+    this.warpManager = warpManager;
+    this.warpLeaderboard = warpLeaderboard;
+  }
+
+  /**
+   * Called whenever a world is loaded.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onWorldLoad(final WorldLoadEvent event) {
+    // the callback runs on the server's thread, as the manager completes loading there
+    Futures.addCallback(warpManager.loadWorld(event.getWorld().getUID()), new FutureCallback<Integer>() {
+
+      @Override
+      public void onSuccess(Integer result) {
+        if (result > 0) {
+          warpLeaderboard.rebuild();
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable throwable) {
+        log.error(String.format("Failed to load the warps of the world '%1$s'.", event.getWorld().getName()),
+                  throwable);
+      }
+    });
+  }
+
+  /**
+   * Called whenever a world is unloaded.
+   *
+   * @param event the event
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnload(WorldUnloadEvent event) {
+    warpManager.unloadWorld(event.getWorld().getUID());
+    warpLeaderboard.rebuild();
+  }
+
+}
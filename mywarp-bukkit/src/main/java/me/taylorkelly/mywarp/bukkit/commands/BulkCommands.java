@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit.commands;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.Require;
+import com.sk89q.intake.parametric.annotation.Switch;
+
+import me.taylorkelly.mywarp.Actor;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.MyWarp;
+import me.taylorkelly.mywarp.util.CommandUtils;
+import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpManager;
+import me.taylorkelly.mywarp.warp.WarpQuery;
+import me.taylorkelly.mywarp.warp.pruning.PruningPolicy;
+import me.taylorkelly.mywarp.warp.pruning.PruningReason;
+import me.taylorkelly.mywarp.warp.pruning.PruningReport;
+
+import org.bukkit.ChatColor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bundles commands that modify many Warps at once. Each command is persisted in a single transaction and reported as a
+ * single event.
+ */
+public class BulkCommands {
+
+  private static final String BULK_PERMISSION = "mywarp.cmd.bulk";
+  private static final DynamicMessages MESSAGES = new DynamicMessages(CommandUtils.RESOURCE_BUNDLE_NAME);
+  private static final int LISTED_STALE_WARPS = 15;
+
+  private final MyWarp myWarp;
+  private final WarpManager warpManager;
+
+  /**
+   * Creates an instance.
+   *
+   * @param myWarp the MyWarp instance
+   */
+  public BulkCommands(MyWarp myWarp) {
+    this.myWarp = myWarp;
+    this.warpManager = myWarp.getWarpManager();
+  }
+
+  /**
+   * Deletes all Warps created by a player.
+   *
+   * @param actor   the Actor
+   * @param creator the Profile of the creator
+   */
+  @Command(aliases = {"delete-creator", "remove-creator"}, desc = "bulk.delete-creator.description",
+           help = "bulk.delete-creator.help")
+  @Require(BULK_PERMISSION)
+  public void deleteCreator(Actor actor, Profile creator) {
+    int count = warpManager.removeAll(createdBy(creator));
+    actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.deleted", count));
+  }
+
+  /**
+   * Deletes all Warps located on a world.
+   *
+   * @param actor the Actor
+   * @param world the name or the unique identifier of the world
+   * @throws CommandException if no world is identified by the given value
+   */
+  @Command(aliases = {"delete-world", "remove-world"}, desc = "bulk.delete-world.description",
+           help = "bulk.delete-world.help")
+  @Require(BULK_PERMISSION)
+  public void deleteWorld(Actor actor, String world) throws CommandException {
+    List<Warp> warps = warpManager.query(WarpQuery.builder().withWorld(worldIdentifier(world)).build()).getWarps();
+    int count = warpManager.removeAll(warps);
+    actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.deleted", count));
+  }
+
+  /**
+   * Transfers all Warps created by a player to another player.
+   *
+   * @param actor    the Actor
+   * @param creator  the Profile of the current creator
+   * @param receiver the Profile of the new creator
+   */
+  @Command(aliases = {"transfer"}, desc = "bulk.transfer.description", help = "bulk.transfer.help")
+  @Require(BULK_PERMISSION)
+  public void transfer(Actor actor, Profile creator, Profile receiver) {
+    int count = warpManager.setCreator(createdBy(creator), receiver);
+    actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.transferred", count,
+                                                          receiver.getName().or(receiver.getUniqueId().toString())));
+  }
+
+  /**
+   * Makes all Warps created by a player private.
+   *
+   * @param actor   the Actor
+   * @param creator the Profile of the creator
+   */
+  @Command(aliases = {"private"}, desc = "bulk.private.description", help = "bulk.private.help")
+  @Require(BULK_PERMISSION)
+  public void privatize(Actor actor, Profile creator) {
+    int count = warpManager.setType(createdBy(creator), Warp.Type.PRIVATE);
+    actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.privatized", count));
+  }
+
+  /**
+   * Makes all Warps created by a player public.
+   *
+   * @param actor   the Actor
+   * @param creator the Profile of the creator
+   */
+  @Command(aliases = {"public"}, desc = "bulk.public.description", help = "bulk.public.help")
+  @Require(BULK_PERMISSION)
+  public void publicize(Actor actor, Profile creator) {
+    int count = warpManager.setType(createdBy(creator), Warp.Type.PUBLIC);
+    actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.publicized", count));
+  }
+
+  /**
+   * Prunes all Warps that are stale under the configured policy. Warps are evaluated in the background, the result is
+   * reported once the evaluation has finished.
+   *
+   * @param actor  the Actor
+   * @param dryRun whether stale Warps should only be reported
+   * @throws CommandException if the configured policy has no rules
+   */
+  @Command(aliases = {"prune"}, desc = "bulk.prune.description", help = "bulk.prune.help")
+  @Require(BULK_PERMISSION)
+  public void prune(final Actor actor, @Switch('d') final boolean dryRun) throws CommandException {
+    PruningPolicy policy = PruningPolicy.fromSettings(myWarp.getSettings());
+    if (!policy.hasRules()) {
+      throw new CommandException(MESSAGES.getString("bulk.prune.no-rules"));
+    }
+    if (myWarp.getWarpPruner().isRunning()) {
+      throw new CommandException(MESSAGES.getString("bulk.prune.running"));
+    }
+    actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.prune.started"));
+
+    Futures.addCallback(myWarp.getWarpPruner().prune(policy, dryRun), new FutureCallback<PruningReport>() {
+
+      @Override
+      public void onSuccess(PruningReport result) {
+        ImmutableListMultimap<PruningReason, String> stale = result.getStale();
+        if (result.isDryRun()) {
+          actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.prune.stale", stale.size(), result.getScanned()));
+          for (PruningReason reason : stale.keySet()) {
+            List<String> names = stale.get(reason);
+            actor.sendMessage(
+                MESSAGES.getString("bulk.prune.reason." + reason.name().toLowerCase().replace('_', '-'), names.size())
+                + ' ' + ChatColor.GRAY + Joiner.on(", ").join(Iterables.limit(names, LISTED_STALE_WARPS))
+                + (names.size() > LISTED_STALE_WARPS ? ", ..." : ""));
+          }
+        } else {
+          actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("bulk.prune.pruned", result.getRemoved(),
+                                                                result.getScanned()));
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable throwable) {
+        actor.sendError(MESSAGES.getString("bulk.prune.failed"));
+      }
+
+    }, myWarp.getGame().getExecutor());
+  }
+
+  /**
+   * Gets all Warps created by the given Profile.
+   *
+   * @param creator the Profile
+   * @return all Warps created by the Profile
+   */
+  private List<Warp> createdBy(Profile creator) {
+    return warpManager.query(WarpQuery.builder().withCreator(creator.getUniqueId()).build()).getWarps();
+  }
+
+  /**
+   * Gets the unique identifier of the world identified by the given value. The value is either the name of a loaded
+   * world or, as Warps might be located on worlds that no longer exist, a unique identifier.
+   *
+   * @param world the name or the unique identifier of the world
+   * @return the unique identifier of the world
+   * @throws CommandException if no world is identified by the given value
+   */
+  private UUID worldIdentifier(String world) throws CommandException {
+    Optional<LocalWorld> loaded = myWarp.getGame().getWorld(world);
+    if (loaded.isPresent()) {
+      return loaded.get().getUniqueId();
+    }
+    try {
+      return UUID.fromString(world);
+    } catch (IllegalArgumentException e) {
+      throw new CommandException(MESSAGES.getString("bulk.unknown-world", world));
+    }
+  }
+
+}
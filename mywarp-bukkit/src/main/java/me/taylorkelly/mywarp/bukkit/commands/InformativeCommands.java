@@ -20,9 +20,7 @@
 package me.taylorkelly.mywarp.bukkit.commands;
 
 import com.google.common.base.Function;
-import com.google.common.base.Predicate;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Ordering;
+import com.google.common.collect.Collections2;
 import com.sk89q.intake.Command;
 import com.sk89q.intake.Require;
 import com.sk89q.intake.parametric.annotation.Optional;
@@ -45,19 +43,19 @@ import me.taylorkelly.mywarp.bukkit.util.parametric.economy.Billable;
 import me.taylorkelly.mywarp.economy.FeeProvider.FeeType;
 import me.taylorkelly.mywarp.limits.LimitManager;
 import me.taylorkelly.mywarp.util.CommandUtils;
-import me.taylorkelly.mywarp.util.Vector3;
 import me.taylorkelly.mywarp.util.WarpUtils;
 import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
 import me.taylorkelly.mywarp.util.profile.Profile;
 import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpLeaderboard;
 import me.taylorkelly.mywarp.warp.WarpManager;
+import me.taylorkelly.mywarp.warp.WarpQuery;
+import me.taylorkelly.mywarp.warp.WarpQueryResult;
 
-import org.apache.commons.lang.StringUtils;
 import org.bukkit.ChatColor;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Bundles commands that provide information about existing Warps.
@@ -69,18 +67,22 @@ public class InformativeCommands {
   private final LimitManager limitManager;
   private final Settings settings;
   private final WarpManager warpManager;
+  private final WarpLeaderboard warpLeaderboard;
 
   /**
    * Creates an instance.
    *
-   * @param limitManager thr LimitManager the commands should operate on
-   * @param settings     the Settings
-   * @param warpManager  the WarpManager the commands should operate on
+   * @param limitManager    thr LimitManager the commands should operate on
+   * @param settings        the Settings
+   * @param warpManager     the WarpManager the commands should operate on
+   * @param warpLeaderboard the WarpLeaderboard that ranks the Warps of the WarpManager
    */
-  public InformativeCommands(LimitManager limitManager, Settings settings, WarpManager warpManager) {
+  public InformativeCommands(LimitManager limitManager, Settings settings, WarpManager warpManager,
+                             WarpLeaderboard warpLeaderboard) {
     this.limitManager = limitManager;
     this.settings = settings;
     this.warpManager = warpManager;
+    this.warpLeaderboard = warpLeaderboard;
   }
 
   /**
@@ -127,27 +129,15 @@ public class InformativeCommands {
                    @Switch('r') @Range(min = 1, max = Integer.MAX_VALUE) final Integer radius,
                    @Switch('w') final String world) throws IllegalCommandSenderException {
 
-    // build the listing predicate
-    List<Predicate<Warp>> predicates = new ArrayList<Predicate<Warp>>();
-    predicates.add(WarpUtils.isViewable(actor));
+    // build the query
+    WarpQuery.Builder query = WarpQuery.builder().viewableBy(actor);
 
     if (creator != null) {
-      predicates.add(new Predicate<Warp>() {
-        @Override
-        public boolean apply(Warp input) {
-          com.google.common.base.Optional<String> creatorName = input.getCreator().getName();
-          return creatorName.isPresent() && StringUtils.containsIgnoreCase(creatorName.get(), creator);
-        }
-      });
+      query.withCreatorName(creator);
     }
 
     if (name != null) {
-      predicates.add(new Predicate<Warp>() {
-        @Override
-        public boolean apply(Warp input) {
-          return StringUtils.containsIgnoreCase(input.getName(), name);
-        }
-      });
+      query.withName(name);
     }
 
     if (radius != null) {
@@ -156,31 +146,18 @@ public class InformativeCommands {
       }
 
       LocalEntity entity = (LocalEntity) actor;
-
-      final UUID worldId = entity.getWorld().getUniqueId();
-
-      final int squaredRadius = radius * radius;
-      final Vector3 position = entity.getPosition();
-      predicates.add(new Predicate<Warp>() {
-        @Override
-        public boolean apply(Warp input) {
-          return input.getWorldIdentifier().equals(worldId)
-                 && input.getPosition().distanceSquared(position) <= squaredRadius;
-        }
-      });
+      query.withinRadius(entity.getWorld().getUniqueId(), entity.getPosition(), radius);
     }
 
     if (world != null) {
-      predicates.add(new Predicate<Warp>() {
-        @Override
-        public boolean apply(Warp input) {
-          return StringUtils.containsIgnoreCase(input.getWorld().getName(), world);
-        }
-      });
+      query.withWorldName(world);
     }
 
-    //query the warps
-    List<Warp> warps = Ordering.natural().sortedCopy(warpManager.filter(Predicates.<Warp>and(predicates)));
+    // only select the warps that are displayed on the requested page
+    int entriesPerPage = StringPaginator.DEFAULT_ENTRIES_PER_PAGE;
+    int offset = Math.max(0, page - 1) * entriesPerPage;
+    WarpQueryResult result =
+        warpManager.query(query.withOffset(offset).withLimit(entriesPerPage).withoutExactTotal().build());
 
     Function<Warp, String> mapping = new Function<Warp, String>() {
 
@@ -220,7 +197,9 @@ public class InformativeCommands {
     };
 
     // display
-    StringPaginator.of(MESSAGES.getString("list.heading"), warps).withMapping(mapping).paginate().display(actor, page);
+    StringPaginator
+        .ofWindow(MESSAGES.getString("list.heading"), result.getWarps(), offset, result.getTotal(),
+                  result.isTotalExact()).withMapping(mapping).paginate().display(actor, page);
   }
 
   /**
@@ -235,4 +214,54 @@ public class InformativeCommands {
   public void info(Actor actor, @Name(Condition.VIEWABLE) Warp warp) {
     new InfoPrinter(warp).print(actor);
   }
+
+  /**
+   * Lists the most popular Warps.
+   *
+   * @param actor        the Actor
+   * @param page         the page to display
+   * @param visitsPerDay whether Warps should be ranked by their visits per day
+   */
+  @Command(aliases = {"top", "popular"}, desc = "top.description", help = "top.help")
+  @Require("mywarp.cmd.top")
+  public void top(Actor actor, @Optional("1") int page, @Switch('v') final boolean visitsPerDay) {
+    final List<Warp>
+        ranking =
+        visitsPerDay ? warpLeaderboard.getTopByVisitsPerDay() : warpLeaderboard.getTopByPopularity();
+    List<Warp> warps = new ArrayList<Warp>(Collections2.filter(ranking, WarpUtils.isViewable(actor)));
+
+    Function<Warp, String> mapping = new Function<Warp, String>() {
+
+      @Override
+      public String apply(Warp input) {
+        // #rank 'name'
+        StringBuilder first = new StringBuilder();
+        first.append(ChatColor.GRAY);
+        first.append("#");
+        // the rank within the complete ranking, even if some warps are not viewable
+        first.append(ranking.indexOf(input) + 1);
+        first.append(ChatColor.WHITE);
+        first.append(" '");
+        first.append(ChatColor.getByChar(input.getType().getColorCharacter()));
+        first.append(input.getName());
+        first.append(ChatColor.WHITE);
+        first.append("'");
+
+        // x visits (per day)
+        StringBuilder last = new StringBuilder();
+        last.append(ChatColor.RESET);
+        if (visitsPerDay) {
+          last.append(MESSAGES.getString("top.visits-per-day", input.getVisitsPerDay()));
+        } else {
+          last.append(MESSAGES.getString("top.visits", input.getVisits()));
+        }
+        return FormattingUtils.twoColumnAlign(first.toString(), last.toString());
+      }
+
+    };
+
+    // display
+    String heading = MESSAGES.getString(visitsPerDay ? "top.by-visits-per-day" : "top.by-popularity");
+    StringPaginator.of(heading, warps).withMapping(mapping).paginate().display(actor, page);
+  }
 }
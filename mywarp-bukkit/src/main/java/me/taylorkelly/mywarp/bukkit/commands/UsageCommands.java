@@ -98,7 +98,7 @@ public class UsageCommands {
           .getString("warp-to.warmup.started", warp.getName(), duration.get(TimeUnit.SECONDS)));
       return;
     }
-    warp.teleport(player, feeType);
+    warp.teleportAsync(player, feeType);
   }
 
 }
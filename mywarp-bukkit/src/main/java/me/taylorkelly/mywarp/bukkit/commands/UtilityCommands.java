@@ -19,6 +19,9 @@
 
 package me.taylorkelly.mywarp.bukkit.commands;
 
+import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.sk89q.intake.Command;
 import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.CommandMapping;
@@ -32,19 +35,24 @@ import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.MyWarp;
 import me.taylorkelly.mywarp.bukkit.MyWarpPlugin;
 import me.taylorkelly.mywarp.bukkit.util.paginator.StringPaginator;
+import me.taylorkelly.mywarp.bukkit.util.parametric.binding.PlayerBinding.NoSuchPlayerException;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.PlayerBinding.Sender;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.WarpBinding.Name;
 import me.taylorkelly.mywarp.bukkit.util.parametric.binding.WarpBinding.Name.Condition;
 import me.taylorkelly.mywarp.bukkit.util.parametric.economy.Billable;
 import me.taylorkelly.mywarp.economy.FeeProvider.FeeType;
+import me.taylorkelly.mywarp.teleport.TeleportManager.TeleportStatus;
 import me.taylorkelly.mywarp.util.CommandUtils;
 import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
+import me.taylorkelly.mywarp.util.i18n.LocaleManager;
 import me.taylorkelly.mywarp.warp.Warp;
 
 import org.apache.commons.lang.text.StrBuilder;
 import org.bukkit.ChatColor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -174,6 +182,59 @@ public class UtilityCommands {
     }
   }
 
+  /**
+   * Teleports a group of players to a warp. The safety search is done once for the whole group and players are spread
+   * across nearby safe positions. The result is reported once all players have been teleported.
+   *
+   * @param actor       the Actor
+   * @param teleportees the comma separated names of the players to teleport
+   * @param warp        the Warp
+   * @throws NoSuchPlayerException if one of the players is not online
+   */
+  @Command(aliases = {"group"}, desc = "warp-group.description", help = "warp-group.help")
+  @Require("mywarp.cmd.group")
+  @Billable(FeeType.WARP_PLAYER)
+  public void group(final Actor actor, String teleportees, @Name(Condition.VIEWABLE) final Warp warp)
+      throws NoSuchPlayerException {
+    final List<LocalPlayer> players = new ArrayList<LocalPlayer>();
+    for (String name : Splitter.on(',').trimResults().omitEmptyStrings().split(teleportees)) {
+      LocalPlayer player = myWarp.getGame().getPlayer(name).orNull();
+      if (player == null) {
+        throw new NoSuchPlayerException(name);
+      }
+      if (!players.contains(player)) {
+        players.add(player);
+      }
+    }
+
+    Futures.addCallback(warp.teleportGroupAsync(players), new FutureCallback<List<TeleportStatus>>() {
+
+      @Override
+      public void onSuccess(List<TeleportStatus> result) {
+        int teleported = 0;
+        for (TeleportStatus status : result) {
+          if (status.isPositionModified()) {
+            teleported++;
+          }
+        }
+        LocaleManager.setLocale(actor.getLocale());
+        if (teleported > 0) {
+          actor.sendMessage(ChatColor.AQUA + MESSAGES.getString("warp-group.teleport-successful", teleported,
+                                                                result.size(), warp.getName()));
+        } else {
+          actor.sendError(MESSAGES.getString("warp-group.teleport-failed", result.size(), warp.getName()));
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable throwable) {
+        LocaleManager.setLocale(actor.getLocale());
+        actor.sendError(MESSAGES.getString("warp-group.teleport-failed", players.size(), warp.getName()));
+      }
+
+    }, myWarp.getGame().getExecutor());
+  }
+
   /**
    * Reloads MyWarp.
    *
@@ -19,10 +19,12 @@
 
 package me.taylorkelly.mywarp.bukkit.economy;
 
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableSortedSet;
 
 import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.bukkit.util.permissions.BukkitPermissionsRegistration;
+import me.taylorkelly.mywarp.bukkit.util.permissions.BundleCache;
 import me.taylorkelly.mywarp.bukkit.util.permissions.ValueBundle;
 import me.taylorkelly.mywarp.economy.FeeProvider;
 
@@ -36,10 +38,13 @@ import java.util.SortedSet;
 /**
  * Provides fees when running on Bukkit. The actual fees are stored in {@link FeeBundle}s managed by this provider. <p>
  * Players either need to have a specific permission of a certain bundle or they fall under a default bundle. If a
- * player has the permission for more than one bundle, the alphabetically first bundle will be used. </p>
+ * player has the permission for more than one bundle, the alphabetically first bundle will be used. </p> <p>The
+ * bundle resolved for a player is cached in a {@link BundleCache}.</p>
  */
 public class BukkitFeeProvider implements FeeProvider {
 
+  private final BundleCache bundleCache;
+
   private SortedSet<FeeBundle> configuredFees;
   private FeeBundle defaultFees;
 
@@ -49,8 +54,10 @@ public class BukkitFeeProvider implements FeeProvider {
    * @param configuredFees the configured FeeBundles that are assigned to a player via a specific permission
    * @param defaultFees    the default FeeBundle that acts as a fallback if a player has none of the specific
    *                       permissions
+   * @param bundleCache    the BundleCache that caches the FeeBundle resolved for a player
    */
-  public BukkitFeeProvider(Iterable<FeeBundle> configuredFees, FeeBundle defaultFees) {
+  public BukkitFeeProvider(Iterable<FeeBundle> configuredFees, FeeBundle defaultFees, BundleCache bundleCache) {
+    this.bundleCache = bundleCache;
     this.configuredFees = ImmutableSortedSet.copyOf(configuredFees);
     this.defaultFees = defaultFees;
 
@@ -70,7 +77,22 @@ public class BukkitFeeProvider implements FeeProvider {
    * @param player the player
    * @return the appropriate FeeBundle
    */
-  private FeeBundle getFeeBundle(LocalPlayer player) {
+  private FeeBundle getFeeBundle(final LocalPlayer player) {
+    return bundleCache.get(player, FeeBundle.class, new Supplier<FeeBundle>() {
+      @Override
+      public FeeBundle get() {
+        return resolveFeeBundle(player);
+      }
+    });
+  }
+
+  /**
+   * Resolves the appropriate FeeBundle for the given player by checking the permissions of all configured bundles.
+   *
+   * @param player the player
+   * @return the appropriate FeeBundle
+   */
+  private FeeBundle resolveFeeBundle(LocalPlayer player) {
     for (FeeBundle bundle : configuredFees) {
       if (!player.hasPermission(bundle.getPermission())) {
         continue;
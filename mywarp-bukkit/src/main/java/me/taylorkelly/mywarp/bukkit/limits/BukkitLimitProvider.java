@@ -19,6 +19,7 @@
 
 package me.taylorkelly.mywarp.bukkit.limits;
 
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.ImmutableSortedSet;
@@ -26,6 +27,7 @@ import com.google.common.collect.ImmutableSortedSet;
 import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.bukkit.util.permissions.BukkitPermissionsRegistration;
+import me.taylorkelly.mywarp.bukkit.util.permissions.BundleCache;
 import me.taylorkelly.mywarp.bukkit.util.permissions.ValueBundle;
 import me.taylorkelly.mywarp.limits.Limit;
 import me.taylorkelly.mywarp.limits.LimitProvider;
@@ -45,10 +47,13 @@ import java.util.SortedSet;
  * Provides Limits when running on Bukkit. The actual Limits are stored in {@link LimitBundle}s managed by this
  * provider. <p> Players either need to have a specific permission of a certain bundle that covers the world in question
  * or they fall under a global default bundle. If a player has the permission for more than one bundle, the
- * alphabetically first bundle will be used. </p>
+ * alphabetically first bundle will be used. </p> <p>The bundles resolved for a player are cached per world in a
+ * {@link BundleCache}.</p>
  */
 public class BukkitLimitProvider implements LimitProvider {
 
+  private final BundleCache bundleCache;
+
   private SortedSet<LimitBundle> configuredLimits;
   private LimitBundle defaultLimit;
 
@@ -58,8 +63,11 @@ public class BukkitLimitProvider implements LimitProvider {
    * @param configuredLimits the configured FeeBundles that are assigned to a player via a specific permission
    * @param defaultLimit     the default FeeBundle that acts as a fallback if a player has none of the specific
    *                         permissions
+   * @param bundleCache      the BundleCache that caches the LimitBundles resolved for a player
    */
-  public BukkitLimitProvider(Iterable<LimitBundle> configuredLimits, LimitBundle defaultLimit) {
+  public BukkitLimitProvider(Iterable<LimitBundle> configuredLimits, LimitBundle defaultLimit,
+                             BundleCache bundleCache) {
+    this.bundleCache = bundleCache;
     this.configuredLimits = ImmutableSortedSet.copyOf(configuredLimits);
     this.defaultLimit = defaultLimit;
 
@@ -86,7 +94,25 @@ public class BukkitLimitProvider implements LimitProvider {
   }
 
   @Override
-  public Limit getLimit(LocalPlayer player, LocalWorld world) {
+  public Limit getLimit(final LocalPlayer player, final LocalWorld world) {
+    // limits are cached under the world's unique identifier
+    return bundleCache.get(player, world.getUniqueId(), new Supplier<Limit>() {
+      @Override
+      public Limit get() {
+        return resolveLimit(player, world);
+      }
+    });
+  }
+
+  /**
+   * Resolves the Limit that applies to the given player in the given world by checking the permissions of all
+   * configured bundles.
+   *
+   * @param player the player
+   * @param world  the world
+   * @return the applicable Limit
+   */
+  private Limit resolveLimit(LocalPlayer player, LocalWorld world) {
     for (LimitBundle bundle : configuredLimits) {
       if (!player.hasPermission(bundle.getPermission())) {
         continue;
@@ -100,7 +126,23 @@ public class BukkitLimitProvider implements LimitProvider {
   }
 
   @Override
-  public List<Limit> getEffectiveLimits(LocalPlayer player) {
+  public List<Limit> getEffectiveLimits(final LocalPlayer player) {
+    return bundleCache.get(player, LimitBundle.class, new Supplier<List<Limit>>() {
+      @Override
+      public List<Limit> get() {
+        return resolveEffectiveLimits(player);
+      }
+    });
+  }
+
+  /**
+   * Resolves all Limits that are effective for the given player by checking the permissions of all configured
+   * bundles.
+   *
+   * @param player the player
+   * @return the effective Limits
+   */
+  private List<Limit> resolveEffectiveLimits(LocalPlayer player) {
     Builder<Limit> ret = ImmutableList.builder();
     Set<LocalWorld> worlds = new HashSet<LocalWorld>();
     for (LimitBundle bundle : configuredLimits) {
@@ -29,6 +29,8 @@ import me.taylorkelly.mywarp.util.WarpUtils;
 import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
 import me.taylorkelly.mywarp.warp.Warp;
 import me.taylorkelly.mywarp.warp.WarpManager;
+import me.taylorkelly.mywarp.warp.event.BulkWarpRemovalEvent;
+import me.taylorkelly.mywarp.warp.event.BulkWarpUpdateEvent;
 import me.taylorkelly.mywarp.warp.event.WarpAdditionEvent;
 import me.taylorkelly.mywarp.warp.event.WarpRemovalEvent;
 import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent;
@@ -63,7 +65,8 @@ public class DynmapMarkers {
    * @param plugin       the running plugin instance
    * @param dynmapPlugin the running Dynmap instance to use
    * @param manager      the WarpManager whose warps are shown on Dynmap
-   * @param eventBus     the EventBus that fires the events that initiate marker changes
+   * @param eventBus     the EventBus that fires the events that initiate marker changes, ideally one that coalesces
+   *                     updates
    */
   public DynmapMarkers(MyWarpPlugin plugin, DynmapCommonAPI dynmapPlugin, WarpManager manager, EventBus eventBus) {
     this.settings = plugin.getSettings();
@@ -126,16 +129,49 @@ public class DynmapMarkers {
    */
   @Subscribe
   public void onWarpUpdate(WarpUpdateEvent event) {
-    switch (event.getType()) {
+    updateMarker(event.getWarp(), event.getType());
+  }
+
+  /**
+   * Called when multiple Warps are removed at once.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public void onBulkWarpRemoval(BulkWarpRemovalEvent event) {
+    for (Warp warp : event.getWarps()) {
+      removeMarker(warp);
+    }
+  }
+
+  /**
+   * Called when multiple Warps are updated at once.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public void onBulkWarpUpdate(BulkWarpUpdateEvent event) {
+    for (Warp warp : event.getWarps()) {
+      updateMarker(warp, event.getType());
+    }
+  }
+
+  /**
+   * Updates the marker of the given Warp after it was updated in the given way.
+   *
+   * @param warp the Warp
+   * @param type the type of the update
+   */
+  private void updateMarker(Warp warp, WarpUpdateEvent.UpdateType type) {
+    switch (type) {
       case CREATOR:
       case VISITS:
-        updateLabel(event.getWarp());
+        updateLabel(warp);
         break;
       case LOCATION:
-        updateLocation(event.getWarp());
+        updateLocation(warp);
         break;
       case TYPE:
-        Warp warp = event.getWarp();
         switch (warp.getType()) {
           case PRIVATE:
             removeMarker(warp);
@@ -19,11 +19,13 @@
 
 package me.taylorkelly.mywarp.bukkit.timer;
 
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 
 import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.bukkit.util.permissions.BukkitPermissionsRegistration;
+import me.taylorkelly.mywarp.bukkit.util.permissions.BundleCache;
 import me.taylorkelly.mywarp.bukkit.util.permissions.ValueBundle;
 import me.taylorkelly.mywarp.timer.Duration;
 import me.taylorkelly.mywarp.timer.DurationProvider;
@@ -41,9 +43,12 @@ import java.util.SortedSet;
  * Provides Durations when running on Bukkit. The actual Durations are stored in {@link DurationBundle}s managed by this
  * provider. <p> Players either need to have a specific permission of a certain bundle or they fall under a default
  * bundle. If a player has the permission for more than one bundle, the alphabetically first bundle will be used. </p>
+ * <p>The bundle resolved for a player is cached in a {@link BundleCache}.</p>
  */
 public class BukkitDurationProvider implements DurationProvider {
 
+  private final BundleCache bundleCache;
+
   private SortedSet<DurationBundle> configuredDurations;
   private DurationBundle defaultDurations;
 
@@ -53,8 +58,11 @@ public class BukkitDurationProvider implements DurationProvider {
    * @param configuredDurations the configured FeeBundles that are assigned to a player via a specific permission
    * @param defaultDurations    the default FeeBundle that acts as a fallback if a player has none of the specific
    *                            permissions
+   * @param bundleCache         the BundleCache that caches the DurationBundle resolved for a player
    */
-  public BukkitDurationProvider(Iterable<DurationBundle> configuredDurations, DurationBundle defaultDurations) {
+  public BukkitDurationProvider(Iterable<DurationBundle> configuredDurations, DurationBundle defaultDurations,
+                                BundleCache bundleCache) {
+    this.bundleCache = bundleCache;
     this.configuredDurations = ImmutableSortedSet.copyOf(configuredDurations);
     this.defaultDurations = defaultDurations;
 
@@ -74,7 +82,23 @@ public class BukkitDurationProvider implements DurationProvider {
    * @param player the player
    * @return the appropriate DurationBundle
    */
-  private DurationBundle getDurationBundle(LocalPlayer player) {
+  private DurationBundle getDurationBundle(final LocalPlayer player) {
+    return bundleCache.get(player, DurationBundle.class, new Supplier<DurationBundle>() {
+      @Override
+      public DurationBundle get() {
+        return resolveDurationBundle(player);
+      }
+    });
+  }
+
+  /**
+   * Resolves the appropriate DurationBundle for the given player by checking the permissions of all configured
+   * bundles.
+   *
+   * @param player the player
+   * @return the appropriate DurationBundle
+   */
+  private DurationBundle resolveDurationBundle(LocalPlayer player) {
     for (DurationBundle bundle : configuredDurations) {
       if (!player.hasPermission(bundle.getPermission())) {
         continue;
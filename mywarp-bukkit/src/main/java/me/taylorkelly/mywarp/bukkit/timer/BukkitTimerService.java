@@ -19,32 +19,15 @@
 
 package me.taylorkelly.mywarp.bukkit.timer;
 
-import com.google.common.base.Preconditions;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
-
 import me.taylorkelly.mywarp.bukkit.MyWarpPlugin;
-import me.taylorkelly.mywarp.timer.AbortableTimerAction;
-import me.taylorkelly.mywarp.timer.Duration;
-import me.taylorkelly.mywarp.timer.TimerAction;
-import me.taylorkelly.mywarp.timer.TimerService;
+import me.taylorkelly.mywarp.timer.TickingTimerService;
 
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.concurrent.TimeUnit;
-
-import javax.annotation.Nullable;
-
 /**
- * Manages timers when running on Bukkit.
+ * Manages timers when running on Bukkit. All timers share a single task that advances them once per server tick.
  */
-@SuppressWarnings("rawtypes")
-public class BukkitTimerService implements TimerService {
-
-  private final Table<Object, Class<? extends TimerAction>, SelfRunningRunnable>
-      runningTimers =
-      HashBasedTable.create();
-  private final MyWarpPlugin plugin;
+public class BukkitTimerService extends TickingTimerService {
 
   /**
    * Creates an instance.
@@ -52,112 +35,14 @@ public class BukkitTimerService implements TimerService {
    * @param plugin the running plugin instance
    */
   public BukkitTimerService(MyWarpPlugin plugin) {
-    this.plugin = plugin;
-  }
-
-  @Override
-  public <T> void start(T timedSubject, Duration duration, TimerAction<T> action) {
-    Preconditions.checkArgument(!has(timedSubject, action.getClass()).isTimerRunning(),
-                                "A timer of the type %s is already running for %s.", timedSubject, action.getClass());
-
-    runningTimers.put(timedSubject, action.getClass(), new SelfRunningRunnable<T>(action, duration));
-  }
-
-  @Override
-  public EvaluationResult has(Object timedSubject, Class<? extends TimerAction> clazz) {
-    SelfRunningRunnable action = runningTimers.get(timedSubject, clazz);
-    if (action != null) {
-      return new EvaluationResult(true, action.getRemainingTime());
-    }
-    return EvaluationResult.NO_RUNNING_TIMER;
-  }
-
-  @Override
-  public void cancel(Object timedSubject, Class<? extends TimerAction> clazz) {
-    BukkitRunnable runnable = runningTimers.remove(timedSubject, clazz);
-    if (runnable != null) {
-      runnable.cancel();
-    }
-  }
-
-  /**
-   * A BukkitRunnable that starts itself after creation.
-   *
-   * @param <T> the type of the instance the timer runs on
-   */
-  public class SelfRunningRunnable<T> extends BukkitRunnable {
-
-    private final TimerAction<T> runnable;
-    private final long startMillis;
-    private final long durationMillis;
-
-    @Nullable
-    private final BukkitRunnable abortingCheck;
-
-    /**
-     * Creates an instance. The given Runnable will be submitted for execution after the given Duration.
-     *
-     * @param runnable the Runnable
-     * @param duration the Duration
-     */
-    public SelfRunningRunnable(TimerAction<T> runnable, Duration duration) {
-      this.runnable = runnable;
-      this.durationMillis = duration.get(TimeUnit.MILLISECONDS);
-
-      this.startMillis = System.currentTimeMillis();
-      runTaskLater(plugin, duration.getTicks());
-
-      if (runnable instanceof AbortableTimerAction) {
-        abortingCheck = new BukkitRunnable() {
-
-          @Override
-          public void run() {
-            if (((AbortableTimerAction<T>) SelfRunningRunnable.this.runnable).abort()) {
-              SelfRunningRunnable.this.cancel();
-            }
-          }
-
-        };
-        abortingCheck
-            .runTaskTimer(plugin, AbortableTimerAction.CHECK_INTERVAL_TICKS, AbortableTimerAction.CHECK_INTERVAL_TICKS);
-      } else {
-        abortingCheck = null;
-      }
-    }
-
-    /**
-     * Gets the time remaining until this Runnable is executed. <p> The returned Duration might not be entirely exact,
-     * since Minecraft's internal clock may run faster or slower than the real-world time. </p>
-     *
-     * @return the time remaining
-     */
-    public Duration getRemainingTime() {
-      return new Duration(durationMillis - (System.currentTimeMillis() - startMillis), TimeUnit.MILLISECONDS);
-    }
-
-    @Override
-    public void run() {
-      BukkitTimerService.this.cancel(runnable.getTimedSuject(), runnable.getClass());
-      cancelAbortingCheck();
-      runnable.run();
-    }
-
-    @Override
-    public void cancel() {
-      BukkitTimerService.this.cancel(runnable.getTimedSuject(), runnable.getClass());
-      cancelAbortingCheck();
-      super.cancel();
-    }
+    new BukkitRunnable() {
 
-    /**
-     * Cancels the abortion check, if any.
-     */
-    private void cancelAbortingCheck() {
-      if (abortingCheck != null) {
-        abortingCheck.cancel();
+      @Override
+      public void run() {
+        tick();
       }
-    }
 
+    }.runTaskTimer(plugin, 1, 1);
   }
 
 }
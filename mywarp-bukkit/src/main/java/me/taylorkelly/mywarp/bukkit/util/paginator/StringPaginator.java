@@ -40,16 +40,23 @@ import java.util.List;
  */
 public class StringPaginator<E> {
 
-  private static final DynamicMessages MESSAGES = new DynamicMessages("me.taylorkelly.mywarp.lang.StringPaginator");
+  /**
+   * The number of entries displayed on each page, unless configured otherwise.
+   */
+  public static final int DEFAULT_ENTRIES_PER_PAGE = 9;
 
+  private static final DynamicMessages MESSAGES = new DynamicMessages("me.taylorkelly.mywarp.lang.StringPaginator");
 
   private final String header;
   private final List<? extends E> elements;
+  private final int offset;
+  private final int total;
+  private final boolean totalExact;
 
   @SuppressWarnings("unchecked")
   private Function<E, String> mapping = (Function<E, String>) Functions.toStringFunction();
   private List<String> notes = new ArrayList<String>();
-  private int entriesPerPage = 9;
+  private int entriesPerPage = DEFAULT_ENTRIES_PER_PAGE;
 
   /**
    * Creates an instance.
@@ -58,8 +65,24 @@ public class StringPaginator<E> {
    * @param elements the elements to paginate
    */
   private StringPaginator(String header, List<? extends E> elements) {
+    this(header, elements, 0, elements.size(), true);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param header     the header that will be displayed on top with page informations
+   * @param elements   the elements to paginate, starting at {@code offset} in the complete listing
+   * @param offset     the position of the first element within the complete listing
+   * @param total      the number of elements in the complete listing
+   * @param totalExact whether the total is exact or only a lower bound
+   */
+  private StringPaginator(String header, List<? extends E> elements, int offset, int total, boolean totalExact) {
     this.header = header;
     this.elements = elements;
+    this.offset = offset;
+    this.total = total;
+    this.totalExact = totalExact;
   }
 
   /**
@@ -98,6 +121,40 @@ public class StringPaginator<E> {
     return new StringPaginator<E>(header, elements);
   }
 
+  /**
+   * Creates a Paginator of a window of a larger listing while using the given header. The given elements start at the
+   * given offset within the complete listing which contains {@code total} elements. This allows displaying a page of a
+   * listing without having to create the complete listing, as long as the window covers the page that is displayed.
+   *
+   * @param <E>      the type of elements that should be paginated
+   * @param header   the header to display on top
+   * @param elements the elements within the window
+   * @param offset   the position of the first element within the complete listing
+   * @param total    the number of elements in the complete listing
+   * @return a Paginator
+   */
+  public static <E> StringPaginator<E> ofWindow(String header, List<? extends E> elements, int offset, int total) {
+    return ofWindow(header, elements, offset, total, true);
+  }
+
+  /**
+   * Creates a Paginator of a window of a larger listing while using the given header, just like {@link
+   * #ofWindow(String, List, int, int)}. If the total is not exact, it is treated as a lower bound: the last page it
+   * covers is displayed as the highest known page, marked to indicate that more may follow.
+   *
+   * @param <E>        the type of elements that should be paginated
+   * @param header     the header to display on top
+   * @param elements   the elements within the window
+   * @param offset     the position of the first element within the complete listing
+   * @param total      the number of elements in the complete listing, or a lower bound
+   * @param totalExact whether the total is exact
+   * @return a Paginator
+   */
+  public static <E> StringPaginator<E> ofWindow(String header, List<? extends E> elements, int offset, int total,
+                                                boolean totalExact) {
+    return new StringPaginator<E>(header, elements, offset, total, totalExact);
+  }
+
   /**
    * Adds a note-line. Notes will be displayed on each page, directly under the header but before the paginated content.
    * Do not add to many notes or the content itself becomes unreadable!
@@ -148,7 +205,11 @@ public class StringPaginator<E> {
 
     private final String header;
     private final List<String> notes;
-    private final List<List<String>> pages;
+    private final List<String> elements;
+    private final int offset;
+    private final int entriesPerPage;
+    private final int pageCount;
+    private final boolean pageCountExact;
 
     /**
      * Creates an instance.
@@ -158,9 +219,11 @@ public class StringPaginator<E> {
     private PaginatedResults(StringPaginator<E> paginator) {
       this.header = paginator.header;
       this.notes = paginator.notes;
-      this.pages =
-          Lists.partition(Lists.transform(paginator.elements, paginator.mapping),
-                          paginator.entriesPerPage - notes.size());
+      this.elements = Lists.transform(paginator.elements, paginator.mapping);
+      this.offset = paginator.offset;
+      this.entriesPerPage = paginator.entriesPerPage - notes.size();
+      this.pageCount = (paginator.total + entriesPerPage - 1) / entriesPerPage;
+      this.pageCountExact = paginator.totalExact;
     }
 
     /**
@@ -173,19 +236,24 @@ public class StringPaginator<E> {
      *                              exists
      */
     public List<String> getPage(int page) throws NoResultsException, UnknownPageException {
-      if (pages.isEmpty()) {
+      if (pageCount == 0) {
         throw new NoResultsException();
       }
-      if (page < 1 || page > pages.size()) {
-        throw new UnknownPageException(pages.size());
+      if (page < 1 || page > pageCount) {
+        throw new UnknownPageException(pageCount);
       }
 
       List<String> ret = new ArrayList<String>();
-      ret.add(ChatColor.GOLD + toHeader(page, pages.size()));
+      ret.add(ChatColor.GOLD + toHeader(page, pageCount));
       for (String note : notes) {
         ret.add(ChatColor.ITALIC + note);
       }
-      ret.addAll(pages.get(page - 1));
+      // the page's position relative to the available window
+      int from = Math.max(0, (page - 1) * entriesPerPage - offset);
+      int to = Math.min(elements.size(), page * entriesPerPage - offset);
+      if (from < to) {
+        ret.addAll(elements.subList(from, to));
+      }
 
       return ret;
     }
@@ -228,8 +296,10 @@ public class StringPaginator<E> {
      * @return the full header
      */
     private String toHeader(int page, int maxPages) {
-      return FormattingUtils
-          .center(" " + header + " - " + MESSAGES.getString("page") + ' ' + page + '/' + maxPages + ' ', '-');
+      // an inexact page count only guarantees that more pages follow
+      String pages = pageCountExact ? String.valueOf(maxPages) : maxPages + "+";
+      return FormattingUtils.center(" " + header + " - " + MESSAGES.getString("page") + ' ' + page + '/' + pages + ' ',
+          '-');
     }
   }
 
@@ -19,6 +19,7 @@
 
 package me.taylorkelly.mywarp.bukkit.util.parametric;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.sk89q.intake.CommandException;
 import com.sk89q.intake.parametric.handler.ExceptionConverterHelper;
@@ -38,6 +39,8 @@ import org.apache.commons.lang.text.StrBuilder;
 import org.bukkit.ChatColor;
 
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,6 +49,7 @@ import java.util.concurrent.TimeUnit;
 public class ExceptionConverter extends ExceptionConverterHelper {
 
   private static final DynamicMessages MESSAGES = new DynamicMessages(CommandUtils.RESOURCE_BUNDLE_NAME);
+  private static final int MAX_SUGGESTIONS = 3;
 
   /**
    * Converts a {@link NoSuchPlayerException} to a human readable {@link CommandException}.
@@ -86,6 +90,20 @@ public class ExceptionConverter extends ExceptionConverterHelper {
       builder.appendNewLine();
       builder.append(ChatColor.GRAY);
       builder.append(MESSAGES.getString("exception.no-such-warp.suggestion", match.get().getName()));
+    } else if (!ex.getSimilarWarps().isEmpty()) {
+      // no warp contains the query, so it might be misspelled
+      List<Warp> similar = ex.getSimilarWarps();
+      builder.appendNewLine();
+      builder.append(ChatColor.GRAY);
+      if (similar.size() == 1) {
+        builder.append(MESSAGES.getString("exception.no-such-warp.suggestion", similar.get(0).getName()));
+      } else {
+        List<String> names = new ArrayList<String>();
+        for (Warp warp : similar.subList(0, Math.min(similar.size(), MAX_SUGGESTIONS))) {
+          names.add("'" + warp.getName() + "'");
+        }
+        builder.append(MESSAGES.getString("exception.no-such-warp.suggestions", Joiner.on(", ").join(names)));
+      }
     }
 
     throw new CommandException(builder.toString(), ex);
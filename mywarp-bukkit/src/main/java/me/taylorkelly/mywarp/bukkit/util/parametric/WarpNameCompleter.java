@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit.util.parametric;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.Require;
+import com.sk89q.intake.parametric.annotation.Switch;
+
+import me.taylorkelly.mywarp.Actor;
+import me.taylorkelly.mywarp.bukkit.util.parametric.binding.PlayerBinding.Sender;
+import me.taylorkelly.mywarp.bukkit.util.parametric.binding.WarpBinding.Name;
+import me.taylorkelly.mywarp.bukkit.util.parametric.binding.WarpBinding.Name.Condition;
+import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Completes the names of Warps for command parameters annotated with {@link Name}.
+ *
+ * <p>Commands are registered by reflecting the {@link Command} annotated methods of command objects, in the same way
+ * they are registered on the command graph. Candidates are read from {@link WarpManager#getWarpsByPrefix(String)},
+ * the {@link Condition} of the parameter is applied lazily on these candidates and both, the number of checked
+ * candidates and the number of results, are capped so that completing a name never requires a scan over all
+ * Warps.</p>
+ */
+public class WarpNameCompleter {
+
+  /**
+   * The maximal number of candidates that are checked against the Condition of a parameter.
+   */
+  private static final int MAX_CANDIDATES = 500;
+
+  /**
+   * The maximal number of completions that are returned.
+   */
+  private static final int MAX_RESULTS = 20;
+
+  private static final Joiner PATH_JOINER = Joiner.on(' ');
+
+  private final Map<String, Target> targets = new HashMap<String, Target>();
+  private final WarpManager warpManager;
+
+  private int maxPathLength;
+
+  /**
+   * Creates an instance.
+   *
+   * @param warpManager the WarpManager whose Warps are completed
+   */
+  public WarpNameCompleter(WarpManager warpManager) {
+    this.warpManager = warpManager;
+  }
+
+  /**
+   * Registers all {@link Command} annotated methods of the given object under the given path.
+   *
+   * @param commands the object that holds the commands
+   * @param path     the path under which the commands are registered, e.g. the name of a parent command
+   */
+  public void registerMethods(Object commands, String... path) {
+    for (Method method : commands.getClass().getMethods()) {
+      Command command = method.getAnnotation(Command.class);
+      if (command == null) {
+        continue;
+      }
+      Target target = new Target(method);
+      for (String alias : command.aliases()) {
+        String[] aliasPath = Arrays.copyOf(path, path.length + 1);
+        aliasPath[path.length] = alias;
+        register(aliasPath, target);
+      }
+    }
+  }
+
+  /**
+   * Registers the only {@link Command} annotated method of the given object as fallback under the given path. The
+   * fallback handles all input under this path that does not match any sub-command.
+   *
+   * @param commands the object that holds the fallback command
+   * @param path     the path under which the fallback is registered
+   * @throws IllegalArgumentException if the object holds more or less than a single command
+   * @see FallbackDispatcher
+   */
+  public void registerFallback(Object commands, String... path) {
+    Method fallback = null;
+    for (Method method : commands.getClass().getMethods()) {
+      if (method.isAnnotationPresent(Command.class)) {
+        checkArgument(fallback == null, "%s holds more than one command.", commands);
+        fallback = method;
+      }
+    }
+    checkArgument(fallback != null, "%s does not hold a command.", commands);
+    register(path, new Target(fallback));
+  }
+
+  /**
+   * Registers the given Target under the given path.
+   *
+   * @param path   the path
+   * @param target the Target
+   */
+  private void register(String[] path, Target target) {
+    targets.put(toKey(Arrays.asList(path)), target);
+    maxPathLength = Math.max(maxPathLength, path.length);
+  }
+
+  /**
+   * Completes the last of the given arguments of the given command for the given Actor. If the argument is the name
+   * of a Warp, the names of all Warps that start with the argument and meet the parameter's Condition for the Actor
+   * are returned. Otherwise {@code null} is returned.
+   *
+   * @param actor   the Actor who completes the command
+   * @param command the name of the command
+   * @param args    the arguments of the command, the last one is completed
+   * @return the completed names or {@code null} if the completed argument is not a Warp name
+   */
+  @Nullable
+  public List<String> complete(Actor actor, String command, String[] args) {
+    if (args.length == 0) {
+      return null;
+    }
+    List<String> path = new ArrayList<String>();
+    path.add(command);
+    path.addAll(Arrays.asList(args).subList(0, args.length - 1));
+
+    // the longest registered path wins, so sub-commands take precedence over fallbacks
+    for (int length = Math.min(path.size(), maxPathLength); length > 0; length--) {
+      Target target = targets.get(toKey(path.subList(0, length)));
+      if (target != null) {
+        return target.complete(actor, path.subList(length, path.size()), args[args.length - 1]);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the key under which a command with the given path is registered.
+   *
+   * @param path the path
+   * @return the key
+   */
+  private static String toKey(List<String> path) {
+    return PATH_JOINER.join(path).toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Gets the annotation of the given type from the given annotations.
+   *
+   * @param annotations the annotations
+   * @param type        the type
+   * @param <T>         the type of the annotation
+   * @return the annotation or {@code null} if none of the annotations has the given type
+   */
+  @Nullable
+  private static <T extends Annotation> T getAnnotation(Annotation[] annotations, Class<T> type) {
+    for (Annotation annotation : annotations) {
+      if (type.isInstance(annotation)) {
+        return type.cast(annotation);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A command whose Warp name parameter can be completed.
+   */
+  private class Target {
+
+    private final Set<Character> valueFlags = new HashSet<Character>();
+    private final List<String> permissions;
+
+    private int namePosition = -1;
+    @Nullable
+    private Condition condition;
+
+    /**
+     * Creates an instance for the given command method.
+     *
+     * @param method the method
+     */
+    Target(Method method) {
+      Require require = method.getAnnotation(Require.class);
+      permissions = require != null ? Arrays.asList(require.value()) : Collections.<String>emptyList();
+
+      Class<?>[] types = method.getParameterTypes();
+      Annotation[][] annotations = method.getParameterAnnotations();
+      int position = 0;
+      for (int i = 0; i < types.length; i++) {
+        Switch flag = getAnnotation(annotations[i], Switch.class);
+        if (flag != null) {
+          if (types[i] != boolean.class && types[i] != Boolean.class) {
+            valueFlags.add(flag.value());
+          }
+          continue;
+        }
+        // these parameters are provided by bindings and do not consume arguments
+        if (types[i] == Actor.class || getAnnotation(annotations[i], Sender.class) != null) {
+          continue;
+        }
+        Name name = getAnnotation(annotations[i], Name.class);
+        if (name != null) {
+          namePosition = position;
+          condition = name.value();
+        }
+        position++;
+      }
+    }
+
+    /**
+     * Completes the given argument.
+     *
+     * @param actor     the Actor who completes the command
+     * @param preceding the arguments that precede the completed one
+     * @param argument  the completed argument
+     * @return the completed names or {@code null} if the completed argument is not a Warp name
+     */
+    @Nullable
+    List<String> complete(Actor actor, List<String> preceding, String argument) {
+      if (condition == null || argument.startsWith("-") || !condition.isApplicable(actor) || !isPermitted(actor)) {
+        return null;
+      }
+      if (getPosition(preceding) != namePosition) {
+        return null;
+      }
+      Iterable<Warp> candidates = Iterables.limit(warpManager.getWarpsByPrefix(argument), MAX_CANDIDATES);
+
+      ImmutableList.Builder<String> builder = ImmutableList.builder();
+      for (Warp warp : Iterables.limit(Iterables.filter(candidates, condition.asPredicate(actor)), MAX_RESULTS)) {
+        builder.add(warp.getName());
+      }
+      return builder.build();
+    }
+
+    /**
+     * Gets the position of the positional argument that follows the given arguments.
+     *
+     * @param preceding the arguments
+     * @return the position
+     */
+    private int getPosition(List<String> preceding) {
+      int position = 0;
+      for (int i = 0; i < preceding.size(); i++) {
+        String argument = preceding.get(i);
+        if (argument.length() > 1 && argument.charAt(0) == '-') {
+          // the value of a value flag is not positional
+          if (argument.length() == 2 && valueFlags.contains(argument.charAt(1))) {
+            i++;
+          }
+          continue;
+        }
+        position++;
+      }
+      return position;
+    }
+
+    /**
+     * Returns whether the given Actor has any of the permissions required to use this command.
+     *
+     * @param actor the Actor
+     * @return true if the Actor may use the command
+     */
+    private boolean isPermitted(Actor actor) {
+      if (permissions.isEmpty()) {
+        return true;
+      }
+      for (String permission : permissions) {
+        if (actor.hasPermission(permission)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+  }
+
+}
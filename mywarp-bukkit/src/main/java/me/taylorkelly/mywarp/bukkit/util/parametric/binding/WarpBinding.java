@@ -19,6 +19,8 @@
 
 package me.taylorkelly.mywarp.bukkit.util.parametric.binding;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.sk89q.intake.context.CommandLocals;
@@ -39,12 +41,19 @@ import me.taylorkelly.mywarp.warp.WarpManager;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 
 /**
  * A binding for {@link Warp}s.
  */
 public class WarpBinding extends BindingHelper {
 
+  /**
+   * The maximum Damerau-Levenshtein distance of suggested Warps. A single edit covers most typos, including swapped
+   * characters, while keeping the lookup fast on large servers.
+   */
+  private static final int MAX_SUGGESTION_DISTANCE = 1;
+
   private final WarpManager warpManager;
 
   /**
@@ -71,24 +80,11 @@ public class WarpBinding extends BindingHelper {
 
     CommandLocals locals = context.getContext().getLocals();
     Actor actor = locals.get(Actor.class);
-    if (actor == null || !(conditionValue.clazz.isAssignableFrom(actor.getClass()))) {
+    if (actor == null || !conditionValue.isApplicable(actor)) {
       throw new IllegalArgumentException("This Binding must be used by " + conditionValue.clazz.getName() + "s.");
     }
 
-    Predicate<Warp> predicate = null;
-    switch (conditionValue) {
-      case MODIFIABLE:
-        predicate = WarpUtils.isModifiable(actor);
-        break;
-      case USABLE:
-        predicate = WarpUtils.isUsable((LocalEntity) actor);
-        break;
-      case VIEWABLE:
-        predicate = WarpUtils.isViewable(actor);
-        break;
-    }
-
-    return getWarp(context.next(), predicate);
+    return getWarp(context.next(), conditionValue.asPredicate(actor));
   }
 
   /**
@@ -104,7 +100,8 @@ public class WarpBinding extends BindingHelper {
     Optional<Warp> exactMatch = matches.getExactMatch();
 
     if (!exactMatch.isPresent()) {
-      throw new NoSuchWarpException(query, matches);
+      throw new NoSuchWarpException(query, matches,
+                                    warpManager.getSimilarWarps(query, MAX_SUGGESTION_DISTANCE, predicate));
     }
     return exactMatch.get();
   }
@@ -154,6 +151,37 @@ public class WarpBinding extends BindingHelper {
       private Condition(Class<?> clazz) {
         this.clazz = clazz;
       }
+
+      /**
+       * Returns whether this Condition can be checked for the given Actor.
+       *
+       * @param actor the Actor
+       * @return true if this Condition can be checked for the Actor
+       */
+      public boolean isApplicable(Actor actor) {
+        return clazz.isInstance(actor);
+      }
+
+      /**
+       * Gets a Predicate that evaluates to true if a Warp meets this Condition for the given Actor.
+       *
+       * @param actor the Actor
+       * @return the Predicate
+       * @throws IllegalArgumentException if this Condition is not applicable for the Actor
+       * @see #isApplicable(Actor)
+       */
+      public Predicate<Warp> asPredicate(Actor actor) {
+        checkArgument(isApplicable(actor), "This Condition must be checked for %ss.", clazz.getName());
+        switch (this) {
+          case USABLE:
+            return WarpUtils.isUsable((LocalEntity) actor);
+          case MODIFIABLE:
+            return WarpUtils.isModifiable(actor);
+          case VIEWABLE:
+          default:
+            return WarpUtils.isViewable(actor);
+        }
+      }
     }
 
   }
@@ -167,16 +195,19 @@ public class WarpBinding extends BindingHelper {
 
     private final String query;
     private final MatchList matches;
+    private final List<Warp> similarWarps;
 
     /**
      * Creates an instance.
      *
-     * @param query   the query
-     * @param matches the possible matches of the query
+     * @param query        the query
+     * @param matches      the possible matches of the query
+     * @param similarWarps the Warps whose names are similar to the query, closest first
      */
-    public NoSuchWarpException(String query, MatchList matches) {
+    public NoSuchWarpException(String query, MatchList matches, List<Warp> similarWarps) {
       this.query = query;
       this.matches = matches;
+      this.similarWarps = similarWarps;
     }
 
     /**
@@ -196,5 +227,14 @@ public class WarpBinding extends BindingHelper {
     public MatchList getMatches() {
       return matches;
     }
+
+    /**
+     * Gets the Warps whose names are similar to the query, closest first.
+     *
+     * @return the similar Warps
+     */
+    public List<Warp> getSimilarWarps() {
+      return similarWarps;
+    }
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.bukkit.util.permissions;
+
+import com.google.common.base.Supplier;
+
+import me.taylorkelly.mywarp.LocalPlayer;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the values that are resolved for a player by checking the permissions of {@link ValueBundle}s.
+ * <p>Resolving a bundle calls {@link LocalPlayer#hasPermission(String)} for every configured bundle, which can be
+ * expensive depending on the permission plugin. The resolved value is therefore kept until the player's session
+ * changes: it is invalidated when the player joins, quits or changes worlds and when MyWarp is reloaded. Plugins that
+ * change permissions at runtime can call {@link #invalidate(UUID)} or {@link #invalidateAll()} to have them
+ * re-evaluated.</p>
+ * <p>All users share a single cache, so each of them needs to use keys that are not used by any other user.</p>
+ * <p>This class is thread-safe. A value that is resolved while the player's entries are invalidated is not cached.
+ * </p>
+ */
+public class BundleCache {
+
+  private final ConcurrentMap<UUID, ConcurrentMap<Object, Object>> resolved =
+      new ConcurrentHashMap<UUID, ConcurrentMap<Object, Object>>();
+
+  /**
+   * Gets the value cached for the given player under the given key. If no value is cached, it is resolved by the
+   * given Supplier and cached.
+   *
+   * @param <V>      the type of the value
+   * @param player   the player
+   * @param key      the key
+   * @param resolver resolves the value if none is cached, must not return {@code null}
+   * @return the value
+   */
+  @SuppressWarnings("unchecked")
+  public <V> V get(LocalPlayer player, Object key, Supplier<V> resolver) {
+    ConcurrentMap<Object, Object> values = resolved.get(player.getUniqueId());
+    if (values == null) {
+      values = new ConcurrentHashMap<Object, Object>();
+      ConcurrentMap<Object, Object> existing = resolved.putIfAbsent(player.getUniqueId(), values);
+      if (existing != null) {
+        values = existing;
+      }
+    }
+
+    Object value = values.get(key);
+    if (value == null) {
+      // if the player is invalidated meanwhile, the value ends up in a detached map and is discarded
+      value = resolver.get();
+      values.put(key, value);
+    }
+    return (V) value;
+  }
+
+  /**
+   * Invalidates all values cached for the player with the given unique identifier.
+   *
+   * @param uniqueId the unique identifier of the player
+   */
+  public void invalidate(UUID uniqueId) {
+    resolved.remove(uniqueId);
+  }
+
+  /**
+   * Invalidates all cached values.
+   */
+  public void invalidateAll() {
+    resolved.clear();
+  }
+
+  /**
+   * Gets the number of players with cached values.
+   *
+   * @return the number of players
+   */
+  public int size() {
+    return resolved.size();
+  }
+
+}
@@ -22,6 +22,7 @@ package me.taylorkelly.mywarp.bukkit.util.profile;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
 import com.sk89q.squirrelid.cache.HashMapCache;
 import com.sk89q.squirrelid.cache.ProfileCache;
 import com.sk89q.squirrelid.cache.SQLiteCache;
@@ -44,14 +45,24 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A ProfileService implementation that uses the SquirrelID library to lookup UUIDs.
+ *
+ * <p>Profiles are interned: as long as a Profile is referenced, all lookups of its unique ID return the very same
+ * instance.</p>
  */
 public class SquirrelIdProfileService extends AbstractListener implements NameProvidingProfileService {
 
   private static final Logger log = MyWarpLogger.getLogger(SquirrelIdProfileService.class);
 
+  /**
+   * The canonical Profile of each unique ID. Values are weakly referenced, so a Profile is dropped once nothing else
+   * references it.
+   */
+  private final ConcurrentMap<UUID, Profile> profiles = new MapMaker().weakValues().makeMap();
+
   private final CacheForwardingService resolver;
   private ProfileCache cache;
 
@@ -74,7 +85,15 @@ public class SquirrelIdProfileService extends AbstractListener implements NamePr
 
   @Override
   public Profile getByUniqueId(UUID uniqueId) {
-    return new LazyProfile(this, uniqueId);
+    Profile profile = profiles.get(uniqueId);
+    if (profile == null) {
+      Profile created = new LazyProfile(this, uniqueId);
+      profile = profiles.putIfAbsent(uniqueId, created);
+      if (profile == null) {
+        profile = created;
+      }
+    }
+    return profile;
   }
 
   @Override
@@ -130,7 +149,7 @@ public class SquirrelIdProfileService extends AbstractListener implements NamePr
    * @return the Profile
    */
   private Profile wrap(com.sk89q.squirrelid.Profile profile) {
-    return new LazyProfile(this, profile.getUniqueId());
+    return getByUniqueId(profile.getUniqueId());
   }
 
   /**
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp;
+
+/**
+ * The properties of a {@link BlockType}, packed into the bits of an {@code int} so that they can be read without
+ * creating objects.
+ *
+ * @see BlockVolume#getFlags(int, int, int)
+ */
+public final class BlockFlags {
+
+  /**
+   * Set if the block is safe to stand in, see {@link BlockType#isSafeToStandIn()}.
+   */
+  public static final int SAFE_TO_STAND_IN = 1;
+
+  /**
+   * Set if the block is safe to stand on, see {@link BlockType#isSafeToStandOn()}.
+   */
+  public static final int SAFE_TO_STAND_ON = 1 << 1;
+
+  /**
+   * Set if the block is smaller than a normal block, see {@link BlockType#isNotFullHeight()}.
+   */
+  public static final int NOT_FULL_HEIGHT = 1 << 2;
+
+  /**
+   * Block initialization of this class.
+   */
+  private BlockFlags() {
+  }
+
+  /**
+   * Gets the flags of the given BlockType.
+   *
+   * @param type the BlockType
+   * @return the flags
+   */
+  @SuppressWarnings("deprecation")
+  public static int of(BlockType type) {
+    int flags = 0;
+    if (type.isSafeToStandIn()) {
+      flags |= SAFE_TO_STAND_IN;
+    }
+    if (type.isSafeToStandOn()) {
+      flags |= SAFE_TO_STAND_ON;
+    }
+    if (type.isNotFullHeight()) {
+      flags |= NOT_FULL_HEIGHT;
+    }
+    return flags;
+  }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp;
+
+import me.taylorkelly.mywarp.util.Vector3;
+
+/**
+ * A volume of blocks that can be read by position. Besides {@link BlockType}s, the {@link BlockFlags} of a block can
+ * be read by its coordinates without creating any objects, which is preferable for code that reads many blocks.
+ */
+public interface BlockVolume {
+
+  /**
+   * Gets the block at the given position.
+   *
+   * @param position the position vector
+   * @return the block
+   * @throws IllegalArgumentException if the position is not covered by this volume
+   */
+  BlockType getBlock(Vector3 position);
+
+  /**
+   * Gets the {@link BlockFlags} of the block at the given coordinates.
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param z the z coordinate
+   * @return the flags
+   * @throws IllegalArgumentException if the coordinates are not covered by this volume
+   */
+  int getFlags(int x, int y, int z);
+
+}
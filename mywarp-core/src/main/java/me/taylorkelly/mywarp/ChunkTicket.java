@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp;
+
+/**
+ * Keeps the chunks of an area in a {@link LocalWorld} loaded until it is released. Chunks that are not yet loaded when
+ * the ticket is created are loaded over the following ticks, so a later teleport into the area does not need to load
+ * them synchronously.
+ */
+public interface ChunkTicket {
+
+  /**
+   * Releases this ticket. Chunks are no longer kept loaded for this ticket and may be unloaded by the game. Calling
+   * this method more than once has no effect.
+   * <p>This method must be called from the Thread that handles the game's logic.</p>
+   */
+  void release();
+
+}
@@ -22,6 +22,7 @@ package me.taylorkelly.mywarp;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Date;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 
@@ -38,6 +39,14 @@ public interface Game {
    */
   Executor getExecutor();
 
+  /**
+   * Gets an Executor that executes submitted tasks outside of the Thread that handles the game's logic. This is
+   * normally called 'asynchronous' execution. Submitted tasks may run in parallel.
+   *
+   * @return the Executor
+   */
+  Executor getAsyncExecutor();
+
   /**
    * Gets an Optional containing the player of the given name, if such a player exists.
    *
@@ -54,6 +63,15 @@ public interface Game {
    */
   Optional<LocalPlayer> getPlayer(UUID identifier);
 
+  /**
+   * Gets an Optional containing the Date the player of the given identifier has last played, if the player has ever
+   * played. Players who are online are considered to be playing right now.
+   *
+   * @param identifier the identifier of the player
+   * @return an Optional containing the Date the player has last played
+   */
+  Optional<Date> getLastPlayed(UUID identifier);
+
   /**
    * Gets an ImmutableSet with all worlds currently loaded on the server.
    *
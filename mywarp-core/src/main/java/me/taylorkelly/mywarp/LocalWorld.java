@@ -24,9 +24,10 @@ import me.taylorkelly.mywarp.util.Vector3;
 import java.util.UUID;
 
 /**
- * Represents a world (dimension).
+ * Represents a world (dimension). Blocks read directly from a world reflect its live state and must only be read from
+ * the Thread that handles the game's logic.
  */
-public interface LocalWorld {
+public interface LocalWorld extends BlockVolume {
 
   /**
    * Gets the name of this world.
@@ -48,6 +49,29 @@ public interface LocalWorld {
    * @param position the position vector
    * @return the block
    */
+  @Override
   BlockType getBlock(Vector3 position);
 
+  /**
+   * Captures the blocks within the given radius around the given position, loading them if necessary. The returned
+   * volume is an immutable snapshot that covers at least the cube with the given radius and may be read from any
+   * Thread, while this method must be called from the Thread that handles the game's logic.
+   *
+   * @param center the center of the captured cube
+   * @param radius the radius of the captured cube
+   * @return the captured blocks
+   */
+  BlockVolume snapshot(Vector3 center, int radius);
+
+  /**
+   * Requests the chunks that contain the cube with the given radius around the given position to be loaded and keeps
+   * them loaded until the returned ticket is released. Chunks are loaded gradually, this method returns immediately and
+   * must be called from the Thread that handles the game's logic.
+   *
+   * @param center the center of the cube
+   * @param radius the radius of the cube
+   * @return the ticket that keeps the chunks loaded
+   */
+  ChunkTicket preload(Vector3 center, int radius);
+
 }
@@ -30,6 +30,8 @@ import me.taylorkelly.mywarp.economy.InformativeEconomyManager;
 import me.taylorkelly.mywarp.limits.DummyLimitManager;
 import me.taylorkelly.mywarp.limits.LimitManager;
 import me.taylorkelly.mywarp.limits.SimpleLimitManager;
+import me.taylorkelly.mywarp.teleport.QueuedTeleportManager;
+import me.taylorkelly.mywarp.teleport.SafePositionCache;
 import me.taylorkelly.mywarp.teleport.SafeTeleportManager;
 import me.taylorkelly.mywarp.teleport.TeleportManager;
 import me.taylorkelly.mywarp.storage.AsyncWritingWarpStorage;
@@ -37,20 +39,34 @@ import me.taylorkelly.mywarp.storage.RelationalDataService;
 import me.taylorkelly.mywarp.storage.StorageInitializationException;
 import me.taylorkelly.mywarp.storage.WarpStorage;
 import me.taylorkelly.mywarp.storage.WarpStorageFactory;
+import me.taylorkelly.mywarp.timer.PersistentCooldowns;
+import me.taylorkelly.mywarp.timer.WarmupTracker;
 import me.taylorkelly.mywarp.util.MyWarpLogger;
 import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
 import me.taylorkelly.mywarp.util.profile.ProfileService;
-import me.taylorkelly.mywarp.warp.EventfulWarpManager;
+import me.taylorkelly.mywarp.warp.CoalescingWarpListener;
+import me.taylorkelly.mywarp.warp.CompactWarpManager;
+import me.taylorkelly.mywarp.warp.EventfulWarpListener;
 import me.taylorkelly.mywarp.warp.MemoryWarpManager;
-import me.taylorkelly.mywarp.warp.StorageWarpManager;
+import me.taylorkelly.mywarp.warp.ShardedWarpManager;
+import me.taylorkelly.mywarp.warp.StorageWarpListener;
 import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpLeaderboard;
+import me.taylorkelly.mywarp.warp.WarpListener;
+import me.taylorkelly.mywarp.warp.WarpListenerChain;
 import me.taylorkelly.mywarp.warp.WarpManager;
 import me.taylorkelly.mywarp.warp.WarpSignManager;
+import me.taylorkelly.mywarp.warp.event.DispatchMode;
+import me.taylorkelly.mywarp.warp.pruning.PruningPolicy;
+import me.taylorkelly.mywarp.warp.pruning.PruningReport;
+import me.taylorkelly.mywarp.warp.pruning.WarpPruner;
 
 import org.slf4j.Logger;
 
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 /**
@@ -61,11 +77,18 @@ import java.util.concurrent.Callable;
 public class MyWarp {
 
   private static final Logger log = MyWarpLogger.getLogger(MyWarp.class);
+  private static final int LEADERBOARD_CAPACITY = 100;
 
   private final Platform platform;
   private final WarpManager warpManager;
+  private final WarpLeaderboard warpLeaderboard;
+  private final WarpPruner warpPruner;
+  private final SafePositionCache safePositionCache = new SafePositionCache();
+  private final WarmupTracker warmupTracker = new WarmupTracker();
   private final WarpStorage warpStorage;
+  private final PersistentCooldowns persistentCooldowns;
   private final EventBus eventBus;
+  private final Map<DispatchMode, EventBus> eventBuses = new EnumMap<DispatchMode, EventBus>(DispatchMode.class);
 
   private EconomyManager economyManager;
   private LimitManager limitManager;
@@ -89,20 +112,54 @@ public class MyWarp {
           new AsyncWritingWarpStorage(
               WarpStorageFactory.createInitialized(this, dataService.getDataSource(), dataService.getConfiguration()),
               dataService.getExecutorService());
+      persistentCooldowns =
+          new PersistentCooldowns(this, WarpStorageFactory.createCooldownStorage(dataService.getDataSource(),
+                                                                                 dataService.getConfiguration()),
+                                  dataService.getExecutorService());
 
     } catch (StorageInitializationException e) {
       throw new InitializationException("Failed to get a connection to the database.", e);
     }
 
+    persistentCooldowns.removeExpired();
+
+    // setup the EventBuses
     eventBus = new EventBus();
+    eventBuses.put(DispatchMode.IMMEDIATE, eventBus);
+    eventBuses.put(DispatchMode.COALESCED, new EventBus());
+    eventBuses.put(DispatchMode.ASYNC, new EventBus());
+
+    // setup the WarpManager, changes are persisted before events are posted
+    WarpListener storageListener = new StorageWarpListener(warpStorage);
+    WarpListener eventfulListener = new WarpListenerChain(new EventfulWarpListener(eventBus),
+        new CoalescingWarpListener(new EventfulWarpListener(getEventBus(DispatchMode.COALESCED)),
+                                   getGame().getExecutor()),
+        // posts the live Warps, subscribers must hop back to the game's executor to read them
+        new CoalescingWarpListener(new EventfulWarpListener(getEventBus(DispatchMode.ASYNC)),
+                                   getGame().getAsyncExecutor()));
+    if (getSettings().isCompactMemory()) {
+      warpManager = new CompactWarpManager(this, storageListener, eventfulListener);
+    } else if (getSettings().isShardByWorld()) {
+      warpManager =
+          new ShardedWarpManager(getGame(), warpStorage, dataService.getExecutorService(), storageListener,
+                                 eventfulListener);
+    } else {
+      warpManager = new MemoryWarpManager(storageListener, eventfulListener);
+    }
+
+    // setup the leaderboard
+    warpLeaderboard = new WarpLeaderboard(warpManager, LEADERBOARD_CAPACITY);
+    eventBus.register(warpLeaderboard);
 
-    // setup the WarpManager
-    warpManager = new EventfulWarpManager(new StorageWarpManager(new MemoryWarpManager(), warpStorage), eventBus);
+    // setup the pruner
+    warpPruner = new WarpPruner(warpManager, getGame());
 
     DynamicMessages.setControl(platform.getResourceBundleControl());
 
     // setup TeleportService
-    teleportManager = new SafeTeleportManager(getSettings());
+    teleportManager =
+        new QueuedTeleportManager(new SafeTeleportManager(getSettings(), getGame(), safePositionCache), getSettings(),
+                                  getGame());
 
     // setup the rest of the plugin
     setupPlugin();
@@ -149,7 +206,12 @@ public class MyWarp {
       @Override
       public void onSuccess(Collection<Warp> result) {
         warpManager.populate(result);
+        warpLeaderboard.rebuild();
         log.info("{} warps loaded.", warpManager.getSize());
+
+        if (getSettings().isPruningEnabled()) {
+          pruneWarps();
+        }
       }
 
       @Override
@@ -161,12 +223,35 @@ public class MyWarp {
 
   }
 
+  /**
+   * Prunes all Warps that are stale under the configured policy and logs the result.
+   */
+  private void pruneWarps() {
+    ListenableFuture<PruningReport> futureReport = warpPruner.prune(PruningPolicy.fromSettings(getSettings()), false);
+
+    Futures.addCallback(futureReport, new FutureCallback<PruningReport>() {
+
+      @Override
+      public void onSuccess(PruningReport result) {
+        log.info("{} of {} warps were stale and have been pruned.", result.getRemoved(), result.getScanned());
+      }
+
+      @Override
+      public void onFailure(Throwable throwable) {
+        log.error("Failed to prune stale warps.", throwable);
+      }
+
+    }, platform.getGame().getExecutor());
+  }
+
   /**
    * Reloads MyWarp.
    */
   public void reload() {
     // cleanup
     warpManager.clear();
+    warpLeaderboard.rebuild();
+    safePositionCache.clear();
     DynamicMessages.clearCache();
 
     // setup new stuff
@@ -183,6 +268,33 @@ public class MyWarp {
     return teleportManager;
   }
 
+  /**
+   * Gets the SafePositionCache that holds the positions teleports resolved to.
+   *
+   * @return the SafePositionCache
+   */
+  public SafePositionCache getSafePositionCache() {
+    return safePositionCache;
+  }
+
+  /**
+   * Gets the WarmupTracker that aborts warmups once their player moves or takes damage.
+   *
+   * @return the WarmupTracker
+   */
+  public WarmupTracker getWarmupTracker() {
+    return warmupTracker;
+  }
+
+  /**
+   * Gets the PersistentCooldowns that store cooldowns across restarts and relogs.
+   *
+   * @return the PersistentCooldowns
+   */
+  public PersistentCooldowns getPersistentCooldowns() {
+    return persistentCooldowns;
+  }
+
   /**
    * Gets the EconomyManager. Calling this method will always return valid EconomyManager implementation, if economy
    * support is disabled on the configuration file, the returned EconomyManager will handle this internally and fail
@@ -231,6 +343,24 @@ public class MyWarp {
     return warpManager;
   }
 
+  /**
+   * Gets the WarpLeaderboard that ranks the public Warps of this MyWarp instance.
+   *
+   * @return the WarpLeaderboard
+   */
+  public WarpLeaderboard getWarpLeaderboard() {
+    return warpLeaderboard;
+  }
+
+  /**
+   * Gets the WarpPruner that removes stale Warps of this MyWarp instance.
+   *
+   * @return the WarpPruner
+   */
+  public WarpPruner getWarpPruner() {
+    return warpPruner;
+  }
+
   /**
    * Gets the WarpSignManager instance of this MyWarp instance.
    *
@@ -268,11 +398,25 @@ public class MyWarp {
   }
 
   /**
-   * Gets the internal EventBus that keeps track of {@link me.taylorkelly.mywarp.warp.event.WarpEvent}s.
+   * Gets the internal EventBus that keeps track of {@link me.taylorkelly.mywarp.warp.event.WarpEvent}s. Events are
+   * dispatched immediately.
    *
    * @return the EventBus
+   * @see #getEventBus(DispatchMode)
    */
   public EventBus getEventBus() {
     return eventBus;
   }
+
+  /**
+   * Gets the internal EventBus that dispatches {@link me.taylorkelly.mywarp.warp.event.WarpEvent}s in the given mode.
+   * Subscribers of {@link DispatchMode#ASYNC} must not read the Warps of the events they receive outside of the Game's
+   * executor.
+   *
+   * @param mode the DispatchMode
+   * @return the EventBus
+   */
+  public EventBus getEventBus(DispatchMode mode) {
+    return eventBuses.get(mode);
+  }
 }
@@ -19,6 +19,8 @@
 
 package me.taylorkelly.mywarp;
 
+import me.taylorkelly.mywarp.timer.Duration;
+
 import java.util.List;
 import java.util.Locale;
 
@@ -41,6 +43,22 @@ public interface Settings {
    */
   boolean isPreloadChunks();
 
+  /**
+   * Returns whether warps should be held in memory in a compact, array-backed layout that uses less memory for very
+   * large numbers of warps.
+   *
+   * @return true if warps should be held in the compact layout
+   */
+  boolean isCompactMemory();
+
+  /**
+   * Returns whether warps should be held in memory in separate shards per world, so that warps located in worlds that
+   * are not loaded are not held in memory.
+   *
+   * @return true if warps should be sharded by world
+   */
+  boolean isShardByWorld();
+
   /**
    * Returns whether horses ridden by the entity who is teleported, should be teleported too.
    *
@@ -83,6 +101,37 @@ public interface Settings {
    */
   int getSafetySearchRadius();
 
+  /**
+   * Returns whether safe locations are searched in order of their distance, returning the nearest safe location, rather
+   * than by walking shells of an expanding cube.
+   *
+   * @return true if the column search should be used
+   */
+  boolean isSafetyColumnSearch();
+
+  /**
+   * Returns whether asynchronous teleports should be queued and spread across ticks once the budget of a tick is
+   * exhausted.
+   *
+   * @return true if teleports should be queued
+   */
+  boolean isTeleportQueueEnabled();
+
+  /**
+   * Gets the maximal number of teleports executed within a single tick. A value of 0 or less disables this limit.
+   *
+   * @return the maximal number of teleports per tick
+   */
+  int getTeleportQueueMaxTeleportsPerTick();
+
+  /**
+   * Gets the maximal time in nanoseconds spent on teleports within a single tick. A value of 0 or less disables this
+   * limit.
+   *
+   * @return the maximal time per tick in nanoseconds
+   */
+  long getTeleportQueueMaxNanosPerTick();
+
   /**
    * Returns whether warp signs are enabled.
    *
@@ -153,4 +202,40 @@ public interface Settings {
    */
   boolean isEconomyInformAfterTransaction();
 
+  /**
+   * Returns whether stale Warps should be pruned automatically once all Warps are loaded.
+   *
+   * @return true if stale Warps should be pruned automatically
+   */
+  boolean isPruningEnabled();
+
+  /**
+   * Gets the minimum age a Warp must have before it can be pruned.
+   *
+   * @return the minimum age
+   */
+  Duration getPruningMinimumAge();
+
+  /**
+   * Gets the number of visits per day a Warp must not exceed to be pruned. A negative value disables this rule.
+   *
+   * @return the maximum number of visits per day
+   */
+  double getPruningMaximumVisitsPerDay();
+
+  /**
+   * Gets the duration the creator of a Warp must not have played for the Warp to be pruned. A duration of zero disables
+   * this rule.
+   *
+   * @return the duration of inactivity
+   */
+  Duration getPruningCreatorInactivity();
+
+  /**
+   * Returns whether Warps located on worlds that are not loaded should be pruned.
+   *
+   * @return true if Warps on missing worlds should be pruned
+   */
+  boolean isPruningMissingWorld();
+
 }
@@ -25,9 +25,9 @@ import me.taylorkelly.mywarp.Game;
 import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.limits.Limit.Type;
-import me.taylorkelly.mywarp.util.WarpUtils;
 import me.taylorkelly.mywarp.warp.Warp;
 import me.taylorkelly.mywarp.warp.WarpManager;
+import me.taylorkelly.mywarp.warp.WarpQuery;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -81,7 +81,8 @@ public class DummyLimitManager implements LimitManager {
     };
 
     Map<Limit, List<Warp>> ret = new HashMap<Limit, List<Warp>>();
-    ret.put(dummyLimit, new ArrayList<Warp>(manager.filter(WarpUtils.isCreator(creator.getProfile()))));
+    ret.put(dummyLimit, new ArrayList<Warp>(
+        manager.query(WarpQuery.builder().withCreator(creator.getProfile().getUniqueId()).build()).getWarps()));
 
     return ret;
   }
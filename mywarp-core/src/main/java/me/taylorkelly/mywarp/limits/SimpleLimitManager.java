@@ -25,9 +25,9 @@ import com.google.common.collect.Lists;
 import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.util.IterableUtils;
-import me.taylorkelly.mywarp.util.WarpUtils;
 import me.taylorkelly.mywarp.warp.Warp;
 import me.taylorkelly.mywarp.warp.WarpManager;
+import me.taylorkelly.mywarp.warp.WarpQuery;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -60,7 +60,7 @@ public class SimpleLimitManager implements LimitManager {
                                                      boolean evaluateParents) {
     if (!type.canDisobey(creator, world)) {
 
-      Iterable<Warp> filteredWarps = manager.filter(WarpUtils.isCreator(creator.getProfile()));
+      Iterable<Warp> filteredWarps = getWarps(creator);
       Limit limit = provider.getLimit(creator, world);
 
       List<Limit.Type> limitsToCheck = Lists.newArrayList(type);
@@ -98,7 +98,7 @@ public class SimpleLimitManager implements LimitManager {
 
   @Override
   public Map<Limit, List<Warp>> getWarpsPerLimit(LocalPlayer creator) {
-    Collection<Warp> warps = manager.filter(WarpUtils.isCreator(creator.getProfile()));
+    Collection<Warp> warps = getWarps(creator);
     Map<Limit, List<Warp>> ret = new HashMap<Limit, List<Warp>>();
 
     for (Limit limit : provider.getEffectiveLimits(creator)) {
@@ -116,4 +116,13 @@ public class SimpleLimitManager implements LimitManager {
     return ret;
   }
 
+  /**
+   * Gets all Warps created by the given player.
+   *
+   * @param creator the player
+   * @return all Warps created by the player
+   */
+  private Collection<Warp> getWarps(LocalPlayer creator) {
+    return manager.query(WarpQuery.builder().withCreator(creator.getProfile().getUniqueId()).build()).getWarps();
+  }
 }
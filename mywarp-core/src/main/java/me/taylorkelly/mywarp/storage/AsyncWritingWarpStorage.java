@@ -22,7 +22,9 @@ package me.taylorkelly.mywarp.storage;
 import me.taylorkelly.mywarp.util.profile.Profile;
 import me.taylorkelly.mywarp.warp.Warp;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.Executor;
 
 /**
@@ -71,11 +73,26 @@ public class AsyncWritingWarpStorage extends ForwardingWarpStorage {
     });
   }
 
+  @Override
+  public void removeWarps(final Collection<Warp> warps) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        delegate().removeWarps(warps);
+      }
+    });
+  }
+
   @Override
   public List<Warp> getWarps() {
     return delegate().getWarps();
   }
 
+  @Override
+  public List<Warp> getWarps(UUID worldIdentifier) {
+    return delegate().getWarps(worldIdentifier);
+  }
+
   @Override
   public void inviteGroup(final Warp warp, final String groupId) {
     executor.execute(new Runnable() {
@@ -126,6 +143,16 @@ public class AsyncWritingWarpStorage extends ForwardingWarpStorage {
     });
   }
 
+  @Override
+  public void updateCreators(final Collection<Warp> warps) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        delegate().updateCreators(warps);
+      }
+    });
+  }
+
   @Override
   public void updateLocation(final Warp warp) {
     executor.execute(new Runnable() {
@@ -146,6 +173,16 @@ public class AsyncWritingWarpStorage extends ForwardingWarpStorage {
     });
   }
 
+  @Override
+  public void updateTypes(final Collection<Warp> warps) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        delegate().updateTypes(warps);
+      }
+    });
+  }
+
   @Override
   public void updateVisits(final Warp warp) {
     executor.execute(new Runnable() {
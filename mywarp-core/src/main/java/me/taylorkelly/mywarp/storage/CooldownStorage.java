@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.storage;
+
+import com.google.common.base.Optional;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores the expiry dates of warp cooldowns so that they survive restarts and relogs.
+ */
+public interface CooldownStorage {
+
+  /**
+   * Gets the date the cooldown of the player with the given unique identifier expires on, if a cooldown is stored
+   * for this player.
+   *
+   * @param uniqueId the unique identifier of the player
+   * @return the expiry date of the stored cooldown
+   */
+  Optional<Date> getCooldownExpiry(UUID uniqueId);
+
+  /**
+   * Stores all given expiry dates at once, replacing any expiry date that is already stored for the same player.
+   *
+   * @param expiries the expiry dates, mapped by the unique identifiers of the players
+   */
+  void storeCooldownExpiries(Map<UUID, Date> expiries);
+
+  /**
+   * Removes all cooldowns that expired before the given date.
+   *
+   * @param date the date
+   */
+  void removeExpiredCooldowns(Date date);
+
+}
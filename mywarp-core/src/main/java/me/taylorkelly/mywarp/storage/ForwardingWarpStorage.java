@@ -24,7 +24,9 @@ import com.google.common.collect.ForwardingObject;
 import me.taylorkelly.mywarp.util.profile.Profile;
 import me.taylorkelly.mywarp.warp.Warp;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * A WarpStorage that forwards all its method calls to another WarpStorage. Subclasses should override one or
@@ -47,11 +49,21 @@ abstract class ForwardingWarpStorage extends ForwardingObject implements WarpSto
     delegate().removeWarp(warp);
   }
 
+  @Override
+  public void removeWarps(Collection<Warp> warps) {
+    delegate().removeWarps(warps);
+  }
+
   @Override
   public List<Warp> getWarps() {
     return delegate().getWarps();
   }
 
+  @Override
+  public List<Warp> getWarps(UUID worldIdentifier) {
+    return delegate().getWarps(worldIdentifier);
+  }
+
   @Override
   public void inviteGroup(Warp warp, String groupId) {
     delegate().inviteGroup(warp, groupId);
@@ -77,6 +89,11 @@ abstract class ForwardingWarpStorage extends ForwardingObject implements WarpSto
     delegate().updateCreator(warp);
   }
 
+  @Override
+  public void updateCreators(Collection<Warp> warps) {
+    delegate().updateCreators(warps);
+  }
+
   @Override
   public void updateLocation(Warp warp) {
     delegate().updateLocation(warp);
@@ -87,6 +104,11 @@ abstract class ForwardingWarpStorage extends ForwardingObject implements WarpSto
     delegate().updateType(warp);
   }
 
+  @Override
+  public void updateTypes(Collection<Warp> warps) {
+    delegate().updateTypes(warps);
+  }
+
   @Override
   public void updateVisits(Warp warp) {
     delegate().updateVisits(warp);
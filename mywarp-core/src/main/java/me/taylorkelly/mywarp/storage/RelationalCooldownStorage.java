@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.storage;
+
+import static me.taylorkelly.mywarp.storage.generated.Tables.COOLDOWN;
+import static me.taylorkelly.mywarp.storage.generated.Tables.PLAYER;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.val;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
+
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.Record1;
+import org.jooq.TransactionalRunnable;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A storage implementation that stores cooldown expiry dates in a relational database.
+ * <p>Expiry dates are written in batches inside a single transaction, so storing tens of thousands of cooldowns
+ * costs a handful of round-trips instead of one per player.</p>
+ */
+class RelationalCooldownStorage implements CooldownStorage {
+
+  /**
+   * The maximum number of cooldowns written in a single batch.
+   */
+  private static final int BATCH_SIZE = 500;
+
+  private final Configuration configuration;
+
+  /**
+   * Creates an instance that uses the given {@code Configuration}.
+   *
+   * @param configuration the Configuration
+   */
+  RelationalCooldownStorage(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Creates a new {@link DSLContext} using the given {@code Configuration}.
+   *
+   * @param configuration the {@code Configuration}
+   * @return a new {@code DSLContext}
+   */
+  private DSLContext create(Configuration configuration) {
+    return DSL.using(configuration);
+  }
+
+  @Override
+  public Optional<Date> getCooldownExpiry(UUID uniqueId) {
+    // @formatter:off
+    Record1<Date> record = create(configuration)
+        .select(COOLDOWN.EXPIRY)
+        .from(COOLDOWN)
+        .join(PLAYER)
+            .on(COOLDOWN.PLAYER_ID.eq(PLAYER.PLAYER_ID))
+        .where(PLAYER.UUID.eq(uniqueId))
+    .fetchOne();
+    // @formatter:on
+
+    if (record == null) {
+      return Optional.absent();
+    }
+    return Optional.of(record.value1());
+  }
+
+  @Override
+  public void storeCooldownExpiries(final Map<UUID, Date> expiries) {
+    create(configuration).transaction(new TransactionalRunnable() {
+      @Override
+      public void run(Configuration configuration) throws Exception {
+        for (List<Map.Entry<UUID, Date>> batch : Iterables.partition(expiries.entrySet(), BATCH_SIZE)) {
+          List<Query> queries = new ArrayList<Query>();
+          for (Map.Entry<UUID, Date> entry : batch) {
+            queries.add(RelationalWarpStorage.insertOrIgnore(configuration, PLAYER, PLAYER.UUID, entry.getKey()));
+          }
+          create(configuration).batch(queries).execute();
+
+          queries.clear();
+          for (Map.Entry<UUID, Date> entry : batch) {
+            // @formatter:off
+            queries.add(create(configuration)
+                .delete(COOLDOWN)
+                .where(COOLDOWN.PLAYER_ID.eq(
+                    select(PLAYER.PLAYER_ID)
+                    .from(PLAYER)
+                    .where(PLAYER.UUID.eq(entry.getKey()))
+                    .limit(1)
+                ))
+            );
+            queries.add(create(configuration)
+                .insertInto(COOLDOWN)
+                .columns(COOLDOWN.PLAYER_ID, COOLDOWN.EXPIRY)
+                .select(
+                    select(PLAYER.PLAYER_ID, val(entry.getValue(), COOLDOWN.EXPIRY))
+                    .from(PLAYER)
+                    .where(PLAYER.UUID.eq(entry.getKey()))
+                    .limit(1)
+                )
+            );
+            // @formatter:on
+          }
+          create(configuration).batch(queries).execute();
+        }
+      }
+    });
+  }
+
+  @Override
+  public void removeExpiredCooldowns(Date date) {
+    // @formatter:off
+    create(configuration)
+        .delete(COOLDOWN)
+        .where(COOLDOWN.EXPIRY.lt(date))
+    .execute();
+    // @formatter:on
+  }
+
+}
@@ -30,7 +30,11 @@ import static org.jooq.impl.DSL.selectOne;
 import static org.jooq.impl.DSL.val;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 
 import me.taylorkelly.mywarp.MyWarp;
 import me.taylorkelly.mywarp.storage.generated.tables.Player;
@@ -41,6 +45,7 @@ import me.taylorkelly.mywarp.warp.Warp;
 import me.taylorkelly.mywarp.warp.Warp.Type;
 import me.taylorkelly.mywarp.warp.WarpBuilder;
 
+import org.jooq.Condition;
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.Insert;
@@ -55,7 +60,9 @@ import org.jooq.impl.DSL;
 import org.jooq.types.UInteger;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -67,6 +74,18 @@ import java.util.UUID;
  */
 class RelationalWarpStorage implements WarpStorage {
 
+  /**
+   * The maximum number of warp names bound to a single query. SQLite does not allow more than 999 parameters.
+   */
+  private static final int BATCH_SIZE = 500;
+
+  private static final Function<Warp, String> TO_NAME = new Function<Warp, String>() {
+    @Override
+    public String apply(Warp input) {
+      return input.getName();
+    }
+  };
+
   private final MyWarp myWarp;
   private final Configuration configuration;
 
@@ -210,8 +229,40 @@ class RelationalWarpStorage implements WarpStorage {
     // @formatter:on
   }
 
+  @Override
+  public void removeWarps(final Collection<Warp> warps) {
+    create(configuration).transaction(new TransactionalRunnable() {
+      @Override
+      public void run(Configuration configuration) throws Exception {
+        for (List<String> names : Iterables.partition(Collections2.transform(warps, TO_NAME), BATCH_SIZE)) {
+          // @formatter:off
+          create(configuration)
+              .delete(WARP)
+              .where(WARP.NAME.in(names))
+          .execute();
+          // @formatter:on
+        }
+      }
+    });
+  }
+
   @Override
   public List<Warp> getWarps() {
+    return getWarps(DSL.trueCondition());
+  }
+
+  @Override
+  public List<Warp> getWarps(UUID worldIdentifier) {
+    return getWarps(WORLD.UUID.eq(worldIdentifier));
+  }
+
+  /**
+   * Gets all Warps matching the given condition.
+   *
+   * @param condition the condition
+   * @return all matching Warps
+   */
+  private List<Warp> getWarps(Condition condition) {
     // Alias for the player-table to represent the warp-creator
     Player creatorTable = PLAYER.as("c");
 
@@ -236,22 +287,32 @@ class RelationalWarpStorage implements WarpStorage {
                         .on(WARP_GROUP_MAP.WARP_ID.eq(WARP.WARP_ID))
                     .leftOuterJoin(GROUP)
                         .on(WARP_GROUP_MAP.GROUP_ID.eq(GROUP.GROUP_ID))
+            .where(condition)
             .fetch().intoGroups(WARP.NAME);
     // @formatter:on
 
     // create warp-instances from the results
     List<Warp> ret = new ArrayList<Warp>(groupedResults.size());
+    // every row holds its own copy of the world's unique ID, but warps on the same world can share one instance
+    Map<UUID, UUID> worldIdentifiers = new HashMap<UUID, UUID>();
     for (Result<Record14<String, UUID, Type, Double, Double, Double, Float, Float, UUID, Date, UInteger, String,
         UUID, String>> r : groupedResults
         .values()) {
       Profile creator = myWarp.getProfileService().getByUniqueId(r.getValue(0, creatorTable.UUID));
 
+      UUID worldIdentifier = r.getValue(0, WORLD.UUID);
+      if (worldIdentifiers.containsKey(worldIdentifier)) {
+        worldIdentifier = worldIdentifiers.get(worldIdentifier);
+      } else {
+        worldIdentifiers.put(worldIdentifier, worldIdentifier);
+      }
+
       Vector3 position = new Vector3(r.getValue(0, WARP.X), r.getValue(0, WARP.Y), r.getValue(0, WARP.Z));
       EulerDirection rotation = new EulerDirection(r.getValue(0, WARP.PITCH), r.getValue(0, WARP.YAW), 0);
 
       WarpBuilder
           builder =
-          new WarpBuilder(myWarp, r.getValue(0, WARP.NAME), creator, r.getValue(0, WORLD.UUID), position, rotation);
+          new WarpBuilder(myWarp, r.getValue(0, WARP.NAME), creator, worldIdentifier, position, rotation);
 
       // optional values
       builder.setType(r.getValue(0, WARP.TYPE));
@@ -394,12 +455,44 @@ class RelationalWarpStorage implements WarpStorage {
                 .where(PLAYER.UUID.eq(warp.getCreator().getUniqueId()))
                 .limit(1)
             )
+            .where(WARP.NAME.eq(warp.getName()))
         .execute();
         // @formatter:on
       }
     });
   }
 
+  @Override
+  public void updateCreators(final Collection<Warp> warps) {
+    create(configuration).transaction(new TransactionalRunnable() {
+      @Override
+      public void run(Configuration configuration) throws Exception {
+        ListMultimap<UUID, String> namesByCreator = ArrayListMultimap.create();
+        for (Warp warp : warps) {
+          namesByCreator.put(warp.getCreator().getUniqueId(), warp.getName());
+        }
+        for (UUID creator : namesByCreator.keySet()) {
+          insertOrIgnore(configuration, PLAYER, PLAYER.UUID, creator).execute();
+
+          for (List<String> names : Lists.partition(namesByCreator.get(creator), BATCH_SIZE)) {
+            // @formatter:off
+            create(configuration)
+                .update(WARP)
+                .set(WARP.PLAYER_ID,
+                    select(PLAYER.PLAYER_ID)
+                    .from(PLAYER)
+                    .where(PLAYER.UUID.eq(creator))
+                    .limit(1)
+                )
+                .where(WARP.NAME.in(names))
+            .execute();
+            // @formatter:on
+          }
+        }
+      }
+    });
+  }
+
   @Override
   public void updateLocation(final Warp warp) {
     final Vector3 position = warp.getPosition();
@@ -441,6 +534,30 @@ class RelationalWarpStorage implements WarpStorage {
     // @formatter:on
   }
 
+  @Override
+  public void updateTypes(final Collection<Warp> warps) {
+    create(configuration).transaction(new TransactionalRunnable() {
+      @Override
+      public void run(Configuration configuration) throws Exception {
+        ListMultimap<Type, String> namesByType = ArrayListMultimap.create();
+        for (Warp warp : warps) {
+          namesByType.put(warp.getType(), warp.getName());
+        }
+        for (Type type : namesByType.keySet()) {
+          for (List<String> names : Lists.partition(namesByType.get(type), BATCH_SIZE)) {
+            // @formatter:off
+            create(configuration)
+                .update(WARP)
+                .set(WARP.TYPE, type)
+                .where(WARP.NAME.in(names))
+            .execute();
+            // @formatter:on
+          }
+        }
+      }
+    });
+  }
+
   @Override
   public void updateVisits(final Warp warp) {
     // @formatter:off
@@ -483,11 +600,11 @@ class RelationalWarpStorage implements WarpStorage {
    * @param value         the value to insert
    * @return a corresponding {@code Insert} query
    */
-  private <R extends Record, T> Insert<R> insertOrIgnore(Configuration configuration, Table<R> table,
-                                                         TableField<R, T> uniqueField, T value) {
+  static <R extends Record, T> Insert<R> insertOrIgnore(Configuration configuration, Table<R> table,
+                                                        TableField<R, T> uniqueField, T value) {
     // @formatter:off
     //TODO use onDuplicateKeyIgnore() in JOOQ 3.7
-    return create(configuration)
+    return DSL.using(configuration)
         .insertInto(table)
         .columns(uniqueField)
         .select(
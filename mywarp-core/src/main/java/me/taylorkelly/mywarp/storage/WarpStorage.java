@@ -22,7 +22,9 @@ package me.taylorkelly.mywarp.storage;
 import me.taylorkelly.mywarp.util.profile.Profile;
 import me.taylorkelly.mywarp.warp.Warp;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * A connection to a data storage, e.g. a rational database.
@@ -43,6 +45,13 @@ public interface WarpStorage extends WarpSource {
    */
   void removeWarp(Warp warp);
 
+  /**
+   * Removes all given {@code Warp}s from the underlying data storage at once.
+   *
+   * @param warps the {@code Warp}s to remove
+   */
+  void removeWarps(Collection<Warp> warps);
+
   /**
    * Gets a {@code List} with every {@code Warp} stored in the underlying data storage.
    *
@@ -51,6 +60,15 @@ public interface WarpStorage extends WarpSource {
   @Override
   List<Warp> getWarps();
 
+  /**
+   * Gets a {@code List} with every {@code Warp} stored in the underlying data storage that is located in the world of
+   * the given unique identifier.
+   *
+   * @param worldIdentifier the unique identifier of the world
+   * @return all stored {@code Warp}s in the world
+   */
+  List<Warp> getWarps(UUID worldIdentifier);
+
   /**
    * Adds the given {@code groupId} to the list of invited groupIds for the given {@code Warp}.
    *
@@ -90,6 +108,13 @@ public interface WarpStorage extends WarpSource {
    */
   void updateCreator(Warp warp);
 
+  /**
+   * Updates the creators of all given {@code Warp}s at once.
+   *
+   * @param warps the {@code Warp}s to update
+   */
+  void updateCreators(Collection<Warp> warps);
+
   /**
    * Updates the location of the given {@code Warp}.
    *
@@ -104,6 +129,13 @@ public interface WarpStorage extends WarpSource {
    */
   void updateType(Warp warp);
 
+  /**
+   * Updates the types of all given {@code Warp}s at once.
+   *
+   * @param warps the {@code Warp}s to update
+   */
+  void updateTypes(Collection<Warp> warps);
+
   /**
    * Updates the visits of the given {@code Warp}.
    *
@@ -112,6 +112,26 @@ public class WarpStorageFactory {
     return createRelationalWarpStorage(myWarp, dialect, createSettings(config), dataSource);
   }
 
+  /**
+   * Creates a new {@code CooldownStorage} to the given {@code DataSource}.
+   * <p>The returned storage does not create or update MyWarp's table structure, so it should only be used once an
+   * initialized {@code WarpStorage} has been created on the same {@code DataSource}.</p>
+   *
+   * @param dataSource the DataSource
+   * @param config     the config
+   * @return the {@code CooldownStorage}
+   * @throws StorageInitializationException if the underling database management system is not supported
+   */
+  public static CooldownStorage createCooldownStorage(DataSource dataSource, ConnectionConfiguration config)
+      throws StorageInitializationException {
+    SQLDialect dialect = config.getDialect();
+    if (!SUPPORTED_DIALECTS.contains(dialect)) {
+      throw new StorageInitializationException(String.format("%s is not supported!", dialect.getName()));
+    }
+    return new RelationalCooldownStorage(
+        new DefaultConfiguration().set(dialect).set(createSettings(config)).set(dataSource));
+  }
+
   /**
    * Creates a new {@code RelationalWarpStorage} using the given parameters.
    *
@@ -4,6 +4,7 @@
 package me.taylorkelly.mywarp.storage.generated;
 
 
+import me.taylorkelly.mywarp.storage.generated.tables.Cooldown;
 import me.taylorkelly.mywarp.storage.generated.tables.Group;
 import me.taylorkelly.mywarp.storage.generated.tables.Player;
 import me.taylorkelly.mywarp.storage.generated.tables.Warp;
@@ -44,6 +45,7 @@ public class Keys {
   // UNIQUE and PRIMARY KEY definitions
   // -------------------------------------------------------------------------
 
+  public static final UniqueKey<Record> KEY_COOLDOWN_PRIMARY = UniqueKeys0.KEY_COOLDOWN_PRIMARY;
   public static final UniqueKey<Record> KEY_GROUP_PRIMARY = UniqueKeys0.KEY_GROUP_PRIMARY;
   public static final UniqueKey<Record> KEY_GROUP_GROUP_NAME_UQ = UniqueKeys0.KEY_GROUP_GROUP_NAME_UQ;
   public static final UniqueKey<Record> KEY_PLAYER_PRIMARY = UniqueKeys0.KEY_PLAYER_PRIMARY;
@@ -59,6 +61,7 @@ public class Keys {
   // FOREIGN KEY definitions
   // -------------------------------------------------------------------------
 
+  public static final ForeignKey<Record, Record> COOLDOWN_PLAYER_ID_FK = ForeignKeys0.COOLDOWN_PLAYER_ID_FK;
   public static final ForeignKey<Record, Record> WARP_PLAYER_ID_FK = ForeignKeys0.WARP_PLAYER_ID_FK;
   public static final ForeignKey<Record, Record> WARP_WORLD_ID_FK = ForeignKeys0.WARP_WORLD_ID_FK;
   public static final ForeignKey<Record, Record> WARP_GROUP_MAP_WARP_ID_FK = ForeignKeys0.WARP_GROUP_MAP_WARP_ID_FK;
@@ -82,6 +85,8 @@ public class Keys {
 
   private static class UniqueKeys0 extends AbstractKeys {
 
+    public static final UniqueKey<Record>
+        KEY_COOLDOWN_PRIMARY = createUniqueKey(Cooldown.COOLDOWN, Cooldown.COOLDOWN.PLAYER_ID);
     public static final UniqueKey<Record> KEY_GROUP_PRIMARY = createUniqueKey(Group.GROUP, Group.GROUP.GROUP_ID);
     public static final UniqueKey<Record> KEY_GROUP_GROUP_NAME_UQ = createUniqueKey(Group.GROUP, Group.GROUP.NAME);
     public static final UniqueKey<Record> KEY_PLAYER_PRIMARY = createUniqueKey(Player.PLAYER, Player.PLAYER.PLAYER_ID);
@@ -103,6 +108,9 @@ public class Keys {
 
   private static class ForeignKeys0 extends AbstractKeys {
 
+    public static final ForeignKey<Record, Record>
+        COOLDOWN_PLAYER_ID_FK =
+        createForeignKey(Keys.KEY_PLAYER_PRIMARY, Cooldown.COOLDOWN, Cooldown.COOLDOWN.PLAYER_ID);
     public static final ForeignKey<Record, Record>
         WARP_PLAYER_ID_FK = createForeignKey(Keys.KEY_PLAYER_PRIMARY, Warp.WARP, Warp.WARP.PLAYER_ID);
     public static final ForeignKey<Record, Record>
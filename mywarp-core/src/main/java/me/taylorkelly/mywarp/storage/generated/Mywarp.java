@@ -23,6 +23,7 @@
 package me.taylorkelly.mywarp.storage.generated;
 
 
+import me.taylorkelly.mywarp.storage.generated.tables.Cooldown;
 import me.taylorkelly.mywarp.storage.generated.tables.Group;
 import me.taylorkelly.mywarp.storage.generated.tables.Player;
 import me.taylorkelly.mywarp.storage.generated.tables.Warp;
@@ -71,7 +72,7 @@ public class Mywarp extends SchemaImpl {
   }
 
   private final List<Table<?>> getTables0() {
-    return Arrays.<Table<?>>asList(Group.GROUP, Player.PLAYER, Warp.WARP, WarpGroupMap.WARP_GROUP_MAP,
-                                   WarpPlayerMap.WARP_PLAYER_MAP, World.WORLD);
+    return Arrays.<Table<?>>asList(Cooldown.COOLDOWN, Group.GROUP, Player.PLAYER, Warp.WARP,
+                                   WarpGroupMap.WARP_GROUP_MAP, WarpPlayerMap.WARP_PLAYER_MAP, World.WORLD);
   }
 }
@@ -4,6 +4,7 @@
 package me.taylorkelly.mywarp.storage.generated;
 
 
+import me.taylorkelly.mywarp.storage.generated.tables.Cooldown;
 import me.taylorkelly.mywarp.storage.generated.tables.Group;
 import me.taylorkelly.mywarp.storage.generated.tables.Player;
 import me.taylorkelly.mywarp.storage.generated.tables.Warp;
@@ -23,6 +24,11 @@ import javax.annotation.Generated;
 @SuppressWarnings({"all", "unchecked", "rawtypes"})
 public class Tables {
 
+  /**
+   * The table mywarp.cooldown
+   */
+  public static final Cooldown COOLDOWN = Cooldown.COOLDOWN;
+
   /**
    * The table mywarp.group
    */
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.teleport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Optional;
+
+import me.taylorkelly.mywarp.BlockFlags;
+import me.taylorkelly.mywarp.BlockVolume;
+import me.taylorkelly.mywarp.util.Vector3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Searches for the safe position nearest to a given center position by scanning the columns of blocks around it.
+ * <p>Positions are visited in order of their distance from the center, so the search ends with the first safe position
+ * it finds. Positions of the same column share the blocks below and above them, so the flags of each block that is
+ * read are kept per column and every block is read at most once. It covers the same volume as {@link
+ * CubicPositionSafety}, but always returns the nearest safe position rather than the first one on an expanding
+ * cube.</p>
+ */
+class ColumnPositionSafety extends PositionSafety {
+
+  /**
+   * Marks flags that have not been read yet. Valid flags are never negative.
+   */
+  private static final int UNREAD = -1;
+
+  /**
+   * The offsets of the positions of the last radius, ordered by distance. Computed lazily, as the radius rarely
+   * changes.
+   */
+  private volatile SearchOrder searchOrder = new SearchOrder(0);
+
+  @Override
+  public Optional<Vector3> getSafePosition(BlockVolume blocks, Vector3 center, int tolerance) {
+    checkArgument(tolerance >= 0);
+
+    int x = (int) center.getFloorX();
+    int y = (int) center.getFloorY();
+    int z = (int) center.getFloorZ();
+    // the cubic search reaches one block less than the tolerance in each direction
+    SearchOrder order = searchOrder(Math.max(0, tolerance - 1));
+    int[] flags = order.newFlags();
+
+    for (int i = 0; i < order.offsetsX.length; i++) {
+      if (isSafe(blocks, x, y, z, order, i, flags)) {
+        if (i == 0) {
+          // the first offset is the center itself
+          return Optional.of(center);
+        }
+        // keep the position within the block as it was given
+        return Optional.of(center.add(order.offsetsX[i], order.offsetsY[i], order.offsetsZ[i]));
+      }
+    }
+    return Optional.absent();
+  }
+
+  /**
+   * Gets up to the given number of safe positions within the given tolerance around the given position, ordered by
+   * their distance from it. Each column contributes at most its nearest safe position, so the returned positions are
+   * spread horizontally. If the given position is safe itself, it is the first one returned.
+   *
+   * @param blocks    the blocks that contain the positions
+   * @param center    the center position
+   * @param tolerance the acceptable tolerance
+   * @param count     the maximal number of returned positions
+   * @return the safe positions, nearest first
+   */
+  List<Vector3> getSafePositions(BlockVolume blocks, Vector3 center, int tolerance, int count) {
+    checkArgument(tolerance >= 0);
+    checkArgument(count > 0);
+
+    int x = (int) center.getFloorX();
+    int y = (int) center.getFloorY();
+    int z = (int) center.getFloorZ();
+    SearchOrder order = searchOrder(Math.max(0, tolerance - 1));
+    int[] flags = order.newFlags();
+
+    boolean[] columnFound = new boolean[order.columnCount];
+    List<Vector3> ret = new ArrayList<Vector3>();
+    for (int i = 0; i < order.offsetsX.length && ret.size() < count; i++) {
+      // positions are ordered by distance, so the first safe position of a column is its nearest one
+      if (!columnFound[order.columns[i]] && isSafe(blocks, x, y, z, order, i, flags)) {
+        columnFound[order.columns[i]] = true;
+        ret.add(center.add(order.offsetsX[i], order.offsetsY[i], order.offsetsZ[i]));
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the search order for the given radius.
+   *
+   * @param radius the radius
+   * @return the search order
+   */
+  private SearchOrder searchOrder(int radius) {
+    SearchOrder order = this.searchOrder;
+    if (order.radius != radius) {
+      order = new SearchOrder(radius);
+      this.searchOrder = order;
+    }
+    return order;
+  }
+
+  /**
+   * Returns whether the position at the given offset of the given search order is safe for a normal entity. Checks the
+   * same blocks in the same order as {@link #isSafe(BlockVolume, int, int, int)}, but only reads blocks whose flags are
+   * not yet known.
+   *
+   * @param blocks the blocks that contain the position
+   * @param x      the x coordinate of the center
+   * @param y      the y coordinate of the center
+   * @param z      the z coordinate of the center
+   * @param order  the search order
+   * @param i      the index of the offset
+   * @param flags  the flags read so far, as created by {@link SearchOrder#newFlags()}
+   * @return {@code true} if the position is safe
+   */
+  private static boolean isSafe(BlockVolume blocks, int x, int y, int z, SearchOrder order, int i, int[] flags) {
+    int blockX = x + order.offsetsX[i];
+    int blockY = y + order.offsetsY[i];
+    int blockZ = z + order.offsetsZ[i];
+    int index = order.flagsIndex(i);
+    return (getFlags(blocks, blockX, blockY, blockZ, flags, index) & BlockFlags.SAFE_TO_STAND_IN) != 0
+           && (getFlags(blocks, blockX, blockY + 1, blockZ, flags, index + 1) & BlockFlags.SAFE_TO_STAND_IN) != 0
+           && (getFlags(blocks, blockX, blockY - 1, blockZ, flags, index - 1) & BlockFlags.SAFE_TO_STAND_ON) != 0;
+  }
+
+  /**
+   * Gets the flags of the block at the given coordinates, reading them only if they are not yet known.
+   *
+   * @param blocks the blocks that contain the block
+   * @param x      the x coordinate of the block
+   * @param y      the y coordinate of the block
+   * @param z      the z coordinate of the block
+   * @param flags  the flags read so far
+   * @param index  the index of the block's flags
+   * @return the flags
+   */
+  private static int getFlags(BlockVolume blocks, int x, int y, int z, int[] flags, int index) {
+    int ret = flags[index];
+    if (ret == UNREAD) {
+      ret = blocks.getFlags(x, y, z);
+      flags[index] = ret;
+    }
+    return ret;
+  }
+
+  /**
+   * The offsets of all positions within a radius, ordered by their distance from the center. Positions of equal
+   * distance are ordered by the horizontal distance of their column, so nearer columns are preferred, and positions
+   * below the center are preferred over equally distant ones above it.
+   */
+  private static class SearchOrder {
+
+    private final int radius;
+    private final int columnCount;
+    private final int columnLength;
+    private final int[] offsetsX;
+    private final int[] offsetsY;
+    private final int[] offsetsZ;
+    private final int[] columns;
+
+    /**
+     * Creates an instance.
+     *
+     * @param radius the radius
+     */
+    SearchOrder(int radius) {
+      this.radius = radius;
+      int edge = 2 * radius + 1;
+      this.columnCount = edge * edge;
+      // each column also holds the blocks below and above the outermost positions
+      this.columnLength = edge + 2;
+
+      int[][] offsets = new int[edge * edge * edge][];
+      int i = 0;
+      for (int dx = -radius; dx <= radius; dx++) {
+        for (int dz = -radius; dz <= radius; dz++) {
+          for (int dy = -radius; dy <= radius; dy++) {
+            offsets[i++] = new int[]{dx, dy, dz};
+          }
+        }
+      }
+      // stable, so columns and heights of equal distance keep their order
+      Arrays.sort(offsets, new Comparator<int[]>() {
+        @Override
+        public int compare(int[] o1, int[] o2) {
+          int h1 = o1[0] * o1[0] + o1[2] * o1[2];
+          int h2 = o2[0] * o2[0] + o2[2] * o2[2];
+          int d1 = h1 + o1[1] * o1[1];
+          int d2 = h2 + o2[1] * o2[1];
+          if (d1 != d2) {
+            return d1 < d2 ? -1 : 1;
+          }
+          return h1 < h2 ? -1 : (h1 == h2 ? 0 : 1);
+        }
+      });
+
+      this.offsetsX = new int[offsets.length];
+      this.offsetsY = new int[offsets.length];
+      this.offsetsZ = new int[offsets.length];
+      this.columns = new int[offsets.length];
+      for (int j = 0; j < offsets.length; j++) {
+        offsetsX[j] = offsets[j][0];
+        offsetsY[j] = offsets[j][1];
+        offsetsZ[j] = offsets[j][2];
+        columns[j] = (offsets[j][0] + radius) * edge + offsets[j][2] + radius;
+      }
+    }
+
+    /**
+     * Creates a new array that holds the flags of all blocks that might be read when searching in this order. All
+     * values are {@link #UNREAD}.
+     *
+     * @return the new array
+     */
+    int[] newFlags() {
+      int[] ret = new int[columnCount * columnLength];
+      Arrays.fill(ret, UNREAD);
+      return ret;
+    }
+
+    /**
+     * Gets the index of the flags of the block at the position at the given offset in an array created by {@link
+     * #newFlags()}. The flags of the blocks below and above are stored at the previous and next index.
+     *
+     * @param i the index of the offset
+     * @return the index of the flags
+     */
+    int flagsIndex(int i) {
+      return columns[i] * columnLength + offsetsY[i] + radius + 1;
+    }
+  }
+}
@@ -23,11 +23,13 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Optional;
 
-import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.BlockVolume;
 import me.taylorkelly.mywarp.util.Vector3;
 
 /**
  * Searches for positions that are safe for a normal entity within a cube surrounding a given center position.
+ * <p>The search walks block coordinates and reads {@link me.taylorkelly.mywarp.BlockFlags} only, so the only objects
+ * created are the returned position and a buffer that receives the coordinates of the safe block.</p>
  */
 class CubicPositionSafety extends PositionSafety {
 
@@ -35,126 +37,151 @@ class CubicPositionSafety extends PositionSafety {
    * Gets an Optional with the first safe position found within the given tolerance, starting from the given position,
    * if such a position exits.
    *
-   * @param world     the world where the position is placed it
+   * @param blocks    the blocks that contain the position
    * @param center    the center position
    * @param tolerance the acceptable tolerance
    * @return the first safe position
    */
-  public Optional<Vector3> getSafePosition(LocalWorld world, Vector3 center, int tolerance) {
+  @Override
+  public Optional<Vector3> getSafePosition(BlockVolume blocks, Vector3 center, int tolerance) {
     checkArgument(tolerance >= 0);
 
-    if (isSafe(world, center)) {
+    int x = (int) center.getFloorX();
+    int y = (int) center.getFloorY();
+    int z = (int) center.getFloorZ();
+    if (isSafe(blocks, x, y, z)) {
       return Optional.of(center);
     }
-    Optional<Vector3> safePosition; // never modify the given location!
+    int[] found = new int[3];
 
     for (int i = 2; i <= tolerance; i++) {
-      safePosition = checkCubeSurface(world, center, i);
-      if (safePosition.isPresent()) {
-        return safePosition;
+      if (checkCubeSurface(blocks, x, y, z, i, found)) {
+        // keep the position within the block as it was given, never modify the given location!
+        return Optional.of(center.add(found[0] - x, found[1] - y, found[2] - z));
       }
     }
     return Optional.absent();
   }
 
   /**
-   * Gets an Optional the first safe position from the cube surface of the given half-edge-length centered at the given
-   * position in the given world, if such a position exits.
+   * Searches the cube surface of the given half-edge-length centered at the given coordinates for a safe block.
    *
-   * @param world          the world where the position is placed it
-   * @param center         the central position vector
+   * @param blocks         the blocks that contain the position
+   * @param x              the x coordinate of the center
+   * @param y              the y coordinate of the center
+   * @param z              the z coordinate of the center
    * @param halfEdgeLength half of the effective edge length, including the block in the center
-   * @return the first safe location found, or null if none could be found
+   * @param found          receives the coordinates of the first safe block
+   * @return true if a safe block was found
    */
-  private Optional<Vector3> checkCubeSurface(LocalWorld world, Vector3 center, int halfEdgeLength) {
-    Optional<Vector3> safePosition;
-
+  private boolean checkCubeSurface(BlockVolume blocks, int x, int y, int z, int halfEdgeLength, int[] found) {
     int diameter = getEdgeLength(halfEdgeLength);
     for (int i = 0; i < diameter; i++) {
       // makes the location 'swing' up/down (+1, -2, +3, -4...)
-      center = center.add(0, i % 2 == 0 ? -i : i, 0);
+      y += i % 2 == 0 ? -i : i;
+      boolean safe;
       if (i < diameter - 2) {
         // if we are more than 2 steps away from the ending, we are in
         // the "middle" of the cube and only need to check the outline
-        safePosition = checkHorizontalSquareOutline(world, center, halfEdgeLength);
+        safe = checkHorizontalSquareOutline(blocks, x, y, z, halfEdgeLength, found);
       } else {
         // check bottom and top areas
-        safePosition = checkHorizontalSquare(world, center, halfEdgeLength);
+        safe = checkHorizontalSquare(blocks, x, y, z, halfEdgeLength, found);
       }
-      if (safePosition.isPresent()) {
-        return safePosition;
+      if (safe) {
+        return true;
       }
     }
-    return Optional.absent();
+    return false;
   }
 
   /**
-   * Gets an Optional with the first safe position from a horizontal square with the given half-edge-length centered at
-   * the given position in the given world, if such a position exits.
+   * Searches a horizontal square with the given half-edge-length centered at the given coordinates for a safe block.
    *
-   * @param world          the world where the position is placed it
-   * @param center         the central position vector
+   * @param blocks         the blocks that contain the position
+   * @param x              the x coordinate of the center
+   * @param y              the y coordinate of the center
+   * @param z              the z coordinate of the center
    * @param halfEdgeLength half of the effective edge length, including the block in the center
-   * @return the first safe position
+   * @param found          receives the coordinates of the first safe block
+   * @return true if a safe block was found
    */
-  private Optional<Vector3> checkHorizontalSquare(LocalWorld world, Vector3 center, int halfEdgeLength) {
-    if (isSafe(world, center)) {
-      return Optional.of(center);
+  private boolean checkHorizontalSquare(BlockVolume blocks, int x, int y, int z, int halfEdgeLength, int[] found) {
+    if (isSafe(blocks, x, y, z)) {
+      return found(found, x, y, z);
     }
-    Optional<Vector3> checkPosition;
 
     // loop through surrounding blocks, starting with a half-edge-length of
     // 2 (1 would just be the central block)
     for (int i = 2; i <= halfEdgeLength; i++) {
-      checkPosition = checkHorizontalSquareOutline(world, center, i);
-      if (checkPosition.isPresent()) {
-        return checkPosition;
+      if (checkHorizontalSquareOutline(blocks, x, y, z, i, found)) {
+        return true;
       }
     }
-    return Optional.absent();
+    return false;
   }
 
   /**
-   * Gets an Optional with the first safe position from the outline of horizontal square with the given
-   * half-edge-length
-   * centered at the given position in the given world, if such a position exits.
+   * Searches the outline of a horizontal square with the given half-edge-length centered at the given coordinates for
+   * a safe block.
    *
-   * @param world          the world where the position is placed it
-   * @param center         the central position vector
+   * @param blocks         the blocks that contain the position
+   * @param x              the x coordinate of the center
+   * @param y              the y coordinate of the center
+   * @param z              the z coordinate of the center
    * @param halfEdgeLength half of the effective edge length, including the block in the center
-   * @return the first safe position
+   * @param found          receives the coordinates of the first safe block
+   * @return true if a safe block was found
    */
-  private Optional<Vector3> checkHorizontalSquareOutline(LocalWorld world, Vector3 center, int halfEdgeLength) {
+  private boolean checkHorizontalSquareOutline(BlockVolume blocks, int x, int y, int z, int halfEdgeLength,
+                                               int[] found) {
     int blockSteps = getEdgeLength(halfEdgeLength) - 1;
-    Vector3 checkPosition = center.add(halfEdgeLength - 1, 0, halfEdgeLength - 1);
+    int checkX = x + halfEdgeLength - 1;
+    int checkZ = z + halfEdgeLength - 1;
 
     for (int i = 0; i < blockSteps; i++) {
-      checkPosition = checkPosition.add(-1, 0, 0);
-      if (isSafe(world, checkPosition)) {
-        return Optional.of(checkPosition);
+      checkX--;
+      if (isSafe(blocks, checkX, y, checkZ)) {
+        return found(found, checkX, y, checkZ);
       }
     }
 
     for (int i = 0; i < blockSteps; i++) {
-      checkPosition = checkPosition.add(0, 0, -1);
-      if (isSafe(world, checkPosition)) {
-        return Optional.of(checkPosition);
+      checkZ--;
+      if (isSafe(blocks, checkX, y, checkZ)) {
+        return found(found, checkX, y, checkZ);
       }
     }
 
     for (int i = 0; i < blockSteps; i++) {
-      checkPosition = checkPosition.add(1, 0, 0);
-      if (isSafe(world, checkPosition)) {
-        return Optional.of(checkPosition);
+      checkX++;
+      if (isSafe(blocks, checkX, y, checkZ)) {
+        return found(found, checkX, y, checkZ);
       }
     }
     for (int i = 0; i < blockSteps; i++) {
-      checkPosition = checkPosition.add(0, 0, 1);
-      if (isSafe(world, checkPosition)) {
-        return Optional.of(checkPosition);
+      checkZ++;
+      if (isSafe(blocks, checkX, y, checkZ)) {
+        return found(found, checkX, y, checkZ);
       }
     }
-    return Optional.absent();
+    return false;
+  }
+
+  /**
+   * Stores the given coordinates in the given buffer.
+   *
+   * @param found the buffer
+   * @param x     the x coordinate
+   * @param y     the y coordinate
+   * @param z     the z coordinate
+   * @return always {@code true}
+   */
+  private static boolean found(int[] found, int x, int y, int z) {
+    found[0] = x;
+    found[1] = y;
+    found[2] = z;
+    return true;
   }
 
   /**
@@ -19,32 +19,58 @@
 
 package me.taylorkelly.mywarp.teleport;
 
-import me.taylorkelly.mywarp.LocalWorld;
+import com.google.common.base.Optional;
+
+import me.taylorkelly.mywarp.BlockFlags;
+import me.taylorkelly.mywarp.BlockVolume;
 import me.taylorkelly.mywarp.util.Vector3;
 
 /**
- * Tests if a single position is safe for a normal entity.
+ * Tests if a single position is safe for a normal entity. Subclasses implement a strategy to search for a safe position
+ * around a given one.
  */
-class PositionSafety {
+abstract class PositionSafety {
+
+  /**
+   * Gets an Optional with a safe position found within the given tolerance around the given position, if such a
+   * position exists. If the given position is safe itself, it is returned unchanged.
+   *
+   * @param blocks    the blocks that contain the position
+   * @param center    the center position
+   * @param tolerance the acceptable tolerance
+   * @return a safe position
+   */
+  public abstract Optional<Vector3> getSafePosition(BlockVolume blocks, Vector3 center, int tolerance);
 
   /**
-   * Returns whether the given {@code position} in the given {@code world} is safe for a normal entity.
+   * Returns whether the given {@code position} in the given {@code blocks} is safe for a normal entity.
    *
-   * @param world    the world that contains the position
+   * @param blocks   the blocks that contain the position
    * @param position the position
    * @return {@code true} if the position is safe
    */
-  public boolean isSafe(LocalWorld world, Vector3 position) {
-    Vector3 upOne = position.add(0, 1, 0);
-    Vector3 downOne = position.sub(0, 1, 0);
+  public boolean isSafe(BlockVolume blocks, Vector3 position) {
+    return isSafe(blocks, (int) position.getFloorX(), (int) position.getFloorY(), (int) position.getFloorZ());
+  }
 
-    if (!world.getBlock(position).isSafeToStandIn()) {
+  /**
+   * Returns whether the block at the given coordinates in the given {@code blocks} is safe for a normal entity. Only
+   * the {@link BlockFlags} of the blocks are read, so no objects are created.
+   *
+   * @param blocks the blocks that contain the position
+   * @param x      the x coordinate of the block
+   * @param y      the y coordinate of the block
+   * @param z      the z coordinate of the block
+   * @return {@code true} if the position is safe
+   */
+  public boolean isSafe(BlockVolume blocks, int x, int y, int z) {
+    if ((blocks.getFlags(x, y, z) & BlockFlags.SAFE_TO_STAND_IN) == 0) {
       return false;
     }
-    if (!world.getBlock(upOne).isSafeToStandIn()) {
+    if ((blocks.getFlags(x, y + 1, z) & BlockFlags.SAFE_TO_STAND_IN) == 0) {
       return false;
     }
-    if (!world.getBlock(downOne).isSafeToStandOn()) {
+    if ((blocks.getFlags(x, y - 1, z) & BlockFlags.SAFE_TO_STAND_ON) == 0) {
       return false;
     }
     return true;
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.teleport;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import me.taylorkelly.mywarp.Game;
+import me.taylorkelly.mywarp.LocalEntity;
+import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.Settings;
+import me.taylorkelly.mywarp.util.EulerDirection;
+import me.taylorkelly.mywarp.util.Vector3;
+import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
+import me.taylorkelly.mywarp.util.i18n.LocaleManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link TeleportManager} that spreads asynchronous teleports across ticks.
+ * <p>Each tick may only execute a limited number of teleports or spend a limited time on them. Asynchronous teleports
+ * requested once the budget of the current tick is exhausted are queued and executed in the order they were requested
+ * during the following ticks. An entity that requests another teleport while queued keeps its place, the earlier
+ * request is cancelled. Queued players are told their position in the queue.</p>
+ * <p>Synchronous teleports are executed immediately and only count against the budget, group teleports are not queued.
+ * If the queue is disabled, all teleports are handed to the delegate unchanged.</p>
+ * <p>The time a teleport takes includes teleporting the entity, even if the delegate does so in a later tick once an
+ * asynchronous search completed. That time counts against the budget of the tick it is spent in.</p>
+ * <p>All methods must be called from the Thread that handles the game's logic.</p>
+ */
+public class QueuedTeleportManager implements TeleportManager {
+
+  private static final DynamicMessages MESSAGES = new DynamicMessages("me.taylorkelly.mywarp.lang.Teleport");
+
+  private final Map<LocalEntity, QueuedTeleport> queue = new LinkedHashMap<LocalEntity, QueuedTeleport>();
+  private final TeleportManager delegate;
+  private final Settings settings;
+  private final Game game;
+
+  private int teleportsThisTick;
+  private long nanosThisTick;
+  private long carriedNanos;
+  private boolean tickScheduled;
+  private boolean executing;
+
+  /**
+   * Creates an instance.
+   *
+   * @param delegate the TeleportManager that executes the teleports
+   * @param settings the settings that define the budget per tick
+   * @param game     the Game whose executor runs the following ticks
+   */
+  public QueuedTeleportManager(TeleportManager delegate, Settings settings, Game game) {
+    this.delegate = delegate;
+    this.settings = settings;
+    this.game = game;
+  }
+
+  @Override
+  public TeleportStatus teleport(LocalEntity entity, LocalWorld world, Vector3 position, EulerDirection rotation) {
+    if (!settings.isTeleportQueueEnabled()) {
+      return delegate.teleport(entity, world, position, rotation);
+    }
+    long start = System.nanoTime();
+    TeleportStatus status = delegate.teleport(entity, world, position, rotation);
+    spend(System.nanoTime() - start);
+    return status;
+  }
+
+  @Override
+  public ListenableFuture<TeleportStatus> teleportAsync(LocalEntity entity, LocalWorld world, Vector3 position,
+                                                        EulerDirection rotation) {
+    if (!settings.isTeleportQueueEnabled()) {
+      return delegate.teleportAsync(entity, world, position, rotation);
+    }
+    if (queue.isEmpty() && hasBudget()) {
+      return execute(entity, world, position, rotation);
+    }
+
+    QueuedTeleport queued = new QueuedTeleport(entity, world, position, rotation);
+    QueuedTeleport replaced = queue.put(entity, queued);
+    if (replaced != null) {
+      // the entity keeps its place in the queue
+      replaced.future.cancel(false);
+    }
+    if (entity instanceof LocalPlayer) {
+      LocalPlayer player = (LocalPlayer) entity;
+      LocaleManager.setLocale(player.getLocale());
+      player.sendMessage(MESSAGES.getString("queued", replaced != null ? positionOf(entity) : queue.size()));
+    }
+    scheduleTick();
+    return queued.future;
+  }
+
+  @Override
+  public ListenableFuture<List<TeleportStatus>> teleportGroupAsync(List<? extends LocalEntity> entities,
+                                                                   LocalWorld world, Vector3 position,
+                                                                   EulerDirection rotation) {
+    // group teleports are spread across ticks by the delegate itself
+    return delegate.teleportGroupAsync(entities, world, position, rotation);
+  }
+
+  /**
+   * Gets the number of teleports that are currently queued.
+   *
+   * @return the number of queued teleports
+   */
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  /**
+   * Executes the given teleport and accounts its costs against the budget of the current tick.
+   *
+   * @param entity   the entity to teleport
+   * @param world    the world to teleport to
+   * @param position the position to teleport to
+   * @param rotation the rotation to teleport to
+   * @return a future that provides the resulting {@code TeleportStatus}
+   */
+  private ListenableFuture<TeleportStatus> execute(LocalEntity entity, LocalWorld world, Vector3 position,
+                                                   EulerDirection rotation) {
+    long start = System.nanoTime();
+    ListenableFuture<TeleportStatus> future;
+    executing = true;
+    try {
+      future = delegate.teleportAsync(new MeasuredEntity(entity), world, position, rotation);
+    } finally {
+      executing = false;
+    }
+    spend(System.nanoTime() - start);
+    return future;
+  }
+
+  /**
+   * Accounts a teleport that took the given time against the budget of the current tick.
+   *
+   * @param nanos the time the teleport took in nanoseconds
+   */
+  private void spend(long nanos) {
+    teleportsThisTick++;
+    nanosThisTick += nanos;
+    scheduleTick();
+  }
+
+  /**
+   * Accounts the time the delegate took to complete a teleport in a later tick against the budget, without counting
+   * another teleport. As that tick's reset may still be pending and run after the completion, the time is carried over
+   * the pending reset.
+   *
+   * @param nanos the time the completion took in nanoseconds
+   */
+  private void spendDeferred(long nanos) {
+    if (tickScheduled) {
+      carriedNanos += nanos;
+      return;
+    }
+    nanosThisTick += nanos;
+    scheduleTick();
+  }
+
+  /**
+   * Returns whether the budget of the current tick allows another teleport.
+   *
+   * @return true if another teleport may be executed within the current tick
+   */
+  private boolean hasBudget() {
+    int maxTeleports = settings.getTeleportQueueMaxTeleportsPerTick();
+    long maxNanos = settings.getTeleportQueueMaxNanosPerTick();
+    return (maxTeleports <= 0 || teleportsThisTick < maxTeleports) && (maxNanos <= 0 || nanosThisTick < maxNanos);
+  }
+
+  /**
+   * Gets the position of the given entity within the queue, starting with 1.
+   *
+   * @param entity the queued entity
+   * @return the position within the queue
+   */
+  private int positionOf(LocalEntity entity) {
+    int position = 1;
+    for (LocalEntity queued : queue.keySet()) {
+      if (queued.equals(entity)) {
+        break;
+      }
+      position++;
+    }
+    return position;
+  }
+
+  /**
+   * Schedules the next tick, unless it is already scheduled.
+   */
+  private void scheduleTick() {
+    if (tickScheduled) {
+      return;
+    }
+    tickScheduled = true;
+    game.getExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        tickScheduled = false;
+        teleportsThisTick = 0;
+        nanosThisTick = carriedNanos;
+        carriedNanos = 0;
+        drain();
+      }
+    });
+  }
+
+  /**
+   * Executes queued teleports until the queue is empty or the budget of the current tick is exhausted.
+   */
+  private void drain() {
+    Iterator<QueuedTeleport> iterator = queue.values().iterator();
+    while (iterator.hasNext() && hasBudget()) {
+      final QueuedTeleport queued = iterator.next();
+      iterator.remove();
+      if (queued.entity instanceof LocalPlayer && !game
+          .getPlayer(((LocalPlayer) queued.entity).getProfile().getUniqueId()).isPresent()) {
+        // the player went offline while waiting
+        queued.future.cancel(false);
+        continue;
+      }
+
+      ListenableFuture<TeleportStatus> future = execute(queued.entity, queued.world, queued.position, queued.rotation);
+      Futures.addCallback(future, new FutureCallback<TeleportStatus>() {
+        @Override
+        public void onSuccess(TeleportStatus result) {
+          queued.future.set(result);
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+          queued.future.setException(t);
+        }
+      }, game.getExecutor());
+    }
+  }
+
+  /**
+   * An entity handed to the delegate. Teleporting it after {@link #execute(LocalEntity, LocalWorld, Vector3,
+   * EulerDirection)} returned, which the delegate does once an asynchronous search completes, is accounted against the
+   * budget of the tick the teleport happens in.
+   */
+  private class MeasuredEntity implements LocalEntity {
+
+    private final LocalEntity entity;
+
+    /**
+     * Creates an instance.
+     *
+     * @param entity the entity to teleport
+     */
+    MeasuredEntity(LocalEntity entity) {
+      this.entity = entity;
+    }
+
+    @Override
+    public LocalWorld getWorld() {
+      return entity.getWorld();
+    }
+
+    @Override
+    public Vector3 getPosition() {
+      return entity.getPosition();
+    }
+
+    @Override
+    public EulerDirection getRotation() {
+      return entity.getRotation();
+    }
+
+    @Override
+    public void teleport(LocalWorld world, Vector3 position, EulerDirection rotation) {
+      if (executing) {
+        // already measured by execute(...)
+        entity.teleport(world, position, rotation);
+        return;
+      }
+      long start = System.nanoTime();
+      entity.teleport(world, position, rotation);
+      spendDeferred(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * A queued teleport.
+   */
+  private static class QueuedTeleport {
+
+    private final SettableFuture<TeleportStatus> future = SettableFuture.create();
+    private final LocalEntity entity;
+    private final LocalWorld world;
+    private final Vector3 position;
+    private final EulerDirection rotation;
+
+    /**
+     * Creates an instance.
+     *
+     * @param entity   the entity to teleport
+     * @param world    the world to teleport to
+     * @param position the position to teleport to
+     * @param rotation the rotation to teleport to
+     */
+    QueuedTeleport(LocalEntity entity, LocalWorld world, Vector3 position, EulerDirection rotation) {
+      this.entity = entity;
+      this.world = world;
+      this.position = position;
+      this.rotation = rotation;
+    }
+  }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.teleport;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+
+import me.taylorkelly.mywarp.util.Vector3;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Caches the positions that teleports to a requested position resolved to, so that repeated teleports to the same
+ * position, typically a popular warp, skip the safety search.
+ * <p>Each entry covers the volume of blocks that a search around its position may read. Entries are additionally
+ * indexed by the chunks this volume intersects, so that a changed block only needs to be compared against the entries
+ * of its own chunk. Platforms must report changed blocks via {@link #invalidate(UUID, int, int, int)}. The least
+ * recently used entries are discarded once the cache is full.</p>
+ * <p>This cache must only be used from the Thread that handles the game's logic.</p>
+ */
+public class SafePositionCache {
+
+  private static final int MAXIMUM_SIZE = 1024;
+
+  /**
+   * The vertical search starts up to one block above the requested position and each check reads one block above and
+   * below the checked position.
+   */
+  private static final int MARGIN = 2;
+
+  private final Map<Key, CachedPosition> entries = new LinkedHashMap<Key, CachedPosition>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, CachedPosition> eldest) {
+      if (size() <= MAXIMUM_SIZE) {
+        return false;
+      }
+      unindex(eldest.getValue());
+      return true;
+    }
+  };
+  private final Map<UUID, Map<Long, Set<CachedPosition>>> chunkIndex =
+      new HashMap<UUID, Map<Long, Set<CachedPosition>>>();
+
+  /**
+   * Gets the resolved entry for a search with the given radius around the given position in the world identified by
+   * the given unique identifier, if such an entry exists and is still valid.
+   *
+   * @param world    the unique identifier of the world
+   * @param position the requested position
+   * @param radius   the radius of the search
+   * @return the resolved entry
+   */
+  Optional<CachedPosition> get(UUID world, Vector3 position, int radius) {
+    CachedPosition entry = entries.get(new Key(world, position, radius));
+    return entry != null && entry.resolved ? Optional.of(entry) : Optional.<CachedPosition>absent();
+  }
+
+  /**
+   * Starts tracking a search with the given radius around the given position in the world identified by the given
+   * unique identifier. Blocks that change within the search volume before the search is completed invalidate the
+   * returned entry, so that results based on outdated blocks are never cached.
+   *
+   * @param world    the unique identifier of the world
+   * @param position the requested position
+   * @param radius   the radius of the search
+   * @return the unresolved entry
+   */
+  CachedPosition begin(UUID world, Vector3 position, int radius) {
+    CachedPosition entry = new CachedPosition(new Key(world, position, radius));
+    CachedPosition previous = entries.put(entry.key, entry);
+    if (previous != null) {
+      unindex(previous);
+    }
+    index(entry);
+    return entry;
+  }
+
+  /**
+   * Completes the search tracked by the given entry. If the search has found a safe position and the entry is still
+   * valid, the result is cached, otherwise the entry is discarded.
+   *
+   * @param entry        the entry
+   * @param destination  the position that was checked first
+   * @param safePosition the safe position found by the search
+   */
+  void complete(CachedPosition entry, Vector3 destination, Optional<Vector3> safePosition) {
+    if (entries.get(entry.key) != entry) {
+      // invalidated or replaced by a later search
+      return;
+    }
+    if (!safePosition.isPresent()) {
+      remove(entry);
+      return;
+    }
+    entry.safePosition = safePosition.get();
+    entry.modified = !destination.equals(safePosition.get());
+    entry.resolved = true;
+  }
+
+  /**
+   * Invalidates all entries whose search volume contains the block at the given coordinates in the world identified by
+   * the given unique identifier.
+   *
+   * @param world the unique identifier of the world
+   * @param x     the x coordinate of the block
+   * @param y     the y coordinate of the block
+   * @param z     the z coordinate of the block
+   */
+  public void invalidate(UUID world, int x, int y, int z) {
+    Map<Long, Set<CachedPosition>> chunks = chunkIndex.get(world);
+    if (chunks == null) {
+      return;
+    }
+    Set<CachedPosition> bucket = chunks.get(chunkKey(x >> 4, z >> 4));
+    if (bucket == null) {
+      return;
+    }
+    for (CachedPosition entry : new ArrayList<CachedPosition>(bucket)) {
+      if (entry.contains(x, y, z)) {
+        remove(entry);
+      }
+    }
+  }
+
+  /**
+   * Invalidates all entries in the world identified by the given unique identifier.
+   *
+   * @param world the unique identifier of the world
+   */
+  public void invalidate(UUID world) {
+    Map<Long, Set<CachedPosition>> chunks = chunkIndex.get(world);
+    if (chunks == null) {
+      return;
+    }
+    Set<CachedPosition> worldEntries = new HashSet<CachedPosition>();
+    for (Set<CachedPosition> bucket : chunks.values()) {
+      worldEntries.addAll(bucket);
+    }
+    for (CachedPosition entry : worldEntries) {
+      remove(entry);
+    }
+  }
+
+  /**
+   * Invalidates all entries.
+   */
+  public void clear() {
+    entries.clear();
+    chunkIndex.clear();
+  }
+
+  /**
+   * Removes the given entry from this cache.
+   *
+   * @param entry the entry
+   */
+  private void remove(CachedPosition entry) {
+    if (entries.get(entry.key) == entry) {
+      entries.remove(entry.key);
+    }
+    unindex(entry);
+  }
+
+  /**
+   * Adds the given entry to the index of each chunk its search volume intersects.
+   *
+   * @param entry the entry
+   */
+  private void index(CachedPosition entry) {
+    Map<Long, Set<CachedPosition>> chunks = chunkIndex.get(entry.key.world);
+    if (chunks == null) {
+      chunks = new HashMap<Long, Set<CachedPosition>>();
+      chunkIndex.put(entry.key.world, chunks);
+    }
+    for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+      for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+        Long key = chunkKey(chunkX, chunkZ);
+        Set<CachedPosition> bucket = chunks.get(key);
+        if (bucket == null) {
+          bucket = new HashSet<CachedPosition>();
+          chunks.put(key, bucket);
+        }
+        bucket.add(entry);
+      }
+    }
+  }
+
+  /**
+   * Removes the given entry from the index of each chunk its search volume intersects.
+   *
+   * @param entry the entry
+   */
+  private void unindex(CachedPosition entry) {
+    Map<Long, Set<CachedPosition>> chunks = chunkIndex.get(entry.key.world);
+    if (chunks == null) {
+      return;
+    }
+    for (int chunkX = entry.minX >> 4; chunkX <= entry.maxX >> 4; chunkX++) {
+      for (int chunkZ = entry.minZ >> 4; chunkZ <= entry.maxZ >> 4; chunkZ++) {
+        Long key = chunkKey(chunkX, chunkZ);
+        Set<CachedPosition> bucket = chunks.get(key);
+        if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+          chunks.remove(key);
+        }
+      }
+    }
+    if (chunks.isEmpty()) {
+      chunkIndex.remove(entry.key.world);
+    }
+  }
+
+  /**
+   * Gets the key of the chunk with the given coordinates.
+   *
+   * @param chunkX the x coordinate of the chunk
+   * @param chunkZ the z coordinate of the chunk
+   * @return the key
+   */
+  private static long chunkKey(int chunkX, int chunkZ) {
+    return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+  }
+
+  /**
+   * A search that has been started or resolved.
+   */
+  static class CachedPosition {
+
+    private final Key key;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    private boolean resolved;
+    private Vector3 safePosition;
+    private boolean modified;
+
+    /**
+     * Creates an unresolved instance.
+     *
+     * @param key the key of the search
+     */
+    private CachedPosition(Key key) {
+      this.key = key;
+      int extent = key.radius + MARGIN;
+      this.minX = (int) key.position.getFloorX() - extent;
+      this.minY = (int) key.position.getFloorY() - extent;
+      this.minZ = (int) key.position.getFloorZ() - extent;
+      this.maxX = (int) key.position.getFloorX() + extent;
+      this.maxY = (int) key.position.getFloorY() + extent;
+      this.maxZ = (int) key.position.getFloorZ() + extent;
+    }
+
+    /**
+     * Gets the safe position the search resolved to.
+     *
+     * @return the safe position
+     */
+    Vector3 getSafePosition() {
+      return safePosition;
+    }
+
+    /**
+     * Returns whether the safe position differs from the position that was checked first.
+     *
+     * @return true if the position was modified
+     */
+    boolean isModified() {
+      return modified;
+    }
+
+    /**
+     * Returns whether the search volume contains the block at the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return true if the block is contained
+     */
+    private boolean contains(int x, int y, int z) {
+      return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+  }
+
+  /**
+   * Identifies a search by the world, the requested position and the radius.
+   */
+  private static class Key {
+
+    private final UUID world;
+    private final Vector3 position;
+    private final int radius;
+
+    /**
+     * Creates an instance.
+     *
+     * @param world    the unique identifier of the world
+     * @param position the requested position
+     * @param radius   the radius of the search
+     */
+    Key(UUID world, Vector3 position, int radius) {
+      this.world = world;
+      this.position = position;
+      this.radius = radius;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return radius == that.radius && world.equals(that.world) && position.equals(that.position);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(world, position, radius);
+    }
+  }
+}
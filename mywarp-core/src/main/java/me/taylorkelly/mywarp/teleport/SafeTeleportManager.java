@@ -1,54 +1,287 @@
 package me.taylorkelly.mywarp.teleport;
 
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 
+import me.taylorkelly.mywarp.BlockFlags;
+import me.taylorkelly.mywarp.BlockVolume;
+import me.taylorkelly.mywarp.Game;
 import me.taylorkelly.mywarp.LocalEntity;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.Settings;
 import me.taylorkelly.mywarp.util.EulerDirection;
 import me.taylorkelly.mywarp.util.Vector3;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * A {@link TeleportManager} implementation that checks if a teleport destination is safe for a normal entity. If not,
  * a safe position is searched within a defined margin. If one is found the entity is teleported there, if not, no
  * teleport occurs.
+ * <p>The destination itself is checked against the live world. The search for another position runs on a snapshot of
+ * the blocks within the margin, which {@link #teleportAsync(LocalEntity, LocalWorld, Vector3, EulerDirection)} hands to
+ * the game's asynchronous executor, so that only capturing the snapshot and the teleport itself remain within the
+ * Thread that handles the game's logic. Resolved positions are kept in a {@link SafePositionCache}, so repeated
+ * teleports to the same position skip all of this until a block within the margin changes.</p>
+ * <p>Group teleports search the margin once and spread the entities across the nearest safe positions found, at most
+ * {@link #GROUP_BATCH_SIZE} entities are teleported per tick.</p>
  */
 public class SafeTeleportManager implements TeleportManager {
 
-  private final CubicPositionSafety positionSafety = new CubicPositionSafety();
+  /**
+   * The maximal number of entities of a group teleport that are teleported within a single tick.
+   */
+  private static final int GROUP_BATCH_SIZE = 10;
+
+  private final CubicPositionSafety cubicSafety = new CubicPositionSafety();
+  private final ColumnPositionSafety columnSafety = new ColumnPositionSafety();
   private final Settings settings;
+  private final Game game;
+  private final SafePositionCache cache;
 
   /**
    * Creates an instance that uses the given {@code settings}.
    *
    * @param settings the settings to use
+   * @param game     the Game whose executors are used for asynchronous teleports
+   * @param cache    the cache that holds resolved positions
    */
-  public SafeTeleportManager(Settings settings) {
+  public SafeTeleportManager(Settings settings, Game game, SafePositionCache cache) {
     this.settings = settings;
+    this.game = game;
+    this.cache = cache;
   }
 
   @Override
   public TeleportStatus teleport(LocalEntity entity, LocalWorld world, Vector3 position, EulerDirection rotation) {
-    // In MyWarp 2.x, the warp height was equivalent with the Y coordinate of the block. If the warp was located on
-    // top of a block that was smaller than a full black (e.g. a half step), the height needed to be adjusted or the
-    // player would have been teleported inside of the block.
-    if (world.getBlock(position).isNotFullHeight()) {
-      position = position.add(0, 1, 0);
-    }
-    if (settings.isSafetyEnabled()) {
-      Optional<Vector3>
-          safePosition =
-          positionSafety.getSafePosition(world, position, settings.getSafetySearchRadius());
-      if (!safePosition.isPresent()) {
-        return TeleportStatus.NONE;
+    if (!settings.isSafetyEnabled()) {
+      entity.teleport(world, adjustLegacyHeight(world, position), rotation);
+      return TeleportStatus.ORIGINAL;
+    }
+    int radius = settings.getSafetySearchRadius();
+    Optional<SafePositionCache.CachedPosition> cached = cache.get(world.getUniqueId(), position, radius);
+    if (cached.isPresent()) {
+      return teleport(entity, world, rotation, cached.get());
+    }
+
+    PositionSafety positionSafety = positionSafety();
+    SafePositionCache.CachedPosition entry = cache.begin(world.getUniqueId(), position, radius);
+    Vector3 destination = adjustLegacyHeight(world, position);
+    Optional<Vector3> safePosition;
+    if (positionSafety.isSafe(world, destination)) {
+      safePosition = Optional.of(destination);
+    } else {
+      safePosition = positionSafety.getSafePosition(world.snapshot(destination, radius), destination, radius);
+    }
+    cache.complete(entry, destination, safePosition);
+    return complete(entity, world, destination, rotation, safePosition);
+  }
+
+  @Override
+  public ListenableFuture<TeleportStatus> teleportAsync(final LocalEntity entity, final LocalWorld world,
+                                                        Vector3 position, final EulerDirection rotation) {
+    if (!settings.isSafetyEnabled()) {
+      entity.teleport(world, adjustLegacyHeight(world, position), rotation);
+      return Futures.immediateFuture(TeleportStatus.ORIGINAL);
+    }
+    final int radius = settings.getSafetySearchRadius();
+    Optional<SafePositionCache.CachedPosition> cached = cache.get(world.getUniqueId(), position, radius);
+    if (cached.isPresent()) {
+      return Futures.immediateFuture(teleport(entity, world, rotation, cached.get()));
+    }
+
+    final PositionSafety positionSafety = positionSafety();
+    final SafePositionCache.CachedPosition entry = cache.begin(world.getUniqueId(), position, radius);
+    final Vector3 destination = adjustLegacyHeight(world, position);
+    if (positionSafety.isSafe(world, destination)) {
+      Optional<Vector3> safePosition = Optional.of(destination);
+      cache.complete(entry, destination, safePosition);
+      return Futures.immediateFuture(complete(entity, world, destination, rotation, safePosition));
+    }
+
+    // blocks are only captured here, the search itself runs outside of the game's thread
+    final BlockVolume snapshot = world.snapshot(destination, radius);
+    final SettableFuture<TeleportStatus> future = SettableFuture.create();
+
+    game.getAsyncExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        final Optional<Vector3> safePosition;
+        try {
+          safePosition = positionSafety.getSafePosition(snapshot, destination, radius);
+        } catch (RuntimeException e) {
+          future.setException(e);
+          return;
+        }
+        game.getExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              // discarded if a block changed since the snapshot was captured
+              cache.complete(entry, destination, safePosition);
+              future.set(complete(entity, world, destination, rotation, safePosition));
+            } catch (RuntimeException e) {
+              future.setException(e);
+            }
+          }
+        });
+      }
+    });
+    return future;
+  }
+
+  @Override
+  public ListenableFuture<List<TeleportStatus>> teleportGroupAsync(final List<? extends LocalEntity> entities,
+                                                                   final LocalWorld world, Vector3 position,
+                                                                   final EulerDirection rotation) {
+    final SettableFuture<List<TeleportStatus>> future = SettableFuture.create();
+    final Vector3 destination = adjustLegacyHeight(world, position);
+    if (entities.isEmpty() || !settings.isSafetyEnabled()) {
+      new GroupTeleport(entities, world, destination, rotation, Collections.singletonList(destination), future).run();
+      return future;
+    }
+
+    // the search covers the whole group, so it is done once on a snapshot
+    final int radius = settings.getSafetySearchRadius();
+    final BlockVolume snapshot = world.snapshot(destination, radius);
+    game.getAsyncExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        final List<Vector3> safePositions;
+        try {
+          safePositions = columnSafety.getSafePositions(snapshot, destination, radius, entities.size());
+        } catch (RuntimeException e) {
+          future.setException(e);
+          return;
+        }
+        game.getExecutor().execute(new GroupTeleport(entities, world, destination, rotation, safePositions, future));
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Gets the strategy used to search for safe positions, as configured.
+   *
+   * @return the configured strategy
+   */
+  private PositionSafety positionSafety() {
+    return settings.isSafetyColumnSearch() ? columnSafety : cubicSafety;
+  }
+
+  /**
+   * Adjusts the given position for warps created in legacy versions.
+   * <p>In MyWarp 2.x, the warp height was equivalent with the Y coordinate of the block. If the warp was located on top
+   * of a block that was smaller than a full black (e.g. a half step), the height needed to be adjusted or the player
+   * would have been teleported inside of the block.</p>
+   *
+   * @param world    the world that contains the position
+   * @param position the position
+   * @return the adjusted position
+   */
+  private Vector3 adjustLegacyHeight(LocalWorld world, Vector3 position) {
+    int flags = world.getFlags((int) position.getFloorX(), (int) position.getFloorY(), (int) position.getFloorZ());
+    if ((flags & BlockFlags.NOT_FULL_HEIGHT) != 0) {
+      return position.add(0, 1, 0);
+    }
+    return position;
+  }
+
+  /**
+   * Teleports the given entity to the given safe position, if one was found.
+   *
+   * @param entity       the entity to teleport
+   * @param world        the world to teleport to
+   * @param position     the unsafe position that was requested
+   * @param rotation     the rotation to teleport to
+   * @param safePosition the safe position found instead of the requested one
+   * @return the resulting {@code TeleportStatus}
+   */
+  private TeleportStatus complete(LocalEntity entity, LocalWorld world, Vector3 position, EulerDirection rotation,
+                                  Optional<Vector3> safePosition) {
+    if (!safePosition.isPresent()) {
+      return TeleportStatus.NONE;
+    }
+    entity.teleport(world, safePosition.get(), rotation);
+    return position.equals(safePosition.get()) ? TeleportStatus.ORIGINAL : TeleportStatus.MODIFIED;
+  }
+
+  /**
+   * Teleports the given entity to the position of the given cached entry.
+   *
+   * @param entity   the entity to teleport
+   * @param world    the world to teleport to
+   * @param rotation the rotation to teleport to
+   * @param cached   the cached entry
+   * @return the resulting {@code TeleportStatus}
+   */
+  private TeleportStatus teleport(LocalEntity entity, LocalWorld world, EulerDirection rotation,
+                                  SafePositionCache.CachedPosition cached) {
+    entity.teleport(world, cached.getSafePosition(), rotation);
+    return cached.isModified() ? TeleportStatus.MODIFIED : TeleportStatus.ORIGINAL;
+  }
+
+  /**
+   * Teleports the entities of a group to the given positions in batches, one batch per tick.
+   */
+  private class GroupTeleport implements Runnable {
+
+    private final List<? extends LocalEntity> entities;
+    private final LocalWorld world;
+    private final Vector3 position;
+    private final EulerDirection rotation;
+    private final List<Vector3> safePositions;
+    private final SettableFuture<List<TeleportStatus>> future;
+    private final List<TeleportStatus> statuses;
+
+    /**
+     * Creates an instance. Entities are assigned to the given safe positions in turns.
+     *
+     * @param entities      the entities to teleport
+     * @param world         the world to teleport to
+     * @param position      the position that was requested
+     * @param rotation      the rotation to teleport to
+     * @param safePositions the safe positions to teleport to, nearest first
+     * @param future        the future that is completed once all entities have been teleported
+     */
+    GroupTeleport(List<? extends LocalEntity> entities, LocalWorld world, Vector3 position, EulerDirection rotation,
+                  List<Vector3> safePositions, SettableFuture<List<TeleportStatus>> future) {
+      this.entities = entities;
+      this.world = world;
+      this.position = position;
+      this.rotation = rotation;
+      this.safePositions = safePositions;
+      this.future = future;
+      this.statuses = new ArrayList<TeleportStatus>(entities.size());
+    }
+
+    @Override
+    public void run() {
+      try {
+        int end = Math.min(statuses.size() + GROUP_BATCH_SIZE, entities.size());
+        for (int i = statuses.size(); i < end; i++) {
+          if (safePositions.isEmpty()) {
+            statuses.add(TeleportStatus.NONE);
+            continue;
+          }
+          Vector3 safePosition = safePositions.get(i % safePositions.size());
+          entities.get(i).teleport(world, safePosition, rotation);
+          statuses.add(position.equals(safePosition) ? TeleportStatus.ORIGINAL : TeleportStatus.MODIFIED);
+        }
+      } catch (RuntimeException e) {
+        future.setException(e);
+        return;
       }
-      if (!position.equals(safePosition.get())) {
-        entity.teleport(world, safePosition.get(), rotation);
-        return TeleportStatus.MODIFIED;
+      if (statuses.size() < entities.size()) {
+        game.getExecutor().execute(this);
+      } else {
+        future.set(statuses);
       }
     }
-    entity.teleport(world, position, rotation);
-    return TeleportStatus.ORIGINAL;
   }
 
 }
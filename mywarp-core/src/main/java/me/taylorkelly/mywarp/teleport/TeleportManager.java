@@ -1,10 +1,14 @@
 package me.taylorkelly.mywarp.teleport;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import me.taylorkelly.mywarp.LocalEntity;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.util.EulerDirection;
 import me.taylorkelly.mywarp.util.Vector3;
 
+import java.util.List;
+
 /**
  * Provides a managed way to teleport an entity. Implementations may call additional validation before, or call
  * additional callback after a teleport is executed.
@@ -58,4 +62,37 @@ public interface TeleportManager {
    */
   TeleportStatus teleport(LocalEntity entity, LocalWorld world, Vector3 position, EulerDirection rotation);
 
+  /**
+   * Teleports the given {@code entity} to the given {@code position} in the given {@code world} and sets its rotation
+   * to the given one, just like {@link #teleport(LocalEntity, LocalWorld, Vector3, EulerDirection)}. Implementations
+   * may prepare the teleport outside of the Thread that handles the game's logic, but the entity itself is always
+   * teleported within it.
+   * <p>This method must be called from the Thread that handles the game's logic. The returned future is completed
+   * within that Thread once the teleport has been executed.</p>
+   *
+   * @param entity   the entity to teleport
+   * @param world    the world to teleport to
+   * @param position the position to teleport to
+   * @param rotation the rotation  to teleport to
+   * @return a future that provides the resulting {@code TeleportStatus}
+   */
+  ListenableFuture<TeleportStatus> teleportAsync(LocalEntity entity, LocalWorld world, Vector3 position,
+                                                 EulerDirection rotation);
+
+  /**
+   * Teleports all given {@code entities} to the given {@code position} in the given {@code world} and sets their
+   * rotation to the given one. Implementations may spread the entities across several positions near the given one and
+   * teleport them across several ticks.
+   * <p>This method must be called from the Thread that handles the game's logic. The returned future is completed
+   * within that Thread once all entities have been teleported.</p>
+   *
+   * @param entities the entities to teleport
+   * @param world    the world to teleport to
+   * @param position the position to teleport to
+   * @param rotation the rotation  to teleport to
+   * @return a future that provides the resulting {@code TeleportStatus} of each entity, in the order of the entities
+   */
+  ListenableFuture<List<TeleportStatus>> teleportGroupAsync(List<? extends LocalEntity> entities, LocalWorld world,
+                                                            Vector3 position, EulerDirection rotation);
+
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.timer;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.MyWarp;
+import me.taylorkelly.mywarp.storage.CooldownStorage;
+import me.taylorkelly.mywarp.util.MyWarpLogger;
+import me.taylorkelly.mywarp.util.profile.Profile;
+
+import org.slf4j.Logger;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persists the expiry dates of {@link WarpCooldown}s so that they survive restarts and relogs.
+ * <p>Running cooldowns are still only checked in memory by the {@link TimerService}. Started cooldowns are collected
+ * and written by a single task on the data executor, so a burst of cooldowns ends up in one batch. Stored cooldowns
+ * are loaded lazily when their player joins and restarted on the TimerService for the remaining time, so nothing is
+ * loaded on startup.</p>
+ * <p>The TimerService counts game ticks, but expiries are stored as wall-clock dates, computed from the nominal length
+ * of the cooldown when it is started. A restored cooldown therefore runs for the wall-clock time that remained, which
+ * is converted back into ticks when it is restarted. Time spent while the server is down or the player is offline
+ * counts towards the cooldown, and if the server lags, a restored cooldown may end earlier in ticks than it would have
+ * without the restart.</p>
+ */
+public class PersistentCooldowns {
+
+  private static final Logger log = MyWarpLogger.getLogger(PersistentCooldowns.class);
+
+  private final MyWarp myWarp;
+  private final CooldownStorage storage;
+  private final ListeningExecutorService executor;
+  private final ConcurrentMap<UUID, Date> pending = new ConcurrentHashMap<UUID, Date>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  /**
+   * Creates an instance.
+   *
+   * @param myWarp   the MyWarp instance
+   * @param storage  the storage cooldowns are persisted to
+   * @param executor the executor all storage operations run on
+   */
+  public PersistentCooldowns(MyWarp myWarp, CooldownStorage storage, ListeningExecutorService executor) {
+    this.myWarp = myWarp;
+    this.storage = storage;
+    this.executor = executor;
+  }
+
+  /**
+   * Called when a cooldown of the given Duration has been started for the given Profile. The expiry date is written
+   * to the storage together with all other cooldowns started until the write task runs.
+   *
+   * @param profile  the Profile
+   * @param duration the Duration of the cooldown
+   */
+  public void started(Profile profile, Duration duration) {
+    pending.put(profile.getUniqueId(), new Date(System.currentTimeMillis() + duration.get(TimeUnit.MILLISECONDS)));
+
+    if (flushScheduled.compareAndSet(false, true)) {
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          flush();
+        }
+      });
+    }
+  }
+
+  /**
+   * Writes all pending expiry dates to the storage.
+   */
+  private void flush() {
+    flushScheduled.set(false);
+
+    Map<UUID, Date> batch = new HashMap<UUID, Date>();
+    for (Map.Entry<UUID, Date> entry : pending.entrySet()) {
+      if (pending.remove(entry.getKey(), entry.getValue())) {
+        batch.put(entry.getKey(), entry.getValue());
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      storage.storeCooldownExpiries(batch);
+    } catch (RuntimeException e) {
+      log.error(String.format("Failed to store %d cooldowns.", batch.size()), e);
+    }
+  }
+
+  /**
+   * Loads the stored cooldown of the player with the given unique identifier. If the cooldown has not yet expired, it
+   * is started on the TimerService for the remaining time, unless the player is offline or already cooling down.
+   *
+   * @param uniqueId the unique identifier of the player
+   */
+  public void load(final UUID uniqueId) {
+    ListenableFuture<Optional<Date>> futureExpiry = executor.submit(new Callable<Optional<Date>>() {
+      @Override
+      public Optional<Date> call() throws Exception {
+        return storage.getCooldownExpiry(uniqueId);
+      }
+    });
+
+    Futures.addCallback(futureExpiry, new FutureCallback<Optional<Date>>() {
+
+      @Override
+      public void onSuccess(Optional<Date> result) {
+        if (!result.isPresent()) {
+          return;
+        }
+        long remaining = result.get().getTime() - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return;
+        }
+        Optional<LocalPlayer> optionalPlayer = myWarp.getGame().getPlayer(uniqueId);
+        if (!optionalPlayer.isPresent()) {
+          return;
+        }
+        LocalPlayer player = optionalPlayer.get();
+        myWarp.getPlatform().getTimerService()
+            .startIfAbsent(player.getProfile(), new Duration(remaining, TimeUnit.MILLISECONDS),
+                           new WarpCooldown(myWarp, player));
+      }
+
+      @Override
+      public void onFailure(Throwable throwable) {
+        log.error(String.format("Failed to load the cooldown of %s.", uniqueId), throwable);
+      }
+
+    }, myWarp.getGame().getExecutor());
+  }
+
+  /**
+   * Removes all cooldowns that have expired from the storage. The removal runs on the data executor.
+   */
+  public void removeExpired() {
+    executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          storage.removeExpiredCooldowns(new Date());
+        } catch (RuntimeException e) {
+          log.error("Failed to remove expired cooldowns.", e);
+        }
+      }
+    });
+  }
+
+}
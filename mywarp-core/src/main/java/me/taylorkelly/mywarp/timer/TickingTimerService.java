@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.timer;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * A TimerService that runs all timers on a single {@link TimingWheel}. The wheel is advanced by {@link #tick()} that
+ * must be called once per game tick from the game's main Thread.
+ * <p>Expirations and the periodic checks of {@link AbortableTimerAction}s are both scheduled on the wheel, so the
+ * work done in each tick only depends on the number of timers that are actually due, not on the number of timers
+ * that are running.</p>
+ * <p>Apart from {@link #tick()}, all methods are thread-safe. Running timers are registered in a concurrent map, so
+ * {@link #has(Object, Class)} never blocks and {@link #startIfAbsent(Object, Duration, TimerAction)} starts at most
+ * one timer per subject and type even if called concurrently. The wheel itself is only touched from the main Thread:
+ * timers that are started or cancelled are handed over to it and applied at the beginning of the next tick. As the
+ * expiry of a timer is fixed when it is started, this does not change when the timer runs.</p>
+ */
+@SuppressWarnings("rawtypes")
+public class TickingTimerService implements TimerService {
+
+  private static final long MILLIS_PER_TICK = 50;
+
+  private final ConcurrentMap<TimerKey, RunningTimer> runningTimers = new ConcurrentHashMap<TimerKey, RunningTimer>();
+  private final Queue<Runnable> wheelOperations = new ConcurrentLinkedQueue<Runnable>();
+  private final TimingWheel wheel = new TimingWheel();
+
+  private volatile long currentTick;
+
+  @Override
+  public <T> void start(T timedSubject, Duration duration, TimerAction<T> action) {
+    Preconditions.checkArgument(startIfAbsent(timedSubject, duration, action),
+                                "A timer of the type %s is already running for %s.", action.getClass(), timedSubject);
+  }
+
+  @Override
+  public <T> boolean startIfAbsent(T timedSubject, Duration duration, TimerAction<T> action) {
+    TimerKey key = new TimerKey(timedSubject, action.getClass());
+    final RunningTimer timer = new RunningTimer(key, action, currentTick + Math.max(duration.getTicks(), 1));
+    if (runningTimers.putIfAbsent(key, timer) != null) {
+      return false;
+    }
+    wheelOperations.add(new Runnable() {
+      @Override
+      public void run() {
+        timer.schedule();
+      }
+    });
+    return true;
+  }
+
+  @Override
+  public EvaluationResult has(Object timedSubject, Class<? extends TimerAction> clazz) {
+    RunningTimer timer = runningTimers.get(new TimerKey(timedSubject, clazz));
+    if (timer != null) {
+      return new EvaluationResult(true, timer.getRemainingTime());
+    }
+    return EvaluationResult.NO_RUNNING_TIMER;
+  }
+
+  @Override
+  public void cancel(Object timedSubject, Class<? extends TimerAction> clazz) {
+    final RunningTimer timer = runningTimers.remove(new TimerKey(timedSubject, clazz));
+    if (timer != null) {
+      wheelOperations.add(new Runnable() {
+        @Override
+        public void run() {
+          timer.unschedule();
+        }
+      });
+    }
+  }
+
+  /**
+   * Advances all timers by a single tick, running the actions that are due and checking the abortable actions whose
+   * check interval has passed.
+   * <p>This method must only be called from the game's main Thread.</p>
+   */
+  public void tick() {
+    Runnable operation;
+    while ((operation = wheelOperations.poll()) != null) {
+      operation.run();
+    }
+    currentTick++;
+    wheel.tick();
+  }
+
+  /**
+   * Gets the number of timers that are currently running.
+   *
+   * @return the number of running timers
+   */
+  public int getRunningTimers() {
+    return runningTimers.size();
+  }
+
+  /**
+   * Identifies a running timer by its subject and the type of its action.
+   */
+  private static final class TimerKey {
+
+    private final Object timedSubject;
+    private final Class<? extends TimerAction> clazz;
+
+    /**
+     * Creates an instance.
+     *
+     * @param timedSubject the subject the timer runs on
+     * @param clazz        the type of the timer's action
+     */
+    TimerKey(Object timedSubject, Class<? extends TimerAction> clazz) {
+      this.timedSubject = timedSubject;
+      this.clazz = clazz;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TimerKey that = (TimerKey) o;
+      return timedSubject.equals(that.timedSubject) && clazz.equals(that.clazz);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(timedSubject, clazz);
+    }
+  }
+
+  /**
+   * A timer that runs its action once it expires. A timer is running as long as it is registered under its key, so
+   * whoever removes it from the registry decides whether its action runs or not.
+   */
+  private class RunningTimer implements Runnable {
+
+    private final TimerKey key;
+    private final TimerAction<?> action;
+    private final long expiryTick;
+
+    @Nullable
+    private TimingWheel.Timeout expiry;
+    @Nullable
+    private TimingWheel.Timeout abortCheck;
+
+    /**
+     * Creates an instance that expires in the given tick.
+     *
+     * @param key        the key the timer is registered under
+     * @param action     the action to run
+     * @param expiryTick the tick the timer expires in
+     */
+    RunningTimer(TimerKey key, TimerAction<?> action, long expiryTick) {
+      this.key = key;
+      this.action = action;
+      this.expiryTick = expiryTick;
+    }
+
+    /**
+     * Gets the time remaining until this timer expires.
+     *
+     * @return the time remaining
+     */
+    Duration getRemainingTime() {
+      return new Duration(Math.max(expiryTick - currentTick, 0) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules this timer on the wheel. If the action is an {@link AbortableTimerAction}, it is checked for abortion
+     * every {@link AbortableTimerAction#CHECK_INTERVAL_TICKS} ticks. Must be called from the main Thread.
+     */
+    void schedule() {
+      expiry = wheel.schedule(expiryTick - currentTick, this);
+
+      if (action instanceof AbortableTimerAction) {
+        scheduleAbortCheck();
+      }
+    }
+
+    /**
+     * Removes this timer from the wheel, so that its action will not run. Must be called from the main Thread.
+     */
+    void unschedule() {
+      if (expiry != null) {
+        expiry.cancel();
+      }
+      cancelAbortCheck();
+    }
+
+    @Override
+    public void run() {
+      cancelAbortCheck();
+      // a concurrent cancel wins if it removed the timer first
+      if (runningTimers.remove(key, this)) {
+        action.run();
+      }
+    }
+
+    /**
+     * Schedules the next check whether the action should be aborted.
+     */
+    private void scheduleAbortCheck() {
+      abortCheck = wheel.schedule(AbortableTimerAction.CHECK_INTERVAL_TICKS, new Runnable() {
+        @Override
+        public void run() {
+          if (runningTimers.get(key) != RunningTimer.this) {
+            return;
+          }
+          if (((AbortableTimerAction) action).abort()) {
+            cancel(key.timedSubject, key.clazz);
+          } else {
+            scheduleAbortCheck();
+          }
+        }
+      });
+    }
+
+    /**
+     * Cancels the pending abort check, if any.
+     */
+    private void cancelAbortCheck() {
+      if (abortCheck != null) {
+        abortCheck.cancel();
+      }
+    }
+  }
+
+}
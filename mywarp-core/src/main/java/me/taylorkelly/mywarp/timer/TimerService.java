@@ -36,6 +36,18 @@ public interface TimerService {
    */
   <T> void start(T timedSubject, Duration duration, TimerAction<T> action);
 
+  /**
+   * Starts a timer with the given TimerAction and the given Duration on the given subject, unless a timer of the
+   * action's Class is already running on it. Checking and starting happen atomically.
+   *
+   * @param <T>          the type of the subject the timer runs on
+   * @param timedSubject the instance the timer runs on
+   * @param duration     the Duration
+   * @param action       the TimerAction
+   * @return true if the timer was started, false if a timer of the same Class is already running
+   */
+  <T> boolean startIfAbsent(T timedSubject, Duration duration, TimerAction<T> action);
+
   /**
    * Returns whether the given subject has a running timer of the given Class.
    *
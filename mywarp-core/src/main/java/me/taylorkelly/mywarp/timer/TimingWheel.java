@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.timer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import me.taylorkelly.mywarp.util.MyWarpLogger;
+
+import org.slf4j.Logger;
+
+/**
+ * A hierarchical timing wheel that runs tasks after a delay measured in ticks.
+ * <p>The wheel consists of four levels with 64 slots each. A task is stored in the slot of the lowest level whose span
+ * covers its delay and moves down a level whenever the wheel below completes a revolution, so scheduling and
+ * cancelling a task take constant time and every tick only touches the tasks that are actually due. Delays beyond
+ * the span of the highest level (about 9.7 days at 20 ticks per second) are capped to that span and re-evaluated once
+ * it is reached.</p>
+ * <p>A TimingWheel is not thread-safe. It must only be used from the Thread that calls {@link #tick()}. Tasks may
+ * schedule and cancel other tasks while they run.</p>
+ */
+public class TimingWheel {
+
+  private static final Logger log = MyWarpLogger.getLogger(TimingWheel.class);
+
+  private static final int LEVEL_BITS = 6;
+  private static final int SLOTS = 1 << LEVEL_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+  private static final long MAX_DELAY = (1L << (LEVEL_BITS * LEVELS)) - 1;
+
+  private final Timeout[][] wheels = new Timeout[LEVELS][SLOTS];
+  private long currentTick;
+  private int size;
+
+  /**
+   * Schedules the given task to run after the given number of ticks. Delays smaller than one tick are executed in
+   * the next tick.
+   *
+   * @param delay the delay in ticks
+   * @param task  the task to run
+   * @return the Timeout that represents the scheduled task
+   */
+  public Timeout schedule(long delay, Runnable task) {
+    Timeout timeout = new Timeout(currentTick + Math.max(delay, 1), checkNotNull(task));
+    insert(timeout);
+    size++;
+    return timeout;
+  }
+
+  /**
+   * Advances this wheel by a single tick and runs all tasks that are due.
+   */
+  public void tick() {
+    currentTick++;
+
+    // move tasks down once the wheel below completes a revolution
+    for (int level = 1; level < LEVELS; level++) {
+      int slot = slotOf(currentTick, level - 1);
+      if (slot != 0) {
+        break;
+      }
+      Timeout timeout = detach(level, slotOf(currentTick, level));
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        timeout.next = null;
+        insert(timeout);
+        timeout = next;
+      }
+    }
+
+    Timeout timeout = detach(0, slotOf(currentTick, 0));
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      timeout.next = null;
+      if (timeout.state == Timeout.PENDING) {
+        if (timeout.deadline > currentTick) {
+          insert(timeout);
+        } else {
+          timeout.state = Timeout.EXPIRED;
+          size--;
+          try {
+            timeout.task.run();
+          } catch (RuntimeException e) {
+            log.error(String.format("A timer task failed in tick %d.", currentTick), e);
+          }
+        }
+      }
+      timeout = next;
+    }
+  }
+
+  /**
+   * Gets the number of ticks this wheel has advanced.
+   *
+   * @return the current tick
+   */
+  public long getCurrentTick() {
+    return currentTick;
+  }
+
+  /**
+   * Gets the number of tasks that are scheduled, but have not yet run.
+   *
+   * @return the number of pending tasks
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Inserts the given Timeout into the slot that matches its deadline.
+   *
+   * @param timeout the Timeout
+   */
+  private void insert(Timeout timeout) {
+    long deadline = Math.min(timeout.deadline, currentTick + MAX_DELAY);
+    long delay = deadline - currentTick;
+
+    int level = 0;
+    while (level < LEVELS - 1 && delay >= 1L << (LEVEL_BITS * (level + 1))) {
+      level++;
+    }
+    int slot = slotOf(deadline, level);
+
+    Timeout head = wheels[level][slot];
+    timeout.level = level;
+    timeout.slot = slot;
+    timeout.prev = null;
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    wheels[level][slot] = timeout;
+  }
+
+  /**
+   * Removes all Timeouts from the given slot and returns the first of them. The returned Timeouts remain linked
+   * through {@link Timeout#next}, but are no longer part of any slot.
+   *
+   * @param level the level of the slot
+   * @param slot  the slot
+   * @return the first Timeout or {@code null} if the slot is empty
+   */
+  private Timeout detach(int level, int slot) {
+    Timeout head = wheels[level][slot];
+    wheels[level][slot] = null;
+    for (Timeout timeout = head; timeout != null; timeout = timeout.next) {
+      timeout.level = Timeout.DETACHED;
+      timeout.prev = null;
+    }
+    return head;
+  }
+
+  /**
+   * Removes the given Timeout from its slot.
+   *
+   * @param timeout the Timeout
+   */
+  private void unlink(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      wheels[timeout.level][timeout.slot] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+  }
+
+  /**
+   * Gets the slot the given tick falls into on the given level.
+   *
+   * @param tick  the tick
+   * @param level the level
+   * @return the slot
+   */
+  private static int slotOf(long tick, int level) {
+    return (int) (tick >>> (LEVEL_BITS * level)) & SLOT_MASK;
+  }
+
+  /**
+   * A task that is scheduled on a TimingWheel.
+   */
+  public final class Timeout {
+
+    private static final int PENDING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+    private static final int DETACHED = -1;
+
+    private final long deadline;
+    private final Runnable task;
+
+    private int state = PENDING;
+    private int level = DETACHED;
+    private int slot;
+    private Timeout prev;
+    private Timeout next;
+
+    /**
+     * Creates an instance.
+     *
+     * @param deadline the tick the task is due
+     * @param task     the task
+     */
+    private Timeout(long deadline, Runnable task) {
+      this.deadline = deadline;
+      this.task = task;
+    }
+
+    /**
+     * Cancels the task so that it will not run.
+     *
+     * @return {@code true} if the task was pending and has been cancelled
+     */
+    public boolean cancel() {
+      if (state != PENDING) {
+        return false;
+      }
+      state = CANCELLED;
+      size--;
+      // detached timeouts are skipped when their slot is processed
+      if (level != DETACHED) {
+        unlink(this);
+      }
+      return true;
+    }
+
+    /**
+     * Returns whether the task is still waiting to run.
+     *
+     * @return {@code true} if the task is pending
+     */
+    public boolean isPending() {
+      return state == PENDING;
+    }
+
+    /**
+     * Gets the number of ticks remaining until the task runs.
+     *
+     * @return the remaining ticks, {@code 0} if the task is no longer pending
+     */
+    public long getRemainingTicks() {
+      return isPending() ? deadline - currentTick : 0;
+    }
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.timer;
+
+import me.taylorkelly.mywarp.util.Vector3;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks the {@link WarpWarmup}s that are aborted if their player moves or takes damage.
+ * <p>Platforms report moves and damage of players, which are matched against the tracked warmups by a single hash
+ * lookup. Warmups whose player does neither cost nothing, and players without a warmup are discarded right away.</p>
+ * <p>A WarmupTracker is not thread-safe, it must only be used from the game's main Thread.</p>
+ */
+public class WarmupTracker {
+
+  private final Map<UUID, WarpWarmup> warmups = new HashMap<UUID, WarpWarmup>();
+
+  /**
+   * Tracks the given warmup for the player with the given unique identifier, replacing any warmup tracked for that
+   * player.
+   *
+   * @param uniqueId the unique identifier of the player
+   * @param warmup   the warmup
+   */
+  void track(UUID uniqueId, WarpWarmup warmup) {
+    warmups.put(uniqueId, warmup);
+  }
+
+  /**
+   * Stops tracking the given warmup for the player with the given unique identifier. Nothing happens if another warmup
+   * is tracked for that player.
+   *
+   * @param uniqueId the unique identifier of the player
+   * @param warmup   the warmup
+   */
+  void untrack(UUID uniqueId, WarpWarmup warmup) {
+    if (warmups.get(uniqueId) == warmup) {
+      warmups.remove(uniqueId);
+    }
+  }
+
+  /**
+   * Returns whether a warmup is tracked for the player with the given unique identifier. Platforms should call this
+   * method before converting event data to call {@link #onMove(UUID, UUID, Vector3)}.
+   *
+   * @param uniqueId the unique identifier of the player
+   * @return {@code true} if a warmup is tracked
+   */
+  public boolean isTracked(UUID uniqueId) {
+    return warmups.containsKey(uniqueId);
+  }
+
+  /**
+   * Called when the player with the given unique identifier moved to the given position in the world with the given
+   * unique identifier.
+   *
+   * @param uniqueId the unique identifier of the player
+   * @param worldId  the unique identifier of the world
+   * @param position the new position
+   */
+  public void onMove(UUID uniqueId, UUID worldId, Vector3 position) {
+    WarpWarmup warmup = warmups.get(uniqueId);
+    if (warmup != null) {
+      warmup.onMove(worldId, position);
+    }
+  }
+
+  /**
+   * Called when the player with the given unique identifier took damage.
+   *
+   * @param uniqueId the unique identifier of the player
+   */
+  public void onDamage(UUID uniqueId) {
+    WarpWarmup warmup = warmups.get(uniqueId);
+    if (warmup != null) {
+      warmup.onDamage();
+    }
+  }
+
+  /**
+   * Gets the number of tracked warmups.
+   *
+   * @return the number of tracked warmups
+   */
+  public int size() {
+    return warmups.size();
+  }
+
+}
@@ -20,10 +20,14 @@
 package me.taylorkelly.mywarp.timer;
 
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import me.taylorkelly.mywarp.ChunkTicket;
 import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.MyWarp;
 import me.taylorkelly.mywarp.economy.FeeProvider;
+import me.taylorkelly.mywarp.teleport.TeleportManager.TeleportStatus;
 import me.taylorkelly.mywarp.util.CommandUtils;
 import me.taylorkelly.mywarp.util.Vector3;
 import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
@@ -31,10 +35,20 @@ import me.taylorkelly.mywarp.util.i18n.LocaleManager;
 import me.taylorkelly.mywarp.util.profile.Profile;
 import me.taylorkelly.mywarp.warp.Warp;
 
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
 /**
  * A warmup that teleports a player to a warp when done.
+ * <p>If configured, the warmup is aborted once the player moves or takes damage. Whether the player may ignore these
+ * conditions is determined when the warmup starts. Moves and damage are reported by the platform through the
+ * {@link WarmupTracker}, so a warmup is never polled.</p>
+ * <p>If chunks should be preloaded, the chunks around the warp, including the radius searched for a safe position, are
+ * loaded when the warmup starts and kept loaded until the warmup finishes or is aborted, so the teleport itself does
+ * not need to load them.</p>
  */
-public class WarpWarmup extends AbortableTimerAction<Profile> {
+public class WarpWarmup extends TimerAction<Profile> {
 
   private static final int ALLOWED_DISTANCE = 2;
 
@@ -42,8 +56,13 @@ public class WarpWarmup extends AbortableTimerAction<Profile> {
 
   private final MyWarp myWarp;
   private final Warp warp;
+  private final UUID initialWorld;
   private final Vector3 initialPosition;
-  private final double initialHealth;
+  private final boolean abortOnMove;
+  private final boolean abortOnDamage;
+
+  @Nullable
+  private ChunkTicket chunkTicket;
 
   /**
    * Initializes the warp-warmup.
@@ -56,14 +75,34 @@ public class WarpWarmup extends AbortableTimerAction<Profile> {
     super(player.getProfile());
     this.myWarp = myWarp;
     this.warp = warp;
+    this.initialWorld = player.getWorld().getUniqueId();
     this.initialPosition = player.getPosition();
-    this.initialHealth = player.getHealth();
+    this.abortOnMove = myWarp.getSettings().isTimersWarmupAbortOnMove()
+                       && !player.hasPermission("mywarp.timer.disobey.warmup-abort.move");
+    this.abortOnDamage = myWarp.getSettings().isTimersWarmupAbortOnDamage()
+                         && !player.hasPermission("mywarp.timer.disobey.warmup-abort.damage");
+
+    if (abortOnMove || abortOnDamage) {
+      myWarp.getWarmupTracker().track(player.getUniqueId(), this);
+    }
+
+    if (!myWarp.getSettings().isPreloadChunks()) {
+      return;
+    }
+    Optional<LocalWorld> world = myWarp.getGame().getWorld(warp.getWorldIdentifier());
+    if (world.isPresent()) {
+      int radius = myWarp.getSettings().isSafetyEnabled() ? myWarp.getSettings().getSafetySearchRadius() : 0;
+      this.chunkTicket = world.get().preload(warp.getPosition(), radius);
+    }
   }
 
   @Override
   public void run() {
+    myWarp.getWarmupTracker().untrack(getTimedSuject().getUniqueId(), this);
+
     Optional<LocalPlayer> optionalPlayer = myWarp.getGame().getPlayer(getTimedSuject().getUniqueId());
     if (!optionalPlayer.isPresent()) {
+      releaseChunks();
       return;
     }
     LocalPlayer player = optionalPlayer.get();
@@ -71,58 +110,72 @@ public class WarpWarmup extends AbortableTimerAction<Profile> {
 
     if (myWarp.getSettings().isEconomyEnabled()) {
       if (myWarp.getEconomyManager().hasAtLeast(player, FeeProvider.FeeType.WARP_TO)) {
+        releaseChunks();
         return;
       }
     }
 
-    warp.teleport(player, FeeProvider.FeeType.WARP_TO);
+    ListenableFuture<TeleportStatus> teleport = warp.teleportAsync(player, FeeProvider.FeeType.WARP_TO);
+    // the chunks are needed until the player has been teleported
+    teleport.addListener(new Runnable() {
+      @Override
+      public void run() {
+        releaseChunks();
+      }
+    }, myWarp.getGame().getExecutor());
     Duration duration = myWarp.getPlatform().getDurationProvider().getDuration(player, WarpCooldown.class);
     myWarp.getPlatform().getTimerService().start(player.getProfile(), duration, new WarpCooldown(myWarp, player));
-  }
-
-  @Override
-  public boolean abort() {
-    Optional<LocalPlayer> player = myWarp.getGame().getPlayer(getTimedSuject().getUniqueId());
-    // player is not online, but might re-login so the timer continues
-    return player.isPresent() && (abortOnMove(player.get()) || abortOnDamage(player.get()));
+    myWarp.getPersistentCooldowns().started(player.getProfile(), duration);
   }
 
   /**
-   * Returns whether the warmup should be aborted because the player has moved.
+   * Called when the player moved to the given position in the world with the given unique identifier. Aborts this
+   * warmup if it is aborted on move and the player changed the world or moved too far.
    *
-   * @param player the LocalPlayer
-   * @return true if the warmup should be aborted
+   * @param worldId  the unique identifier of the world
+   * @param position the new position
    */
-  private boolean abortOnMove(LocalPlayer player) {
-    if (myWarp.getSettings().isTimersWarmupAbortOnMove() || player
-        .hasPermission("mywarp.timer.disobey.warmup-abort.move")) {
-      return false;
+  void onMove(UUID worldId, Vector3 position) {
+    if (abortOnMove && (!worldId.equals(initialWorld)
+                        || position.distanceSquared(initialPosition) > ALLOWED_DISTANCE * ALLOWED_DISTANCE)) {
+      abort("warp-to.warmup.cancelled-move");
     }
-    if (!(player.getPosition().distanceSquared(initialPosition) > (ALLOWED_DISTANCE * ALLOWED_DISTANCE))) {
-      return false;
+  }
+
+  /**
+   * Called when the player took damage. Aborts this warmup if it is aborted on damage.
+   */
+  void onDamage() {
+    if (abortOnDamage) {
+      abort("warp-to.warmup.cancelled-damage");
     }
-    LocaleManager.setLocale(player.getLocale());
-    player.sendError(MESSAGES.getString("warp-to.warmup.cancelled-move"));
-    return true;
   }
 
   /**
-   * Returns whether the warmup should be aborted because the player has taken damage.
+   * Aborts this warmup and informs the player with the message of the given key.
    *
-   * @param player the LocalPlayer
-   * @return true if the warmup should be aborted
+   * @param messageKey the key of the message
    */
-  private boolean abortOnDamage(LocalPlayer player) {
-    if (myWarp.getSettings().isTimersWarmupAbortOnDamage() || player
-        .hasPermission("mywarp.timer.disobey.warmup-abort.damage")) {
-      return false;
+  private void abort(String messageKey) {
+    myWarp.getWarmupTracker().untrack(getTimedSuject().getUniqueId(), this);
+    myWarp.getPlatform().getTimerService().cancel(getTimedSuject(), WarpWarmup.class);
+    releaseChunks();
+
+    Optional<LocalPlayer> player = myWarp.getGame().getPlayer(getTimedSuject().getUniqueId());
+    if (player.isPresent()) {
+      LocaleManager.setLocale(player.get().getLocale());
+      player.get().sendError(MESSAGES.getString(messageKey));
     }
-    if (!(player.getHealth() < initialHealth)) {
-      return false;
+  }
+
+  /**
+   * Releases the chunks preloaded for this warmup, if any.
+   */
+  private void releaseChunks() {
+    if (chunkTicket != null) {
+      chunkTicket.release();
+      chunkTicket = null;
     }
-    LocaleManager.setLocale(player.getLocale());
-    player.sendError(MESSAGES.getString("warp-to.warmup.cancelled-damage"));
-    return true;
   }
 
 }
@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A BK-tree that maps string keys to values and finds all values whose key is within a given edit distance of a query.
+ * <p>Distances are measured by {@link #distance(CharSequence, CharSequence)}. As the distance is a metric, the
+ * triangle inequality allows a search to skip every subtree that cannot contain a match, so a search with a small
+ * distance only visits a small part of the tree instead of comparing the query to every key.</p>
+ * <p>Removing a key does not restructure the tree: the key's node is kept for routing and marked as dead once its last
+ * value is removed. If dead nodes outnumber live ones, the tree is rebuilt from the live nodes.</p>
+ * <p>This class is not thread-safe.</p>
+ *
+ * @param <V> the type of values
+ */
+public class BkTree<V> {
+
+  private final DistanceCalculator calculator = new DistanceCalculator();
+
+  private Node<V> root;
+  private int liveNodes;
+  private int deadNodes;
+
+  /**
+   * Calculates the Damerau-Levenshtein distance between the given sequences: the minimal number of insertions,
+   * deletions, substitutions and transpositions of adjacent characters needed to turn one sequence into the other.
+   * <p>Unlike the more common optimal string alignment distance, this distance is a metric, which the tree depends
+   * on.</p>
+   *
+   * @param s1 the first sequence
+   * @param s2 the second sequence
+   * @return the distance between both sequences
+   */
+  public static int distance(CharSequence s1, CharSequence s2) {
+    return new DistanceCalculator().distance(s1.toString().toCharArray(), s2.toString().toCharArray());
+  }
+
+  /**
+   * Adds the given value under the given key.
+   *
+   * @param key   the key
+   * @param value the value
+   */
+  public void add(String key, V value) {
+    char[] chars = key.toCharArray();
+    if (root == null) {
+      root = new Node<V>(key, value);
+      liveNodes++;
+      return;
+    }
+    Node<V> node = root;
+    while (true) {
+      int distance = calculator.distance(chars, node.chars);
+      if (distance == 0) {
+        if (node.values.isEmpty()) {
+          // nodes are created with a value, so an empty node is dead
+          deadNodes--;
+          liveNodes++;
+        }
+        node.values.add(value);
+        return;
+      }
+      Node<V> child = node.getChild(distance);
+      if (child == null) {
+        node.setChild(distance, new Node<V>(key, value));
+        liveNodes++;
+        return;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Removes the given value from the given key. Does nothing if the value is not stored under the key.
+   *
+   * @param key   the key
+   * @param value the value
+   */
+  public void remove(String key, V value) {
+    char[] chars = key.toCharArray();
+    Node<V> node = root;
+    while (node != null) {
+      int distance = calculator.distance(chars, node.chars);
+      if (distance == 0) {
+        if (node.values.remove(value) && node.values.isEmpty()) {
+          liveNodes--;
+          deadNodes++;
+          if (deadNodes > liveNodes) {
+            rebuild();
+          }
+        }
+        return;
+      }
+      node = node.getChild(distance);
+    }
+  }
+
+  /**
+   * Removes all keys and values.
+   */
+  public void clear() {
+    root = null;
+    liveNodes = 0;
+    deadNodes = 0;
+  }
+
+  /**
+   * Gets all values whose key is within the given distance of the given query. Values are ordered by the distance of
+   * their key, closest first.
+   *
+   * @param query       the query
+   * @param maxDistance the maximum distance
+   * @return all values within the given distance
+   */
+  public List<V> search(String query, int maxDistance) {
+    checkArgument(maxDistance >= 0, "The maximum distance must not be negative.");
+    if (root == null) {
+      return Collections.emptyList();
+    }
+
+    // bucket matches by their distance to keep them ordered
+    List<List<V>> byDistance = new ArrayList<List<V>>(maxDistance + 1);
+    for (int i = 0; i <= maxDistance; i++) {
+      byDistance.add(new ArrayList<V>());
+    }
+
+    char[] chars = query.toCharArray();
+    Deque<Node<V>> pending = new ArrayDeque<Node<V>>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Node<V> node = pending.pop();
+      // beyond this bound, neither the node nor any of its children can match, so the exact distance is irrelevant
+      int bound = Math.max(node.children.length - 1, 0) + maxDistance;
+      int distance = calculator.distance(chars, node.chars, bound);
+      if (distance > bound) {
+        continue;
+      }
+      if (distance <= maxDistance) {
+        byDistance.get(distance).addAll(node.values);
+      }
+      // by the triangle inequality, matches can only be in children whose distance to this node is within the range
+      int from = Math.max(1, distance - maxDistance);
+      int to = Math.min(node.children.length - 1, distance + maxDistance);
+      for (int i = from; i <= to; i++) {
+        if (node.children[i] != null) {
+          pending.push(node.children[i]);
+        }
+      }
+    }
+
+    List<V> ret = new ArrayList<V>();
+    for (List<V> values : byDistance) {
+      ret.addAll(values);
+    }
+    return ret;
+  }
+
+  /**
+   * Rebuilds this tree from its live nodes, dropping all dead ones.
+   */
+  private void rebuild() {
+    List<Node<V>> live = new ArrayList<Node<V>>(liveNodes);
+    Deque<Node<V>> pending = new ArrayDeque<Node<V>>();
+    if (root != null) {
+      pending.push(root);
+    }
+    while (!pending.isEmpty()) {
+      Node<V> node = pending.pop();
+      if (!node.values.isEmpty()) {
+        live.add(node);
+      }
+      for (Node<V> child : node.children) {
+        if (child != null) {
+          pending.push(child);
+        }
+      }
+    }
+
+    // inserting in key order keeps rebuilt trees deterministic
+    Collections.sort(live, new Comparator<Node<V>>() {
+      @Override
+      public int compare(Node<V> n1, Node<V> n2) {
+        return n1.key.compareTo(n2.key);
+      }
+    });
+
+    clear();
+    for (Node<V> node : live) {
+      for (V value : node.values) {
+        add(node.key, value);
+      }
+    }
+  }
+
+  /**
+   * A node of the tree.
+   *
+   * @param <V> the type of values
+   */
+  private static class Node<V> {
+
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    private final String key;
+    private final char[] chars;
+    private final Set<V> values = new LinkedHashSet<V>();
+
+    @SuppressWarnings("unchecked")
+    private Node<V>[] children = (Node<V>[]) NO_CHILDREN;
+
+    /**
+     * Creates an instance for the given key, holding the given value.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    Node(String key, V value) {
+      this.key = key;
+      this.chars = key.toCharArray();
+      values.add(value);
+    }
+
+    /**
+     * Gets the child whose key has the given distance to the key of this node.
+     *
+     * @param distance the distance
+     * @return the child or {@code null} if there is none
+     */
+    Node<V> getChild(int distance) {
+      return distance < children.length ? children[distance] : null;
+    }
+
+    /**
+     * Sets the child whose key has the given distance to the key of this node.
+     *
+     * @param distance the distance
+     * @param child    the child
+     */
+    void setChild(int distance, Node<V> child) {
+      if (distance >= children.length) {
+        children = Arrays.copyOf(children, distance + 1);
+      }
+      children[distance] = child;
+    }
+  }
+
+  /**
+   * Calculates the Damerau-Levenshtein distances used by {@link BkTree}, reusing its buffers between calculations.
+   * Instances are not thread-safe.
+   */
+  public static class DistanceCalculator {
+
+    private int[] matrix = new int[0];
+    // the last row in which each character of the first sequence occurred, names are mostly ASCII
+    private final int[] lastRowAscii = new int[128];
+    private final int[] charCounts = new int[128];
+    private final Map<Character, Integer> charCountsOther = new HashMap<Character, Integer>();
+    private final Map<Character, Integer> lastRowOther = new HashMap<Character, Integer>();
+
+    /**
+     * Calculates the distance between the given sequences.
+     *
+     * @param s1 the first sequence
+     * @param s2 the second sequence
+     * @return the distance between both sequences
+     */
+    public int distance(char[] s1, char[] s2) {
+      return distance(s1, s2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calculates the distance between the given sequences if it might be within the given bound. If the distance is
+     * guaranteed to exceed the bound, an arbitrary value greater than the bound is returned without calculating the
+     * exact distance.
+     *
+     * @param s1    the first sequence
+     * @param s2    the second sequence
+     * @param bound the bound
+     * @return the distance between both sequences, or a value greater than the bound
+     */
+    public int distance(char[] s1, char[] s2, int bound) {
+      int len1 = s1.length;
+      int len2 = s2.length;
+      if (Math.abs(len1 - len2) > bound) {
+        // every distance is at least the difference in length
+        return bound + 1;
+      }
+      if (len1 == 0) {
+        return len2;
+      }
+      if (len2 == 0) {
+        return len1;
+      }
+      if (bound < Math.max(len1, len2) && bagDistance(s1, s2) > bound) {
+        return bound + 1;
+      }
+
+      // the algorithm by Lowrance and Wagner, the matrix is offset by one row and column that hold the maximum
+      // distance and stored row by row
+      int columns = len2 + 2;
+      int size = (len1 + 2) * columns;
+      if (matrix.length < size) {
+        matrix = new int[size];
+      }
+      int max = len1 + len2;
+      matrix[0] = max;
+      for (int i = 0; i <= len1; i++) {
+        matrix[(i + 1) * columns] = max;
+        matrix[(i + 1) * columns + 1] = i;
+      }
+      for (int j = 0; j <= len2; j++) {
+        matrix[j + 1] = max;
+        matrix[columns + j + 1] = j;
+      }
+
+      for (int i = 1; i <= len1; i++) {
+        char c1 = s1[i - 1];
+        int lastMatchingColumn = 0;
+        int row = i * columns;
+        int nextRow = row + columns;
+        for (int j = 1; j <= len2; j++) {
+          char c2 = s2[j - 1];
+          int i1 = lastRow(c2);
+          int j1 = lastMatchingColumn;
+          int cost = 1;
+          if (c1 == c2) {
+            cost = 0;
+            lastMatchingColumn = j;
+          }
+          int value = Math.min(matrix[row + j] + cost, Math.min(matrix[nextRow + j] + 1, matrix[row + j + 1] + 1));
+          value = Math.min(value, matrix[i1 * columns + j1] + (i - i1 - 1) + 1 + (j - j1 - 1));
+          matrix[nextRow + j + 1] = value;
+        }
+        if (c1 < lastRowAscii.length) {
+          lastRowAscii[c1] = i;
+        } else {
+          lastRowOther.put(c1, i);
+        }
+      }
+
+      // reset the buffers for the next calculation
+      for (int i = 0; i < len1; i++) {
+        char c1 = s1[i];
+        if (c1 < lastRowAscii.length) {
+          lastRowAscii[c1] = 0;
+        }
+      }
+      lastRowOther.clear();
+
+      return matrix[(len1 + 1) * columns + len2 + 1];
+    }
+
+    /**
+     * Calculates the bag distance between the given sequences: the number of characters that remain in the larger of
+     * both multisets of characters after removing their intersection. As no edit operation changes this number by more
+     * than one, it is a lower bound of the Damerau-Levenshtein distance that is cheap to calculate.
+     *
+     * @param s1 the first sequence
+     * @param s2 the second sequence
+     * @return the bag distance
+     */
+    private int bagDistance(char[] s1, char[] s2) {
+      int len1 = s1.length;
+      int len2 = s2.length;
+      int onlyIn1 = 0;
+      int onlyIn2 = 0;
+      for (int i = 0; i < len1; i++) {
+        char c = s1[i];
+        if (c < charCounts.length) {
+          charCounts[c]++;
+        } else {
+          Integer count = charCountsOther.get(c);
+          charCountsOther.put(c, count == null ? 1 : count + 1);
+        }
+      }
+      for (int i = 0; i < len2; i++) {
+        char c = s2[i];
+        if (c < charCounts.length) {
+          if (charCounts[c] > 0) {
+            charCounts[c]--;
+          } else {
+            onlyIn2++;
+          }
+        } else {
+          Integer count = charCountsOther.get(c);
+          if (count != null && count > 0) {
+            charCountsOther.put(c, count - 1);
+          } else {
+            onlyIn2++;
+          }
+        }
+      }
+      for (int i = 0; i < len1; i++) {
+        char c = s1[i];
+        if (c < charCounts.length && charCounts[c] > 0) {
+          onlyIn1 += charCounts[c];
+          charCounts[c] = 0;
+        }
+      }
+      for (int count : charCountsOther.values()) {
+        onlyIn1 += count;
+      }
+      charCountsOther.clear();
+      return Math.max(onlyIn1, onlyIn2);
+    }
+
+    /**
+     * Gets the last row in which the given character occurred in the first sequence.
+     *
+     * @param c the character
+     * @return the row or {@code 0} if the character did not occur yet
+     */
+    private int lastRow(char c) {
+      if (c < lastRowAscii.length) {
+        return lastRowAscii[c];
+      }
+      Integer row = lastRowOther.get(c);
+      return row == null ? 0 : row;
+    }
+  }
+}
@@ -40,6 +40,7 @@ public class MatchList {
 
   private final List<Warp> matchingWarps;
   private final String filter;
+  private boolean sorted = true;
 
   /**
    * Initializes a MatchList using the given filter to filter warp-names, operating upon the given warps.
@@ -54,6 +55,10 @@ public class MatchList {
     // filter for warps that contain the name-filter (case insensitive)
     for (Warp warp : matchingWarps) {
       if (StringUtils.containsIgnoreCase(warp.getName(), filter)) {
+        // managers usually hand out warps in their natural order, which spares sorting them again
+        if (sorted && !this.matchingWarps.isEmpty()) {
+          sorted = this.matchingWarps.get(this.matchingWarps.size() - 1).compareTo(warp) <= 0;
+        }
         this.matchingWarps.add(warp);
       }
     }
@@ -101,6 +106,9 @@ public class MatchList {
    * @return a list of all matches
    */
   public ImmutableList<Warp> getMatches() {
+    if (sorted) {
+      return ImmutableList.copyOf(matchingWarps);
+    }
     return Ordering.natural().immutableSortedCopy(matchingWarps);
   }
 
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import me.taylorkelly.mywarp.Actor;
+import me.taylorkelly.mywarp.LocalEntity;
+import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.MyWarp;
+import me.taylorkelly.mywarp.economy.FeeProvider;
+import me.taylorkelly.mywarp.teleport.TeleportManager.TeleportStatus;
+import me.taylorkelly.mywarp.util.NoSuchWorldException;
+import me.taylorkelly.mywarp.util.WarpUtils;
+import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
+import me.taylorkelly.mywarp.util.i18n.LocaleManager;
+import me.taylorkelly.mywarp.util.profile.Profile;
+
+import java.util.List;
+
+/**
+ * Implements the behavior of a Warp on top of the Warp's accessors. Subclasses only decide how the Warp's values are
+ * stored.
+ */
+abstract class AbstractWarp implements Warp {
+
+  private static final DynamicMessages MESSAGES = new DynamicMessages(Warp.RESOURCE_BUNDLE_NAME);
+
+  protected final MyWarp myWarp;
+
+  /**
+   * Creates an instance.
+   *
+   * @param myWarp the running MyWarp instance
+   */
+  protected AbstractWarp(MyWarp myWarp) {
+    this.myWarp = myWarp;
+  }
+
+  /**
+   * Increases the number of times this Warp has been visited by one.
+   */
+  protected abstract void addVisit();
+
+  @Override
+  public void asCompassTarget(LocalPlayer player) {
+    player.setCompassTarget(getWorld(), getPosition());
+  }
+
+  @Override
+  public boolean isViewable(Actor actor) {
+    if (actor.hasPermission("mywarp.override.view")) {
+      return true;
+    }
+    if (actor instanceof LocalEntity) {
+      return isUsable((LocalEntity) actor);
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isUsable(LocalEntity entity) {
+    if (entity instanceof LocalPlayer) {
+      LocalPlayer player = (LocalPlayer) entity;
+      if (myWarp.getSettings().isControlWorldAccess()) {
+        if (!player.canAccessWorld(getWorld())) {
+          return false;
+
+        }
+      }
+      if (player.hasPermission("mywarp.override.use")) {
+        return true;
+      }
+      if (isCreator(player)) {
+        return true;
+      }
+      if (isPlayerInvited(player)) {
+        return true;
+      }
+      for (String groupId : getInvitedGroups()) {
+        if (player.hasGroup(groupId)) {
+          return true;
+        }
+      }
+    }
+    return isType(Warp.Type.PUBLIC);
+  }
+
+  @Override
+  public boolean isModifiable(Actor actor) {
+    if (actor.hasPermission("mywarp.override.modify")) {
+      return true;
+    }
+    if (actor instanceof LocalPlayer && isCreator((LocalPlayer) actor)) {
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public TeleportStatus teleport(LocalEntity entity) {
+    TeleportStatus status = myWarp.getTeleportManager().teleport(entity, getWorld(), getPosition(), getRotation());
+    recordVisit(status);
+    return status;
+  }
+
+  @Override
+  public TeleportStatus teleport(LocalPlayer player) {
+    TeleportStatus status = teleport((LocalEntity) player);
+    sendTeleportMessage(player, status);
+    return status;
+  }
+
+  @Override
+  public TeleportStatus teleport(LocalPlayer player, FeeProvider.FeeType fee) {
+    TeleportStatus status = teleport(player);
+    withdrawFee(player, fee, status);
+    return status;
+  }
+
+  @Override
+  public ListenableFuture<TeleportStatus> teleportAsync(final LocalPlayer player, final FeeProvider.FeeType fee) {
+    ListenableFuture<TeleportStatus> future =
+        myWarp.getTeleportManager().teleportAsync(player, getWorld(), getPosition(), getRotation());
+    return Futures.transform(future, new Function<TeleportStatus, TeleportStatus>() {
+      @Override
+      public TeleportStatus apply(TeleportStatus status) {
+        recordVisit(status);
+        // the locale of the game's thread might have changed since the teleport was requested
+        LocaleManager.setLocale(player.getLocale());
+        sendTeleportMessage(player, status);
+        withdrawFee(player, fee, status);
+        return status;
+      }
+    }, myWarp.getGame().getExecutor());
+  }
+
+  @Override
+  public ListenableFuture<List<TeleportStatus>> teleportGroupAsync(final List<? extends LocalPlayer> players) {
+    ListenableFuture<List<TeleportStatus>> future =
+        myWarp.getTeleportManager().teleportGroupAsync(players, getWorld(), getPosition(), getRotation());
+    return Futures.transform(future, new Function<List<TeleportStatus>, List<TeleportStatus>>() {
+      @Override
+      public List<TeleportStatus> apply(List<TeleportStatus> statuses) {
+        for (int i = 0; i < statuses.size(); i++) {
+          LocalPlayer player = players.get(i);
+          TeleportStatus status = statuses.get(i);
+          recordVisit(status);
+          LocaleManager.setLocale(player.getLocale());
+          // players are spread on purpose, a modified position does not mean the warp is unsafe
+          sendTeleportMessage(player, status == TeleportStatus.MODIFIED ? TeleportStatus.ORIGINAL : status);
+        }
+        return statuses;
+      }
+    }, myWarp.getGame().getExecutor());
+  }
+
+  /**
+   * Records a visit of this Warp if the given status implies that an entity has been teleported.
+   *
+   * @param status the status of the teleport
+   */
+  private void recordVisit(TeleportStatus status) {
+    if (status.isPositionModified()) {
+      addVisit();
+    }
+  }
+
+  /**
+   * Sends the message applicable for the given status to the given player.
+   *
+   * @param player the player
+   * @param status the status of the teleport
+   */
+  private void sendTeleportMessage(LocalPlayer player, TeleportStatus status) {
+    switch (status) {
+      case ORIGINAL:
+        if (!getWelcomeMessage().isEmpty()) {
+          // TODO color in aqua
+          player.sendMessage(getParsedWelcomeMessage(player));
+        }
+        break;
+      case MODIFIED:
+        player.sendError(MESSAGES.getString("unsafe-loc.closest-location", getName()));
+        break;
+      case NONE:
+        player.sendError(MESSAGES.getString("unsafe-loc.no-teleport", getName()));
+        break;
+    }
+  }
+
+  /**
+   * Withdraws the given fee from the given player if economy support is enabled and the given status implies that the
+   * player has been teleported.
+   *
+   * @param player the player
+   * @param fee    the fee that identifies the amount
+   * @param status the status of the teleport
+   */
+  private void withdrawFee(LocalPlayer player, FeeProvider.FeeType fee, TeleportStatus status) {
+    if (myWarp.getSettings().isEconomyEnabled() && status.isPositionModified()) {
+      myWarp.getEconomyManager().withdraw(player, fee);
+    }
+  }
+
+  @Override
+  public boolean isCreator(LocalPlayer player) {
+    return isCreator(player.getProfile());
+  }
+
+  @Override
+  public boolean isCreator(Profile profile) {
+    return getCreator().equals(profile);
+  }
+
+  @Override
+  public boolean isType(Warp.Type type) {
+    return getType() == type;
+  }
+
+  @Override
+  public boolean isPlayerInvited(LocalPlayer player) {
+    return isPlayerInvited(player.getProfile());
+  }
+
+  @Override
+  public int compareTo(Warp that) {
+    return getName().compareTo(that.getName());
+  }
+
+  @Override
+  public String getParsedWelcomeMessage(LocalPlayer forWhom) {
+    return WarpUtils.replaceTokens(getWelcomeMessage(), this, forWhom);
+  }
+
+  @Override
+  public LocalWorld getWorld() {
+    Optional<LocalWorld> world = myWarp.getGame().getWorld(getWorldIdentifier());
+    if (!world.isPresent()) {
+      throw new NoSuchWorldException(getWorldIdentifier().toString());
+    }
+    return world.get();
+  }
+
+}
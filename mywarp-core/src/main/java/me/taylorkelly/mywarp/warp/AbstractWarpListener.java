@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.List;
+
+/**
+ * A WarpListener whose methods do nothing. Subclasses override only the methods they need.
+ */
+public abstract class AbstractWarpListener implements WarpListener {
+
+  @Override
+  public void onAddition(Warp warp) {
+  }
+
+  @Override
+  public void onRemoval(Warp warp) {
+  }
+
+  @Override
+  public void onBulkRemoval(List<Warp> warps) {
+  }
+
+  @Override
+  public void onUpdate(Warp warp, UpdateType type) {
+  }
+
+  @Override
+  public void onBulkUpdate(List<Warp> warps, UpdateType type) {
+  }
+
+  @Override
+  public void onGroupInvites(Warp warp, InvitationStatus status, String groupId) {
+  }
+
+  @Override
+  public void onPlayerInvites(Warp warp, InvitationStatus status, Profile profile) {
+  }
+
+}
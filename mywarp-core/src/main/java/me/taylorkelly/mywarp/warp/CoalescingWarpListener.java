@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * A WarpListener that collects calls and passes them to another WarpListener in batches.
+ *
+ * <p>A batch is submitted to the given Executor when the first call is collected and contains all calls collected
+ * until it runs. Within a batch, calls are passed in the order they were made, except that repeated updates of the
+ * same type for the same Warp are merged into the first one. Bulk changes are never merged. An Executor that runs
+ * tasks at the next tick therefore passes at most one update per Warp and type each tick, no matter how often the Warp
+ * changes.</p>
+ *
+ * <p>Only one batch is submitted at a time, so batches never overlap, even if the Executor runs tasks in
+ * parallel. The Warps are passed on as they are, so if the Executor runs tasks outside of the thread that handles the
+ * game's logic, the delegate must not read them there.</p>
+ */
+public class CoalescingWarpListener implements WarpListener {
+
+  private final WarpListener delegate;
+  private final Executor executor;
+
+  private final Map<Object, Runnable> pending = new LinkedHashMap<Object, Runnable>();
+  private final Runnable flushTask = new Runnable() {
+    @Override
+    public void run() {
+      flush();
+    }
+  };
+  private boolean scheduled;
+
+  /**
+   * Creates an instance that passes batches of calls to the given WarpListener, using the given Executor.
+   *
+   * @param delegate the WarpListener
+   * @param executor the Executor that runs batches
+   */
+  public CoalescingWarpListener(WarpListener delegate, Executor executor) {
+    this.delegate = delegate;
+    this.executor = executor;
+  }
+
+  @Override
+  public void onAddition(final Warp warp) {
+    enqueue(new Runnable() {
+      @Override
+      public void run() {
+        delegate.onAddition(warp);
+      }
+    });
+  }
+
+  @Override
+  public void onRemoval(final Warp warp) {
+    enqueue(new Runnable() {
+      @Override
+      public void run() {
+        delegate.onRemoval(warp);
+      }
+    });
+  }
+
+  @Override
+  public void onBulkRemoval(final List<Warp> warps) {
+    enqueue(new Runnable() {
+      @Override
+      public void run() {
+        delegate.onBulkRemoval(warps);
+      }
+    });
+  }
+
+  @Override
+  public void onUpdate(final Warp warp, final UpdateType type) {
+    enqueue(new UpdateKey(warp, type), new Runnable() {
+      @Override
+      public void run() {
+        delegate.onUpdate(warp, type);
+      }
+    });
+  }
+
+  @Override
+  public void onBulkUpdate(final List<Warp> warps, final UpdateType type) {
+    enqueue(new Runnable() {
+      @Override
+      public void run() {
+        delegate.onBulkUpdate(warps, type);
+      }
+    });
+  }
+
+  @Override
+  public void onGroupInvites(final Warp warp, final InvitationStatus status, final String groupId) {
+    enqueue(new Runnable() {
+      @Override
+      public void run() {
+        delegate.onGroupInvites(warp, status, groupId);
+      }
+    });
+  }
+
+  @Override
+  public void onPlayerInvites(final Warp warp, final InvitationStatus status, final Profile profile) {
+    enqueue(new Runnable() {
+      @Override
+      public void run() {
+        delegate.onPlayerInvites(warp, status, profile);
+      }
+    });
+  }
+
+  /**
+   * Adds the given call to the current batch.
+   *
+   * @param call the call
+   */
+  private void enqueue(Runnable call) {
+    enqueue(call, call);
+  }
+
+  /**
+   * Adds the given call to the current batch, unless the batch already contains a call under the given key.
+   *
+   * @param key  the key
+   * @param call the call
+   */
+  private synchronized void enqueue(Object key, Runnable call) {
+    if (!pending.containsKey(key)) {
+      pending.put(key, call);
+    }
+    if (!scheduled) {
+      scheduled = true;
+      executor.execute(flushTask);
+    }
+  }
+
+  /**
+   * Passes all calls of the current batch to the delegate and submits the next batch, if calls were collected in the
+   * meantime.
+   */
+  private void flush() {
+    List<Runnable> batch;
+    synchronized (this) {
+      batch = new ArrayList<Runnable>(pending.values());
+      pending.clear();
+    }
+    try {
+      for (Runnable call : batch) {
+        call.run();
+      }
+    } finally {
+      synchronized (this) {
+        if (pending.isEmpty()) {
+          scheduled = false;
+        } else {
+          executor.execute(flushTask);
+        }
+      }
+    }
+  }
+
+  /**
+   * Identifies updates of a certain type for a certain Warp instance.
+   */
+  private static class UpdateKey {
+
+    private final Warp warp;
+    private final UpdateType type;
+
+    /**
+     * Creates an instance.
+     *
+     * @param warp the Warp
+     * @param type the type of the update
+     */
+    UpdateKey(Warp warp, UpdateType type) {
+      this.warp = warp;
+      this.type = type;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof UpdateKey)) {
+        return false;
+      }
+      UpdateKey other = (UpdateKey) obj;
+      // distinct instances with the same name must not be merged
+      return warp == other.warp && type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(warp) + type.hashCode();
+    }
+  }
+}
@@ -0,0 +1,1352 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.MyWarp;
+import me.taylorkelly.mywarp.util.BkTree;
+import me.taylorkelly.mywarp.util.EulerDirection;
+import me.taylorkelly.mywarp.util.MatchList;
+import me.taylorkelly.mywarp.util.Vector3;
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A WarpManager that stores the values of the Warps managed by it in a compact, array-backed layout, intended for
+ * servers with a very large number of Warps.
+ *
+ * <p>Each Warp occupies a slot in a set of parallel primitive arrays that hold its position, rotation, visits, type
+ * and creation time. Creators, worlds and invitations are stored as ids into tables that hold each distinct profile,
+ * world and group only once, for as long as a Warp references it. Invitations are kept in sorted {@code int} arrays.
+ * The Warps handed out by this manager are lightweight views on their slot.</p>
+ *
+ * <p>Changes are reported to the WarpListeners given when initializing this WarpManager, in the given order.
+ * {@link #populate(Iterable)} and {@link #clear()} are not reported.</p>
+ *
+ * <p>Once a Warp is removed, its view is detached from the slot and keeps a private copy of its values, so that the
+ * removed Warp can still be read while the slot is reused. Just like with {@link MemoryWarpManager}, changes of a
+ * removed Warp are no longer reported.</p>
+ *
+ * <p>This manager must only be used from the thread that handles the game's logic. This includes the Warps handed out
+ * by it, as they read and write the manager's arrays directly.</p>
+ */
+public class CompactWarpManager implements WarpManager {
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int[] NO_IDS = new int[0];
+  private static final Warp.Type[] TYPES = Warp.Type.values();
+
+  /**
+   * Orders Warps alphabetically by their name, ignoring case. Names that only differ in case are ordered by their exact
+   * value, so two different Warps are never equal.
+   */
+  private static final Comparator<CompactWarp> NAME_ORDER = new Comparator<CompactWarp>() {
+    @Override
+    public int compare(CompactWarp w1, CompactWarp w2) {
+      int ret = String.CASE_INSENSITIVE_ORDER.compare(w1.name, w2.name);
+      return ret != 0 ? ret : w1.name.compareTo(w2.name);
+    }
+  };
+
+  private final MyWarp myWarp;
+  private final WarpListenerChain listeners;
+
+  private final Map<String, CompactWarp> warpMap = new HashMap<String, CompactWarp>();
+  private final Interner<String> welcomeMessages = Interners.newWeakInterner();
+
+  // each distinct value is stored once and referenced by its id
+  private final InternTable<UUID, Profile> profiles = new InternTable<UUID, Profile>();
+  private final InternTable<UUID, UUID> worlds = new InternTable<UUID, UUID>();
+  private final InternTable<String, String> groups = new InternTable<String, String>();
+  private final NameTree nameTree = new NameTree();
+
+  private Slots slots = new Slots(INITIAL_CAPACITY);
+  private int[] freeSlots = new int[INITIAL_CAPACITY];
+  private int freeSlotCount;
+  private int usedSlotCount;
+
+  // ordered by the Warps' natural ordering, so queries sorted by name can stop once their page is complete
+  private final SortedViews sortedWarps = new SortedViews(Ordering.<CompactWarp>natural());
+  // ordered ignoring case, so all Warps that share a prefix are adjacent
+  private final SortedViews prefixIndex = new SortedViews(NAME_ORDER);
+
+  /**
+   * Creates an instance.
+   *
+   * @param myWarp    the running MyWarp instance
+   * @param listeners the WarpListeners changes are reported to
+   */
+  public CompactWarpManager(MyWarp myWarp, WarpListener... listeners) {
+    this.myWarp = myWarp;
+    this.listeners = new WarpListenerChain(listeners);
+  }
+
+  @Override
+  public void add(Warp warp) {
+    CompactWarp added = store(warp);
+    sortedWarps.add(added);
+    prefixIndex.add(added);
+    listeners.onAddition(added);
+  }
+
+  @Override
+  public void populate(Iterable<Warp> warps) {
+    for (Warp warp : warps) {
+      store(warp);
+    }
+    sortedWarps.reset(warpMap.values());
+    prefixIndex.reset(warpMap.values());
+  }
+
+  @Override
+  public void remove(Warp warp) {
+    CompactWarp removed = release(warp.getName());
+    if (removed != null) {
+      listeners.onRemoval(removed);
+    }
+  }
+
+  @Override
+  public int removeAll(Iterable<Warp> warps) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    // the given Warps might be a view on this manager
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      CompactWarp view = free(warp.getName());
+      if (view != null) {
+        builder.add(view);
+      }
+    }
+    // removing each Warp from the sorted Warps on its own would take quadratic time
+    sortedWarps.retain(warpMap);
+    prefixIndex.retain(warpMap);
+    ImmutableList<Warp> removed = builder.build();
+    if (!removed.isEmpty()) {
+      listeners.onBulkRemoval(removed);
+    }
+    return removed.size();
+  }
+
+  @Override
+  public int setCreator(Iterable<Warp> warps, Profile creator) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      CompactWarp view = warpMap.get(warp.getName());
+      if (view != null) {
+        slots.creators[view.slot] = profiles.replace(slots.creators[view.slot], creator.getUniqueId(), creator);
+        builder.add(view);
+      }
+    }
+    ImmutableList<Warp> updated = builder.build();
+    if (!updated.isEmpty()) {
+      listeners.onBulkUpdate(updated, UpdateType.CREATOR);
+    }
+    return updated.size();
+  }
+
+  @Override
+  public int setType(Iterable<Warp> warps, Warp.Type type) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      CompactWarp view = warpMap.get(warp.getName());
+      if (view != null) {
+        slots.types[view.slot] = (byte) type.ordinal();
+        builder.add(view);
+      }
+    }
+    ImmutableList<Warp> updated = builder.build();
+    if (!updated.isEmpty()) {
+      listeners.onBulkUpdate(updated, UpdateType.TYPE);
+    }
+    return updated.size();
+  }
+
+  @Override
+  public void clear() {
+    // views that are still referenced keep working on their own copy, just like removed ones
+    for (CompactWarp view : warpMap.values()) {
+      view.detach();
+    }
+    warpMap.clear();
+    profiles.clear();
+    worlds.clear();
+    groups.clear();
+    nameTree.clear();
+    slots = new Slots(INITIAL_CAPACITY);
+    freeSlots = new int[INITIAL_CAPACITY];
+    freeSlotCount = 0;
+    usedSlotCount = 0;
+    sortedWarps.clear();
+    prefixIndex.clear();
+  }
+
+  @Override
+  public int getSize() {
+    return warpMap.size();
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return warpMap.containsKey(name);
+  }
+
+  @Override
+  public Optional<Warp> get(String name) {
+    return Optional.<Warp>fromNullable(warpMap.get(name));
+  }
+
+  @Override
+  public Collection<Warp> filter(Predicate<Warp> predicate) {
+    return Collections2.filter(sortedWarps.asList(), predicate);
+  }
+
+  @Override
+  public MatchList getMatchingWarps(String filter, Predicate<Warp> predicate) {
+    return new MatchList(filter, filter(predicate));
+  }
+
+  @Override
+  public Iterable<Warp> getWarpsByPrefix(final String prefix) {
+    return new Iterable<Warp>() {
+      @Override
+      public Iterator<Warp> iterator() {
+        return new Iterator<Warp>() {
+
+          private int index = lowerBound(prefix);
+
+          @Override
+          public boolean hasNext() {
+            return index < prefixIndex.size()
+                   && prefixIndex.get(index).name.regionMatches(true, 0, prefix, 0, prefix.length());
+          }
+
+          @Override
+          public Warp next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            return prefixIndex.get(index++);
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public List<Warp> getSimilarWarps(String name, int maxDistance, Predicate<Warp> predicate) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    for (int slot : nameTree.search(nameKey(name).toCharArray(), maxDistance)) {
+      CompactWarp warp = slots.warps[slot];
+      if (predicate.apply(warp)) {
+        builder.add(warp);
+      }
+    }
+    return builder.build();
+  }
+
+  @Override
+  public WarpQueryResult query(WarpQuery query) {
+    List<Warp> candidates = new ArrayList<Warp>();
+    int creatorId = -1;
+    if (query.getCreator().isPresent()) {
+      creatorId = profiles.find(query.getCreator().get());
+      if (creatorId == -1) {
+        return query.select(candidates);
+      }
+    }
+    int worldId = -1;
+    if (query.getWorld().isPresent()) {
+      worldId = worlds.find(query.getWorld().get());
+      if (worldId == -1) {
+        return query.select(candidates);
+      }
+    }
+    final int creator = creatorId;
+    final int world = worldId;
+    final int type = query.getType().isPresent() ? query.getType().get().ordinal() : -1;
+
+    if (query.getSortKey() == WarpQuery.SortKey.NAME) {
+      // the Warps are already kept in this order, so the walk stops as soon as the requested page is complete
+      return query.selectOrdered(Iterables.filter(sortedWarps.asList(), new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          return matches(((CompactWarp) input).slot, creator, world, type);
+        }
+      }));
+    }
+
+    // narrow down the candidates on the primitive arrays before any view is touched
+    for (int slot = 0; slot < usedSlotCount; slot++) {
+      CompactWarp warp = slots.warps[slot];
+      if (warp != null && matches(slot, creator, world, type)) {
+        candidates.add(warp);
+      }
+    }
+    return query.select(candidates);
+  }
+
+  /**
+   * Returns whether the Warp stored in the given slot has the given creator, world and type.
+   *
+   * @param slot    the slot
+   * @param creator the id of the creator or {@code -1} to match any creator
+   * @param world   the id of the world or {@code -1} to match any world
+   * @param type    the ordinal of the type or {@code -1} to match any type
+   * @return {@code true} if the Warp matches
+   */
+  private boolean matches(int slot, int creator, int world, int type) {
+    return (creator == -1 || slots.creators[slot] == creator)
+           && (world == -1 || slots.worlds[slot] == world)
+           && (type == -1 || slots.types[slot] == type);
+  }
+
+  /**
+   * Stores the values of the given Warp in a free slot, replacing any Warp with the same name.
+   *
+   * @param warp the Warp
+   * @return the view on the slot
+   */
+  private CompactWarp store(Warp warp) {
+    release(warp.getName());
+
+    int slot;
+    if (freeSlotCount > 0) {
+      slot = freeSlots[--freeSlotCount];
+    } else {
+      slot = usedSlotCount++;
+      slots.ensureCapacity(usedSlotCount);
+    }
+    CompactWarp view = new CompactWarp(warp.getName(), slots, slot);
+
+    Vector3 position = warp.getPosition();
+    EulerDirection rotation = warp.getRotation();
+    slots.warps[slot] = view;
+    slots.xs[slot] = position.getX();
+    slots.ys[slot] = position.getY();
+    slots.zs[slot] = position.getZ();
+    slots.pitches[slot] = rotation.getPitch();
+    slots.yaws[slot] = rotation.getYaw();
+    slots.rolls[slot] = rotation.getRoll();
+    slots.creationTimes[slot] = warp.getCreationDate().getTime();
+    slots.visits[slot] = warp.getVisits();
+    slots.types[slot] = (byte) warp.getType().ordinal();
+    slots.creators[slot] = profiles.acquire(warp.getCreator().getUniqueId(), warp.getCreator());
+    slots.worlds[slot] = worlds.acquire(warp.getWorldIdentifier(), warp.getWorldIdentifier());
+    slots.welcomeMessages[slot] = welcomeMessages.intern(warp.getWelcomeMessage());
+
+    int[] players = NO_IDS;
+    for (Profile player : warp.getInvitedPlayers()) {
+      players = withReference(players, profiles, player.getUniqueId(), player);
+    }
+    slots.invitedPlayers[slot] = players;
+    int[] invitedGroups = NO_IDS;
+    for (String group : warp.getInvitedGroups()) {
+      invitedGroups = withReference(invitedGroups, groups, group, group);
+    }
+    slots.invitedGroups[slot] = invitedGroups;
+
+    slots.nodes[slot] = nameTree.add(nameKey(view.name).toCharArray(), slot);
+
+    warpMap.put(view.name, view);
+    return view;
+  }
+
+  /**
+   * Releases the slot of the Warp with the given name, if such a Warp exists. The Warp's view is detached from the slot
+   * before the slot is freed.
+   *
+   * @param name the name of the Warp
+   * @return the detached view or {@code null} if no Warp with the given name exists
+   */
+  private CompactWarp release(String name) {
+    CompactWarp view = free(name);
+    if (view == null) {
+      return null;
+    }
+    sortedWarps.remove(view);
+    prefixIndex.remove(view);
+    return view;
+  }
+
+  /**
+   * Like {@link #release(String)}, but leaves the view in the sorted Warps and the prefix index.
+   *
+   * @param name the name of the Warp
+   * @return the detached view or {@code null} if no Warp with the given name exists
+   */
+  private CompactWarp free(String name) {
+    CompactWarp view = warpMap.remove(name);
+    if (view == null) {
+      return null;
+    }
+    int slot = view.slot;
+    view.detach();
+
+    profiles.release(slots.creators[slot]);
+    worlds.release(slots.worlds[slot]);
+    for (int id : slots.invitedPlayers[slot]) {
+      profiles.release(id);
+    }
+    for (int id : slots.invitedGroups[slot]) {
+      groups.release(id);
+    }
+    nameTree.remove(slots.nodes[slot]);
+    if (nameTree.isSparse()) {
+      nameTree.rebuild(slots.nodes);
+    }
+    slots.clear(slot);
+    if (freeSlotCount == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+    }
+    freeSlots[freeSlotCount++] = slot;
+    return view;
+  }
+
+  /**
+   * Gets the index of the first Warp in the prefix index whose name is not smaller than the given prefix, ignoring
+   * case.
+   *
+   * @param prefix the prefix
+   * @return the index
+   */
+  private int lowerBound(String prefix) {
+    int low = 0;
+    int high = prefixIndex.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (String.CASE_INSENSITIVE_ORDER.compare(prefixIndex.get(mid).name, prefix) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the key used to compare names ignoring case.
+   *
+   * @param name the name
+   * @return the key
+   */
+  private static String nameKey(String name) {
+    return name.toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Returns a sorted set of ids that contains all ids of the given set and the given id.
+   *
+   * @param ids the sorted set
+   * @param id  the id
+   * @return the sorted set containing the id, {@code ids} if it already contains it
+   */
+  private static int[] with(int[] ids, int id) {
+    int index = Arrays.binarySearch(ids, id);
+    if (index >= 0) {
+      return ids;
+    }
+    index = -index - 1;
+    int[] ret = new int[ids.length + 1];
+    System.arraycopy(ids, 0, ret, 0, index);
+    ret[index] = id;
+    System.arraycopy(ids, index, ret, index + 1, ids.length - index);
+    return ret;
+  }
+
+  /**
+   * Returns a sorted set of ids that contains all ids of the given set except the given id.
+   *
+   * @param ids the sorted set
+   * @param id  the id
+   * @return the sorted set without the id, {@code ids} if it does not contain it
+   */
+  private static int[] without(int[] ids, int id) {
+    int index = Arrays.binarySearch(ids, id);
+    if (index < 0) {
+      return ids;
+    }
+    if (ids.length == 1) {
+      return NO_IDS;
+    }
+    int[] ret = new int[ids.length - 1];
+    System.arraycopy(ids, 0, ret, 0, index);
+    System.arraycopy(ids, index + 1, ret, index, ret.length - index);
+    return ret;
+  }
+
+  /**
+   * Returns a sorted set of ids that contains all ids of the given set and the id of the given value in the given
+   * table. A reference to the value is only acquired if the set did not yet contain its id.
+   *
+   * @param ids   the sorted set
+   * @param table the table
+   * @param key   the key of the value
+   * @param value the value
+   * @param <K>   the type of keys
+   * @param <V>   the type of values
+   * @return the sorted set containing the id, {@code ids} if it already contains it
+   */
+  private static <K, V> int[] withReference(int[] ids, InternTable<K, V> table, K key, V value) {
+    int id = table.acquire(key, value);
+    int[] ret = with(ids, id);
+    if (ret == ids) {
+      table.release(id);
+    }
+    return ret;
+  }
+
+  /**
+   * Returns a sorted set of ids that contains all ids of the given set except the id of the value with the given key
+   * in the given table. The set's reference to the value is released if the set contained its id.
+   *
+   * @param ids   the sorted set
+   * @param table the table
+   * @param key   the key of the value
+   * @param <K>   the type of keys
+   * @return the sorted set without the id, {@code ids} if it does not contain it
+   */
+  private static <K> int[] withoutReference(int[] ids, InternTable<K, ?> table, K key) {
+    int id = table.find(key);
+    if (id == -1) {
+      return ids;
+    }
+    int[] ret = without(ids, id);
+    if (ret != ids) {
+      table.release(id);
+    }
+    return ret;
+  }
+
+  /**
+   * A table that stores each distinct value once and references it by an id. The table counts the references to each
+   * id and drops the value once the last reference is released, so the id can be reused.
+   *
+   * @param <K> the type of keys values are looked up by
+   * @param <V> the type of values
+   */
+  private static class InternTable<K, V> {
+
+    private final Map<K, Integer> ids = new HashMap<K, Integer>();
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int[] references = new int[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdCount;
+    private int usedIdCount;
+
+    /**
+     * Gets the id of the value with the given key.
+     *
+     * @param key the key
+     * @return the id or {@code -1} if the table does not contain a value with the given key
+     */
+    int find(K key) {
+      Integer id = ids.get(key);
+      return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the value with the given id.
+     *
+     * @param id the id
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    V get(int id) {
+      return (V) values[id];
+    }
+
+    /**
+     * Acquires a reference to the value with the given key, storing the given value if the table does not contain a
+     * value with the given key yet.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the id of the value
+     */
+    int acquire(K key, V value) {
+      Integer id = ids.get(key);
+      if (id == null) {
+        if (freeIdCount > 0) {
+          id = freeIds[--freeIdCount];
+        } else {
+          id = usedIdCount++;
+          if (id == values.length) {
+            keys = Arrays.copyOf(keys, id * 2);
+            values = Arrays.copyOf(values, id * 2);
+            references = Arrays.copyOf(references, id * 2);
+          }
+        }
+        keys[id] = key;
+        values[id] = value;
+        ids.put(key, id);
+      }
+      references[id]++;
+      return id;
+    }
+
+    /**
+     * Releases a reference to the value with the given id. The value is dropped once no references are left.
+     *
+     * @param id the id
+     */
+    void release(int id) {
+      if (--references[id] > 0) {
+        return;
+      }
+      ids.remove(keys[id]);
+      keys[id] = null;
+      values[id] = null;
+      if (freeIdCount == freeIds.length) {
+        freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+      }
+      freeIds[freeIdCount++] = id;
+    }
+
+    /**
+     * Acquires a reference to the value with the given key and releases the given id, in this order, so that the
+     * value is kept if both are the same.
+     *
+     * @param id    the id to release
+     * @param key   the key
+     * @param value the value
+     * @return the id of the value
+     */
+    int replace(int id, K key, V value) {
+      int ret = acquire(key, value);
+      release(id);
+      return ret;
+    }
+
+    /**
+     * Drops all values.
+     */
+    void clear() {
+      ids.clear();
+      keys = new Object[INITIAL_CAPACITY];
+      values = new Object[INITIAL_CAPACITY];
+      references = new int[INITIAL_CAPACITY];
+      freeIds = new int[INITIAL_CAPACITY];
+      freeIdCount = 0;
+      usedIdCount = 0;
+    }
+  }
+
+  /**
+   * A BK-tree over the lower-cased names of the managed Warps, stored in parallel arrays instead of one object per
+   * node. Each node references the slot of its Warp. Names that are equal ignoring case are chained as children with a
+   * distance of zero.
+   *
+   * <p>Removing a Warp only marks its node as dead, as it is still needed for routing. A dead node is reused if a Warp
+   * with the same key is added, and the tree is rebuilt once dead nodes outnumber live ones.</p>
+   */
+  private static class NameTree {
+
+    private static final int NONE = -1;
+
+    private final BkTree.DistanceCalculator calculator = new BkTree.DistanceCalculator();
+    private char[][] keys = new char[INITIAL_CAPACITY][];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    // the distance of each node to its parent
+    private int[] edges = new int[INITIAL_CAPACITY];
+    private int[] maxChildEdges = new int[INITIAL_CAPACITY];
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+    private int nodeCount;
+    private int liveNodeCount;
+
+    /**
+     * Adds a node for the given key that references the given slot.
+     *
+     * @param key  the lower-cased name
+     * @param slot the slot
+     * @return the node
+     */
+    int add(char[] key, int slot) {
+      liveNodeCount++;
+      if (nodeCount == 0) {
+        return newNode(key, slot, 0);
+      }
+      int node = 0;
+      while (true) {
+        int distance = calculator.distance(key, keys[node]);
+        if (distance == 0 && slots[node] == NONE) {
+          slots[node] = slot;
+          return node;
+        }
+        int child = firstChildren[node];
+        while (child != NONE && edges[child] != distance) {
+          child = nextSiblings[child];
+        }
+        if (child == NONE) {
+          child = newNode(key, slot, distance);
+          nextSiblings[child] = firstChildren[node];
+          firstChildren[node] = child;
+          maxChildEdges[node] = Math.max(maxChildEdges[node], distance);
+          return child;
+        }
+        node = child;
+      }
+    }
+
+    /**
+     * Marks the given node as dead.
+     *
+     * @param node the node
+     */
+    void remove(int node) {
+      slots[node] = NONE;
+      liveNodeCount--;
+    }
+
+    /**
+     * Returns whether dead nodes outnumber live ones.
+     *
+     * @return {@code true} if this tree should be rebuilt
+     */
+    boolean isSparse() {
+      return nodeCount - liveNodeCount > liveNodeCount;
+    }
+
+    /**
+     * Rebuilds this tree from its live nodes, dropping all dead ones.
+     *
+     * @param nodes the node of each slot, updated to the rebuilt nodes
+     */
+    void rebuild(int[] nodes) {
+      char[][] liveKeys = new char[liveNodeCount][];
+      int[] liveSlots = new int[liveNodeCount];
+      int count = 0;
+      // inserting in the previous order keeps rebuilt trees deterministic
+      for (int node = 0; node < nodeCount; node++) {
+        if (slots[node] != NONE) {
+          liveKeys[count] = keys[node];
+          liveSlots[count++] = slots[node];
+        }
+      }
+      clear();
+      for (int i = 0; i < count; i++) {
+        nodes[liveSlots[i]] = add(liveKeys[i], liveSlots[i]);
+      }
+    }
+
+    /**
+     * Removes all nodes.
+     */
+    void clear() {
+      keys = new char[INITIAL_CAPACITY][];
+      slots = new int[INITIAL_CAPACITY];
+      edges = new int[INITIAL_CAPACITY];
+      maxChildEdges = new int[INITIAL_CAPACITY];
+      firstChildren = new int[INITIAL_CAPACITY];
+      nextSiblings = new int[INITIAL_CAPACITY];
+      nodeCount = 0;
+      liveNodeCount = 0;
+    }
+
+    /**
+     * Gets the slots of all live nodes whose key is within the given distance of the given query. Slots are ordered by
+     * the distance of their key, closest first.
+     *
+     * @param query       the lower-cased query
+     * @param maxDistance the maximum distance
+     * @return the slots
+     */
+    int[] search(char[] query, int maxDistance) {
+      checkArgument(maxDistance >= 0, "The maximum distance must not be negative.");
+      if (nodeCount == 0) {
+        return NO_IDS;
+      }
+      // each match holds its distance in the upper and its slot in the lower half, so sorting orders by distance
+      long[] matches = new long[INITIAL_CAPACITY];
+      int matchCount = 0;
+      int[] pending = new int[INITIAL_CAPACITY];
+      int pendingCount = 0;
+      pending[pendingCount++] = 0;
+      while (pendingCount > 0) {
+        int node = pending[--pendingCount];
+        // beyond this bound, neither the node nor any of its children can match, so the exact distance is irrelevant
+        int bound = maxChildEdges[node] + maxDistance;
+        int distance = calculator.distance(query, keys[node], bound);
+        if (distance > bound) {
+          continue;
+        }
+        if (distance <= maxDistance && slots[node] != NONE) {
+          if (matchCount == matches.length) {
+            matches = Arrays.copyOf(matches, matchCount * 2);
+          }
+          matches[matchCount++] = (long) distance << 32 | slots[node];
+        }
+        // by the triangle inequality, matches can only be in children whose distance to this node is within the range
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+          if (Math.abs(edges[child] - distance) <= maxDistance) {
+            if (pendingCount == pending.length) {
+              pending = Arrays.copyOf(pending, pendingCount * 2);
+            }
+            pending[pendingCount++] = child;
+          }
+        }
+      }
+
+      Arrays.sort(matches, 0, matchCount);
+      int[] ret = new int[matchCount];
+      for (int i = 0; i < matchCount; i++) {
+        ret[i] = (int) matches[i];
+      }
+      return ret;
+    }
+
+    /**
+     * Creates a node without children.
+     *
+     * @param key  the lower-cased name
+     * @param slot the slot
+     * @param edge the distance to the parent
+     * @return the node
+     */
+    private int newNode(char[] key, int slot, int edge) {
+      if (nodeCount == keys.length) {
+        int capacity = nodeCount * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        edges = Arrays.copyOf(edges, capacity);
+        maxChildEdges = Arrays.copyOf(maxChildEdges, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+      }
+      int node = nodeCount++;
+      keys[node] = key;
+      slots[node] = slot;
+      edges[node] = edge;
+      maxChildEdges[node] = 0;
+      firstChildren[node] = NONE;
+      nextSiblings[node] = NONE;
+      return node;
+    }
+  }
+
+  /**
+   * Views kept in an array that is sorted by a certain order.
+   */
+  private static class SortedViews {
+
+    private final Comparator<? super CompactWarp> order;
+    private CompactWarp[] views = new CompactWarp[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Creates an instance.
+     *
+     * @param order the order views are sorted by
+     */
+    SortedViews(Comparator<? super CompactWarp> order) {
+      this.order = order;
+    }
+
+    /**
+     * Gets the view at the given index.
+     *
+     * @param index the index
+     * @return the view
+     */
+    CompactWarp get(int index) {
+      checkElementIndex(index, size);
+      return views[index];
+    }
+
+    /**
+     * Gets the number of views.
+     *
+     * @return the number of views
+     */
+    int size() {
+      return size;
+    }
+
+    /**
+     * Inserts the given view at its position.
+     *
+     * @param view the view
+     */
+    void add(CompactWarp view) {
+      int index = -Arrays.binarySearch(views, 0, size, view, order) - 1;
+      if (size == views.length) {
+        views = Arrays.copyOf(views, views.length * 2 + 1);
+      }
+      System.arraycopy(views, index, views, index + 1, size - index);
+      views[index] = view;
+      size++;
+    }
+
+    /**
+     * Removes the given view, if it is present.
+     *
+     * @param view the view
+     */
+    void remove(CompactWarp view) {
+      int index = Arrays.binarySearch(views, 0, size, view, order);
+      if (index >= 0) {
+        System.arraycopy(views, index + 1, views, index, --size - index);
+        views[size] = null;
+      }
+    }
+
+    /**
+     * Replaces all views by the given ones.
+     *
+     * @param replacement the views
+     */
+    void reset(Collection<CompactWarp> replacement) {
+      views = replacement.toArray(new CompactWarp[replacement.size()]);
+      size = views.length;
+      // sorting once is cheaper than inserting every view at its position
+      Arrays.sort(views, order);
+    }
+
+    /**
+     * Removes all views that are no longer the values of the given map in a single pass.
+     *
+     * @param warpMap the managed views, mapped by their name
+     */
+    void retain(Map<String, CompactWarp> warpMap) {
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        CompactWarp view = views[i];
+        if (warpMap.get(view.name) == view) {
+          views[count++] = view;
+        }
+      }
+      Arrays.fill(views, count, size, null);
+      size = count;
+    }
+
+    /**
+     * Removes all views.
+     */
+    void clear() {
+      views = new CompactWarp[INITIAL_CAPACITY];
+      size = 0;
+    }
+
+    /**
+     * Gets an unmodifiable, live List of the views in their order.
+     *
+     * @return the List
+     */
+    List<Warp> asList() {
+      return new AbstractList<Warp>() {
+        @Override
+        public Warp get(int index) {
+          return SortedViews.this.get(index);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+
+  /**
+   * Parallel arrays that hold the values of Warps, one slot per Warp.
+   */
+  private static class Slots {
+
+    private CompactWarp[] warps;
+    private String[] welcomeMessages;
+    private double[] xs;
+    private double[] ys;
+    private double[] zs;
+    private float[] pitches;
+    private float[] yaws;
+    private float[] rolls;
+    private long[] creationTimes;
+    private int[] visits;
+    private byte[] types;
+    private int[] creators;
+    private int[] worlds;
+    private int[][] invitedPlayers;
+    private int[][] invitedGroups;
+    private int[] nodes;
+
+    /**
+     * Creates an instance with the given number of slots.
+     *
+     * @param capacity the number of slots
+     */
+    Slots(int capacity) {
+      warps = new CompactWarp[capacity];
+      welcomeMessages = new String[capacity];
+      xs = new double[capacity];
+      ys = new double[capacity];
+      zs = new double[capacity];
+      pitches = new float[capacity];
+      yaws = new float[capacity];
+      rolls = new float[capacity];
+      creationTimes = new long[capacity];
+      visits = new int[capacity];
+      types = new byte[capacity];
+      creators = new int[capacity];
+      worlds = new int[capacity];
+      invitedPlayers = new int[capacity][];
+      invitedGroups = new int[capacity][];
+      nodes = new int[capacity];
+    }
+
+    /**
+     * Grows the arrays if they hold less than the given number of slots.
+     *
+     * @param capacity the required number of slots
+     */
+    void ensureCapacity(int capacity) {
+      if (capacity <= xs.length) {
+        return;
+      }
+      int newCapacity = Math.max(capacity, xs.length * 2);
+      warps = Arrays.copyOf(warps, newCapacity);
+      welcomeMessages = Arrays.copyOf(welcomeMessages, newCapacity);
+      xs = Arrays.copyOf(xs, newCapacity);
+      ys = Arrays.copyOf(ys, newCapacity);
+      zs = Arrays.copyOf(zs, newCapacity);
+      pitches = Arrays.copyOf(pitches, newCapacity);
+      yaws = Arrays.copyOf(yaws, newCapacity);
+      rolls = Arrays.copyOf(rolls, newCapacity);
+      creationTimes = Arrays.copyOf(creationTimes, newCapacity);
+      visits = Arrays.copyOf(visits, newCapacity);
+      types = Arrays.copyOf(types, newCapacity);
+      creators = Arrays.copyOf(creators, newCapacity);
+      worlds = Arrays.copyOf(worlds, newCapacity);
+      invitedPlayers = Arrays.copyOf(invitedPlayers, newCapacity);
+      invitedGroups = Arrays.copyOf(invitedGroups, newCapacity);
+      nodes = Arrays.copyOf(nodes, newCapacity);
+    }
+
+    /**
+     * Clears the references held by the given slot.
+     *
+     * @param slot the slot
+     */
+    void clear(int slot) {
+      warps[slot] = null;
+      welcomeMessages[slot] = null;
+      invitedPlayers[slot] = null;
+      invitedGroups[slot] = null;
+    }
+  }
+
+  /**
+   * A view on the slot that holds the values of a Warp. Just like the parent manager, it must only be used from the
+   * thread that handles the game's logic.
+   *
+   * <p>Once detached, the view delegates to a copy of its values that reports changes to no one.</p>
+   */
+  private class CompactWarp extends AbstractWarp {
+
+    private final String name;
+    private final Slots slots;
+    private final int slot;
+    private SimpleWarp detached;
+
+    /**
+     * Creates an instance that views the given slot.
+     *
+     * @param name  the Warp's name
+     * @param slots the Slots
+     * @param slot  the slot
+     */
+    CompactWarp(String name, Slots slots, int slot) {
+      super(CompactWarpManager.this.myWarp);
+      this.name = name;
+      this.slots = slots;
+      this.slot = slot;
+    }
+
+    /**
+     * Detaches this view from its slot by copying the current values. Afterwards, the slot may be reused and changes
+     * of this view are no longer reported to the manager's WarpListeners.
+     */
+    void detach() {
+      detached =
+          new SimpleWarp(myWarp, name, getCreationDate(), new HashSet<Profile>(getInvitedPlayers()),
+                         new HashSet<String>(getInvitedGroups()), getCreator(), getType(), getWorldIdentifier(),
+                         getPosition(), getRotation(), getVisits(), getWelcomeMessage());
+    }
+
+
+
+    @Override
+    protected void addVisit() {
+      if (detached != null) {
+        detached.addVisit();
+        return;
+      }
+      slots.visits[slot]++;
+      listeners.onUpdate(this, UpdateType.VISITS);
+    }
+
+    @Override
+    public boolean isPlayerInvited(Profile profile) {
+      if (detached != null) {
+        return detached.isPlayerInvited(profile);
+      }
+      int id = profiles.find(profile.getUniqueId());
+      return id != -1 && Arrays.binarySearch(slots.invitedPlayers[slot], id) >= 0;
+    }
+
+    @Override
+    public boolean isGroupInvited(String groupId) {
+      if (detached != null) {
+        return detached.isGroupInvited(groupId);
+      }
+      int id = groups.find(groupId);
+      return id != -1 && Arrays.binarySearch(slots.invitedGroups[slot], id) >= 0;
+    }
+
+    @Override
+    public void inviteGroup(String groupId) {
+      if (detached != null) {
+        detached.inviteGroup(groupId);
+        return;
+      }
+      slots.invitedGroups[slot] = withReference(slots.invitedGroups[slot], groups, groupId, groupId);
+      listeners.onGroupInvites(this, InvitationStatus.INVITE, groupId);
+    }
+
+    @Override
+    public void invitePlayer(Profile player) {
+      if (detached != null) {
+        detached.invitePlayer(player);
+        return;
+      }
+      slots.invitedPlayers[slot] = withReference(slots.invitedPlayers[slot], profiles, player.getUniqueId(), player);
+      listeners.onPlayerInvites(this, InvitationStatus.INVITE, player);
+    }
+
+    @Override
+    public void uninviteGroup(String groupId) {
+      if (detached != null) {
+        detached.uninviteGroup(groupId);
+        return;
+      }
+      slots.invitedGroups[slot] = withoutReference(slots.invitedGroups[slot], groups, groupId);
+      listeners.onGroupInvites(this, InvitationStatus.UNINVITE, groupId);
+    }
+
+    @Override
+    public void uninvitePlayer(Profile player) {
+      if (detached != null) {
+        detached.uninvitePlayer(player);
+        return;
+      }
+      slots.invitedPlayers[slot] = withoutReference(slots.invitedPlayers[slot], profiles, player.getUniqueId());
+      listeners.onPlayerInvites(this, InvitationStatus.UNINVITE, player);
+    }
+
+    @Override
+    public Profile getCreator() {
+      if (detached != null) {
+        return detached.getCreator();
+      }
+      return profiles.get(slots.creators[slot]);
+    }
+
+    @Override
+    public void setCreator(Profile creator) {
+      if (detached != null) {
+        detached.setCreator(creator);
+        return;
+      }
+      slots.creators[slot] = profiles.replace(slots.creators[slot], creator.getUniqueId(), creator);
+      listeners.onUpdate(this, UpdateType.CREATOR);
+    }
+
+    @Override
+    public Set<String> getInvitedGroups() {
+      if (detached != null) {
+        return detached.getInvitedGroups();
+      }
+      ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+      for (int id : slots.invitedGroups[slot]) {
+        builder.add(groups.get(id));
+      }
+      return builder.build();
+    }
+
+    @Override
+    public Set<Profile> getInvitedPlayers() {
+      if (detached != null) {
+        return detached.getInvitedPlayers();
+      }
+      ImmutableSet.Builder<Profile> builder = ImmutableSet.builder();
+      for (int id : slots.invitedPlayers[slot]) {
+        builder.add(profiles.get(id));
+      }
+      return builder.build();
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public UUID getWorldIdentifier() {
+      if (detached != null) {
+        return detached.getWorldIdentifier();
+      }
+      return worlds.get(slots.worlds[slot]);
+    }
+
+    @Override
+    public Vector3 getPosition() {
+      if (detached != null) {
+        return detached.getPosition();
+      }
+      return new Vector3(slots.xs[slot], slots.ys[slot], slots.zs[slot]);
+    }
+
+    @Override
+    public EulerDirection getRotation() {
+      if (detached != null) {
+        return detached.getRotation();
+      }
+      return new EulerDirection(slots.pitches[slot], slots.yaws[slot], slots.rolls[slot]);
+    }
+
+    @Override
+    public Type getType() {
+      if (detached != null) {
+        return detached.getType();
+      }
+      return TYPES[slots.types[slot]];
+    }
+
+    @Override
+    public void setType(Type type) {
+      if (detached != null) {
+        detached.setType(type);
+        return;
+      }
+      slots.types[slot] = (byte) type.ordinal();
+      listeners.onUpdate(this, UpdateType.TYPE);
+    }
+
+    @Override
+    public Date getCreationDate() {
+      if (detached != null) {
+        return detached.getCreationDate();
+      }
+      return new Date(slots.creationTimes[slot]);
+    }
+
+    @Override
+    public int getVisits() {
+      if (detached != null) {
+        return detached.getVisits();
+      }
+      return slots.visits[slot];
+    }
+
+    @Override
+    public String getWelcomeMessage() {
+      if (detached != null) {
+        return detached.getWelcomeMessage();
+      }
+      return slots.welcomeMessages[slot];
+    }
+
+    @Override
+    public void setWelcomeMessage(String welcomeMessage) {
+      if (detached != null) {
+        detached.setWelcomeMessage(welcomeMessage);
+        return;
+      }
+      slots.welcomeMessages[slot] = welcomeMessages.intern(welcomeMessage);
+      listeners.onUpdate(this, UpdateType.WELCOME_MESSAGE);
+    }
+
+    @Override
+    public void setLocation(LocalWorld world, Vector3 position, EulerDirection rotation) {
+      if (detached != null) {
+        detached.setLocation(world, position, rotation);
+        return;
+      }
+      slots.worlds[slot] = worlds.replace(slots.worlds[slot], world.getUniqueId(), world.getUniqueId());
+      slots.xs[slot] = position.getX();
+      slots.ys[slot] = position.getY();
+      slots.zs[slot] = position.getZ();
+      slots.pitches[slot] = rotation.getPitch();
+      slots.yaws[slot] = rotation.getYaw();
+      slots.rolls[slot] = rotation.getRoll();
+      listeners.onUpdate(this, UpdateType.LOCATION);
+    }
+
+    @Override
+    public double getVisitsPerDay() {
+      if (detached != null) {
+        return detached.getVisitsPerDay();
+      }
+      return SimpleWarp.visitsPerDay(slots.visits[slot], slots.creationTimes[slot], System.currentTimeMillis());
+    }
+
+    @Override
+    public double getPopularityScore() {
+      if (detached != null) {
+        return detached.getPopularityScore();
+      }
+      return SimpleWarp.popularityScore(slots.visits[slot], slots.creationTimes[slot], System.currentTimeMillis());
+    }
+  }
+}
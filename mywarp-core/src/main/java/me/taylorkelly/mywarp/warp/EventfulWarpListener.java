@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import com.google.common.eventbus.EventBus;
+
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.BulkWarpRemovalEvent;
+import me.taylorkelly.mywarp.warp.event.BulkWarpUpdateEvent;
+import me.taylorkelly.mywarp.warp.event.WarpAdditionEvent;
+import me.taylorkelly.mywarp.warp.event.WarpGroupInvitesEvent;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpPlayerInvitesEvent;
+import me.taylorkelly.mywarp.warp.event.WarpRemovalEvent;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.List;
+
+/**
+ * A WarpListener that posts a {@link me.taylorkelly.mywarp.warp.event.WarpEvent} for every change on an EventBus.
+ * Changes of multiple Warps at once are posted as a single {@link me.taylorkelly.mywarp.warp.event.BulkWarpEvent}.
+ */
+public class EventfulWarpListener implements WarpListener {
+
+  private final EventBus eventBus;
+
+  /**
+   * Creates an instance.
+   *
+   * @param eventBus the EventBus events are posted on
+   */
+  public EventfulWarpListener(EventBus eventBus) {
+    this.eventBus = eventBus;
+  }
+
+  @Override
+  public void onAddition(Warp warp) {
+    eventBus.post(new WarpAdditionEvent(warp));
+  }
+
+  @Override
+  public void onRemoval(Warp warp) {
+    eventBus.post(new WarpRemovalEvent(warp));
+  }
+
+  @Override
+  public void onBulkRemoval(List<Warp> warps) {
+    eventBus.post(new BulkWarpRemovalEvent(warps));
+  }
+
+  @Override
+  public void onUpdate(Warp warp, UpdateType type) {
+    eventBus.post(new WarpUpdateEvent(warp, type));
+  }
+
+  @Override
+  public void onBulkUpdate(List<Warp> warps, UpdateType type) {
+    eventBus.post(new BulkWarpUpdateEvent(warps, type));
+  }
+
+  @Override
+  public void onGroupInvites(Warp warp, InvitationStatus status, String groupId) {
+    eventBus.post(new WarpGroupInvitesEvent(warp, status, groupId));
+  }
+
+  @Override
+  public void onPlayerInvites(Warp warp, InvitationStatus status, Profile profile) {
+    eventBus.post(new WarpPlayerInvitesEvent(warp, status, profile));
+  }
+
+}
@@ -19,43 +19,160 @@
 
 package me.taylorkelly.mywarp.warp;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 
+import me.taylorkelly.mywarp.util.BkTree;
 import me.taylorkelly.mywarp.util.MatchList;
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
 
 /**
  * A WarpManager that stores warps managed by it in memory.
+ * <p>Changes are reported to the WarpListeners given when initializing this WarpManager, in the given order: additions
+ * and removals by the manager itself, all other changes by the Warps it holds. {@link #populate(Iterable)} and {@link
+ * #clear()} are not reported. Only Warps created by a {@link WarpBuilder} can be managed.</p>
+ * <p>Warps are additionally indexed by their creator, world and type. {@link #query(WarpQuery)} uses the smallest
+ * index bucket applicable to a query as candidates instead of scanning all Warps. To keep the indices consistent, an
+ * internal WarpListener that runs before all others updates the indices whenever one of the indexed values changes.
+ * Lower-cased names are kept in a sorted map that answers {@link #getWarpsByPrefix(String)} and in a {@link BkTree}
+ * that answers {@link #getSimilarWarps(String, int, Predicate)}. Warps themselves are kept in a set in their natural
+ * order, so name-ordered queries and listings walk them in order instead of sorting, and stop once the requested page
+ * is full.</p>
  */
 public class MemoryWarpManager implements WarpManager {
 
-  private final Map<String, Warp> warpMap = new HashMap<String, Warp>();
+  private final Map<String, Entry> warpMap = new HashMap<String, Entry>();
+  private final Map<UUID, Set<Warp>> creatorIndex = new HashMap<UUID, Set<Warp>>();
+  private final Map<UUID, Set<Warp>> worldIndex = new HashMap<UUID, Set<Warp>>();
+  private final Map<Warp.Type, Set<Warp>> typeIndex = new EnumMap<Warp.Type, Set<Warp>>(Warp.Type.class);
+  private final NavigableMap<String, Set<Warp>> prefixIndex = new TreeMap<String, Set<Warp>>();
+  private final BkTree<Warp> nameTree = new BkTree<Warp>();
+  private final NavigableSet<Warp> sortedWarps = new TreeSet<Warp>();
+  private final WarpListenerChain listeners;
+
+  /**
+   * Creates an instance that reports changes to the given WarpListeners, in the given order.
+   *
+   * @param listeners the WarpListeners
+   */
+  public MemoryWarpManager(WarpListener... listeners) {
+    this.listeners = new WarpListenerChain(listeners).prepend(new IndexUpdater());
+  }
 
   @Override
   public void add(Warp warp) {
-    warpMap.put(warp.getName(), warp);
+    insert(warp);
+    listeners.onAddition(warp);
   }
 
   @Override
   public void populate(Iterable<Warp> warps) {
     for (Warp warp : warps) {
-      add(warp);
+      insert(warp);
     }
   }
 
   @Override
   public void remove(Warp warp) {
-    warpMap.remove(warp.getName());
+    Entry removed = warpMap.get(warp.getName());
+    if (removed != null) {
+      release(removed);
+      listeners.onRemoval(removed.warp);
+    }
+  }
+
+  @Override
+  public int removeAll(Iterable<Warp> warps) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    // the given Warps might be a view on this manager
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      Entry removed = warpMap.get(warp.getName());
+      if (removed != null) {
+        release(removed);
+        builder.add(removed.warp);
+      }
+    }
+    ImmutableList<Warp> removed = builder.build();
+    if (!removed.isEmpty()) {
+      listeners.onBulkRemoval(removed);
+    }
+    return removed.size();
+  }
+
+  @Override
+  public int setCreator(Iterable<Warp> warps, Profile creator) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      Entry entry = warpMap.get(warp.getName());
+      if (entry != null) {
+        unindexValues(entry);
+        entry.warp.setCreatorSilently(creator);
+        indexValues(entry);
+        builder.add(entry.warp);
+      }
+    }
+    ImmutableList<Warp> updated = builder.build();
+    if (!updated.isEmpty()) {
+      listeners.onBulkUpdate(updated, UpdateType.CREATOR);
+    }
+    return updated.size();
+  }
+
+  @Override
+  public int setType(Iterable<Warp> warps, Warp.Type type) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      Entry entry = warpMap.get(warp.getName());
+      if (entry != null) {
+        unindexValues(entry);
+        entry.warp.setTypeSilently(type);
+        indexValues(entry);
+        builder.add(entry.warp);
+      }
+    }
+    ImmutableList<Warp> updated = builder.build();
+    if (!updated.isEmpty()) {
+      listeners.onBulkUpdate(updated, UpdateType.TYPE);
+    }
+    return updated.size();
   }
 
   @Override
   public void clear() {
+    for (Entry entry : warpMap.values()) {
+      entry.warp.setListener(WarpListenerChain.EMPTY);
+    }
     warpMap.clear();
+    creatorIndex.clear();
+    worldIndex.clear();
+    typeIndex.clear();
+    prefixIndex.clear();
+    nameTree.clear();
+    sortedWarps.clear();
   }
 
   @Override
@@ -70,16 +187,321 @@ public class MemoryWarpManager implements WarpManager {
 
   @Override
   public Optional<Warp> get(String name) {
-    return Optional.fromNullable(warpMap.get(name));
+    Entry entry = warpMap.get(name);
+    return entry != null ? Optional.<Warp>of(entry.warp) : Optional.<Warp>absent();
   }
 
   @Override
   public Collection<Warp> filter(Predicate<Warp> predicate) {
-    return Collections2.filter(warpMap.values(), predicate);
+    return Collections2.filter(sorted(), predicate);
   }
 
   @Override
   public MatchList getMatchingWarps(String filter, Predicate<Warp> predicate) {
     return new MatchList(filter, filter(predicate));
   }
+
+  @Override
+  public Iterable<Warp> getWarpsByPrefix(String prefix) {
+    final String key = nameKey(prefix);
+    final Set<Map.Entry<String, Set<Warp>>> tail = prefixIndex.tailMap(key, true).entrySet();
+    return new Iterable<Warp>() {
+      @Override
+      public Iterator<Warp> iterator() {
+        final Iterator<Map.Entry<String, Set<Warp>>> entries = tail.iterator();
+        return new AbstractIterator<Warp>() {
+
+          private Iterator<Warp> bucket = Collections.<Warp>emptySet().iterator();
+
+          @Override
+          protected Warp computeNext() {
+            while (!bucket.hasNext()) {
+              if (!entries.hasNext()) {
+                return endOfData();
+              }
+              Map.Entry<String, Set<Warp>> entry = entries.next();
+              // keys are sorted, so the first key without the prefix ends the range
+              if (!entry.getKey().startsWith(key)) {
+                return endOfData();
+              }
+              bucket = entry.getValue().iterator();
+            }
+            return bucket.next();
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public List<Warp> getSimilarWarps(String name, int maxDistance, Predicate<Warp> predicate) {
+    return ImmutableList.copyOf(Iterables.filter(nameTree.search(nameKey(name), maxDistance), predicate));
+  }
+
+  @Override
+  public WarpQueryResult query(WarpQuery query) {
+    Collection<Warp> candidates = candidates(query);
+    if (query.getSortKey() == WarpQuery.SortKey.NAME && candidates.size() == warpMap.size()) {
+      // no index narrows the candidates, so walking all Warps in order is cheaper than selecting from them
+      return query.selectOrdered(sorted());
+    }
+    return query.select(candidates);
+  }
+
+  /**
+   * Gets the candidates for the given query: the smallest index bucket applicable to the query or, if there is none,
+   * all managed Warps.
+   *
+   * @param query the query
+   * @return an unmodifiable view of the candidates
+   */
+  Collection<Warp> candidates(WarpQuery query) {
+    Collection<? extends Warp> candidates = values();
+    if (query.getCreator().isPresent()) {
+      candidates = smaller(candidates, bucket(creatorIndex, query.getCreator().get()));
+    }
+    if (query.getWorld().isPresent()) {
+      candidates = smaller(candidates, bucket(worldIndex, query.getWorld().get()));
+    }
+    if (query.getType().isPresent()) {
+      candidates = smaller(candidates, bucket(typeIndex, query.getType().get()));
+    }
+    return Collections.<Warp>unmodifiableCollection(candidates);
+  }
+
+  /**
+   * Removes the given Warp from this manager without notifying listeners, if it is managed by this manager.
+   *
+   * @param warp the Warp
+   * @return true if the Warp was removed
+   */
+  boolean evict(Warp warp) {
+    Entry entry = warpMap.get(warp.getName());
+    if (entry == null || entry.warp != warp) {
+      return false;
+    }
+    release(entry);
+    return true;
+  }
+
+  /**
+   * Gets all Warps managed by this manager.
+   *
+   * @return an unmodifiable view of all Warps
+   */
+  Collection<Warp> values() {
+    return Collections.unmodifiableCollection(Collections2.transform(warpMap.values(), Entry.TO_WARP));
+  }
+
+  /**
+   * Gets all Warps managed by this manager in their natural order.
+   *
+   * @return an unmodifiable view of all Warps, sorted by name
+   */
+  Collection<Warp> sorted() {
+    return Collections.unmodifiableSet(sortedWarps);
+  }
+
+  /**
+   * Adds the given Warp to this manager and all indices without notifying listeners. A Warp with the same name that
+   * is already managed is replaced.
+   *
+   * @param warp the Warp
+   * @throws IllegalArgumentException if the Warp was not created by a {@link WarpBuilder}
+   */
+  private void insert(Warp warp) {
+    checkArgument(warp instanceof SimpleWarp, "Warps must be created by a WarpBuilder.");
+    Entry entry = new Entry((SimpleWarp) warp);
+    Entry previous = warpMap.put(warp.getName(), entry);
+    if (previous != null) {
+      previous.warp.setListener(WarpListenerChain.EMPTY);
+      unindex(previous);
+    }
+    index(entry);
+    entry.warp.setListener(listeners);
+  }
+
+  /**
+   * Removes the given Entry from this manager and all indices without notifying listeners.
+   *
+   * @param entry the Entry
+   */
+  private void release(Entry entry) {
+    entry.warp.setListener(WarpListenerChain.EMPTY);
+    warpMap.remove(entry.warp.getName());
+    unindex(entry);
+  }
+
+  /**
+   * Adds the given Entry to all indices under the current values of its Warp.
+   *
+   * @param entry the Entry
+   */
+  private void index(Entry entry) {
+    indexValues(entry);
+    put(prefixIndex, nameKey(entry.warp), entry.warp);
+    nameTree.add(nameKey(entry.warp), entry.warp);
+    sortedWarps.add(entry.warp);
+  }
+
+  /**
+   * Removes the given Entry from all indices under the values it was indexed with.
+   *
+   * @param entry the Entry
+   */
+  private void unindex(Entry entry) {
+    unindexValues(entry);
+    delete(prefixIndex, nameKey(entry.warp), entry.warp);
+    nameTree.remove(nameKey(entry.warp), entry.warp);
+    sortedWarps.remove(entry.warp);
+  }
+
+  /**
+   * Adds the given Entry to the creator, world and type indices under the current values of its Warp. As names never
+   * change, only these indices need to be updated when a Warp changes.
+   *
+   * @param entry the Entry
+   */
+  private void indexValues(Entry entry) {
+    entry.creatorKey = entry.warp.getCreator().getUniqueId();
+    entry.worldKey = entry.warp.getWorldIdentifier();
+    entry.typeKey = entry.warp.getType();
+    put(creatorIndex, entry.creatorKey, entry.warp);
+    put(worldIndex, entry.worldKey, entry.warp);
+    put(typeIndex, entry.typeKey, entry.warp);
+  }
+
+  /**
+   * Removes the given Entry from the creator, world and type indices under the values it was indexed with.
+   *
+   * @param entry the Entry
+   */
+  private void unindexValues(Entry entry) {
+    delete(creatorIndex, entry.creatorKey, entry.warp);
+    delete(worldIndex, entry.worldKey, entry.warp);
+    delete(typeIndex, entry.typeKey, entry.warp);
+  }
+
+  /**
+   * Gets the key the given Warp is stored under in the name indices.
+   *
+   * @param warp the Warp
+   * @return the key
+   */
+  private static String nameKey(Warp warp) {
+    return nameKey(warp.getName());
+  }
+
+  /**
+   * Gets the key the given name is stored under in the name indices.
+   *
+   * @param name the name
+   * @return the key
+   */
+  static String nameKey(String name) {
+    return name.toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Returns the smaller of both collections.
+   *
+   * @param c1 the first collection
+   * @param c2 the second collection
+   * @return the smaller collection
+   */
+  private static Collection<? extends Warp> smaller(Collection<? extends Warp> c1, Collection<? extends Warp> c2) {
+    return c2.size() < c1.size() ? c2 : c1;
+  }
+
+  /**
+   * Gets the Warps indexed under the given key in the given index.
+   *
+   * @param index the index
+   * @param key   the key
+   * @param <K>   the type of keys
+   * @return the Warps indexed under the key, an empty set if there are none
+   */
+  private static <K> Set<Warp> bucket(Map<K, Set<Warp>> index, K key) {
+    Set<Warp> bucket = index.get(key);
+    return bucket != null ? bucket : Collections.<Warp>emptySet();
+  }
+
+  /**
+   * Adds the given Warp under the given key to the given index.
+   *
+   * @param index the index
+   * @param key   the key
+   * @param warp  the Warp
+   * @param <K>   the type of keys
+   */
+  private static <K> void put(Map<K, Set<Warp>> index, K key, Warp warp) {
+    Set<Warp> bucket = index.get(key);
+    if (bucket == null) {
+      bucket = new HashSet<Warp>();
+      index.put(key, bucket);
+    }
+    bucket.add(warp);
+  }
+
+  /**
+   * Removes the given Warp under the given key from the given index.
+   *
+   * @param index the index
+   * @param key   the key
+   * @param warp  the Warp
+   * @param <K>   the type of keys
+   */
+  private static <K> void delete(Map<K, Set<Warp>> index, K key, Warp warp) {
+    Set<Warp> bucket = index.get(key);
+    if (bucket != null && bucket.remove(warp) && bucket.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  /**
+   * A managed Warp together with the values it is indexed with.
+   */
+  private static class Entry {
+
+    static final Function<Entry, Warp> TO_WARP = new Function<Entry, Warp>() {
+      @Override
+      public Warp apply(Entry input) {
+        return input.warp;
+      }
+    };
+
+    final SimpleWarp warp;
+
+    UUID creatorKey;
+    UUID worldKey;
+    Warp.Type typeKey;
+
+    /**
+     * Creates an instance for the given Warp.
+     *
+     * @param warp the Warp
+     */
+    Entry(SimpleWarp warp) {
+      this.warp = warp;
+    }
+  }
+
+  /**
+   * Updates the indices when one of the indexed values of a managed Warp changes.
+   */
+  private class IndexUpdater extends AbstractWarpListener {
+
+    @Override
+    public void onUpdate(Warp warp, UpdateType type) {
+      if (type != UpdateType.CREATOR && type != UpdateType.LOCATION && type != UpdateType.TYPE) {
+        return;
+      }
+      Entry entry = warpMap.get(warp.getName());
+      if (entry == null || entry.warp != warp) {
+        return;
+      }
+      unindexValues(entry);
+      indexValues(entry);
+    }
+  }
 }
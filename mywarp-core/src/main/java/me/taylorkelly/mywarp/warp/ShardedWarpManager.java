@@ -0,0 +1,561 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import me.taylorkelly.mywarp.Game;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.storage.WarpStorage;
+import me.taylorkelly.mywarp.util.BkTree;
+import me.taylorkelly.mywarp.util.MatchList;
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * A WarpManager that stores the warps managed by it in memory, sharded by the world they are located in.
+ * <p>Each shard is a {@link MemoryWarpManager} with its own name, creator and type indices, so queries restricted to a
+ * single world only touch the Warps of that world. Warps whose world is not loaded are not held in memory: when the
+ * manager is populated they are dropped and {@link #unloadWorld(UUID)} drops all Warps of a world that is unloaded.
+ * {@link #loadWorld(UUID)} reads them from the {@link WarpStorage} again once the world is loaded. The names of Warps
+ * that are not held in memory stay reserved: {@link #contains(String)} returns {@code true} for them, while {@link
+ * #get(String)} returns an absent Optional. Until their world is loaded, these Warps are also not part of listings,
+ * queries, bulk operations or {@link me.taylorkelly.mywarp.warp.pruning.WarpPruner pruning}.</p>
+ * <p>Changes are reported to the WarpListeners given when initializing this WarpManager, in the given order, just as
+ * {@link MemoryWarpManager} reports them. Bulk operations are reported once, regardless of how many shards they touch.
+ * {@link #populate(Iterable)}, {@link #clear()} and the loading or unloading of a world are not reported. Only Warps
+ * created by a {@link WarpBuilder} can be managed. This manager must only be used from the thread that handles the
+ * game's logic.</p>
+ */
+public class ShardedWarpManager implements WarpManager {
+
+  /**
+   * Orders Warps alphabetically by name, ignoring case, just as {@link MemoryWarpManager#getWarpsByPrefix(String)}
+   * orders them.
+   */
+  private static final Comparator<Warp> NAME_ORDER = new Comparator<Warp>() {
+    @Override
+    public int compare(Warp w1, Warp w2) {
+      return w1.getName().toLowerCase(Locale.ENGLISH).compareTo(w2.getName().toLowerCase(Locale.ENGLISH));
+    }
+  };
+
+  private final Map<UUID, MemoryWarpManager> shards = new HashMap<UUID, MemoryWarpManager>();
+  private final Map<String, UUID> worldsByName = new HashMap<String, UUID>();
+  private final Set<UUID> unloadedWorlds = new HashSet<UUID>();
+  private final Game game;
+  private final WarpStorage warpStorage;
+  private final ListeningExecutorService storageExecutor;
+  private final WarpListenerChain listeners;
+
+  private int generation;
+
+  /**
+   * Creates an instance that reports changes to the given WarpListeners, in the given order.
+   *
+   * @param game            the Game
+   * @param warpStorage     the WarpStorage Warps are loaded from when their world is loaded
+   * @param storageExecutor the executor that runs calls to the WarpStorage
+   * @param listeners       the WarpListeners
+   */
+  public ShardedWarpManager(Game game, WarpStorage warpStorage, ListeningExecutorService storageExecutor,
+                            WarpListener... listeners) {
+    this.game = game;
+    this.warpStorage = warpStorage;
+    this.storageExecutor = storageExecutor;
+    this.listeners = new WarpListenerChain(listeners);
+  }
+
+  /**
+   * Loads the Warps located in the world of the given unique identifier. Warps are read from the WarpStorage in the
+   * background and added to this manager once they have been read, unless the world has been unloaded again in the
+   * meantime. New Warps can be added to the world immediately.
+   *
+   * @param world the unique identifier of the world
+   * @return a future that provides the number of loaded Warps
+   */
+  public ListenableFuture<Integer> loadWorld(final UUID world) {
+    shard(world);
+    if (!unloadedWorlds.contains(world)) {
+      return Futures.immediateFuture(0);
+    }
+    final int expectedGeneration = generation;
+    ListenableFuture<List<Warp>> futureWarps = storageExecutor.submit(new Callable<List<Warp>>() {
+      @Override
+      public List<Warp> call() throws Exception {
+        return warpStorage.getWarps(world);
+      }
+    });
+    return Futures.transform(futureWarps, new Function<List<Warp>, Integer>() {
+      @Override
+      public Integer apply(List<Warp> input) {
+        return attach(world, input, expectedGeneration);
+      }
+    }, game.getExecutor());
+  }
+
+  /**
+   * Unloads the Warps located in the world of the given unique identifier. Their names stay reserved until the world is
+   * loaded again.
+   *
+   * @param world the unique identifier of the world
+   */
+  public void unloadWorld(UUID world) {
+    MemoryWarpManager shard = shards.remove(world);
+    if (shard == null) {
+      return;
+    }
+    if (shard.getSize() > 0) {
+      unloadedWorlds.add(world);
+    }
+    shard.clear();
+  }
+
+  @Override
+  public void add(Warp warp) {
+    evictOther(warp.getName(), warp.getWorldIdentifier());
+    worldsByName.put(warp.getName(), warp.getWorldIdentifier());
+    shard(warp.getWorldIdentifier()).add(warp);
+  }
+
+  @Override
+  public void populate(Iterable<Warp> warps) {
+    for (LocalWorld world : game.getWorlds()) {
+      shard(world.getUniqueId());
+    }
+    ListMultimap<UUID, Warp> byWorld = ArrayListMultimap.create();
+    for (Warp warp : warps) {
+      evictOther(warp.getName(), warp.getWorldIdentifier());
+      worldsByName.put(warp.getName(), warp.getWorldIdentifier());
+      if (shards.containsKey(warp.getWorldIdentifier())) {
+        byWorld.put(warp.getWorldIdentifier(), warp);
+      } else {
+        unloadedWorlds.add(warp.getWorldIdentifier());
+      }
+    }
+    for (UUID world : byWorld.keySet()) {
+      shards.get(world).populate(byWorld.get(world));
+    }
+  }
+
+  @Override
+  public void remove(Warp warp) {
+    MemoryWarpManager shard = shardOf(warp.getName());
+    if (shard != null && shard.contains(warp.getName())) {
+      worldsByName.remove(warp.getName());
+      shard.remove(warp);
+    }
+  }
+
+  @Override
+  public int removeAll(Iterable<Warp> warps) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    ListMultimap<MemoryWarpManager, Warp> byShard = groupByShard(warps);
+    for (MemoryWarpManager shard : byShard.keySet()) {
+      List<Warp> group = byShard.get(shard);
+      for (Warp warp : group) {
+        worldsByName.remove(warp.getName());
+      }
+      shard.removeAll(group);
+      builder.addAll(group);
+    }
+    ImmutableList<Warp> removed = builder.build();
+    if (!removed.isEmpty()) {
+      listeners.onBulkRemoval(removed);
+    }
+    return removed.size();
+  }
+
+  @Override
+  public int setCreator(Iterable<Warp> warps, Profile creator) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    ListMultimap<MemoryWarpManager, Warp> byShard = groupByShard(warps);
+    for (MemoryWarpManager shard : byShard.keySet()) {
+      shard.setCreator(byShard.get(shard), creator);
+      builder.addAll(byShard.get(shard));
+    }
+    ImmutableList<Warp> updated = builder.build();
+    if (!updated.isEmpty()) {
+      listeners.onBulkUpdate(updated, UpdateType.CREATOR);
+    }
+    return updated.size();
+  }
+
+  @Override
+  public int setType(Iterable<Warp> warps, Warp.Type type) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    ListMultimap<MemoryWarpManager, Warp> byShard = groupByShard(warps);
+    for (MemoryWarpManager shard : byShard.keySet()) {
+      shard.setType(byShard.get(shard), type);
+      builder.addAll(byShard.get(shard));
+    }
+    ImmutableList<Warp> updated = builder.build();
+    if (!updated.isEmpty()) {
+      listeners.onBulkUpdate(updated, UpdateType.TYPE);
+    }
+    return updated.size();
+  }
+
+  @Override
+  public void clear() {
+    // Warps that are still being loaded belong to the cleared state
+    generation++;
+    for (MemoryWarpManager shard : shards.values()) {
+      shard.clear();
+    }
+    shards.clear();
+    worldsByName.clear();
+    unloadedWorlds.clear();
+  }
+
+  @Override
+  public int getSize() {
+    int size = 0;
+    for (MemoryWarpManager shard : shards.values()) {
+      size += shard.getSize();
+    }
+    return size;
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return worldsByName.containsKey(name);
+  }
+
+  @Override
+  public Optional<Warp> get(String name) {
+    MemoryWarpManager shard = shardOf(name);
+    return shard != null ? shard.get(name) : Optional.<Warp>absent();
+  }
+
+  @Override
+  public Collection<Warp> filter(Predicate<Warp> predicate) {
+    final List<Collection<Warp>> filtered = new ArrayList<Collection<Warp>>(shards.size());
+    for (MemoryWarpManager shard : shards.values()) {
+      filtered.add(shard.filter(predicate));
+    }
+    return new AbstractCollection<Warp>() {
+      @Override
+      public Iterator<Warp> iterator() {
+        return merge(filtered, Ordering.<Warp>natural());
+      }
+
+      @Override
+      public int size() {
+        int size = 0;
+        for (Collection<Warp> collection : filtered) {
+          size += collection.size();
+        }
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public MatchList getMatchingWarps(String filter, Predicate<Warp> predicate) {
+    return new MatchList(filter, filter(predicate));
+  }
+
+  @Override
+  public Iterable<Warp> getWarpsByPrefix(String prefix) {
+    final List<Iterable<Warp>> sources = new ArrayList<Iterable<Warp>>(shards.size());
+    for (MemoryWarpManager shard : shards.values()) {
+      sources.add(shard.getWarpsByPrefix(prefix));
+    }
+    return new Iterable<Warp>() {
+      @Override
+      public Iterator<Warp> iterator() {
+        return merge(sources, NAME_ORDER);
+      }
+    };
+  }
+
+  @Override
+  public List<Warp> getSimilarWarps(String name, int maxDistance, Predicate<Warp> predicate) {
+    checkArgument(maxDistance >= 0, "The maximum distance must not be negative.");
+    // each shard only orders its own matches by distance, so all matches are bucketed by their distance again
+    char[] key = MemoryWarpManager.nameKey(name).toCharArray();
+    BkTree.DistanceCalculator calculator = new BkTree.DistanceCalculator();
+    List<List<Warp>> byDistance = new ArrayList<List<Warp>>(maxDistance + 1);
+    for (int i = 0; i <= maxDistance; i++) {
+      byDistance.add(new ArrayList<Warp>());
+    }
+    for (MemoryWarpManager shard : shards.values()) {
+      for (Warp warp : shard.getSimilarWarps(name, maxDistance, predicate)) {
+        int distance = calculator.distance(key, MemoryWarpManager.nameKey(warp.getName()).toCharArray());
+        byDistance.get(distance).add(warp);
+      }
+    }
+    return ImmutableList.copyOf(Iterables.concat(byDistance));
+  }
+
+  @Override
+  public WarpQueryResult query(WarpQuery query) {
+    if (query.getWorld().isPresent()) {
+      MemoryWarpManager shard = shards.get(query.getWorld().get());
+      return shard != null ? shard.query(query) : query.select(Collections.<Warp>emptySet());
+    }
+    boolean indexed = query.getCreator().isPresent() || query.getType().isPresent();
+    if (query.getSortKey() == WarpQuery.SortKey.NAME && !indexed) {
+      // no index narrows the candidates, so the shards are walked in order until the requested page is full
+      final List<Collection<Warp>> sorted = new ArrayList<Collection<Warp>>(shards.size());
+      for (MemoryWarpManager shard : shards.values()) {
+        sorted.add(shard.sorted());
+      }
+      return query.selectOrdered(new Iterable<Warp>() {
+        @Override
+        public Iterator<Warp> iterator() {
+          return merge(sorted, Ordering.<Warp>natural());
+        }
+      });
+    }
+    List<Collection<Warp>> candidates = new ArrayList<Collection<Warp>>(shards.size());
+    for (MemoryWarpManager shard : shards.values()) {
+      candidates.add(shard.candidates(query));
+    }
+    return query.select(Iterables.concat(candidates));
+  }
+
+  /**
+   * Lazily merges the given sources, each of which must iterate its Warps in the given order, into a single iterator
+   * in that order.
+   *
+   * @param sources the sources
+   * @param order   the order of the sources and the merged iterator
+   * @return the merged iterator
+   */
+  private static Iterator<Warp> merge(List<? extends Iterable<Warp>> sources, final Comparator<? super Warp> order) {
+    final PriorityQueue<PeekingIterator<Warp>> heads =
+        new PriorityQueue<PeekingIterator<Warp>>(Math.max(1, sources.size()), new Comparator<PeekingIterator<Warp>>() {
+          @Override
+          public int compare(PeekingIterator<Warp> i1, PeekingIterator<Warp> i2) {
+            return order.compare(i1.peek(), i2.peek());
+          }
+        });
+    for (Iterable<Warp> source : sources) {
+      PeekingIterator<Warp> iterator = Iterators.peekingIterator(source.iterator());
+      if (iterator.hasNext()) {
+        heads.add(iterator);
+      }
+    }
+    return new AbstractIterator<Warp>() {
+      @Override
+      protected Warp computeNext() {
+        PeekingIterator<Warp> head = heads.poll();
+        if (head == null) {
+          return endOfData();
+        }
+        Warp next = head.next();
+        if (head.hasNext()) {
+          heads.add(head);
+        }
+        return next;
+      }
+    };
+  }
+
+  /**
+   * Gets the shard of the world of the given unique identifier, creating it if it does not exist.
+   *
+   * @param world the unique identifier of the world
+   * @return the shard
+   */
+  private MemoryWarpManager shard(UUID world) {
+    MemoryWarpManager shard = shards.get(world);
+    if (shard == null) {
+      shard = new MemoryWarpManager(new ShardListener(world));
+      shards.put(world, shard);
+    }
+    return shard;
+  }
+
+  /**
+   * Gets the shard that holds the Warp of the given name, if the Warp is held in memory.
+   *
+   * @param name the name
+   * @return the shard or {@code null} if the Warp is not held in memory
+   */
+  private MemoryWarpManager shardOf(String name) {
+    UUID world = worldsByName.get(name);
+    return world != null ? shards.get(world) : null;
+  }
+
+  /**
+   * Removes the Warp of the given name without notifying listeners, if it is held by a shard other than the one of the
+   * given world. Adding a Warp replaces a managed Warp of the same name, even if it is located in another world.
+   *
+   * @param name  the name
+   * @param world the unique identifier of the world the Warp is added to
+   */
+  private void evictOther(String name, UUID world) {
+    UUID current = worldsByName.get(name);
+    if (current == null || current.equals(world)) {
+      return;
+    }
+    MemoryWarpManager shard = shards.get(current);
+    if (shard != null) {
+      Optional<Warp> previous = shard.get(name);
+      if (previous.isPresent()) {
+        shard.evict(previous.get());
+      }
+    }
+  }
+
+  /**
+   * Groups the managed Warps that share a name with one of the given Warps by the shard that holds them.
+   *
+   * @param warps the Warps
+   * @return the managed Warps, grouped by their shard
+   */
+  private ListMultimap<MemoryWarpManager, Warp> groupByShard(Iterable<Warp> warps) {
+    ListMultimap<MemoryWarpManager, Warp> byShard = ArrayListMultimap.create();
+    // the given Warps might be a view on this manager
+    for (Warp warp : ImmutableList.copyOf(warps)) {
+      MemoryWarpManager shard = shardOf(warp.getName());
+      if (shard == null) {
+        continue;
+      }
+      Optional<Warp> managed = shard.get(warp.getName());
+      if (managed.isPresent()) {
+        byShard.put(shard, managed.get());
+      }
+    }
+    return byShard;
+  }
+
+  /**
+   * Adds the given Warps, read from the WarpStorage, to the shard of the given world.
+   *
+   * @param world              the unique identifier of the world
+   * @param warps              the Warps
+   * @param expectedGeneration the generation of this manager when loading has started
+   * @return the number of added Warps
+   */
+  private int attach(UUID world, List<Warp> warps, int expectedGeneration) {
+    MemoryWarpManager shard = shards.get(world);
+    if (shard == null || generation != expectedGeneration) {
+      // the world has been unloaded or the manager has been cleared in the meantime
+      return 0;
+    }
+    List<Warp> attached = new ArrayList<Warp>(warps.size());
+    for (Warp warp : warps) {
+      // skips Warps that have been loaded by an earlier call or that have been replaced since they were unloaded
+      if (world.equals(worldsByName.get(warp.getName())) && !shard.contains(warp.getName())) {
+        attached.add(warp);
+      }
+    }
+    shard.populate(attached);
+    unloadedWorlds.remove(world);
+    return attached.size();
+  }
+
+  /**
+   * Forwards changes of the Warps held by a single shard to the WarpListeners of this manager and moves Warps whose
+   * location changes to another world to the shard of that world. Bulk operations are reported by the manager itself.
+   */
+  private class ShardListener implements WarpListener {
+
+    private final UUID world;
+
+    /**
+     * Creates an instance for the shard of the world of the given unique identifier.
+     *
+     * @param world the unique identifier of the world
+     */
+    ShardListener(UUID world) {
+      this.world = world;
+    }
+
+    @Override
+    public void onAddition(Warp warp) {
+      listeners.onAddition(warp);
+    }
+
+    @Override
+    public void onRemoval(Warp warp) {
+      listeners.onRemoval(warp);
+    }
+
+    @Override
+    public void onBulkRemoval(List<Warp> warps) {
+      // reported by the manager once for all shards
+    }
+
+    @Override
+    public void onUpdate(Warp warp, UpdateType type) {
+      if (type == UpdateType.LOCATION && !warp.getWorldIdentifier().equals(world)) {
+        MemoryWarpManager shard = shards.get(world);
+        if (shard != null && shard.evict(warp)) {
+          worldsByName.put(warp.getName(), warp.getWorldIdentifier());
+          shard(warp.getWorldIdentifier()).populate(ImmutableList.of(warp));
+        }
+      }
+      listeners.onUpdate(warp, type);
+    }
+
+    @Override
+    public void onBulkUpdate(List<Warp> warps, UpdateType type) {
+      // reported by the manager once for all shards
+    }
+
+    @Override
+    public void onGroupInvites(Warp warp, InvitationStatus status, String groupId) {
+      listeners.onGroupInvites(warp, status, groupId);
+    }
+
+    @Override
+    public void onPlayerInvites(Warp warp, InvitationStatus status, Profile profile) {
+      listeners.onPlayerInvites(warp, status, profile);
+    }
+  }
+
+}
@@ -22,21 +22,13 @@ package me.taylorkelly.mywarp.warp;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.base.Optional;
-
-import me.taylorkelly.mywarp.Actor;
-import me.taylorkelly.mywarp.LocalEntity;
-import me.taylorkelly.mywarp.LocalPlayer;
 import me.taylorkelly.mywarp.LocalWorld;
 import me.taylorkelly.mywarp.MyWarp;
-import me.taylorkelly.mywarp.economy.FeeProvider;
-import me.taylorkelly.mywarp.teleport.TeleportManager.TeleportStatus;
 import me.taylorkelly.mywarp.util.EulerDirection;
-import me.taylorkelly.mywarp.util.NoSuchWorldException;
 import me.taylorkelly.mywarp.util.Vector3;
-import me.taylorkelly.mywarp.util.WarpUtils;
-import me.taylorkelly.mywarp.util.i18n.DynamicMessages;
 import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
 
 import java.util.Collections;
 import java.util.Date;
@@ -46,13 +38,13 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * A simple implementation of a Warp. Use a {@link WarpBuilder} to create instances.
+ * <p>Every change is reported to the WarpListener set by the WarpManager that manages the Warp, after it has been
+ * applied.</p>
  */
-class SimpleWarp implements Warp {
+class SimpleWarp extends AbstractWarp {
 
   private static final double GRAVITY_CONSTANT = 0.8;
-  private static final DynamicMessages MESSAGES = new DynamicMessages(Warp.RESOURCE_BUNDLE_NAME);
 
-  private final MyWarp myWarp;
   private final String name;
   private final Date creationDate;
   private final Set<Profile> invitedPlayers;
@@ -64,6 +56,7 @@ class SimpleWarp implements Warp {
   private volatile EulerDirection rotation;
   private volatile int visits;
   private volatile String welcomeMessage;
+  private volatile WarpListener listener = WarpListenerChain.EMPTY;
 
   /**
    * Creates a instance with the given values.
@@ -87,7 +80,7 @@ class SimpleWarp implements Warp {
   SimpleWarp(MyWarp myWarp, String name, Date creationDate, Set<Profile> invitedPlayers, Set<String> invitedGroups,
              Profile creator, Type type, UUID worldIdentifier, Vector3 position, EulerDirection rotation, int visits,
              String welcomeMessage) {
-    this.myWarp = checkNotNull(myWarp);
+    super(checkNotNull(myWarp));
     this.name = checkNotNull(name);
     this.creationDate = checkNotNull(creationDate);
     checkArgument(!checkNotNull(invitedPlayers).contains(null), "'invitedPlayers' must not contain null.");
@@ -103,118 +96,19 @@ class SimpleWarp implements Warp {
     this.welcomeMessage = checkNotNull(welcomeMessage);
   }
 
-  @Override
-  public void asCompassTarget(LocalPlayer player) {
-    player.setCompassTarget(getWorld(), position);
-  }
-
-  @Override
-  public boolean isViewable(Actor actor) {
-    if (actor.hasPermission("mywarp.override.view")) {
-      return true;
-    }
-    if (actor instanceof LocalEntity) {
-      return isUsable((LocalEntity) actor);
-    }
-    return false;
-  }
-
-  @Override
-  public boolean isUsable(LocalEntity entity) {
-    if (entity instanceof LocalPlayer) {
-      LocalPlayer player = (LocalPlayer) entity;
-      if (myWarp.getSettings().isControlWorldAccess()) {
-        if (!player.canAccessWorld(getWorld())) {
-          return false;
-
-        }
-      }
-      if (player.hasPermission("mywarp.override.use")) {
-        return true;
-      }
-      if (isCreator(player)) {
-        return true;
-      }
-      if (isPlayerInvited(player)) {
-        return true;
-      }
-      for (String groupId : invitedGroups) {
-        if (player.hasGroup(groupId)) {
-          return true;
-        }
-      }
-    }
-    return isType(Warp.Type.PUBLIC);
-  }
-
-  @Override
-  public boolean isModifiable(Actor actor) {
-    if (actor.hasPermission("mywarp.override.modify")) {
-      return true;
-    }
-    if (actor instanceof LocalPlayer && isCreator((LocalPlayer) actor)) {
-      return true;
-    }
-    return false;
-  }
-
-  @Override
-  public TeleportStatus teleport(LocalEntity entity) {
-    TeleportStatus status = myWarp.getTeleportManager().teleport(entity, getWorld(), position, rotation);
-    if (status.isPositionModified()) {
-      visits++;
-    }
-    return status;
-  }
-
-  @Override
-  public TeleportStatus teleport(LocalPlayer player) {
-    TeleportStatus status = teleport((LocalEntity) player);
-
-    switch (status) {
-      case ORIGINAL:
-        if (!welcomeMessage.isEmpty()) {
-          // TODO color in aqua
-          player.sendMessage(getParsedWelcomeMessage(player));
-        }
-        break;
-      case MODIFIED:
-        player.sendError(MESSAGES.getString("unsafe-loc.closest-location", getName()));
-        break;
-      case NONE:
-        player.sendError(MESSAGES.getString("unsafe-loc.no-teleport", getName()));
-        break;
-    }
-    return status;
-  }
-
-  @Override
-  public TeleportStatus teleport(LocalPlayer player, FeeProvider.FeeType fee) {
-    TeleportStatus status = teleport(player);
-    if (myWarp.getSettings().isEconomyEnabled() && status.isPositionModified()) {
-      myWarp.getEconomyManager().withdraw(player, fee);
-    }
-    return status;
-  }
-
-  @Override
-  public boolean isCreator(LocalPlayer player) {
-    return isCreator(player.getProfile());
-  }
-
-  @Override
-  public boolean isCreator(Profile profile) {
-    return creator.equals(profile);
-  }
-
-  @Override
-  public boolean isType(Warp.Type type) {
-    return this.type == type;
+  /**
+   * Sets the WarpListener that is notified about changes of this Warp.
+   *
+   * @param listener the WarpListener
+   */
+  void setListener(WarpListener listener) {
+    this.listener = checkNotNull(listener);
   }
 
   @Override
-  public boolean isPlayerInvited(LocalPlayer player) {
-    return isPlayerInvited(player.getProfile());
+  protected void addVisit() {
+    visits++;
+    listener.onUpdate(this, UpdateType.VISITS);
   }
 
   @Override
@@ -230,27 +124,25 @@ class SimpleWarp implements Warp {
   @Override
   public void inviteGroup(String groupId) {
     invitedGroups.add(groupId);
+    listener.onGroupInvites(this, InvitationStatus.INVITE, groupId);
   }
 
   @Override
   public void invitePlayer(Profile player) {
     invitedPlayers.add(player);
+    listener.onPlayerInvites(this, InvitationStatus.INVITE, player);
   }
 
   @Override
   public void uninviteGroup(String groupId) {
     invitedGroups.remove(groupId);
-
+    listener.onGroupInvites(this, InvitationStatus.UNINVITE, groupId);
   }
 
   @Override
   public void uninvitePlayer(Profile player) {
     invitedPlayers.remove(player);
-  }
-
-  @Override
-  public int compareTo(Warp that) {
-    return this.name.compareTo(that.getName());
+    listener.onPlayerInvites(this, InvitationStatus.UNINVITE, player);
   }
 
   @Override
@@ -260,6 +152,16 @@ class SimpleWarp implements Warp {
 
   @Override
   public void setCreator(Profile creator) {
+    setCreatorSilently(creator);
+    listener.onUpdate(this, UpdateType.CREATOR);
+  }
+
+  /**
+   * Sets the creator of this Warp without notifying the WarpListener.
+   *
+   * @param creator the profile of the new creator
+   */
+  void setCreatorSilently(Profile creator) {
     this.creator = creator;
   }
 
@@ -285,6 +187,16 @@ class SimpleWarp implements Warp {
 
   @Override
   public void setType(Warp.Type type) {
+    setTypeSilently(type);
+    listener.onUpdate(this, UpdateType.TYPE);
+  }
+
+  /**
+   * Sets the type of this Warp without notifying the WarpListener.
+   *
+   * @param type the new type
+   */
+  void setTypeSilently(Warp.Type type) {
     this.type = type;
   }
 
@@ -307,11 +219,7 @@ class SimpleWarp implements Warp {
   @Override
   public void setWelcomeMessage(String welcomeMessage) {
     this.welcomeMessage = welcomeMessage;
-  }
-
-  @Override
-  public String getParsedWelcomeMessage(LocalPlayer forWhom) {
-    return WarpUtils.replaceTokens(welcomeMessage, this, forWhom);
+    listener.onUpdate(this, UpdateType.WELCOME_MESSAGE);
   }
 
   @Override
@@ -319,26 +227,57 @@ class SimpleWarp implements Warp {
     this.worldIdentifier = world.getUniqueId();
     this.position = position;
     this.rotation = rotation;
+    listener.onUpdate(this, UpdateType.LOCATION);
   }
 
   @Override
   public double getPopularityScore() {
+    return popularityScore(visits, creationDate.getTime(), System.currentTimeMillis());
+  }
+
+  @Override
+  public double getVisitsPerDay() {
+    return visitsPerDay(visits, creationDate.getTime(), System.currentTimeMillis());
+  }
+
+  /**
+   * Calculates the popularity score of a Warp with the given number of visits and the given creation time, evaluated
+   * at the given point in time.
+   *
+   * @param visits         the number of visits
+   * @param creationMillis the creation time in milliseconds since the epoch
+   * @param nowMillis      the time of evaluation in milliseconds since the epoch
+   * @return the popularity score
+   */
+  static double popularityScore(int visits, long creationMillis, long nowMillis) {
     // a basic implementation of the hacker news ranking algorithm detailed
     // at http://amix.dk/blog/post/19574: Older warps receive lower scores
     // due to the influence of the gravity constant.
-    double daysExisting = (System.currentTimeMillis() - creationDate.getTime()) / (1000 * 60 * 60 * 24L);
+    if (visits == 0) {
+      // avoids NaN for Warps that are less than a day old
+      return 0;
+    }
+    double daysExisting = (nowMillis - creationMillis) / (1000 * 60 * 60 * 24L);
     return visits / Math.pow(daysExisting, GRAVITY_CONSTANT);
   }
 
-  @Override
-  public double getVisitsPerDay() {
+  /**
+   * Calculates the average number of visits per day of a Warp with the given number of visits and the given creation
+   * time, evaluated at the given point in time.
+   *
+   * @param visits         the number of visits
+   * @param creationMillis the creation time in milliseconds since the epoch
+   * @param nowMillis      the time of evaluation in milliseconds since the epoch
+   * @return the average number of visits per day
+   */
+  static double visitsPerDay(int visits, long creationMillis, long nowMillis) {
     // this method might not be 100% exact (considering leap seconds), but
     // within the current Java API there are no alternatives
-    long daysSinceCreation = TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis() - creationDate.getTime());
+    long daysSinceCreation = TimeUnit.MILLISECONDS.toDays(nowMillis - creationMillis);
     if (daysSinceCreation <= 0) {
       return visits;
     }
-    return visits / daysSinceCreation;
+    return (double) visits / daysSinceCreation;
   }
 
   @Override
@@ -371,15 +310,6 @@ class SimpleWarp implements Warp {
     return true;
   }
 
-  @Override
-  public LocalWorld getWorld() {
-    Optional<LocalWorld> world = myWarp.getGame().getWorld(worldIdentifier);
-    if (!world.isPresent()) {
-      throw new NoSuchWorldException(worldIdentifier.toString());
-    }
-    return world.get();
-  }
-
   @Override
   public Vector3 getPosition() {
     return position;
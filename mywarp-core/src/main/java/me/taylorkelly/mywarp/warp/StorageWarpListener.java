@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import me.taylorkelly.mywarp.storage.WarpStorage;
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.List;
+
+/**
+ * A WarpListener that persists all changes in a WarpStorage.
+ */
+public class StorageWarpListener implements WarpListener {
+
+  private final WarpStorage storage;
+
+  /**
+   * Creates an instance.
+   *
+   * @param storage the WarpStorage changes are persisted in
+   */
+  public StorageWarpListener(WarpStorage storage) {
+    this.storage = storage;
+  }
+
+  @Override
+  public void onAddition(Warp warp) {
+    storage.addWarp(warp);
+  }
+
+  @Override
+  public void onRemoval(Warp warp) {
+    storage.removeWarp(warp);
+  }
+
+  @Override
+  public void onBulkRemoval(List<Warp> warps) {
+    storage.removeWarps(warps);
+  }
+
+  @Override
+  public void onUpdate(Warp warp, UpdateType type) {
+    switch (type) {
+      case CREATOR:
+        storage.updateCreator(warp);
+        break;
+      case LOCATION:
+        storage.updateLocation(warp);
+        break;
+      case TYPE:
+        storage.updateType(warp);
+        break;
+      case VISITS:
+        storage.updateVisits(warp);
+        break;
+      case WELCOME_MESSAGE:
+        storage.updateWelcomeMessage(warp);
+        break;
+    }
+  }
+
+  @Override
+  public void onBulkUpdate(List<Warp> warps, UpdateType type) {
+    switch (type) {
+      case CREATOR:
+        storage.updateCreators(warps);
+        break;
+      case TYPE:
+        storage.updateTypes(warps);
+        break;
+      default:
+        for (Warp warp : warps) {
+          onUpdate(warp, type);
+        }
+        break;
+    }
+  }
+
+  @Override
+  public void onGroupInvites(Warp warp, InvitationStatus status, String groupId) {
+    switch (status) {
+      case INVITE:
+        storage.inviteGroup(warp, groupId);
+        break;
+      case UNINVITE:
+        storage.uninviteGroup(warp, groupId);
+        break;
+    }
+  }
+
+  @Override
+  public void onPlayerInvites(Warp warp, InvitationStatus status, Profile profile) {
+    switch (status) {
+      case INVITE:
+        storage.invitePlayer(warp, profile);
+        break;
+      case UNINVITE:
+        storage.uninvitePlayer(warp, profile);
+        break;
+    }
+  }
+
+}
@@ -20,6 +20,7 @@
 package me.taylorkelly.mywarp.warp;
 
 import com.google.common.collect.ComparisonChain;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import me.taylorkelly.mywarp.Actor;
 import me.taylorkelly.mywarp.LocalEntity;
@@ -34,6 +35,7 @@ import me.taylorkelly.mywarp.util.profile.Profile;
 
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -101,6 +103,29 @@ public interface Warp extends Comparable<Warp> {
    */
   TeleportStatus teleport(LocalPlayer player, FeeProvider.FeeType fee);
 
+  /**
+   * Teleports the given player to this Warp, sends the applicable message and withdraws the applicable fee, just like
+   * {@link #teleport(LocalPlayer, FeeProvider.FeeType)}, but allows the teleport to be prepared outside of the Thread
+   * that handles the game's logic. The message is sent and the fee is withdrawn once the teleport has been executed.
+   * <p>This method must be called from the Thread that handles the game's logic.</p>
+   *
+   * @param player the player
+   * @param fee    the fee that identifies the amount
+   * @return a future that provides the status of the teleport
+   */
+  ListenableFuture<TeleportStatus> teleportAsync(LocalPlayer player, FeeProvider.FeeType fee);
+
+  /**
+   * Teleports all given players to this Warp and sends each of them the applicable message. The safety search is done
+   * once for the whole group and players are spread across the nearest safe positions, so they do not all land on the
+   * same block.
+   * <p>This method must be called from the Thread that handles the game's logic.</p>
+   *
+   * @param players the players
+   * @return a future that provides the status of each teleport, in the order of the players
+   */
+  ListenableFuture<List<TeleportStatus>> teleportGroupAsync(List<? extends LocalPlayer> players);
+
   /**
    * Returns whether the given player is the creator of this Warp.
    *
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.eventbus.Subscribe;
+
+import me.taylorkelly.mywarp.warp.event.BulkWarpRemovalEvent;
+import me.taylorkelly.mywarp.warp.event.BulkWarpUpdateEvent;
+import me.taylorkelly.mywarp.warp.event.WarpAdditionEvent;
+import me.taylorkelly.mywarp.warp.event.WarpRemovalEvent;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the public Warps of a WarpManager ordered by their popularity score and by their visits per day.
+ * <p>Scores are cached and maintained incrementally: a Warp is only rescored when it is added, removed, visited or
+ * changes its type. As both scores decay with the number of days a Warp exists, all scores are recalculated once the
+ * rescore interval has elapsed. Rankings are served as immutable snapshots that are recreated only if the underlying
+ * order changed.</p>
+ * <p>Instances need to be registered on the EventBus of the managed WarpManager. As {@link
+ * WarpManager#populate(Iterable)} and {@link WarpManager#clear()} do not fire events, {@link #rebuild()} must be called
+ * after calling either of them.</p>
+ */
+public class WarpLeaderboard {
+
+  private static final long RESCORE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private static final Comparator<Entry> POPULARITY_ORDER = new Comparator<Entry>() {
+    @Override
+    public int compare(Entry e1, Entry e2) {
+      // same order as Warp.PopularityComparator
+      int result = Double.compare(e2.popularityScore, e1.popularityScore);
+      if (result == 0) {
+        result = compareLongs(e2.creationMillis, e1.creationMillis);
+      }
+      if (result == 0) {
+        result = e1.name.compareTo(e2.name);
+      }
+      return result;
+    }
+  };
+
+  private static final Comparator<Entry> VISITS_PER_DAY_ORDER = new Comparator<Entry>() {
+    @Override
+    public int compare(Entry e1, Entry e2) {
+      int result = Double.compare(e2.visitsPerDay, e1.visitsPerDay);
+      if (result == 0) {
+        result = compareLongs(e2.creationMillis, e1.creationMillis);
+      }
+      if (result == 0) {
+        result = e1.name.compareTo(e2.name);
+      }
+      return result;
+    }
+  };
+
+  private final WarpManager warpManager;
+  private final int capacity;
+
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+  private final TreeSet<Entry> byPopularity = new TreeSet<Entry>(POPULARITY_ORDER);
+  private final TreeSet<Entry> byVisitsPerDay = new TreeSet<Entry>(VISITS_PER_DAY_ORDER);
+
+  private ImmutableList<Warp> topByPopularity;
+  private ImmutableList<Warp> topByVisitsPerDay;
+  private long nextRescoreMillis;
+
+  /**
+   * Creates an instance that ranks the public Warps of the given WarpManager. Rankings returned by this instance
+   * contain at most {@code capacity} Warps.
+   *
+   * @param warpManager the WarpManager
+   * @param capacity    the maximum number of Warps in a ranking
+   * @throws IllegalArgumentException if {@code capacity} is not positive
+   */
+  public WarpLeaderboard(WarpManager warpManager, int capacity) {
+    checkArgument(capacity > 0, "The capacity must be positive.");
+    this.warpManager = warpManager;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Gets the maximum number of Warps in a ranking.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the public Warps with the highest popularity score, ordered as defined by {@link Warp.PopularityComparator}.
+   *
+   * @return an immutable list of at most {@link #getCapacity()} Warps
+   */
+  public synchronized ImmutableList<Warp> getTopByPopularity() {
+    rescoreIfDue();
+    if (topByPopularity == null) {
+      topByPopularity = snapshot(byPopularity);
+    }
+    return topByPopularity;
+  }
+
+  /**
+   * Gets the public Warps with the highest number of visits per day. Warps with an equal number of visits per day are
+   * ordered by their creation date, newer Warps first.
+   *
+   * @return an immutable list of at most {@link #getCapacity()} Warps
+   */
+  public synchronized ImmutableList<Warp> getTopByVisitsPerDay() {
+    rescoreIfDue();
+    if (topByVisitsPerDay == null) {
+      topByVisitsPerDay = snapshot(byVisitsPerDay);
+    }
+    return topByVisitsPerDay;
+  }
+
+  /**
+   * Discards all cached scores and rebuilds the leaderboard from the public Warps currently managed by the WarpManager.
+   */
+  public synchronized void rebuild() {
+    entries.clear();
+    byPopularity.clear();
+    byVisitsPerDay.clear();
+
+    long now = System.currentTimeMillis();
+    for (Warp warp : warpManager.query(WarpQuery.builder().withType(Warp.Type.PUBLIC).build()).getWarps()) {
+      Entry entry = new Entry(warp);
+      entry.score(now);
+      entries.put(entry.name, entry);
+      insert(entry);
+    }
+    nextRescoreMillis = now + RESCORE_INTERVAL_MILLIS;
+    invalidateSnapshots();
+  }
+
+  /**
+   * Called when a Warp is added.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public synchronized void onWarpAddition(WarpAdditionEvent event) {
+    update(event.getWarp());
+  }
+
+  /**
+   * Called when a Warp is removed.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public synchronized void onWarpRemoval(WarpRemovalEvent event) {
+    Entry entry = entries.remove(event.getWarp().getName());
+    if (entry != null) {
+      delete(entry);
+      invalidateSnapshots();
+    }
+  }
+
+  /**
+   * Called when multiple Warps are removed at once.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public synchronized void onBulkWarpRemoval(BulkWarpRemovalEvent event) {
+    for (Warp warp : event.getWarps()) {
+      Entry entry = entries.remove(warp.getName());
+      if (entry != null) {
+        delete(entry);
+      }
+    }
+    invalidateSnapshots();
+  }
+
+  /**
+   * Called when an existing Warp is updated in some way.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public synchronized void onWarpUpdate(WarpUpdateEvent event) {
+    switch (event.getType()) {
+      case TYPE:
+      case VISITS:
+        update(event.getWarp());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Called when multiple Warps are updated at once.
+   *
+   * @param event the event
+   */
+  @Subscribe
+  public synchronized void onBulkWarpUpdate(BulkWarpUpdateEvent event) {
+    if (event.getType() == WarpUpdateEvent.UpdateType.TYPE) {
+      for (Warp warp : event.getWarps()) {
+        update(warp);
+      }
+    }
+  }
+
+  /**
+   * Adds, rescores or removes the entry of the given Warp, depending on whether it is public and managed by the
+   * WarpManager.
+   *
+   * @param warp the Warp
+   */
+  private void update(Warp warp) {
+    Entry entry = entries.get(warp.getName());
+    if (entry != null) {
+      delete(entry);
+    }
+
+    if (warp.isType(Warp.Type.PUBLIC)) {
+      if (entry == null) {
+        // events might arrive after the Warp was removed, rankings must only contain Warps that are still managed
+        Optional<Warp> managed = warpManager.get(warp.getName());
+        if (!managed.isPresent()) {
+          return;
+        }
+        entry = new Entry(managed.get());
+        entries.put(entry.name, entry);
+      }
+      entry.score(System.currentTimeMillis());
+      insert(entry);
+    } else if (entry != null) {
+      entries.remove(entry.name);
+    }
+    invalidateSnapshots();
+  }
+
+  /**
+   * Recalculates all scores if the rescore interval elapsed.
+   */
+  private void rescoreIfDue() {
+    long now = System.currentTimeMillis();
+    if (now < nextRescoreMillis) {
+      return;
+    }
+    byPopularity.clear();
+    byVisitsPerDay.clear();
+    for (Entry entry : entries.values()) {
+      entry.score(now);
+      insert(entry);
+    }
+    nextRescoreMillis = now + RESCORE_INTERVAL_MILLIS;
+    invalidateSnapshots();
+  }
+
+  private void insert(Entry entry) {
+    byPopularity.add(entry);
+    byVisitsPerDay.add(entry);
+  }
+
+  private void delete(Entry entry) {
+    // must be called before the entry's scores change, otherwise the sets cannot find it
+    byPopularity.remove(entry);
+    byVisitsPerDay.remove(entry);
+  }
+
+  private void invalidateSnapshots() {
+    topByPopularity = null;
+    topByVisitsPerDay = null;
+  }
+
+  private ImmutableList<Warp> snapshot(TreeSet<Entry> ordered) {
+    ImmutableList.Builder<Warp> builder = ImmutableList.builder();
+    Iterator<Entry> it = ordered.iterator();
+    for (int i = 0; i < capacity && it.hasNext(); i++) {
+      builder.add(it.next().warp);
+    }
+    return builder.build();
+  }
+
+  private static int compareLongs(long l1, long l2) {
+    return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+  }
+
+  /**
+   * A Warp and its cached scores.
+   */
+  private static class Entry {
+
+    private final Warp warp;
+    private final String name;
+    private final long creationMillis;
+    private double popularityScore;
+    private double visitsPerDay;
+
+    /**
+     * Creates an unscored entry for the given Warp.
+     *
+     * @param warp the Warp
+     */
+    Entry(Warp warp) {
+      this.warp = warp;
+      this.name = warp.getName();
+      this.creationMillis = warp.getCreationDate().getTime();
+    }
+
+    /**
+     * Recalculates the scores of this entry for the given point in time.
+     *
+     * @param nowMillis the time in milliseconds since the epoch
+     */
+    void score(long nowMillis) {
+      int visits = warp.getVisits();
+      popularityScore = SimpleWarp.popularityScore(visits, creationMillis, nowMillis);
+      visitsPerDay = SimpleWarp.visitsPerDay(visits, creationMillis, nowMillis);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.List;
+
+/**
+ * Listens to changes of the Warps managed by a WarpManager. Listeners are attached to a WarpManager and called after a
+ * change has been applied.
+ *
+ * <p>Populating or clearing a WarpManager does not call listeners.</p>
+ *
+ * @see WarpListenerChain
+ */
+public interface WarpListener {
+
+  /**
+   * Called when a Warp is added to the WarpManager.
+   *
+   * @param warp the added Warp
+   */
+  void onAddition(Warp warp);
+
+  /**
+   * Called when a Warp is removed from the WarpManager.
+   *
+   * @param warp the removed Warp
+   */
+  void onRemoval(Warp warp);
+
+  /**
+   * Called when multiple Warps are removed from the WarpManager at once. This method is called instead of {@link
+   * #onRemoval(Warp)} for each Warp.
+   *
+   * @param warps an immutable list of the removed Warps
+   */
+  void onBulkRemoval(List<Warp> warps);
+
+  /**
+   * Called when a value of a Warp is updated.
+   *
+   * @param warp the updated Warp
+   * @param type the type of the update
+   */
+  void onUpdate(Warp warp, UpdateType type);
+
+  /**
+   * Called when the same value of multiple Warps is updated at once. This method is called instead of {@link
+   * #onUpdate(Warp, UpdateType)} for each Warp.
+   *
+   * @param warps an immutable list of the updated Warps
+   * @param type  the type of the update
+   */
+  void onBulkUpdate(List<Warp> warps, UpdateType type);
+
+  /**
+   * Called when a group is invited to or uninvited from a Warp.
+   *
+   * @param warp    the Warp
+   * @param status  whether the group was invited or uninvited
+   * @param groupId the identifier of the group
+   */
+  void onGroupInvites(Warp warp, InvitationStatus status, String groupId);
+
+  /**
+   * Called when a player is invited to or uninvited from a Warp.
+   *
+   * @param warp    the Warp
+   * @param status  whether the player was invited or uninvited
+   * @param profile the profile of the player
+   */
+  void onPlayerInvites(Warp warp, InvitationStatus status, Profile profile);
+
+}
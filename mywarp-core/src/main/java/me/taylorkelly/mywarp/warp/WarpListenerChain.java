@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import com.google.common.collect.ImmutableList;
+
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.event.WarpInvitesEvent.InvitationStatus;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent.UpdateType;
+
+import java.util.List;
+
+/**
+ * An ordered chain of WarpListeners. Every call is passed to all listeners of the chain in the order they were given.
+ */
+public class WarpListenerChain implements WarpListener {
+
+  /**
+   * A chain without listeners.
+   */
+  public static final WarpListenerChain EMPTY = new WarpListenerChain();
+
+  private final ImmutableList<WarpListener> listeners;
+
+  /**
+   * Creates an instance that calls the given listeners in the given order.
+   *
+   * @param listeners the listeners
+   */
+  public WarpListenerChain(WarpListener... listeners) {
+    this(ImmutableList.copyOf(listeners));
+  }
+
+  /**
+   * Creates an instance that calls the given listeners in the given order.
+   *
+   * @param listeners the listeners
+   */
+  public WarpListenerChain(Iterable<? extends WarpListener> listeners) {
+    this.listeners = ImmutableList.copyOf(listeners);
+  }
+
+  /**
+   * Gets a chain that calls the given listener before all listeners of this chain.
+   *
+   * @param listener the listener
+   * @return the new chain
+   */
+  public WarpListenerChain prepend(WarpListener listener) {
+    return new WarpListenerChain(ImmutableList.<WarpListener>builder().add(listener).addAll(listeners).build());
+  }
+
+  @Override
+  public void onAddition(Warp warp) {
+    for (WarpListener listener : listeners) {
+      listener.onAddition(warp);
+    }
+  }
+
+  @Override
+  public void onRemoval(Warp warp) {
+    for (WarpListener listener : listeners) {
+      listener.onRemoval(warp);
+    }
+  }
+
+  @Override
+  public void onBulkRemoval(List<Warp> warps) {
+    for (WarpListener listener : listeners) {
+      listener.onBulkRemoval(warps);
+    }
+  }
+
+  @Override
+  public void onUpdate(Warp warp, UpdateType type) {
+    for (WarpListener listener : listeners) {
+      listener.onUpdate(warp, type);
+    }
+  }
+
+  @Override
+  public void onBulkUpdate(List<Warp> warps, UpdateType type) {
+    for (WarpListener listener : listeners) {
+      listener.onBulkUpdate(warps, type);
+    }
+  }
+
+  @Override
+  public void onGroupInvites(Warp warp, InvitationStatus status, String groupId) {
+    for (WarpListener listener : listeners) {
+      listener.onGroupInvites(warp, status, groupId);
+    }
+  }
+
+  @Override
+  public void onPlayerInvites(Warp warp, InvitationStatus status, Profile profile) {
+    for (WarpListener listener : listeners) {
+      listener.onPlayerInvites(warp, status, profile);
+    }
+  }
+
+}
@@ -23,8 +23,10 @@ import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 
 import me.taylorkelly.mywarp.util.MatchList;
+import me.taylorkelly.mywarp.util.profile.Profile;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Manages Warps and provides utility methods to get certain informations based on the Warps managed by it.
@@ -53,6 +55,38 @@ public interface WarpManager {
    */
   void remove(Warp warp);
 
+  /**
+   * Deletes all given Warps from this manager at once. Warps that are not managed by this manager are ignored.
+   * <p>Unlike calling {@link #remove(Warp)} for each Warp, the removal is persisted and reported as a single
+   * change.</p>
+   *
+   * @param warps the Warps
+   * @return the number of Warps that were removed
+   */
+  int removeAll(Iterable<Warp> warps);
+
+  /**
+   * Sets the creator of all given Warps at once. Warps that are not managed by this manager are ignored.
+   * <p>Unlike calling {@link Warp#setCreator(Profile)} for each Warp, the update is persisted and reported as a single
+   * change.</p>
+   *
+   * @param warps   the Warps
+   * @param creator the profile of the new creator
+   * @return the number of Warps that were updated
+   */
+  int setCreator(Iterable<Warp> warps, Profile creator);
+
+  /**
+   * Sets the type of all given Warps at once. Warps that are not managed by this manager are ignored.
+   * <p>Unlike calling {@link Warp#setType(Warp.Type)} for each Warp, the update is persisted and reported as a single
+   * change.</p>
+   *
+   * @param warps the Warps
+   * @param type  the new type
+   * @return the number of Warps that were updated
+   */
+  int setType(Iterable<Warp> warps, Warp.Type type);
+
   /**
    * Clears this manager, removing all Warps previously managed by it. Unlike {@link #remove(Warp)} this method must
    * only be used to <b>clear</b> the warp manager, it does not represent a removal of a warp.
@@ -103,4 +137,34 @@ public interface WarpManager {
    */
   MatchList getMatchingWarps(String filter, Predicate<Warp> predicate);
 
+  /**
+   * Gets all Warps whose name starts with the given prefix, ignoring case. The returned Iterable is a live view that
+   * lazily iterates matching Warps alphabetically, ignoring case, so callers that only need some of them do not pay
+   * for all of them. This manager must not be modified while the view is iterated.
+   *
+   * @param prefix the prefix
+   * @return all Warps whose name starts with the prefix
+   */
+  Iterable<Warp> getWarpsByPrefix(String prefix);
+
+  /**
+   * Gets all Warps fulfilling the given predicate whose name is within the given Damerau-Levenshtein distance of the
+   * given name, ignoring case. The returned Warps are ordered by their distance, closest first.
+   *
+   * @param name        the name
+   * @param maxDistance the maximum distance
+   * @param predicate   the predicate
+   * @return the similar Warps
+   */
+  List<Warp> getSimilarWarps(String name, int maxDistance, Predicate<Warp> predicate);
+
+  /**
+   * Executes the given query on the Warps managed by this manager. Unlike {@link #filter(Predicate)}, the returned
+   * result is a snapshot that is sorted, offset and limited as defined by the query.
+   *
+   * @param query the query
+   * @return the result of the query
+   */
+  WarpQueryResult query(WarpQuery query);
+
 }
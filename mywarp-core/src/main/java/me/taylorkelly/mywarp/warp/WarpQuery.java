@@ -0,0 +1,537 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+
+import me.taylorkelly.mywarp.Actor;
+import me.taylorkelly.mywarp.util.Vector3;
+import me.taylorkelly.mywarp.util.WarpUtils;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * An immutable query for Warps. Use a {@link Builder} to create instances.
+ * <p>A query combines any number of criteria that all need to apply to a Warp for it to match, a {@link SortKey} that
+ * defines the order of matching Warps and an offset and limit that define which part of this order is returned.
+ * Queries are executed by {@link WarpManager#query(WarpQuery)}.</p>
+ */
+public class WarpQuery {
+
+  private final String name;
+  private final UUID creator;
+  private final String creatorName;
+  private final UUID world;
+  private final String worldName;
+  private final Vector3 center;
+  private final int radius;
+  private final Warp.Type type;
+  private final Actor viewer;
+  private final SortKey sortKey;
+  private final int offset;
+  private final int limit;
+  private final boolean exactTotal;
+
+  /**
+   * Creates an instance from the given Builder.
+   *
+   * @param builder the Builder
+   */
+  private WarpQuery(Builder builder) {
+    this.name = builder.name;
+    this.creator = builder.creator;
+    this.creatorName = builder.creatorName;
+    this.world = builder.world;
+    this.worldName = builder.worldName;
+    this.center = builder.center;
+    this.radius = builder.radius;
+    this.type = builder.type;
+    this.viewer = builder.viewer;
+    this.sortKey = builder.sortKey;
+    this.offset = builder.offset;
+    this.limit = builder.limit;
+    this.exactTotal = builder.exactTotal;
+  }
+
+  /**
+   * Creates a new Builder.
+   *
+   * @return a new Builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the unique identifier of the creator matching Warps must have, if this query is restricted to a single
+   * creator.
+   *
+   * @return the unique identifier of the creator
+   */
+  public Optional<UUID> getCreator() {
+    return Optional.fromNullable(creator);
+  }
+
+  /**
+   * Gets the unique identifier of the world matching Warps must be located in, if this query is restricted to a single
+   * world.
+   *
+   * @return the unique identifier of the world
+   */
+  public Optional<UUID> getWorld() {
+    return Optional.fromNullable(world);
+  }
+
+  /**
+   * Gets the type matching Warps must have, if this query is restricted to a single type.
+   *
+   * @return the type
+   */
+  public Optional<Warp.Type> getType() {
+    return Optional.fromNullable(type);
+  }
+
+  /**
+   * Gets the key matching Warps are sorted by.
+   *
+   * @return the sort key
+   */
+  public SortKey getSortKey() {
+    return sortKey;
+  }
+
+  /**
+   * Gets the number of matching Warps that are skipped.
+   *
+   * @return the offset
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Gets the maximum number of matching Warps that are returned. Returns {@link Integer#MAX_VALUE} if the number is not
+   * limited.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Returns whether the exact number of matching Warps is counted, or if it is sufficient to know whether more Warps
+   * match than are returned.
+   *
+   * @return {@code true} if the exact number is counted
+   */
+  public boolean isExactTotal() {
+    return exactTotal;
+  }
+
+  /**
+   * Returns a predicate that evaluates to {@code true} if the Warp being tested matches all criteria of this query.
+   * Cheap criteria are evaluated first.
+   *
+   * @return the predicate
+   */
+  public Predicate<Warp> asPredicate() {
+    List<Predicate<Warp>> predicates = new ArrayList<Predicate<Warp>>();
+    if (type != null) {
+      predicates.add(WarpUtils.isType(type));
+    }
+    if (creator != null) {
+      predicates.add(new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          return input.getCreator().getUniqueId().equals(creator);
+        }
+      });
+    }
+    if (world != null) {
+      predicates.add(new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          return input.getWorldIdentifier().equals(world);
+        }
+      });
+    }
+    if (center != null) {
+      final long squaredRadius = (long) radius * radius;
+      predicates.add(new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          return input.getPosition().distanceSquared(center) <= squaredRadius;
+        }
+      });
+    }
+    if (name != null) {
+      predicates.add(new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          return StringUtils.containsIgnoreCase(input.getName(), name);
+        }
+      });
+    }
+    if (creatorName != null) {
+      predicates.add(new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          Optional<String> inputCreatorName = input.getCreator().getName();
+          return inputCreatorName.isPresent() && StringUtils.containsIgnoreCase(inputCreatorName.get(), creatorName);
+        }
+      });
+    }
+    if (worldName != null) {
+      predicates.add(new Predicate<Warp>() {
+        @Override
+        public boolean apply(Warp input) {
+          return StringUtils.containsIgnoreCase(input.getWorld().getName(), worldName);
+        }
+      });
+    }
+    if (viewer != null) {
+      predicates.add(WarpUtils.isViewable(viewer));
+    }
+    return Predicates.and(predicates);
+  }
+
+  /**
+   * Executes this query on the given candidates. The candidates must include all Warps that match this query, but may
+   * include others.
+   * <p>Instead of sorting all matching Warps, only the first {@code offset + limit} Warps are kept in a bounded heap
+   * while the candidates are scanned, so a single page of a large listing is selected in linear time.</p>
+   *
+   * @param candidates the candidates
+   * @return the result
+   */
+  WarpQueryResult select(Iterable<Warp> candidates) {
+    Predicate<Warp> predicate = asPredicate();
+    Comparator<Warp> order = sortKey.getComparator();
+    long bound = (long) offset + limit;
+
+    List<Warp> selected;
+    int total = 0;
+    if (bound >= Integer.MAX_VALUE) {
+      // unbounded, there is nothing to gain from a heap
+      selected = new ArrayList<Warp>();
+      for (Warp warp : candidates) {
+        if (predicate.apply(warp)) {
+          selected.add(warp);
+          total++;
+        }
+      }
+    } else {
+      // a max-heap whose head is the worst Warp that is still selected
+      Comparator<Warp> reversed = Collections.reverseOrder(order);
+      PriorityQueue<Warp> heap = new PriorityQueue<Warp>(Math.max(1, (int) Math.min(bound, 64)), reversed);
+      for (Warp warp : candidates) {
+        if (!predicate.apply(warp)) {
+          continue;
+        }
+        total++;
+        if (heap.size() < bound) {
+          heap.add(warp);
+        } else if (bound > 0 && order.compare(warp, heap.peek()) < 0) {
+          heap.poll();
+          heap.add(warp);
+        }
+      }
+      selected = new ArrayList<Warp>(heap);
+    }
+    Collections.sort(selected, order);
+
+    if (offset >= selected.size()) {
+      return new WarpQueryResult(ImmutableList.<Warp>of(), total);
+    }
+    int end = (int) Math.min(selected.size(), bound);
+    return new WarpQueryResult(ImmutableList.copyOf(selected.subList(offset, end)), total);
+  }
+
+  /**
+   * Executes this query on the given Warps, which must include all Warps that match this query and must be iterated in
+   * the order of this query's sort key.
+   * <p>As the Warps are already ordered, matching Warps are taken as they come. If the exact total is not required,
+   * the scan stops at the first match after the requested window, so the cost of a page is proportional to its position
+   * rather than to the number of Warps.</p>
+   *
+   * @param ordered the ordered Warps
+   * @return the result
+   */
+  WarpQueryResult selectOrdered(Iterable<Warp> ordered) {
+    Predicate<Warp> predicate = asPredicate();
+    long bound = (long) offset + limit;
+
+    ImmutableList.Builder<Warp> selected = ImmutableList.builder();
+    int total = 0;
+    for (Warp warp : ordered) {
+      if (!predicate.apply(warp)) {
+        continue;
+      }
+      if (total >= bound && !exactTotal) {
+        // proves that there is at least one more page
+        return new WarpQueryResult(selected.build(), total + 1, false);
+      }
+      if (total >= offset && total < bound) {
+        selected.add(warp);
+      }
+      total++;
+    }
+    return new WarpQueryResult(selected.build(), total);
+  }
+
+  /**
+   * The keys Warps can be sorted by.
+   */
+  public enum SortKey {
+    /**
+     * Sorts Warps by their natural ordering, alphabetically by name.
+     */
+    NAME(Ordering.<Warp>natural()),
+    /**
+     * Sorts Warps by their popularity, as defined by {@link Warp.PopularityComparator}.
+     */
+    POPULARITY(new Warp.PopularityComparator()),
+    /**
+     * Sorts Warps by their creation date, newest first.
+     */
+    CREATION_DATE(new Comparator<Warp>() {
+      @Override
+      public int compare(Warp w1, Warp w2) {
+        int result = w2.getCreationDate().compareTo(w1.getCreationDate());
+        return result != 0 ? result : w1.getName().compareTo(w2.getName());
+      }
+    });
+
+    private final Comparator<Warp> comparator;
+
+    /**
+     * Initializes this key.
+     *
+     * @param comparator the comparator that defines the order
+     */
+    SortKey(Comparator<Warp> comparator) {
+      this.comparator = comparator;
+    }
+
+    /**
+     * Gets the comparator that defines the order of this key.
+     *
+     * @return the comparator
+     */
+    public Comparator<Warp> getComparator() {
+      return comparator;
+    }
+  }
+
+  /**
+   * Builds {@link WarpQuery}s. Criteria that are not set do not restrict the query.
+   */
+  public static class Builder {
+
+    private String name;
+    private UUID creator;
+    private String creatorName;
+    private UUID world;
+    private String worldName;
+    private Vector3 center;
+    private int radius;
+    private Warp.Type type;
+    private Actor viewer;
+    private SortKey sortKey = SortKey.NAME;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+    private boolean exactTotal = true;
+
+    /**
+     * Creates an instance. Use {@link WarpQuery#builder()}.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Only matches Warps whose name contains the given string, ignoring case.
+     *
+     * @param name the string
+     * @return this Builder
+     */
+    public Builder withName(String name) {
+      this.name = checkNotNull(name);
+      return this;
+    }
+
+    /**
+     * Only matches Warps created by the player identified by the given unique identifier.
+     *
+     * @param creator the unique identifier of the creator
+     * @return this Builder
+     */
+    public Builder withCreator(UUID creator) {
+      this.creator = checkNotNull(creator);
+      return this;
+    }
+
+    /**
+     * Only matches Warps whose creator has a known name that contains the given string, ignoring case.
+     *
+     * @param creatorName the string
+     * @return this Builder
+     */
+    public Builder withCreatorName(String creatorName) {
+      this.creatorName = checkNotNull(creatorName);
+      return this;
+    }
+
+    /**
+     * Only matches Warps located in the world identified by the given unique identifier.
+     *
+     * @param world the unique identifier of the world
+     * @return this Builder
+     */
+    public Builder withWorld(UUID world) {
+      this.world = checkNotNull(world);
+      return this;
+    }
+
+    /**
+     * Only matches Warps located in a world whose name contains the given string, ignoring case.
+     *
+     * @param worldName the string
+     * @return this Builder
+     */
+    public Builder withWorldName(String worldName) {
+      this.worldName = checkNotNull(worldName);
+      return this;
+    }
+
+    /**
+     * Only matches Warps located in the world identified by the given unique identifier and within the given radius
+     * around the given position.
+     *
+     * @param world  the unique identifier of the world
+     * @param center the position
+     * @param radius the radius
+     * @return this Builder
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    public Builder withinRadius(UUID world, Vector3 center, int radius) {
+      checkArgument(radius >= 0, "The radius must not be negative.");
+      this.world = checkNotNull(world);
+      this.center = checkNotNull(center);
+      this.radius = radius;
+      return this;
+    }
+
+    /**
+     * Only matches Warps of the given type.
+     *
+     * @param type the type
+     * @return this Builder
+     */
+    public Builder withType(Warp.Type type) {
+      this.type = checkNotNull(type);
+      return this;
+    }
+
+    /**
+     * Only matches Warps that are viewable by the given Actor.
+     *
+     * @param viewer the Actor
+     * @return this Builder
+     */
+    public Builder viewableBy(Actor viewer) {
+      this.viewer = checkNotNull(viewer);
+      return this;
+    }
+
+    /**
+     * Sorts matching Warps by the given key. Defaults to {@link SortKey#NAME}.
+     *
+     * @param sortKey the key
+     * @return this Builder
+     */
+    public Builder sortedBy(SortKey sortKey) {
+      this.sortKey = checkNotNull(sortKey);
+      return this;
+    }
+
+    /**
+     * Skips the given number of matching Warps. Defaults to {@code 0}.
+     *
+     * @param offset the number of Warps to skip
+     * @return this Builder
+     * @throws IllegalArgumentException if the offset is negative
+     */
+    public Builder withOffset(int offset) {
+      checkArgument(offset >= 0, "The offset must not be negative.");
+      this.offset = offset;
+      return this;
+    }
+
+    /**
+     * Returns at most the given number of matching Warps. Defaults to no limit.
+     *
+     * @param limit the maximum number of Warps
+     * @return this Builder
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public Builder withLimit(int limit) {
+      checkArgument(limit >= 0, "The limit must not be negative.");
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * Does not require the exact number of matching Warps. The total of the result may then be a lower bound that only
+     * guarantees that more Warps match than are returned, which allows implementations to stop as soon as the requested
+     * Warps are found.
+     *
+     * @return this Builder
+     * @see WarpQueryResult#isTotalExact()
+     */
+    public Builder withoutExactTotal() {
+      this.exactTotal = false;
+      return this;
+    }
+
+    /**
+     * Builds the WarpQuery.
+     *
+     * @return the WarpQuery
+     */
+    public WarpQuery build() {
+      return new WarpQuery(this);
+    }
+  }
+}
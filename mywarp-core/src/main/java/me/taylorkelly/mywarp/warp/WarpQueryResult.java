@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The result of a {@link WarpQuery}.
+ */
+public class WarpQueryResult {
+
+  private final ImmutableList<Warp> warps;
+  private final int total;
+  private final boolean totalExact;
+
+  /**
+   * Creates an instance with an exact total.
+   *
+   * @param warps the Warps selected by the query
+   * @param total the number of Warps that matched the query, regardless of offset and limit
+   */
+  WarpQueryResult(ImmutableList<Warp> warps, int total) {
+    this(warps, total, true);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param warps      the Warps selected by the query
+   * @param total      the number of Warps that matched the query, regardless of offset and limit
+   * @param totalExact whether the total is exact or only a lower bound
+   */
+  WarpQueryResult(ImmutableList<Warp> warps, int total, boolean totalExact) {
+    this.warps = warps;
+    this.total = total;
+    this.totalExact = totalExact;
+  }
+
+  /**
+   * Gets the Warps selected by the query, in the order defined by the query's sort key.
+   *
+   * @return an immutable list of Warps
+   */
+  public ImmutableList<Warp> getWarps() {
+    return warps;
+  }
+
+  /**
+   * Gets the number of Warps that matched the query, regardless of the query's offset and limit.
+   *
+   * @return the total number of matching Warps
+   * @see #isTotalExact()
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * Returns whether {@link #getTotal()} is the exact number of matching Warps. This is always the case unless the
+   * query was built with {@link WarpQuery.Builder#withoutExactTotal()}, in which case the total may only be a lower
+   * bound that exceeds the number of Warps up to the end of the selected ones.
+   *
+   * @return {@code true} if the total is exact
+   */
+  public boolean isTotalExact() {
+    return totalExact;
+  }
+}
@@ -86,7 +86,7 @@ public class WarpSignManager {
       return;
     }
 
-    warp.teleport(player, FeeType.WARP_SIGN_USE);
+    warp.teleportAsync(player, FeeType.WARP_SIGN_USE);
 
   }
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp.event;
+
+/**
+ * The ways {@link WarpEvent}s can be dispatched to subscribers. Each mode is backed by an own EventBus, subscribers
+ * choose a mode by registering themselves on the corresponding EventBus.
+ *
+ * @see me.taylorkelly.mywarp.MyWarp#getEventBus(DispatchMode)
+ */
+public enum DispatchMode {
+
+  /**
+   * Every event is dispatched immediately, within the Thread that caused it.
+   */
+  IMMEDIATE,
+  /**
+   * Events are collected and dispatched in batches within the Thread that handles the game's logic, normally once per
+   * tick. Within a batch, multiple {@link WarpUpdateEvent}s for the same Warp and type are merged into one.
+   */
+  COALESCED,
+  /**
+   * Like {@link #COALESCED}, but batches are dispatched outside of the Thread that handles the game's logic. Batches
+   * never run in parallel, so subscribers receive events in order.
+   *
+   * <p>Events carry the live Warps, not copies, and Warps must only be read on the Thread that handles the game's
+   * logic. Subscribers may therefore only use the values of the event itself, such as the type of an update, and the
+   * name of each Warp, which never changes. To read anything else, a subscriber must pass the Warp to the {@link
+   * me.taylorkelly.mywarp.Game#getExecutor() Game's executor}, where it may also find that the Warp has changed or
+   * been removed since the event was posted.</p>
+   */
+  ASYNC
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp.pruning;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+
+import me.taylorkelly.mywarp.Settings;
+import me.taylorkelly.mywarp.timer.Duration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable policy that decides which Warps are stale. Use a {@link Builder} to create instances.
+ * <p>Warps younger than the minimum age are never stale. Older Warps are stale if at least one of the configured rules
+ * applies: the Warp is located on a world that is not loaded, it is visited at most the configured number of times per
+ * day or its creator has not played for the configured duration. A policy without rules considers no Warp stale.</p>
+ */
+public class PruningPolicy {
+
+  private final Duration minimumAge;
+  private final Double maximumVisitsPerDay;
+  private final Duration creatorInactivity;
+  private final boolean missingWorld;
+
+  /**
+   * Creates an instance from the given Builder.
+   *
+   * @param builder the Builder
+   */
+  private PruningPolicy(Builder builder) {
+    this.minimumAge = builder.minimumAge;
+    this.maximumVisitsPerDay = builder.maximumVisitsPerDay;
+    this.creatorInactivity = builder.creatorInactivity;
+    this.missingWorld = builder.missingWorld;
+  }
+
+  /**
+   * Creates a new Builder.
+   *
+   * @return a new Builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates the policy configured in the given Settings.
+   *
+   * @param settings the Settings
+   * @return the configured policy
+   */
+  public static PruningPolicy fromSettings(Settings settings) {
+    Builder builder = builder().withMinimumAge(settings.getPruningMinimumAge());
+    if (settings.getPruningMaximumVisitsPerDay() >= 0) {
+      builder.withMaximumVisitsPerDay(settings.getPruningMaximumVisitsPerDay());
+    }
+    if (settings.getPruningCreatorInactivity().get(TimeUnit.MILLISECONDS) > 0) {
+      builder.withCreatorInactivity(settings.getPruningCreatorInactivity());
+    }
+    if (settings.isPruningMissingWorld()) {
+      builder.withMissingWorld();
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the minimum age a Warp must have to be stale.
+   *
+   * @return the minimum age
+   */
+  public Duration getMinimumAge() {
+    return minimumAge;
+  }
+
+  /**
+   * Gets the number of visits per day a Warp must not exceed to be stale, if this rule is enabled.
+   *
+   * @return an Optional containing the maximum number of visits per day
+   */
+  public Optional<Double> getMaximumVisitsPerDay() {
+    return Optional.fromNullable(maximumVisitsPerDay);
+  }
+
+  /**
+   * Gets the duration the creator of a Warp must not have played for the Warp to be stale, if this rule is enabled.
+   *
+   * @return an Optional containing the duration of inactivity
+   */
+  public Optional<Duration> getCreatorInactivity() {
+    return Optional.fromNullable(creatorInactivity);
+  }
+
+  /**
+   * Returns whether Warps located on worlds that are not loaded are stale.
+   *
+   * @return true if Warps on missing worlds are stale
+   */
+  public boolean isMissingWorld() {
+    return missingWorld;
+  }
+
+  /**
+   * Returns whether this policy has at least one rule and may thus consider Warps stale.
+   *
+   * @return true if this policy has rules
+   */
+  public boolean hasRules() {
+    return missingWorld || maximumVisitsPerDay != null || creatorInactivity != null;
+  }
+
+  /**
+   * Builds {@link PruningPolicy}s.
+   */
+  public static class Builder {
+
+    private Duration minimumAge = new Duration(0, TimeUnit.MILLISECONDS);
+    private Double maximumVisitsPerDay;
+    private Duration creatorInactivity;
+    private boolean missingWorld;
+
+    /**
+     * Creates an instance.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Only considers Warps at least as old as the given duration stale.
+     *
+     * @param minimumAge the minimum age
+     * @return this Builder
+     */
+    public Builder withMinimumAge(Duration minimumAge) {
+      this.minimumAge = checkNotNull(minimumAge);
+      return this;
+    }
+
+    /**
+     * Considers Warps stale that are visited at most the given number of times per day.
+     *
+     * @param maximumVisitsPerDay the maximum number of visits per day
+     * @return this Builder
+     */
+    public Builder withMaximumVisitsPerDay(double maximumVisitsPerDay) {
+      checkArgument(maximumVisitsPerDay >= 0, "The number of visits per day must not be negative.");
+      this.maximumVisitsPerDay = maximumVisitsPerDay;
+      return this;
+    }
+
+    /**
+     * Considers Warps stale whose creator has not played for at least the given duration.
+     *
+     * @param creatorInactivity the duration of inactivity
+     * @return this Builder
+     */
+    public Builder withCreatorInactivity(Duration creatorInactivity) {
+      this.creatorInactivity = checkNotNull(creatorInactivity);
+      return this;
+    }
+
+    /**
+     * Considers Warps stale that are located on worlds that are not loaded.
+     *
+     * @return this Builder
+     */
+    public Builder withMissingWorld() {
+      this.missingWorld = true;
+      return this;
+    }
+
+    /**
+     * Builds the policy.
+     *
+     * @return the policy
+     */
+    public PruningPolicy build() {
+      return new PruningPolicy(this);
+    }
+  }
+
+}
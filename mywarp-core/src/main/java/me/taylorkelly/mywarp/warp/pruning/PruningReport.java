@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp.pruning;
+
+import com.google.common.collect.ImmutableListMultimap;
+
+/**
+ * The result of a single pruning run of a {@link WarpPruner}.
+ */
+public class PruningReport {
+
+  private final boolean dryRun;
+  private final int scanned;
+  private final ImmutableListMultimap<PruningReason, String> stale;
+  private final int removed;
+
+  /**
+   * Creates an instance.
+   *
+   * @param dryRun  whether the run was a dry-run that did not remove any Warps
+   * @param scanned the number of Warps evaluated
+   * @param stale   the names of all stale Warps, keyed by the reason they are stale
+   * @param removed the number of Warps actually removed
+   */
+  PruningReport(boolean dryRun, int scanned, ImmutableListMultimap<PruningReason, String> stale, int removed) {
+    this.dryRun = dryRun;
+    this.scanned = scanned;
+    this.stale = stale;
+    this.removed = removed;
+  }
+
+  /**
+   * Returns whether the run was a dry-run. Dry-runs only report stale Warps, but never remove them.
+   *
+   * @return true if the run was a dry-run
+   */
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  /**
+   * Gets the number of Warps that have been evaluated.
+   *
+   * @return the number of evaluated Warps
+   */
+  public int getScanned() {
+    return scanned;
+  }
+
+  /**
+   * Gets the names of all Warps that have been found stale, keyed by the reason they are stale. Each Warp is reported
+   * for the first reason that applies only.
+   *
+   * @return the names of stale Warps
+   */
+  public ImmutableListMultimap<PruningReason, String> getStale() {
+    return stale;
+  }
+
+  /**
+   * Gets the number of Warps that have been removed. This is always zero for dry-runs and might be lower than the
+   * number of stale Warps if some of them have been changed or removed while the run was in progress.
+   *
+   * @return the number of removed Warps
+   */
+  public int getRemoved() {
+    return removed;
+  }
+
+}
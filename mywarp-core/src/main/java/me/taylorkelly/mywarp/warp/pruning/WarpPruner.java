@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.warp.pruning;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import me.taylorkelly.mywarp.Game;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpManager;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds and removes stale Warps as defined by a {@link PruningPolicy}.
+ * <p>A run copies the values of the managed Warps into an immutable snapshot on the thread that handles the game's
+ * logic and evaluates the snapshot on the Game's asynchronous executor, so that thread is not blocked by the
+ * evaluation. Looking up when creators last played is not thread-safe, so it happens back on the Game's executor, once
+ * per creator and spread over several ticks. Stale Warps are then removed in a single bulk operation. Warps that have
+ * been replaced, removed or visited since the snapshot was taken are left untouched.</p>
+ */
+public class WarpPruner {
+
+  /**
+   * The maximum number of creators whose last played date is looked up within one tick.
+   */
+  private static final int LOOKUPS_PER_TICK = 100;
+
+  private final WarpManager warpManager;
+  private final Game game;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  /**
+   * Creates an instance.
+   *
+   * @param warpManager the WarpManager whose Warps are pruned
+   * @param game        the Game
+   */
+  public WarpPruner(WarpManager warpManager, Game game) {
+    this.warpManager = warpManager;
+    this.game = game;
+  }
+
+  /**
+   * Returns whether a pruning run is currently in progress.
+   *
+   * @return true if Warps are being pruned
+   */
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  /**
+   * Prunes all Warps that are stale under the given policy. If {@code dryRun} is {@code true}, stale Warps are only
+   * reported, but not removed. <p>This method must be called from the thread that handles the game's logic. Only one
+   * run may be in progress at a time, the returned future fails with an {@link IllegalStateException} if another run
+   * is still in progress.</p>
+   *
+   * @param policy the policy that decides which Warps are stale
+   * @param dryRun whether stale Warps should only be reported
+   * @return a future that provides the report once the run has finished
+   */
+  public ListenableFuture<PruningReport> prune(PruningPolicy policy, boolean dryRun) {
+    SettableFuture<PruningReport> future = SettableFuture.create();
+    if (!running.compareAndSet(false, true)) {
+      future.setException(new IllegalStateException("Warps are already being pruned."));
+      return future;
+    }
+
+    // Warps are mutable and must only be read on the game's thread, so their values are copied before evaluation
+    ImmutableList.Builder<WarpState> snapshot = ImmutableList.builder();
+    for (Warp warp : warpManager.filter(Predicates.<Warp>alwaysTrue())) {
+      snapshot.add(new WarpState(warp));
+    }
+    ImmutableSet.Builder<UUID> worldBuilder = ImmutableSet.builder();
+    for (LocalWorld world : game.getWorlds()) {
+      worldBuilder.add(world.getUniqueId());
+    }
+
+    final Run run =
+        new Run(snapshot.build(), policy, worldBuilder.build(), System.currentTimeMillis(), dryRun, future);
+    game.getAsyncExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          run.evaluate();
+        } catch (RuntimeException e) {
+          running.set(false);
+          run.future.setException(e);
+          return;
+        }
+        game.getExecutor().execute(run);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * A single pruning run. The snapshot is evaluated by {@link #evaluate()} on the Game's asynchronous executor, the
+   * remaining steps are executed by {@link #run()} on the Game's executor.
+   */
+  private class Run implements Runnable {
+
+    private final ImmutableList<WarpState> snapshot;
+    private final PruningPolicy policy;
+    private final ImmutableSet<UUID> loadedWorlds;
+    private final long nowMillis;
+    private final boolean dryRun;
+    private final SettableFuture<PruningReport> future;
+
+    private final ImmutableList.Builder<Candidate> candidates = ImmutableList.builder();
+    private final Map<UUID, Optional<Date>> lastPlayed = new HashMap<UUID, Optional<Date>>();
+    private ImmutableList<WarpState> inactivityChecks;
+    private Iterator<UUID> creators;
+
+    /**
+     * Creates an instance.
+     *
+     * @param snapshot     the snapshot of Warps
+     * @param policy       the policy
+     * @param loadedWorlds the unique identifiers of all worlds that were loaded when the snapshot was taken
+     * @param nowMillis    the time of evaluation in milliseconds since the epoch
+     * @param dryRun       whether stale Warps should only be reported
+     * @param future       the future that provides the report
+     */
+    Run(ImmutableList<WarpState> snapshot, PruningPolicy policy, ImmutableSet<UUID> loadedWorlds, long nowMillis,
+        boolean dryRun, SettableFuture<PruningReport> future) {
+      this.snapshot = snapshot;
+      this.policy = policy;
+      this.loadedWorlds = loadedWorlds;
+      this.nowMillis = nowMillis;
+      this.dryRun = dryRun;
+      this.future = future;
+    }
+
+    /**
+     * Evaluates all rules that do not need the game against the snapshot and collects the Warps whose creator's
+     * activity still needs to be checked.
+     */
+    void evaluate() {
+      ImmutableList.Builder<WarpState> checks = ImmutableList.builder();
+      ImmutableSet.Builder<UUID> creatorBuilder = ImmutableSet.builder();
+      if (policy.hasRules()) {
+        long minimumAgeMillis = policy.getMinimumAge().get(TimeUnit.MILLISECONDS);
+        for (WarpState warp : snapshot) {
+          if (nowMillis - warp.creationMillis < minimumAgeMillis) {
+            continue;
+          }
+          // cheap rules are evaluated first
+          if (policy.isMissingWorld() && !loadedWorlds.contains(warp.world)) {
+            candidates.add(new Candidate(warp, PruningReason.MISSING_WORLD));
+            continue;
+          }
+          if (policy.getMaximumVisitsPerDay().isPresent()
+              && warp.visitsPerDay <= policy.getMaximumVisitsPerDay().get()) {
+            candidates.add(new Candidate(warp, PruningReason.UNVISITED));
+            continue;
+          }
+          if (policy.getCreatorInactivity().isPresent()) {
+            checks.add(warp);
+            creatorBuilder.add(warp.creator);
+          }
+        }
+      }
+      inactivityChecks = checks.build();
+      // a creator typically owns several Warps, so each creator is only looked up once
+      creators = creatorBuilder.build().iterator();
+    }
+
+    @Override
+    public void run() {
+      try {
+        for (int i = 0; i < LOOKUPS_PER_TICK && creators.hasNext(); i++) {
+          UUID creator = creators.next();
+          lastPlayed.put(creator, game.getLastPlayed(creator));
+        }
+        if (creators.hasNext()) {
+          game.getExecutor().execute(this);
+          return;
+        }
+        for (WarpState warp : inactivityChecks) {
+          Optional<Date> date = lastPlayed.get(warp.creator);
+          // creators that are unknown to the game are not considered inactive
+          if (date.isPresent() && nowMillis - date.get().getTime() >= policy.getCreatorInactivity().get()
+              .get(TimeUnit.MILLISECONDS)) {
+            candidates.add(new Candidate(warp, PruningReason.INACTIVE_CREATOR));
+          }
+        }
+        future.set(apply(candidates.build(), snapshot.size(), dryRun));
+      } catch (RuntimeException e) {
+        future.setException(e);
+      }
+      running.set(false);
+    }
+  }
+
+  /**
+   * Removes the given stale Warps, unless {@code dryRun} is {@code true}, and reports the result.
+   *
+   * @param candidates the stale Warps
+   * @param scanned    the number of Warps evaluated
+   * @param dryRun     whether the stale Warps should only be reported
+   * @return the report
+   */
+  private PruningReport apply(Iterable<Candidate> candidates, int scanned, boolean dryRun) {
+    ImmutableListMultimap.Builder<PruningReason, String> stale = ImmutableListMultimap.builder();
+    ImmutableList.Builder<Warp> removals = ImmutableList.builder();
+
+    for (Candidate candidate : candidates) {
+      stale.put(candidate.reason, candidate.state.name);
+      if (!dryRun && candidate.isUnchanged()) {
+        removals.add(candidate.state.warp);
+      }
+    }
+    int removed = dryRun ? 0 : warpManager.removeAll(removals.build());
+    return new PruningReport(dryRun, scanned, stale.build(), removed);
+  }
+
+  /**
+   * The values of a Warp at the time the snapshot was taken. The Warp itself is only kept to identify it when stale
+   * Warps are removed and must not be read outside of the thread that handles the game's logic.
+   */
+  private static class WarpState {
+
+    private final Warp warp;
+    private final String name;
+    private final long creationMillis;
+    private final int visits;
+    private final double visitsPerDay;
+    private final UUID world;
+    private final UUID creator;
+
+    /**
+     * Creates an instance that holds the current values of the given Warp.
+     *
+     * @param warp the Warp
+     */
+    WarpState(Warp warp) {
+      this.warp = warp;
+      this.name = warp.getName();
+      this.creationMillis = warp.getCreationDate().getTime();
+      this.visits = warp.getVisits();
+      this.visitsPerDay = warp.getVisitsPerDay();
+      this.world = warp.getWorldIdentifier();
+      this.creator = warp.getCreator().getUniqueId();
+    }
+  }
+
+  /**
+   * A Warp that has been found stale.
+   */
+  private class Candidate {
+
+    private final WarpState state;
+    private final PruningReason reason;
+
+    /**
+     * Creates an instance.
+     *
+     * @param state  the values of the stale Warp at the time of evaluation
+     * @param reason the reason the Warp is stale
+     */
+    Candidate(WarpState state, PruningReason reason) {
+      this.state = state;
+      this.reason = reason;
+    }
+
+    /**
+     * Returns whether the Warp is still managed under its name and has not been visited since it was evaluated.
+     *
+     * @return true if the Warp is unchanged
+     */
+    boolean isUnchanged() {
+      Optional<Warp> current = warpManager.get(state.name);
+      return current.isPresent() && current.get() == state.warp && state.warp.getVisits() == state.visits;
+    }
+  }
+
+}
@@ -0,0 +1,12 @@
+-- -----------------------------------------------------
+-- Table "${schema}"."cooldown"
+-- -----------------------------------------------------
+CREATE TABLE "${schema}"."cooldown" (
+  "player_id" BIGINT PRIMARY KEY,
+  "expiry"    DATETIME NOT NULL,
+  FOREIGN KEY ("player_id")
+  REFERENCES "${schema}"."player" ("player_id")
+  ON DELETE CASCADE
+  ON UPDATE CASCADE
+);
+CREATE INDEX "cooldown_expiry_idx" ON "${schema}"."cooldown" ("expiry");
@@ -0,0 +1,15 @@
+-- -----------------------------------------------------
+-- Table `${schema}`.`cooldown`
+-- -----------------------------------------------------
+CREATE TABLE `${schema}`.`cooldown` (
+  `player_id` INT UNSIGNED NOT NULL,
+  `expiry`    DATETIME     NOT NULL,
+  PRIMARY KEY (`player_id`),
+  INDEX `cooldown_expiry_idx` (`expiry`),
+  CONSTRAINT `cooldown_player_id_fk`
+  FOREIGN KEY (`player_id`)
+  REFERENCES `${schema}`.`player` (`player_id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+)
+  ENGINE = InnoDB;
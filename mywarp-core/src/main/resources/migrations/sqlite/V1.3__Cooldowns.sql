@@ -0,0 +1,13 @@
+-- -----------------------------------------------------
+-- Table "cooldown"
+-- -----------------------------------------------------
+CREATE TABLE "cooldown" (
+  "player_id" INTEGER PRIMARY KEY NOT NULL CHECK ("player_id" >= 0),
+  "expiry"    DATETIME            NOT NULL,
+  CONSTRAINT "cooldown_player_id_fk"
+  FOREIGN KEY ("player_id")
+  REFERENCES "player" ("player_id")
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+);
+CREATE INDEX "cooldown.cooldown_expiry_idx" ON "cooldown" ("expiry");
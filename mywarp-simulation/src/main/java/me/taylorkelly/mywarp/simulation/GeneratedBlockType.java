@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import me.taylorkelly.mywarp.BlockFlags;
+import me.taylorkelly.mywarp.BlockType;
+
+/**
+ * The types of blocks that exist in a {@link GeneratedWorld}.
+ */
+enum GeneratedBlockType implements BlockType {
+
+  /**
+   * Air, entities may stand in it.
+   */
+  AIR(true, false),
+  /**
+   * Solid ground, entities may stand on it.
+   */
+  GROUND(false, true),
+  /**
+   * Lava, entities may neither stand in nor on it.
+   */
+  LAVA(false, false);
+
+  private final boolean safeToStandIn;
+  private final boolean safeToStandOn;
+  private final int flags;
+
+  /**
+   * Creates an instance.
+   *
+   * @param safeToStandIn whether it is safe to stand in this type
+   * @param safeToStandOn whether it is safe to stand on this type
+   */
+  GeneratedBlockType(boolean safeToStandIn, boolean safeToStandOn) {
+    this.safeToStandIn = safeToStandIn;
+    this.safeToStandOn = safeToStandOn;
+    this.flags = BlockFlags.of(this);
+  }
+
+  @Override
+  public boolean isSafeToStandIn() {
+    return safeToStandIn;
+  }
+
+  @Override
+  public boolean isSafeToStandOn() {
+    return safeToStandOn;
+  }
+
+  @Override
+  @Deprecated
+  public boolean isNotFullHeight() {
+    return false;
+  }
+
+  /**
+   * Gets the {@link BlockFlags} of this type.
+   *
+   * @return the flags
+   */
+  int getFlags() {
+    return flags;
+  }
+}
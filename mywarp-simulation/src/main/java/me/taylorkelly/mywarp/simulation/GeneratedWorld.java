@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import me.taylorkelly.mywarp.BlockType;
+import me.taylorkelly.mywarp.BlockVolume;
+import me.taylorkelly.mywarp.ChunkTicket;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.util.Vector3;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A LocalWorld whose terrain is generated from a seed. The terrain is a rolling landscape of solid ground with
+ * scattered lava pools on its surface. As the terrain never changes, the world is its own snapshot and may be read from
+ * any Thread.
+ */
+class GeneratedWorld implements LocalWorld {
+
+  /**
+   * The height of the world. Blocks outside of {@code 0} and this value are air.
+   */
+  static final int MAX_HEIGHT = 256;
+
+  private static final int BASE_HEIGHT = 64;
+  private static final int HEIGHT_VARIATION = 16;
+  private static final int CELL_SHIFT = 4;
+  private static final int CELL_SIZE = 1 << CELL_SHIFT;
+  private static final int POOL_SHIFT = 2;
+
+  private static final ChunkTicket NO_OP_TICKET = new ChunkTicket() {
+    @Override
+    public void release() {
+    }
+  };
+
+  private final String name;
+  private final UUID uniqueId;
+  private final long seed;
+  private final double lavaRatio;
+  private final AtomicLong reads = new AtomicLong();
+
+  /**
+   * Creates an instance.
+   *
+   * @param name      the name of the world
+   * @param seed      the seed the terrain is generated from
+   * @param lavaRatio the ratio of the surface that is covered by lava pools, between {@code 0} and {@code 1}
+   */
+  GeneratedWorld(String name, long seed, double lavaRatio) {
+    this.name = checkNotNull(name);
+    this.uniqueId = UUID.nameUUIDFromBytes(name.getBytes());
+    this.seed = seed;
+    this.lavaRatio = lavaRatio;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public UUID getUniqueId() {
+    return uniqueId;
+  }
+
+  @Override
+  public BlockType getBlock(Vector3 position) {
+    return typeAt((int) position.getFloorX(), (int) position.getFloorY(), (int) position.getFloorZ());
+  }
+
+  @Override
+  public int getFlags(int x, int y, int z) {
+    return typeAt(x, y, z).getFlags();
+  }
+
+  @Override
+  public BlockVolume snapshot(Vector3 center, int radius) {
+    return this;
+  }
+
+  @Override
+  public ChunkTicket preload(Vector3 center, int radius) {
+    return NO_OP_TICKET;
+  }
+
+  /**
+   * Gets the y coordinate of the highest solid block in the given column.
+   *
+   * @param x the x coordinate
+   * @param z the z coordinate
+   * @return the height of the surface
+   */
+  int getSurfaceHeight(int x, int z) {
+    int cellX = x >> CELL_SHIFT;
+    int cellZ = z >> CELL_SHIFT;
+    double fx = smooth((double) (x & (CELL_SIZE - 1)) / CELL_SIZE);
+    double fz = smooth((double) (z & (CELL_SIZE - 1)) / CELL_SIZE);
+
+    double top = lerp(random(cellX, cellZ), random(cellX + 1, cellZ), fx);
+    double bottom = lerp(random(cellX, cellZ + 1), random(cellX + 1, cellZ + 1), fx);
+    return BASE_HEIGHT + (int) Math.round((lerp(top, bottom, fz) * 2 - 1) * HEIGHT_VARIATION);
+  }
+
+  /**
+   * Gets the number of blocks that have been read from this world.
+   *
+   * @return the number of reads
+   */
+  long getReads() {
+    return reads.get();
+  }
+
+  /**
+   * Resets the number of blocks that have been read from this world.
+   */
+  void resetReads() {
+    reads.set(0);
+  }
+
+  /**
+   * Gets the type of the block at the given coordinates.
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param z the z coordinate
+   * @return the block type
+   */
+  private GeneratedBlockType typeAt(int x, int y, int z) {
+    reads.incrementAndGet();
+    if (y < 0 || y >= MAX_HEIGHT) {
+      return GeneratedBlockType.AIR;
+    }
+    int surface = getSurfaceHeight(x, z);
+    if (y > surface) {
+      return GeneratedBlockType.AIR;
+    }
+    if (y == surface && random((x >> POOL_SHIFT) ^ 0x5bd1e995, z >> POOL_SHIFT) < lavaRatio) {
+      return GeneratedBlockType.LAVA;
+    }
+    return GeneratedBlockType.GROUND;
+  }
+
+  /**
+   * Returns a pseudo random value between {@code 0} and {@code 1} that only depends on the given coordinates and the
+   * seed of this world.
+   *
+   * @param x the x coordinate
+   * @param z the z coordinate
+   * @return the random value
+   */
+  private double random(int x, int z) {
+    long hash = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (z * 0xC2B2AE3D27D4EB4FL);
+    hash = (hash ^ (hash >>> 31)) * 0xBF58476D1CE4E5B9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+    hash ^= hash >>> 31;
+    return (hash >>> 11) * 0x1.0p-53;
+  }
+
+  /**
+   * Smooths the given value, that must be between {@code 0} and {@code 1}, so that interpolated terrain has no edges.
+   *
+   * @param t the value
+   * @return the smoothed value
+   */
+  private static double smooth(double t) {
+    return t * t * (3 - 2 * t);
+  }
+
+  /**
+   * Linearly interpolates between the two given values.
+   *
+   * @param a the first value
+   * @param b the second value
+   * @param t the interpolation factor
+   * @return the interpolated value
+   */
+  private static double lerp(double a, double b, double t) {
+    return a + (b - a) * t;
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import me.taylorkelly.mywarp.storage.ConnectionConfiguration;
+import me.taylorkelly.mywarp.storage.RelationalDataService;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * A RelationalDataService that stores warps in an in-memory H2 database that exists as long as the simulation runs.
+ */
+class InMemoryDataService implements RelationalDataService {
+
+  private static final String URL = "jdbc:h2:mem:mywarp-simulation;DB_CLOSE_DELAY=-1";
+  private static final String USER = "sa";
+  private static final String PASSWORD = "";
+
+  private final JdbcConnectionPool dataSource = JdbcConnectionPool.create(URL, USER, PASSWORD);
+  private final ConnectionConfiguration config =
+      new ConnectionConfiguration(URL).setSchema("mywarp").setUser(USER).setPassword(PASSWORD);
+  private final ListeningExecutorService executorService =
+      MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor());
+
+  @Override
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  @Override
+  public ConnectionConfiguration getConfiguration() {
+    return config;
+  }
+
+  @Override
+  public ListeningExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  /**
+   * Shuts down the executor-service, waiting until all pending writes are executed, and disposes the database.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void shutdown() throws InterruptedException {
+    executorService.shutdown();
+    executorService.awaitTermination(30, TimeUnit.SECONDS);
+    dataSource.dispose();
+  }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latencies and summarizes them by percentiles. Samples may be recorded from any Thread.
+ */
+class LatencyRecorder {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] samples = new long[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Records a single latency.
+   *
+   * @param nanos the latency in nanoseconds
+   */
+  synchronized void record(long nanos) {
+    if (size == samples.length) {
+      samples = Arrays.copyOf(samples, size * 2);
+    }
+    samples[size++] = nanos;
+  }
+
+  /**
+   * Gets the number of recorded latencies.
+   *
+   * @return the number of samples
+   */
+  synchronized int getCount() {
+    return size;
+  }
+
+  /**
+   * Gets the number of recorded latencies that exceed the given threshold.
+   *
+   * @param threshold the threshold
+   * @param unit      the unit of the threshold
+   * @return the number of samples above the threshold
+   */
+  synchronized int countAbove(long threshold, TimeUnit unit) {
+    long nanos = unit.toNanos(threshold);
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (samples[i] > nanos) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Summarizes the recorded latencies as a single line with the mean, the 50th, 95th and 99th percentile and the
+   * maximum, all in milliseconds.
+   *
+   * @return the summary
+   */
+  synchronized String summarize() {
+    if (size == 0) {
+      return "no samples";
+    }
+    long[] sorted = Arrays.copyOf(samples, size);
+    Arrays.sort(sorted);
+
+    long sum = 0;
+    for (long sample : sorted) {
+      sum += sample;
+    }
+    return String.format("n=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms", size, toMillis(sum / size),
+                         toMillis(percentile(sorted, 0.5)), toMillis(percentile(sorted, 0.95)),
+                         toMillis(percentile(sorted, 0.99)), toMillis(sorted[size - 1]));
+  }
+
+  /**
+   * Gets the given percentile from the given sorted samples, using the nearest-rank method.
+   *
+   * @param sorted     the sorted samples
+   * @param percentile the percentile, between {@code 0} and {@code 1}
+   * @return the sample at the percentile
+   */
+  private static long percentile(long[] sorted, double percentile) {
+    int rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.max(rank - 1, 0)];
+  }
+
+  /**
+   * Converts the given nanoseconds to fractional milliseconds.
+   *
+   * @param nanos the nanoseconds
+   * @return the milliseconds
+   */
+  private static double toMillis(long nanos) {
+    return nanos / 1e6;
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import me.taylorkelly.mywarp.AbstractPlayer;
+import me.taylorkelly.mywarp.LocalWorld;
+import me.taylorkelly.mywarp.util.EulerDirection;
+import me.taylorkelly.mywarp.util.Vector3;
+import me.taylorkelly.mywarp.util.profile.Profile;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A player that exists only within the simulation. Instead of displaying messages, a simulated player counts them.
+ * <p>A simulated player has every permission except the ones that override restrictions, so that the simulation
+ * exercises the same checks regular players go through.</p>
+ */
+class SimulatedPlayer extends AbstractPlayer {
+
+  private static final String OVERRIDE_PERMISSION_PREFIX = "mywarp.override";
+  private static final double MAX_HEALTH = 20;
+
+  private final Profile profile;
+  private final AtomicInteger messages = new AtomicInteger();
+  private final AtomicInteger errors = new AtomicInteger();
+  private final AtomicInteger teleports = new AtomicInteger();
+
+  private volatile LocalWorld world;
+  private volatile Vector3 position;
+  private volatile EulerDirection rotation;
+
+  /**
+   * Creates an instance.
+   *
+   * @param profile  the profile of the player
+   * @param world    the world the player starts in
+   * @param position the position the player starts at
+   */
+  SimulatedPlayer(Profile profile, LocalWorld world, Vector3 position) {
+    this.profile = checkNotNull(profile);
+    this.world = checkNotNull(world);
+    this.position = checkNotNull(position);
+    this.rotation = new EulerDirection(0, 0, 0);
+  }
+
+  @Override
+  public String getName() {
+    return profile.getName().get();
+  }
+
+  @Override
+  public UUID getUniqueId() {
+    return profile.getUniqueId();
+  }
+
+  @Override
+  public Profile getProfile() {
+    return profile;
+  }
+
+  @Override
+  public void sendMessage(String msg) {
+    messages.incrementAndGet();
+  }
+
+  @Override
+  public void sendError(String msg) {
+    errors.incrementAndGet();
+  }
+
+  @Override
+  public boolean hasPermission(String node) {
+    return !node.startsWith(OVERRIDE_PERMISSION_PREFIX);
+  }
+
+  @Override
+  public Locale getLocale() {
+    return Locale.ENGLISH;
+  }
+
+  @Override
+  public void setCompassTarget(LocalWorld world, Vector3 position) {
+  }
+
+  @Override
+  public void resetCompass() {
+  }
+
+  @Override
+  public boolean hasGroup(String groupId) {
+    return false;
+  }
+
+  @Override
+  public double getHealth() {
+    return MAX_HEALTH;
+  }
+
+  @Override
+  public LocalWorld getWorld() {
+    return world;
+  }
+
+  @Override
+  public Vector3 getPosition() {
+    return position;
+  }
+
+  @Override
+  public EulerDirection getRotation() {
+    return rotation;
+  }
+
+  @Override
+  public void teleport(LocalWorld world, Vector3 position, EulerDirection rotation) {
+    this.world = world;
+    this.position = position;
+    this.rotation = rotation;
+    teleports.incrementAndGet();
+  }
+
+  /**
+   * Gets the number of messages this player received.
+   *
+   * @return the number of messages
+   */
+  int getMessages() {
+    return messages.get();
+  }
+
+  /**
+   * Gets the number of error messages this player received.
+   *
+   * @return the number of error messages
+   */
+  int getErrors() {
+    return errors.get();
+  }
+
+  /**
+   * Gets the number of times this player has been teleported.
+   *
+   * @return the number of teleports
+   */
+  int getTeleports() {
+    return teleports.get();
+  }
+
+}
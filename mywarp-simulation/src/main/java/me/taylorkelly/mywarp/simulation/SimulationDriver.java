@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import me.taylorkelly.mywarp.InitializationException;
+import me.taylorkelly.mywarp.MyWarp;
+import me.taylorkelly.mywarp.economy.FeeProvider;
+import me.taylorkelly.mywarp.teleport.TeleportManager.TeleportStatus;
+import me.taylorkelly.mywarp.util.EulerDirection;
+import me.taylorkelly.mywarp.util.Vector3;
+import me.taylorkelly.mywarp.util.i18n.LocaleManager;
+import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpBuilder;
+import me.taylorkelly.mywarp.warp.WarpQuery;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs MyWarp's core headlessly against a simulated platform and reports how it performs under a configurable
+ * workload.
+ * <p>The simulation runs ticks back to back on the calling Thread: in each tick, simulated players perform a
+ * number of operations, after which timers are advanced and the tasks that were scheduled for the tick are run. The
+ * latency of every operation and the duration of every tick are recorded and summarized once the simulation ends.</p>
+ * <p>As all randomness is derived from the workload's seed, two runs that only differ in the strategies MyWarp uses
+ * (e.g. {@code columnSearch=true} versus {@code columnSearch=false}) perform exactly the same operations and can be
+ * compared directly.</p>
+ */
+public class SimulationDriver {
+
+  private static final long TICK_BUDGET_MILLIS = 50;
+  private static final int MAX_DRAIN_TICKS = 1200;
+  private static final int WARP_SPREAD = 2000;
+  private static final int SEARCH_SPREAD = 16;
+  private static final int BURIAL_DEPTH = 3;
+  private static final int LIST_LIMIT = 9;
+
+  private final Workload workload;
+  private final Random random;
+  private final SimulationPlatform platform;
+  private final List<GeneratedWorld> worlds = new ArrayList<GeneratedWorld>();
+  private final List<String> warpNames = new ArrayList<String>();
+  private final Map<Workload.Operation, LatencyRecorder> operationLatencies =
+      new EnumMap<Workload.Operation, LatencyRecorder>(Workload.Operation.class);
+  private final LatencyRecorder teleportCompletions = new LatencyRecorder();
+  private final LatencyRecorder tickDurations = new LatencyRecorder();
+  private final AtomicInteger pendingTeleports = new AtomicInteger();
+  private final AtomicInteger failedTeleports = new AtomicInteger();
+  private final AtomicInteger cancelledTeleports = new AtomicInteger();
+
+  private MyWarp myWarp;
+  private int createdWarps;
+
+  /**
+   * Creates an instance that simulates the given workload.
+   *
+   * @param workload the workload
+   */
+  SimulationDriver(Workload workload) {
+    this.workload = workload;
+    this.random = new Random(workload.getSeed());
+    this.platform =
+        new SimulationPlatform(new SimulationSettings().setSafetyColumnSearch(workload.isColumnSearch())
+                                   .setTeleportQueueEnabled(workload.isTeleportQueue())
+                                   .setShardByWorld(workload.isShardByWorld())
+                                   .setCompactMemory(workload.isCompactMemory()));
+    for (Workload.Operation operation : Workload.Operation.values()) {
+      operationLatencies.put(operation, new LatencyRecorder());
+    }
+  }
+
+  /**
+   * Runs a simulation. Arguments are parsed as described in {@link Workload#parse(String[])}.
+   *
+   * @param args the arguments
+   * @throws Exception if the simulation fails
+   */
+  public static void main(String[] args) throws Exception {
+    Workload workload = Workload.parse(args);
+    System.out.println(workload);
+
+    SimulationDriver driver = new SimulationDriver(workload);
+    try {
+      driver.setup();
+      long start = System.nanoTime();
+      driver.run();
+      driver.report(System.nanoTime() - start);
+    } finally {
+      driver.platform.shutdown();
+    }
+  }
+
+  /**
+   * Sets up worlds, MyWarp, players and the initial warps.
+   *
+   * @throws InitializationException if MyWarp cannot be initialized
+   * @throws InterruptedException    if interrupted while waiting for the storage
+   * @throws ExecutionException      if the storage fails
+   */
+  private void setup() throws InitializationException, InterruptedException, ExecutionException {
+    SimulationGame game = platform.getGame();
+    for (int i = 0; i < workload.getWorlds(); i++) {
+      GeneratedWorld world = new GeneratedWorld("world" + i, random.nextLong(), workload.getLavaRatio());
+      worlds.add(world);
+      game.addWorld(world);
+    }
+
+    myWarp = new MyWarp(platform);
+    awaitIdle();
+
+    for (int i = 0; i < workload.getPlayers(); i++) {
+      UUID uniqueId = new UUID(workload.getSeed(), i);
+      GeneratedWorld world = randomWorld();
+      game.addPlayer(new SimulatedPlayer(platform.getProfileService().register(uniqueId, "player" + i), world,
+                                         surfacePosition(world, randomCoordinate(), randomCoordinate())));
+    }
+
+    List<SimulatedPlayer> players = game.getPlayers();
+    for (int i = 0; i < workload.getInitialWarps(); i++) {
+      GeneratedWorld world = randomWorld();
+      Vector3 position = surfacePosition(world, randomCoordinate(), randomCoordinate());
+      if (random.nextDouble() < workload.getUnsafeWarpRatio()) {
+        position = position.sub(0, BURIAL_DEPTH, 0);
+      }
+      Warp.Type type = random.nextBoolean() ? Warp.Type.PUBLIC : Warp.Type.PRIVATE;
+      addWarp("warp" + i, players.get(random.nextInt(players.size())), world, position, type);
+    }
+    awaitIdle();
+  }
+
+  /**
+   * Runs the configured number of ticks, then keeps on ticking until all teleports are completed.
+   */
+  private void run() {
+    SimulationGame game = platform.getGame();
+    TickExecutor executor = game.getExecutor();
+    List<SimulatedPlayer> players = game.getPlayers();
+
+    for (int i = 0; i < workload.getTicks(); i++) {
+      long start = System.nanoTime();
+      for (int j = 0; j < workload.getOperationsPerTick(); j++) {
+        perform(workload.nextOperation(random), players.get(random.nextInt(players.size())), executor.getTick());
+      }
+      tick();
+      tickDurations.record(System.nanoTime() - start);
+    }
+
+    int drained = 0;
+    while (pendingTeleports.get() > 0 && drained < MAX_DRAIN_TICKS) {
+      tick();
+      drained++;
+    }
+  }
+
+  /**
+   * Runs a single tick: advances timers and runs the tasks that are due.
+   */
+  private void tick() {
+    platform.getGame().getExecutor().runTick();
+    platform.getTimerService().tick();
+  }
+
+  /**
+   * Performs the given operation for the given player and records its latency.
+   *
+   * @param operation the operation
+   * @param player    the player
+   * @param tick      the current tick
+   */
+  private void perform(Workload.Operation operation, SimulatedPlayer player, long tick) {
+    LocaleManager.setLocale(player.getLocale());
+    long start = System.nanoTime();
+    switch (operation) {
+      case CREATE:
+        addWarp("created" + createdWarps++, player, (GeneratedWorld) player.getWorld(), player.getPosition(),
+                Warp.Type.PUBLIC);
+        break;
+      case TELEPORT:
+        Optional<Warp> warp = myWarp.getWarpManager().get(randomWarpName());
+        if (warp.isPresent() && warp.get().isUsable(player)) {
+          track(warp.get().teleportAsync(player, FeeProvider.FeeType.WARP_TO), tick);
+        }
+        break;
+      case LIST:
+        myWarp.getWarpManager().query(
+            WarpQuery.builder().viewableBy(player).sortedBy(WarpQuery.SortKey.POPULARITY).withLimit(LIST_LIMIT)
+                .build());
+        break;
+      case INVITE:
+        Optional<Warp> invited = myWarp.getWarpManager().get(randomWarpName());
+        if (invited.isPresent()) {
+          List<SimulatedPlayer> players = platform.getGame().getPlayers();
+          invited.get().invitePlayer(players.get(random.nextInt(players.size())).getProfile());
+        }
+        break;
+      case SEARCH:
+        GeneratedWorld world = (GeneratedWorld) player.getWorld();
+        Vector3 position = player.getPosition();
+        int x = (int) position.getFloorX() + random.nextInt(SEARCH_SPREAD * 2 + 1) - SEARCH_SPREAD;
+        int z = (int) position.getFloorZ() + random.nextInt(SEARCH_SPREAD * 2 + 1) - SEARCH_SPREAD;
+        myWarp.getTeleportManager()
+            .teleport(player, world, surfacePosition(world, x, z).sub(0, BURIAL_DEPTH, 0), player.getRotation());
+        break;
+      default:
+        throw new AssertionError("Unknown operation " + operation);
+    }
+    operationLatencies.get(operation).record(System.nanoTime() - start);
+  }
+
+  /**
+   * Tracks the given teleport until it is completed, recording the game time that passed until then.
+   *
+   * @param future the future of the teleport
+   * @param tick   the tick the teleport was requested in
+   */
+  private void track(final ListenableFuture<TeleportStatus> future, final long tick) {
+    pendingTeleports.incrementAndGet();
+    future.addListener(new Runnable() {
+      @Override
+      public void run() {
+        pendingTeleports.decrementAndGet();
+        long ticks = platform.getGame().getExecutor().getTick() - tick;
+        teleportCompletions.record(TimeUnit.MILLISECONDS.toNanos(ticks * TICK_BUDGET_MILLIS));
+        try {
+          if (future.get() == TeleportStatus.NONE) {
+            failedTeleports.incrementAndGet();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (CancellationException e) {
+          cancelledTeleports.incrementAndGet();
+        } catch (ExecutionException e) {
+          failedTeleports.incrementAndGet();
+        }
+      }
+    }, MoreExecutors.sameThreadExecutor());
+  }
+
+  /**
+   * Prints the results of the simulation.
+   *
+   * @param elapsedNanos the real time the simulation took
+   */
+  private void report(long elapsedNanos) {
+    int operations = 0;
+    for (LatencyRecorder recorder : operationLatencies.values()) {
+      operations += recorder.getCount();
+    }
+    double seconds = elapsedNanos / 1e9;
+    long reads = 0;
+    for (GeneratedWorld world : worlds) {
+      reads += world.getReads();
+    }
+
+    System.out.printf("Simulated %d ticks in %.2fs, %d operations (%.0f/s).%n", tickDurations.getCount(), seconds,
+                      operations, operations / seconds);
+    for (Map.Entry<Workload.Operation, LatencyRecorder> entry : operationLatencies.entrySet()) {
+      System.out.printf("  %-8s %s%n", entry.getKey(), entry.getValue().summarize());
+    }
+    System.out.printf("Teleport completion (game time): %s%n", teleportCompletions.summarize());
+    System.out.printf("  %d teleports failed, %d were cancelled, %d still pending.%n", failedTeleports.get(),
+                      cancelledTeleports.get(), pendingTeleports.get());
+    System.out.printf("Tick duration: %s%n", tickDurations.summarize());
+    System.out.printf("  %d ticks exceeded the budget of %dms.%n",
+                      tickDurations.countAbove(TICK_BUDGET_MILLIS, TimeUnit.MILLISECONDS), TICK_BUDGET_MILLIS);
+    System.out.printf("Blocks read: %d, warps: %d.%n", reads, myWarp.getWarpManager().getSize());
+  }
+
+  /**
+   * Creates a warp and adds it to MyWarp.
+   *
+   * @param name     the name of the warp
+   * @param creator  the creator of the warp
+   * @param world    the world of the warp
+   * @param position the position of the warp
+   * @param type     the type of the warp
+   */
+  private void addWarp(String name, SimulatedPlayer creator, GeneratedWorld world, Vector3 position, Warp.Type type) {
+    Warp warp =
+        new WarpBuilder(myWarp, name, creator.getProfile(), world.getUniqueId(), position, new EulerDirection(0, 0, 0))
+            .setType(type).build();
+    myWarp.getWarpManager().add(warp);
+    warpNames.add(name);
+  }
+
+  /**
+   * Blocks until all pending storage operations are executed and runs ticks until no task is left to run.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   * @throws ExecutionException   if a storage operation fails
+   */
+  private void awaitIdle() throws InterruptedException, ExecutionException {
+    TickExecutor executor = platform.getGame().getExecutor();
+    do {
+      platform.getDataService().getExecutorService().submit(new Callable<Void>() {
+        @Override
+        public Void call() {
+          return null;
+        }
+      }).get();
+      executor.runTick();
+    } while (executor.hasPendingTasks());
+  }
+
+  /**
+   * Gets the position right above the surface of the given world at the given coordinates.
+   *
+   * @param world the world
+   * @param x     the x coordinate
+   * @param z     the z coordinate
+   * @return the position
+   */
+  private Vector3 surfacePosition(GeneratedWorld world, int x, int z) {
+    return new Vector3(x + 0.5, world.getSurfaceHeight(x, z) + 1, z + 0.5);
+  }
+
+  /**
+   * Gets a random coordinate within the area warps are spread across.
+   *
+   * @return the coordinate
+   */
+  private int randomCoordinate() {
+    return random.nextInt(WARP_SPREAD * 2 + 1) - WARP_SPREAD;
+  }
+
+  /**
+   * Gets a random world.
+   *
+   * @return the world
+   */
+  private GeneratedWorld randomWorld() {
+    return worlds.get(random.nextInt(worlds.size()));
+  }
+
+  /**
+   * Gets the name of a random warp.
+   *
+   * @return the name
+   */
+  private String randomWarpName() {
+    return warpNames.get(random.nextInt(warpNames.size()));
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+
+import me.taylorkelly.mywarp.Game;
+import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.LocalWorld;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The game as simulated in memory. Logic runs within the ticks of a {@link TickExecutor}, asynchronous work on a
+ * thread-pool.
+ */
+class SimulationGame implements Game {
+
+  private final TickExecutor executor = new TickExecutor();
+  private final ExecutorService asyncExecutor = Executors.newCachedThreadPool();
+  private final ConcurrentMap<UUID, SimulatedPlayer> players = new MapMaker().makeMap();
+  private final Map<UUID, LocalWorld> worlds = new MapMaker().makeMap();
+  private final long startTime = System.currentTimeMillis();
+
+  @Override
+  public TickExecutor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  @Override
+  public Optional<LocalPlayer> getPlayer(String name) {
+    for (SimulatedPlayer player : players.values()) {
+      if (player.getName().equalsIgnoreCase(name)) {
+        return Optional.<LocalPlayer>of(player);
+      }
+    }
+    return Optional.absent();
+  }
+
+  @Override
+  public Optional<LocalPlayer> getPlayer(UUID identifier) {
+    return Optional.<LocalPlayer>fromNullable(players.get(identifier));
+  }
+
+  @Override
+  public Optional<Date> getLastPlayed(UUID identifier) {
+    if (players.containsKey(identifier)) {
+      return Optional.of(new Date(startTime));
+    }
+    return Optional.absent();
+  }
+
+  @Override
+  public ImmutableSet<LocalWorld> getWorlds() {
+    return ImmutableSet.copyOf(worlds.values());
+  }
+
+  @Override
+  public Optional<LocalWorld> getWorld(String name) {
+    for (LocalWorld world : worlds.values()) {
+      if (world.getName().equalsIgnoreCase(name)) {
+        return Optional.of(world);
+      }
+    }
+    return Optional.absent();
+  }
+
+  @Override
+  public Optional<LocalWorld> getWorld(UUID uniqueId) {
+    return Optional.fromNullable(worlds.get(uniqueId));
+  }
+
+  /**
+   * Adds the given world to this game.
+   *
+   * @param world the world
+   */
+  void addWorld(LocalWorld world) {
+    worlds.put(world.getUniqueId(), world);
+  }
+
+  /**
+   * Adds the given player to this game, making them online.
+   *
+   * @param player the player
+   */
+  void addPlayer(SimulatedPlayer player) {
+    players.put(player.getUniqueId(), player);
+  }
+
+  /**
+   * Gets all players that are online in this game.
+   *
+   * @return all online players
+   */
+  ImmutableList<SimulatedPlayer> getPlayers() {
+    return ImmutableList.copyOf(players.values());
+  }
+
+  /**
+   * Shuts down the asynchronous executor, blocking until running tasks are finished or the given timeout elapsed.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit    the unit of the timeout
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+    asyncExecutor.shutdown();
+    asyncExecutor.awaitTermination(timeout, unit);
+  }
+
+}
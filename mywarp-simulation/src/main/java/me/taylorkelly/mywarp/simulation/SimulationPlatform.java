@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import com.google.common.io.Files;
+
+import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.Platform;
+import me.taylorkelly.mywarp.economy.EconomyService;
+import me.taylorkelly.mywarp.economy.FeeProvider;
+import me.taylorkelly.mywarp.limits.LimitProvider;
+import me.taylorkelly.mywarp.storage.RelationalDataService;
+import me.taylorkelly.mywarp.timer.Duration;
+import me.taylorkelly.mywarp.timer.DurationProvider;
+import me.taylorkelly.mywarp.timer.TickingTimerService;
+import me.taylorkelly.mywarp.timer.TimerAction;
+import me.taylorkelly.mywarp.util.i18n.FolderSourcedControl;
+
+import java.io.File;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Platform the simulation runs on. Everything lives in memory, except for the data-folder that is a temporary
+ * directory.
+ * <p>Economy support and limits are not available, timers always run for a fixed duration.</p>
+ */
+class SimulationPlatform implements Platform {
+
+  private static final Duration TIMER_DURATION = new Duration(5, TimeUnit.SECONDS);
+
+  private final File dataFolder = Files.createTempDir();
+  private final ResourceBundle.Control control = new FolderSourcedControl(new File(dataFolder, "lang"));
+  private final SimulationSettings settings;
+  private final SimulationGame game = new SimulationGame();
+  private final InMemoryDataService dataService = new InMemoryDataService();
+  private final SimulationProfileService profileService = new SimulationProfileService();
+  private final TickingTimerService timerService = new TickingTimerService();
+
+  /**
+   * Creates an instance that uses the given settings.
+   *
+   * @param settings the settings
+   */
+  SimulationPlatform(SimulationSettings settings) {
+    this.settings = settings;
+  }
+
+  @Override
+  public void reload() {
+  }
+
+  @Override
+  public File getDataFolder() {
+    return dataFolder;
+  }
+
+  @Override
+  public SimulationSettings getSettings() {
+    return settings;
+  }
+
+  @Override
+  public ResourceBundle.Control getResourceBundleControl() {
+    return control;
+  }
+
+  @Override
+  public SimulationGame getGame() {
+    return game;
+  }
+
+  @Override
+  public RelationalDataService getDataService() {
+    return dataService;
+  }
+
+  @Override
+  public SimulationProfileService getProfileService() {
+    return profileService;
+  }
+
+  @Override
+  public EconomyService getEconomyService() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public TickingTimerService getTimerService() {
+    return timerService;
+  }
+
+  @Override
+  public FeeProvider getFeeProvider() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public LimitProvider getLimitProvider() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public DurationProvider getDurationProvider() {
+    return new DurationProvider() {
+      @Override
+      public Duration getDuration(LocalPlayer player, Class<? extends TimerAction<?>> clazz) {
+        return TIMER_DURATION;
+      }
+    };
+  }
+
+  /**
+   * Shuts down all services of this platform, blocking until pending work is finished.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void shutdown() throws InterruptedException {
+    game.shutdown(30, TimeUnit.SECONDS);
+    dataService.shutdown();
+  }
+
+}
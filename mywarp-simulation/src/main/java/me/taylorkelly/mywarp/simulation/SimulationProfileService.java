@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+
+import me.taylorkelly.mywarp.util.profile.NameProvidingProfileService;
+import me.taylorkelly.mywarp.util.profile.Profile;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A ProfileService that knows exactly the profiles of the players registered within the simulation.
+ */
+class SimulationProfileService implements NameProvidingProfileService {
+
+  private final ConcurrentMap<UUID, String> names = new MapMaker().makeMap();
+
+  /**
+   * Registers a profile with the given unique identifier and name.
+   *
+   * @param uniqueId the unique identifier
+   * @param name     the name
+   * @return the profile
+   */
+  Profile register(UUID uniqueId, String name) {
+    names.put(uniqueId, name);
+    return getByUniqueId(uniqueId);
+  }
+
+  @Override
+  public Optional<String> getName(UUID uniqueId) {
+    return Optional.fromNullable(names.get(uniqueId));
+  }
+
+  @Override
+  public Profile getByUniqueId(UUID uniqueId) {
+    return new LazyProfile(this, uniqueId);
+  }
+
+  @Override
+  public Optional<Profile> getByName(String name) {
+    for (Map.Entry<UUID, String> entry : names.entrySet()) {
+      if (entry.getValue().equalsIgnoreCase(name)) {
+        return Optional.of(getByUniqueId(entry.getKey()));
+      }
+    }
+    return Optional.absent();
+  }
+
+  @Override
+  public ImmutableList<Profile> getByName(Iterable<String> names) {
+    ImmutableList.Builder<Profile> builder = ImmutableList.builder();
+    for (String name : names) {
+      Optional<Profile> profile = getByName(name);
+      if (profile.isPresent()) {
+        builder.add(profile.get());
+      }
+    }
+    return builder.build();
+  }
+
+}
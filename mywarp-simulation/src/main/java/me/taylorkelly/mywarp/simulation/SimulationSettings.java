@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import com.google.common.collect.ImmutableList;
+
+import me.taylorkelly.mywarp.Settings;
+import me.taylorkelly.mywarp.timer.Duration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Settings of a simulation. Values default to the ones in MyWarp's default configuration, but limits, economy
+ * support, timers and pruning are disabled as the simulation has no platform to provide them.
+ * <p>The settings that change how MyWarp stores warps and teleports entities may be changed before MyWarp is created,
+ * so that several strategies can be compared under the same workload.</p>
+ */
+class SimulationSettings implements Settings {
+
+  private boolean compactMemory;
+  private boolean shardByWorld;
+  private boolean safetyColumnSearch;
+  private boolean teleportQueueEnabled;
+
+  /**
+   * Sets whether warps are stored in a compact, memory saving way.
+   *
+   * @param compactMemory {@code true} to store warps compactly
+   * @return this instance
+   */
+  SimulationSettings setCompactMemory(boolean compactMemory) {
+    this.compactMemory = compactMemory;
+    return this;
+  }
+
+  /**
+   * Sets whether warps are sharded by the world they are located in.
+   *
+   * @param shardByWorld {@code true} to shard warps by world
+   * @return this instance
+   */
+  SimulationSettings setShardByWorld(boolean shardByWorld) {
+    this.shardByWorld = shardByWorld;
+    return this;
+  }
+
+  /**
+   * Sets whether safe positions are searched column by column.
+   *
+   * @param safetyColumnSearch {@code true} to search column by column
+   * @return this instance
+   */
+  SimulationSettings setSafetyColumnSearch(boolean safetyColumnSearch) {
+    this.safetyColumnSearch = safetyColumnSearch;
+    return this;
+  }
+
+  /**
+   * Sets whether teleports beyond the per-tick budget are queued.
+   *
+   * @param teleportQueueEnabled {@code true} to queue teleports
+   * @return this instance
+   */
+  SimulationSettings setTeleportQueueEnabled(boolean teleportQueueEnabled) {
+    this.teleportQueueEnabled = teleportQueueEnabled;
+    return this;
+  }
+
+  @Override
+  public boolean isControlWorldAccess() {
+    return false;
+  }
+
+  @Override
+  public boolean isPreloadChunks() {
+    return false;
+  }
+
+  @Override
+  public boolean isCompactMemory() {
+    return compactMemory;
+  }
+
+  @Override
+  public boolean isShardByWorld() {
+    return shardByWorld;
+  }
+
+  @Override
+  public boolean isTeleportTamedHorses() {
+    return true;
+  }
+
+  @Override
+  public boolean isShowTeleportEffect() {
+    return false;
+  }
+
+  @Override
+  public Locale getLocalizationDefaultLocale() {
+    return Locale.ENGLISH;
+  }
+
+  @Override
+  public boolean isLocalizationPerPlayer() {
+    return false;
+  }
+
+  @Override
+  public boolean isSafetyEnabled() {
+    return true;
+  }
+
+  @Override
+  public int getSafetySearchRadius() {
+    return 5;
+  }
+
+  @Override
+  public boolean isSafetyColumnSearch() {
+    return safetyColumnSearch;
+  }
+
+  @Override
+  public boolean isTeleportQueueEnabled() {
+    return teleportQueueEnabled;
+  }
+
+  @Override
+  public int getTeleportQueueMaxTeleportsPerTick() {
+    return 5;
+  }
+
+  @Override
+  public long getTeleportQueueMaxNanosPerTick() {
+    return TimeUnit.MILLISECONDS.toNanos(10);
+  }
+
+  @Override
+  public boolean isWarpSignsEnabled() {
+    return false;
+  }
+
+  @Override
+  public List<String> getWarpSignsIdentifiers() {
+    return ImmutableList.of("MyWarp", "Warp");
+  }
+
+  @Override
+  public boolean isLimitsEnabled() {
+    return false;
+  }
+
+  @Override
+  public boolean isTimersEnabled() {
+    return false;
+  }
+
+  @Override
+  public boolean isTimersCooldownNotifyOnFinish() {
+    return false;
+  }
+
+  @Override
+  public boolean isTimersWarmupAbortOnDamage() {
+    return false;
+  }
+
+  @Override
+  public boolean isTimersWarmupAbortOnMove() {
+    return false;
+  }
+
+  @Override
+  public boolean isTimersWarmupNotifyOnStart() {
+    return true;
+  }
+
+  @Override
+  public boolean isEconomyEnabled() {
+    return false;
+  }
+
+  @Override
+  public boolean isEconomyInformAfterTransaction() {
+    return false;
+  }
+
+  @Override
+  public boolean isPruningEnabled() {
+    return false;
+  }
+
+  @Override
+  public Duration getPruningMinimumAge() {
+    return new Duration(90, TimeUnit.DAYS);
+  }
+
+  @Override
+  public double getPruningMaximumVisitsPerDay() {
+    return 0.05;
+  }
+
+  @Override
+  public Duration getPruningCreatorInactivity() {
+    return new Duration(180, TimeUnit.DAYS);
+  }
+
+  @Override
+  public boolean isPruningMissingWorld() {
+    return true;
+  }
+
+}
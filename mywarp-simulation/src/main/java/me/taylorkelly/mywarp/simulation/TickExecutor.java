@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import me.taylorkelly.mywarp.util.MyWarpLogger;
+
+import org.slf4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * An Executor that runs submitted tasks within simulated ticks, just like the Thread that handles a game's logic.
+ * Tasks may be submitted from any Thread, but are only executed by {@link #runTick()}. Tasks submitted while a tick
+ * runs are executed in the following tick.
+ */
+public class TickExecutor implements Executor {
+
+  private static final Logger log = MyWarpLogger.getLogger(TickExecutor.class);
+
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+  private volatile long tick;
+
+  @Override
+  public void execute(Runnable command) {
+    tasks.add(checkNotNull(command));
+  }
+
+  /**
+   * Runs a single tick, executing all tasks that have been submitted before the tick started.
+   *
+   * @return the number of executed tasks
+   */
+  public int runTick() {
+    tick++;
+    int pending = tasks.size();
+    int executed = 0;
+    while (executed < pending) {
+      Runnable task = tasks.poll();
+      if (task == null) {
+        break;
+      }
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        log.warn(String.format("A task failed in tick %d.", tick), e);
+      }
+      executed++;
+    }
+    return executed;
+  }
+
+  /**
+   * Gets the number of ticks that have been run.
+   *
+   * @return the current tick
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Returns whether tasks are waiting for the next tick.
+   *
+   * @return true if tasks are pending
+   */
+  public boolean hasPendingTasks() {
+    return !tasks.isEmpty();
+  }
+
+}
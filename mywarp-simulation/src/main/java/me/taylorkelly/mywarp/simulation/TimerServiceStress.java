@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import me.taylorkelly.mywarp.timer.AbortableTimerAction;
+import me.taylorkelly.mywarp.timer.Duration;
+import me.taylorkelly.mywarp.timer.TickingTimerService;
+import me.taylorkelly.mywarp.timer.TimerService.EvaluationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stresses a {@link TickingTimerService} with concurrent callers and verifies that it keeps its contract.
+ * <p>While the calling Thread advances the service tick after tick, a number of worker Threads start, query, cancel
+ * and abort timers on a small set of subjects, so most calls collide. Workers perform a fixed number of operations per
+ * tick and then wait for the next tick, so timers actually expire and are aborted while the workers are running.
+ * Once all workers are done, the remaining timers are run out and the following is verified:</p>
+ * <ul>
+ * <li>no timer action runs more than once and actions whose start was rejected never run,</li>
+ * <li>no two timers run on the same subject at the same time,</li>
+ * <li>every timer that runs does so in the tick it was due,</li>
+ * <li>no timer is left registered.</li>
+ * </ul>
+ * <p>Subjects with an even number are only ended by their action running or aborting, subjects with an odd number are
+ * also cancelled directly. Overlap is only verified on the former, as a direct cancel does not tell which timer it
+ * ended.</p>
+ */
+public class TimerServiceStress {
+
+  private static final int MAX_DURATION_TICKS = 120;
+  private static final long EXCLUSION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final int MAX_DRAIN_TICKS = 1200;
+  private static final int DUE_TOLERANCE_TICKS = 1;
+
+  private final TickingTimerService timerService = new TickingTimerService();
+  private final int threads;
+  private final int operations;
+  private final int operationsPerTick;
+  private final int subjects;
+  private final long seed;
+
+  private final AtomicReferenceArray<StressAction> live;
+  private final Queue<StressAction> started = new ConcurrentLinkedQueue<StressAction>();
+  private final Queue<StressAction> rejected = new ConcurrentLinkedQueue<StressAction>();
+  private final Queue<String> violations = new ConcurrentLinkedQueue<String>();
+  private final AtomicInteger queries = new AtomicInteger();
+  private final AtomicInteger cancels = new AtomicInteger();
+  private final AtomicInteger abortRequests = new AtomicInteger();
+
+  private volatile long ticks;
+
+  /**
+   * Creates an instance.
+   *
+   * @param threads           the number of worker Threads
+   * @param operations        the number of operations each worker performs
+   * @param operationsPerTick the number of operations each worker performs per tick
+   * @param subjects          the number of subjects timers run on
+   * @param seed              the seed all randomness is derived from
+   */
+  TimerServiceStress(int threads, int operations, int operationsPerTick, int subjects, long seed) {
+    this.threads = threads;
+    this.operations = operations;
+    this.operationsPerTick = operationsPerTick;
+    this.subjects = subjects;
+    this.seed = seed;
+    this.live = new AtomicReferenceArray<StressAction>(subjects);
+  }
+
+  /**
+   * Runs the stress test. Arguments are given as {@code key=value}, supported keys are {@code threads}, {@code
+   * operations} and {@code operationsPerTick} (both per thread), {@code subjects} and {@code seed}. Exits with status 1
+   * if any violation was found.
+   *
+   * @param args the arguments
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int threads = 8;
+    int operations = 100000;
+    int operationsPerTick = 20;
+    int subjects = 16;
+    long seed = 42;
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      checkArgument(separator > 0, "'%s' is not of the form key=value.", arg);
+      String key = arg.substring(0, separator);
+      String value = arg.substring(separator + 1);
+
+      if (key.equals("threads")) {
+        threads = Integer.parseInt(value);
+      } else if (key.equals("operations")) {
+        operations = Integer.parseInt(value);
+      } else if (key.equals("operationsPerTick")) {
+        operationsPerTick = Integer.parseInt(value);
+      } else if (key.equals("subjects")) {
+        subjects = Integer.parseInt(value);
+      } else if (key.equals("seed")) {
+        seed = Long.parseLong(value);
+      } else {
+        throw new IllegalArgumentException(String.format("'%s' is not a known key.", key));
+      }
+    }
+
+    TimerServiceStress stress = new TimerServiceStress(threads, operations, operationsPerTick, subjects, seed);
+    long start = System.nanoTime();
+    stress.run();
+    if (!stress.report(System.nanoTime() - start)) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Runs the workers while ticking the service on the calling Thread, then runs out all remaining timers.
+   *
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  private void run() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(threads);
+    List<Thread> workers = new ArrayList<Thread>();
+    for (int i = 0; i < threads; i++) {
+      final Random random = new Random(seed + i);
+      Thread worker = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < operations; j++) {
+              operate(random);
+              if ((j + 1) % operationsPerTick == 0) {
+                awaitTick();
+              }
+            }
+          } catch (RuntimeException e) {
+            violations.add("Worker failed: " + e);
+          } finally {
+            done.countDown();
+          }
+        }
+      }, "timer-stress-" + i);
+      workers.add(worker);
+      worker.start();
+    }
+
+    while (done.getCount() > 0) {
+      tick();
+      Thread.yield();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    for (int i = 0; i < MAX_DRAIN_TICKS && timerService.getRunningTimers() > 0; i++) {
+      tick();
+    }
+    // apply the cancellations that are still handed over to the wheel
+    tick();
+  }
+
+  /**
+   * Waits until the service has been advanced by at least one tick.
+   */
+  private void awaitTick() {
+    long seen = ticks;
+    while (ticks == seen) {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Advances the service by a single tick.
+   */
+  private void tick() {
+    timerService.tick();
+    ticks++;
+  }
+
+  /**
+   * Performs a single random operation on a random subject.
+   *
+   * @param random the Random used by the calling worker
+   */
+  private void operate(Random random) {
+    int subject = random.nextInt(subjects);
+    int operation = random.nextInt(10);
+
+    if (operation < 5) {
+      long startTick = ticks;
+      int duration = 1 + random.nextInt(MAX_DURATION_TICKS);
+      StressAction action = new StressAction(subject, startTick + duration);
+      if (timerService.startIfAbsent(subject, new Duration(duration * 50, TimeUnit.MILLISECONDS), action)) {
+        started.add(action);
+        if (subject % 2 == 0) {
+          claim(subject, action);
+        }
+      } else {
+        rejected.add(action);
+      }
+    } else if (operation < 8) {
+      queries.incrementAndGet();
+      EvaluationResult result = timerService.has(subject, StressAction.class);
+      if (result.isTimerRunning() && result.getDurationLeft().get().get(TimeUnit.MILLISECONDS) < 0) {
+        violations.add(String.format("Negative duration left for subject %d.", subject));
+      }
+    } else if (subject % 2 == 0) {
+      StressAction action = live.get(subject);
+      if (action != null) {
+        abortRequests.incrementAndGet();
+        action.requestAbort();
+      }
+    } else {
+      cancels.incrementAndGet();
+      timerService.cancel(subject, StressAction.class);
+    }
+  }
+
+  /**
+   * Marks the given action as the one running on the given subject. The previous timer on the subject may have been
+   * removed from the service a moment before its action gets to run, so the claim is retried for a while before it
+   * is reported as an overlap.
+   *
+   * @param subject the subject
+   * @param action  the action that has just been started
+   */
+  private void claim(int subject, StressAction action) {
+    long deadline = System.nanoTime() + EXCLUSION_TIMEOUT_NANOS;
+    while (!live.compareAndSet(subject, null, action)) {
+      if (System.nanoTime() - deadline > 0) {
+        violations.add(String.format("Two timers ran on subject %d at the same time.", subject));
+        return;
+      }
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Prints the results and all violations.
+   *
+   * @param elapsedNanos the nanoseconds the stress test took
+   * @return true if no violation was found
+   */
+  private boolean report(long elapsedNanos) {
+    int runs = 0;
+    int aborts = 0;
+    for (StressAction action : started) {
+      if (action.runs.get() > 1) {
+        violations.add(String.format("An action on subject %d ran %d times.", action.subject, action.runs.get()));
+      }
+      if (action.runs.get() == 1) {
+        runs++;
+        long late = action.ranInTick - action.dueTick;
+        if (Math.abs(late) > DUE_TOLERANCE_TICKS) {
+          violations.add(String.format("An action on subject %d ran %d ticks off.", action.subject, late));
+        }
+      }
+      if (action.aborted) {
+        aborts++;
+      }
+    }
+    for (StressAction action : rejected) {
+      if (action.runs.get() > 0) {
+        violations.add(String.format("A rejected action on subject %d ran.", action.subject));
+      }
+    }
+    if (timerService.getRunningTimers() > 0) {
+      violations.add(String.format("%d timers are still registered.", timerService.getRunningTimers()));
+    }
+
+    long operationsTotal = (long) threads * operations;
+    System.out.println(String.format("Ran %d operations on %d threads in %.2fs (%.0f/s) over %d ticks.",
+                                     operationsTotal, threads, elapsedNanos / 1e9,
+                                     operationsTotal / (elapsedNanos / 1e9), ticks));
+    System.out.println(String.format("  %d started, %d rejected, %d ran, %d aborted, %d queries, %d cancels, "
+                                     + "%d abort requests.", started.size(), rejected.size(), runs, aborts,
+                                     queries.get(), cancels.get(), abortRequests.get()));
+    if (violations.isEmpty()) {
+      System.out.println("No violations found.");
+      return true;
+    }
+    System.out.println(String.format("%d violations found:", violations.size()));
+    for (String violation : violations) {
+      System.out.println("  " + violation);
+    }
+    return false;
+  }
+
+  /**
+   * An action that records when and how often it runs.
+   */
+  private class StressAction extends AbortableTimerAction<Integer> {
+
+    private final int subject;
+    private final long dueTick;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private volatile boolean abortRequested;
+    private volatile boolean aborted;
+    private volatile long ranInTick;
+
+    /**
+     * Creates an instance.
+     *
+     * @param subject the subject the action runs on
+     * @param dueTick the tick the action is expected to run in
+     */
+    StressAction(int subject, long dueTick) {
+      super(subject);
+      this.subject = subject;
+      this.dueTick = dueTick;
+    }
+
+    /**
+     * Requests that the timer of this action is aborted on its next abort check.
+     */
+    void requestAbort() {
+      abortRequested = true;
+    }
+
+    @Override
+    public boolean abort() {
+      if (!abortRequested) {
+        return false;
+      }
+      aborted = true;
+      release();
+      return true;
+    }
+
+    @Override
+    public void run() {
+      ranInTick = ticks;
+      runs.incrementAndGet();
+      release();
+    }
+
+    /**
+     * Releases the subject of this action.
+     */
+    private void release() {
+      if (subject % 2 == 0 && !live.compareAndSet(subject, this, null)) {
+        violations.add(String.format("The action ending on subject %d was not the one running.", subject));
+      }
+    }
+  }
+
+}
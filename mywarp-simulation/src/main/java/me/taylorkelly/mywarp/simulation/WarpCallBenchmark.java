@@ -0,0 +1,455 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.eventbus.EventBus;
+
+import me.taylorkelly.mywarp.InitializationException;
+import me.taylorkelly.mywarp.LocalEntity;
+import me.taylorkelly.mywarp.LocalPlayer;
+import me.taylorkelly.mywarp.MyWarp;
+import me.taylorkelly.mywarp.economy.FeeProvider;
+import me.taylorkelly.mywarp.storage.WarpStorage;
+import me.taylorkelly.mywarp.teleport.TeleportManager.TeleportStatus;
+import me.taylorkelly.mywarp.util.EulerDirection;
+import me.taylorkelly.mywarp.util.Vector3;
+import me.taylorkelly.mywarp.util.profile.Profile;
+import me.taylorkelly.mywarp.warp.EventfulWarpListener;
+import me.taylorkelly.mywarp.warp.MemoryWarpManager;
+import me.taylorkelly.mywarp.warp.StorageWarpListener;
+import me.taylorkelly.mywarp.warp.Warp;
+import me.taylorkelly.mywarp.warp.WarpBuilder;
+import me.taylorkelly.mywarp.warp.event.WarpUpdateEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Compares the cost of calling a managed Warp that reports its changes to a listener chain with the cost of calling a
+ * Warp wrapped in the decorators MyWarp used before.
+ * <p>Both Warps are backed by the same kind of Warp and persist visits in a storage that does nothing and post the
+ * same events, so the difference is the cost of the wrapping. The decorators are reproduced on top of {@link
+ * ForwardingWarp} in the order MyWarp used to apply them: the index updater of the memory manager, then persistence,
+ * then events.</p>
+ * <p>Each round calls {@code getName()}, {@code isUsable(LocalEntity)} and {@code teleport(LocalPlayer)} on both Warps
+ * alternately, after a number of warm-up rounds that are not reported. The median and the fastest round are
+ * reported in nanoseconds per call.</p>
+ */
+public class WarpCallBenchmark {
+
+  private static final WarpStorage NO_OP_STORAGE = new NoOpWarpStorage();
+
+  private final SimulationPlatform platform = new SimulationPlatform(new SimulationSettings());
+  private final int iterations;
+  private final int teleportIterations;
+  private final int rounds;
+  private final int warmupRounds;
+
+  private Warp flattened;
+  private Warp decorated;
+  private SimulatedPlayer player;
+  private long sink;
+
+  /**
+   * Creates an instance.
+   *
+   * @param iterations         the number of calls of {@code getName()} and {@code isUsable(LocalEntity)} per round
+   * @param teleportIterations the number of calls of {@code teleport(LocalPlayer)} per round
+   * @param rounds             the number of reported rounds
+   * @param warmupRounds       the number of rounds that are run before the reported ones
+   */
+  WarpCallBenchmark(int iterations, int teleportIterations, int rounds, int warmupRounds) {
+    this.iterations = iterations;
+    this.teleportIterations = teleportIterations;
+    this.rounds = rounds;
+    this.warmupRounds = warmupRounds;
+  }
+
+  /**
+   * Runs the benchmark. Arguments are given as {@code key=value}, supported keys are {@code iterations}, {@code
+   * teleportIterations}, {@code rounds} and {@code warmupRounds}.
+   *
+   * @param args the arguments
+   * @throws Exception if MyWarp cannot be set up
+   */
+  public static void main(String[] args) throws Exception {
+    int iterations = 5000000;
+    int teleportIterations = 200000;
+    int rounds = 10;
+    int warmupRounds = 5;
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      checkArgument(separator > 0, "'%s' is not of the form key=value.", arg);
+      String key = arg.substring(0, separator);
+      String value = arg.substring(separator + 1);
+
+      if (key.equals("iterations")) {
+        iterations = Integer.parseInt(value);
+      } else if (key.equals("teleportIterations")) {
+        teleportIterations = Integer.parseInt(value);
+      } else if (key.equals("rounds")) {
+        rounds = Integer.parseInt(value);
+      } else if (key.equals("warmupRounds")) {
+        warmupRounds = Integer.parseInt(value);
+      } else {
+        throw new IllegalArgumentException(String.format("'%s' is not a known key.", key));
+      }
+    }
+
+    WarpCallBenchmark benchmark = new WarpCallBenchmark(iterations, teleportIterations, rounds, warmupRounds);
+    try {
+      benchmark.setup();
+      benchmark.run();
+    } finally {
+      benchmark.platform.shutdown();
+    }
+  }
+
+  /**
+   * Sets up MyWarp, a player and both Warps.
+   *
+   * @throws InitializationException if MyWarp cannot be initialized
+   * @throws InterruptedException    if interrupted while waiting for the storage
+   * @throws ExecutionException      if the storage fails
+   */
+  private void setup() throws InitializationException, InterruptedException, ExecutionException {
+    SimulationGame game = platform.getGame();
+    GeneratedWorld world = new GeneratedWorld("world", 0, 0);
+    game.addWorld(world);
+
+    MyWarp myWarp = new MyWarp(platform);
+    awaitIdle();
+
+    Profile creator = platform.getProfileService().register(new UUID(0, 0), "creator");
+    Vector3 position = new Vector3(0.5, world.getSurfaceHeight(0, 0) + 1, 0.5);
+    player = new SimulatedPlayer(platform.getProfileService().register(new UUID(0, 1), "player"), world, position);
+    game.addPlayer(player);
+
+    EulerDirection rotation = new EulerDirection(0, 0, 0);
+    flattened = new WarpBuilder(myWarp, "flattened", creator, world.getUniqueId(), position, rotation).build();
+    MemoryWarpManager manager =
+        new MemoryWarpManager(new StorageWarpListener(NO_OP_STORAGE), new EventfulWarpListener(new EventBus()));
+    manager.add(flattened);
+
+    Warp backing = new WarpBuilder(myWarp, "decorated", creator, world.getUniqueId(), position, rotation).build();
+    decorated = new EventfulWarp(new PersistentWarp(new IndexedWarp(backing)), new EventBus());
+  }
+
+  /**
+   * Runs all rounds and prints the results.
+   */
+  private void run() {
+    long[][] nanos = new long[Call.values().length * 2][rounds];
+    for (int round = -warmupRounds; round < rounds; round++) {
+      for (Call call : Call.values()) {
+        long flattenedNanos = measure(call, flattened);
+        long decoratedNanos = measure(call, decorated);
+        if (round >= 0) {
+          nanos[call.ordinal() * 2][round] = flattenedNanos;
+          nanos[call.ordinal() * 2 + 1][round] = decoratedNanos;
+        }
+      }
+    }
+
+    System.out.println(String.format("%d rounds after %d warm-up rounds, %d calls per round (%d for teleport).",
+                                     rounds, warmupRounds, iterations, teleportIterations));
+    for (Call call : Call.values()) {
+      int count = call == Call.TELEPORT ? teleportIterations : iterations;
+      long[] flattenedNanos = nanos[call.ordinal() * 2];
+      long[] decoratedNanos = nanos[call.ordinal() * 2 + 1];
+      Arrays.sort(flattenedNanos);
+      Arrays.sort(decoratedNanos);
+      double decoratedMedian = (double) decoratedNanos[rounds / 2] / count;
+      double flattenedMedian = (double) flattenedNanos[rounds / 2] / count;
+      System.out.println(String.format("  %-9s decorated: median=%.2fns min=%.2fns  listener chain: median=%.2fns "
+                                       + "min=%.2fns  (%.1fx)", call, decoratedMedian,
+                                       (double) decoratedNanos[0] / count, flattenedMedian,
+                                       (double) flattenedNanos[0] / count, decoratedMedian / flattenedMedian));
+    }
+    // printed so the calls cannot be optimized away
+    System.out.println(String.format("Checksum: %d, player teleported %d times.", sink, player.getTeleports()));
+  }
+
+  /**
+   * Measures a single round of the given call on the given Warp.
+   *
+   * @param call the call
+   * @param warp the Warp
+   * @return the nanoseconds the round took
+   */
+  private long measure(Call call, Warp warp) {
+    long start = System.nanoTime();
+    long checksum = 0;
+    switch (call) {
+      case GET_NAME:
+        for (int i = 0; i < iterations; i++) {
+          checksum += warp.getName().length();
+        }
+        break;
+      case IS_USABLE:
+        for (int i = 0; i < iterations; i++) {
+          if (warp.isUsable(player)) {
+            checksum++;
+          }
+        }
+        break;
+      case TELEPORT:
+        for (int i = 0; i < teleportIterations; i++) {
+          checksum += warp.teleport((LocalPlayer) player).ordinal();
+        }
+        break;
+      default:
+        throw new AssertionError(call);
+    }
+    long elapsed = System.nanoTime() - start;
+    sink += checksum;
+    return elapsed;
+  }
+
+  /**
+   * Runs the tasks that are pending on MyWarp's storage and the game's executor until both are idle.
+   *
+   * @throws InterruptedException if interrupted while waiting for the storage
+   * @throws ExecutionException   if the storage fails
+   */
+  private void awaitIdle() throws InterruptedException, ExecutionException {
+    TickExecutor executor = platform.getGame().getExecutor();
+    do {
+      platform.getDataService().getExecutorService().submit(new Callable<Void>() {
+        @Override
+        public Void call() {
+          return null;
+        }
+      }).get();
+      executor.runTick();
+    } while (executor.hasPendingTasks());
+  }
+
+  /**
+   * The calls that are measured.
+   */
+  private enum Call {
+    GET_NAME, IS_USABLE, TELEPORT
+  }
+
+  /**
+   * Reproduces the decorator the memory manager used to keep its indices current. It only intercepted changes of
+   * indexed values, none of which are measured.
+   */
+  private static class IndexedWarp extends ForwardingWarp {
+
+    private final Warp delegate;
+
+    /**
+     * Creates an instance that delegates to the given Warp.
+     *
+     * @param delegate the Warp
+     */
+    IndexedWarp(Warp delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected Warp delegate() {
+      return delegate;
+    }
+  }
+
+  /**
+   * Reproduces the decorator that persisted visits after each teleport.
+   */
+  private static class PersistentWarp extends ForwardingWarp {
+
+    private final Warp warp;
+
+    /**
+     * Creates an instance that works on top of the given warp.
+     *
+     * @param warp the warp
+     */
+    PersistentWarp(Warp warp) {
+      this.warp = warp;
+    }
+
+    @Override
+    protected Warp delegate() {
+      return warp;
+    }
+
+    @Override
+    public TeleportStatus teleport(LocalEntity entity) {
+      TeleportStatus ret = super.teleport(entity);
+      if (ret.isPositionModified()) {
+        NO_OP_STORAGE.updateVisits(warp);
+      }
+      return ret;
+    }
+
+    @Override
+    public TeleportStatus teleport(LocalPlayer player) {
+      TeleportStatus ret = super.teleport(player);
+      if (ret.isPositionModified()) {
+        NO_OP_STORAGE.updateVisits(warp);
+      }
+      return ret;
+    }
+
+    @Override
+    public TeleportStatus teleport(LocalPlayer player, FeeProvider.FeeType fee) {
+      TeleportStatus ret = super.teleport(player, fee);
+      if (ret.isPositionModified()) {
+        NO_OP_STORAGE.updateVisits(warp);
+      }
+      return ret;
+    }
+  }
+
+  /**
+   * Reproduces the decorator that posted an event after each teleport.
+   */
+  private static class EventfulWarp extends ForwardingWarp {
+
+    private final Warp warp;
+    private final EventBus eventBus;
+
+    /**
+     * Creates an instance that works on top of the given warp.
+     *
+     * @param warp     the warp
+     * @param eventBus the EventBus events are posted on
+     */
+    EventfulWarp(Warp warp, EventBus eventBus) {
+      this.warp = warp;
+      this.eventBus = eventBus;
+    }
+
+    @Override
+    protected Warp delegate() {
+      return warp;
+    }
+
+    @Override
+    public TeleportStatus teleport(LocalEntity entity) {
+      TeleportStatus ret = super.teleport(entity);
+      if (ret.isPositionModified()) {
+        eventBus.post(new WarpUpdateEvent(this, WarpUpdateEvent.UpdateType.VISITS));
+      }
+      return ret;
+    }
+
+    @Override
+    public TeleportStatus teleport(LocalPlayer player) {
+      TeleportStatus ret = super.teleport(player);
+      if (ret.isPositionModified()) {
+        eventBus.post(new WarpUpdateEvent(this, WarpUpdateEvent.UpdateType.VISITS));
+      }
+      return ret;
+    }
+
+    @Override
+    public TeleportStatus teleport(LocalPlayer player, FeeProvider.FeeType fee) {
+      TeleportStatus ret = super.teleport(player, fee);
+      if (ret.isPositionModified()) {
+        eventBus.post(new WarpUpdateEvent(this, WarpUpdateEvent.UpdateType.VISITS));
+      }
+      return ret;
+    }
+  }
+
+  /**
+   * A WarpStorage that stores nothing.
+   */
+  private static class NoOpWarpStorage implements WarpStorage {
+
+    @Override
+    public void addWarp(Warp warp) {
+    }
+
+    @Override
+    public void removeWarp(Warp warp) {
+    }
+
+    @Override
+    public void removeWarps(Collection<Warp> warps) {
+    }
+
+    @Override
+    public List<Warp> getWarps() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<Warp> getWarps(UUID worldIdentifier) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void inviteGroup(Warp warp, String groupId) {
+    }
+
+    @Override
+    public void invitePlayer(Warp warp, Profile playerProfile) {
+    }
+
+    @Override
+    public void uninviteGroup(Warp warp, String groupId) {
+    }
+
+    @Override
+    public void uninvitePlayer(Warp warp, Profile playerProfile) {
+    }
+
+    @Override
+    public void updateCreator(Warp warp) {
+    }
+
+    @Override
+    public void updateCreators(Collection<Warp> warps) {
+    }
+
+    @Override
+    public void updateLocation(Warp warp) {
+    }
+
+    @Override
+    public void updateType(Warp warp) {
+    }
+
+    @Override
+    public void updateTypes(Collection<Warp> warps) {
+    }
+
+    @Override
+    public void updateVisits(Warp warp) {
+    }
+
+    @Override
+    public void updateWelcomeMessage(Warp warp) {
+    }
+  }
+
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (C) 2011 - 2015, MyWarp team and contributors
+ *
+ * This file is part of MyWarp.
+ *
+ * MyWarp is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MyWarp is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MyWarp. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.taylorkelly.mywarp.simulation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Describes the workload of a simulation: how large the simulated server is, how long it runs, what its players do
+ * and which strategies MyWarp uses to handle it.
+ * <p>Instances are created by a {@link Builder} or parsed from {@code key=value} arguments.</p>
+ */
+class Workload {
+
+  /**
+   * The operations simulated players perform.
+   */
+  enum Operation {
+    /**
+     * Creates a warp at the player's position.
+     */
+    CREATE,
+    /**
+     * Teleports the player to a warp.
+     */
+    TELEPORT,
+    /**
+     * Lists the warps the player can view.
+     */
+    LIST,
+    /**
+     * Invites another player to a warp.
+     */
+    INVITE,
+    /**
+     * Teleports the player to an unsafe position, so that a safe position must be searched.
+     */
+    SEARCH
+  }
+
+  private final int players;
+  private final int worlds;
+  private final int initialWarps;
+  private final int ticks;
+  private final int operationsPerTick;
+  private final EnumMap<Operation, Integer> weights;
+  private final int totalWeight;
+  private final double unsafeWarpRatio;
+  private final double lavaRatio;
+  private final long seed;
+  private final boolean columnSearch;
+  private final boolean teleportQueue;
+  private final boolean shardByWorld;
+  private final boolean compactMemory;
+
+  /**
+   * Creates an instance from the given builder.
+   *
+   * @param builder the builder
+   */
+  private Workload(Builder builder) {
+    this.players = builder.players;
+    this.worlds = builder.worlds;
+    this.initialWarps = builder.initialWarps;
+    this.ticks = builder.ticks;
+    this.operationsPerTick = builder.operationsPerTick;
+    this.weights = new EnumMap<Operation, Integer>(builder.weights);
+    this.unsafeWarpRatio = builder.unsafeWarpRatio;
+    this.lavaRatio = builder.lavaRatio;
+    this.seed = builder.seed;
+    this.columnSearch = builder.columnSearch;
+    this.teleportQueue = builder.teleportQueue;
+    this.shardByWorld = builder.shardByWorld;
+    this.compactMemory = builder.compactMemory;
+
+    int total = 0;
+    for (int weight : weights.values()) {
+      total += weight;
+    }
+    this.totalWeight = total;
+  }
+
+  /**
+   * Creates a new Builder, initialized with the default workload.
+   *
+   * @return a new Builder
+   */
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Parses a workload from the given arguments. Each argument must have the form {@code key=value} where the key is
+   * the name of a Builder method without the {@code set} prefix, e.g. {@code players=500}. Weights of operations are
+   * set by the lowercase name of the operation followed by {@code Weight}, e.g. {@code teleportWeight=10}.
+   *
+   * @param args the arguments
+   * @return the parsed workload
+   * @throws IllegalArgumentException if an argument is malformed or unknown
+   */
+  static Workload parse(String[] args) {
+    Builder builder = builder();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      checkArgument(separator > 0, "'%s' is not of the form key=value.", arg);
+      String key = arg.substring(0, separator);
+      String value = arg.substring(separator + 1);
+
+      if (key.equals("players")) {
+        builder.setPlayers(Integer.parseInt(value));
+      } else if (key.equals("worlds")) {
+        builder.setWorlds(Integer.parseInt(value));
+      } else if (key.equals("initialWarps")) {
+        builder.setInitialWarps(Integer.parseInt(value));
+      } else if (key.equals("ticks")) {
+        builder.setTicks(Integer.parseInt(value));
+      } else if (key.equals("operationsPerTick")) {
+        builder.setOperationsPerTick(Integer.parseInt(value));
+      } else if (key.equals("unsafeWarpRatio")) {
+        builder.setUnsafeWarpRatio(Double.parseDouble(value));
+      } else if (key.equals("lavaRatio")) {
+        builder.setLavaRatio(Double.parseDouble(value));
+      } else if (key.equals("seed")) {
+        builder.setSeed(Long.parseLong(value));
+      } else if (key.equals("columnSearch")) {
+        builder.setColumnSearch(Boolean.parseBoolean(value));
+      } else if (key.equals("teleportQueue")) {
+        builder.setTeleportQueue(Boolean.parseBoolean(value));
+      } else if (key.equals("shardByWorld")) {
+        builder.setShardByWorld(Boolean.parseBoolean(value));
+      } else if (key.equals("compactMemory")) {
+        builder.setCompactMemory(Boolean.parseBoolean(value));
+      } else if (key.endsWith("Weight")) {
+        String operation = key.substring(0, key.length() - "Weight".length());
+        try {
+          builder.setWeight(Operation.valueOf(operation.toUpperCase()), Integer.parseInt(value));
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException(String.format("'%s' is not a known operation.", operation), e);
+        }
+      } else {
+        throw new IllegalArgumentException(String.format("'%s' is not a known key.", key));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Picks the next operation a player performs, weighted by the configured weights.
+   *
+   * @param random the source of randomness
+   * @return the next operation
+   */
+  Operation nextOperation(Random random) {
+    int pick = random.nextInt(totalWeight);
+    for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new AssertionError("Weights do not add up.");
+  }
+
+  /**
+   * Gets the number of simulated players.
+   *
+   * @return the number of players
+   */
+  int getPlayers() {
+    return players;
+  }
+
+  /**
+   * Gets the number of simulated worlds.
+   *
+   * @return the number of worlds
+   */
+  int getWorlds() {
+    return worlds;
+  }
+
+  /**
+   * Gets the number of warps that exist before the simulation starts.
+   *
+   * @return the number of initial warps
+   */
+  int getInitialWarps() {
+    return initialWarps;
+  }
+
+  /**
+   * Gets the number of ticks the simulation runs.
+   *
+   * @return the number of ticks
+   */
+  int getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Gets the number of operations that are performed in each tick.
+   *
+   * @return the number of operations per tick
+   */
+  int getOperationsPerTick() {
+    return operationsPerTick;
+  }
+
+  /**
+   * Gets the ratio of initial warps that are buried underground and thus require a search for a safe position.
+   *
+   * @return the ratio of unsafe warps
+   */
+  double getUnsafeWarpRatio() {
+    return unsafeWarpRatio;
+  }
+
+  /**
+   * Gets the ratio of the surface that is covered by lava.
+   *
+   * @return the ratio of lava
+   */
+  double getLavaRatio() {
+    return lavaRatio;
+  }
+
+  /**
+   * Gets the seed all randomness of the simulation is derived from.
+   *
+   * @return the seed
+   */
+  long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns whether safe positions are searched column by column.
+   *
+   * @return {@code true} if the column search is used
+   */
+  boolean isColumnSearch() {
+    return columnSearch;
+  }
+
+  /**
+   * Returns whether teleports beyond the per-tick budget are queued.
+   *
+   * @return {@code true} if teleports are queued
+   */
+  boolean isTeleportQueue() {
+    return teleportQueue;
+  }
+
+  /**
+   * Returns whether warps are sharded by world.
+   *
+   * @return {@code true} if warps are sharded
+   */
+  boolean isShardByWorld() {
+    return shardByWorld;
+  }
+
+  /**
+   * Returns whether warps are stored compactly.
+   *
+   * @return {@code true} if warps are stored compactly
+   */
+  boolean isCompactMemory() {
+    return compactMemory;
+  }
+
+  @Override
+  public String toString() {
+    return "Workload{players=" + players + ", worlds=" + worlds + ", initialWarps=" + initialWarps + ", ticks=" + ticks
+           + ", operationsPerTick=" + operationsPerTick + ", weights=" + weights + ", unsafeWarpRatio="
+           + unsafeWarpRatio + ", lavaRatio=" + lavaRatio + ", seed=" + seed + ", columnSearch=" + columnSearch
+           + ", teleportQueue=" + teleportQueue + ", shardByWorld=" + shardByWorld + ", compactMemory="
+           + compactMemory + "}";
+  }
+
+  /**
+   * Builds {@link Workload}s.
+   */
+  static class Builder {
+
+    private final EnumMap<Operation, Integer> weights = new EnumMap<Operation, Integer>(Operation.class);
+    private int players = 100;
+    private int worlds = 2;
+    private int initialWarps = 1000;
+    private int ticks = 1200;
+    private int operationsPerTick = 20;
+    private double unsafeWarpRatio = 0.2;
+    private double lavaRatio = 0.1;
+    private long seed = 42;
+    private boolean columnSearch;
+    private boolean teleportQueue;
+    private boolean shardByWorld;
+    private boolean compactMemory;
+
+    /**
+     * Creates an instance with the default workload.
+     */
+    private Builder() {
+      weights.put(Operation.CREATE, 5);
+      weights.put(Operation.TELEPORT, 55);
+      weights.put(Operation.LIST, 25);
+      weights.put(Operation.INVITE, 5);
+      weights.put(Operation.SEARCH, 10);
+    }
+
+    /**
+     * Sets the number of simulated players.
+     *
+     * @param players the number of players
+     * @return this Builder
+     */
+    Builder setPlayers(int players) {
+      checkArgument(players > 1, "At least two players are required.");
+      this.players = players;
+      return this;
+    }
+
+    /**
+     * Sets the number of simulated worlds.
+     *
+     * @param worlds the number of worlds
+     * @return this Builder
+     */
+    Builder setWorlds(int worlds) {
+      checkArgument(worlds > 0, "At least one world is required.");
+      this.worlds = worlds;
+      return this;
+    }
+
+    /**
+     * Sets the number of warps that exist before the simulation starts.
+     *
+     * @param initialWarps the number of initial warps
+     * @return this Builder
+     */
+    Builder setInitialWarps(int initialWarps) {
+      checkArgument(initialWarps > 0, "At least one warp is required.");
+      this.initialWarps = initialWarps;
+      return this;
+    }
+
+    /**
+     * Sets the number of ticks the simulation runs.
+     *
+     * @param ticks the number of ticks
+     * @return this Builder
+     */
+    Builder setTicks(int ticks) {
+      checkArgument(ticks > 0, "At least one tick is required.");
+      this.ticks = ticks;
+      return this;
+    }
+
+    /**
+     * Sets the number of operations that are performed in each tick.
+     *
+     * @param operationsPerTick the number of operations per tick
+     * @return this Builder
+     */
+    Builder setOperationsPerTick(int operationsPerTick) {
+      checkArgument(operationsPerTick >= 0, "The number of operations must not be negative.");
+      this.operationsPerTick = operationsPerTick;
+      return this;
+    }
+
+    /**
+     * Sets the weight of the given operation. The higher the weight, the more often the operation is performed.
+     *
+     * @param operation the operation
+     * @param weight    the weight
+     * @return this Builder
+     */
+    Builder setWeight(Operation operation, int weight) {
+      checkArgument(weight >= 0, "Weights must not be negative.");
+      weights.put(operation, weight);
+      return this;
+    }
+
+    /**
+     * Sets the ratio of initial warps that are buried underground.
+     *
+     * @param unsafeWarpRatio the ratio, between {@code 0} and {@code 1}
+     * @return this Builder
+     */
+    Builder setUnsafeWarpRatio(double unsafeWarpRatio) {
+      checkArgument(unsafeWarpRatio >= 0 && unsafeWarpRatio <= 1, "The ratio must be between 0 and 1.");
+      this.unsafeWarpRatio = unsafeWarpRatio;
+      return this;
+    }
+
+    /**
+     * Sets the ratio of the surface that is covered by lava.
+     *
+     * @param lavaRatio the ratio, between {@code 0} and {@code 1}
+     * @return this Builder
+     */
+    Builder setLavaRatio(double lavaRatio) {
+      checkArgument(lavaRatio >= 0 && lavaRatio <= 1, "The ratio must be between 0 and 1.");
+      this.lavaRatio = lavaRatio;
+      return this;
+    }
+
+    /**
+     * Sets the seed all randomness of the simulation is derived from.
+     *
+     * @param seed the seed
+     * @return this Builder
+     */
+    Builder setSeed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    /**
+     * Sets whether safe positions are searched column by column.
+     *
+     * @param columnSearch {@code true} to use the column search
+     * @return this Builder
+     */
+    Builder setColumnSearch(boolean columnSearch) {
+      this.columnSearch = columnSearch;
+      return this;
+    }
+
+    /**
+     * Sets whether teleports beyond the per-tick budget are queued.
+     *
+     * @param teleportQueue {@code true} to queue teleports
+     * @return this Builder
+     */
+    Builder setTeleportQueue(boolean teleportQueue) {
+      this.teleportQueue = teleportQueue;
+      return this;
+    }
+
+    /**
+     * Sets whether warps are sharded by world.
+     *
+     * @param shardByWorld {@code true} to shard warps
+     * @return this Builder
+     */
+    Builder setShardByWorld(boolean shardByWorld) {
+      this.shardByWorld = shardByWorld;
+      return this;
+    }
+
+    /**
+     * Sets whether warps are stored compactly.
+     *
+     * @param compactMemory {@code true} to store warps compactly
+     * @return this Builder
+     */
+    Builder setCompactMemory(boolean compactMemory) {
+      this.compactMemory = compactMemory;
+      return this;
+    }
+
+    /**
+     * Builds the Workload.
+     *
+     * @return the Workload
+     * @throws IllegalArgumentException if all weights are zero
+     */
+    Workload build() {
+      int total = 0;
+      for (int weight : weights.values()) {
+        total += weight;
+      }
+      checkArgument(total > 0, "At least one operation must have a positive weight.");
+      return new Workload(this);
+    }
+  }
+
+}